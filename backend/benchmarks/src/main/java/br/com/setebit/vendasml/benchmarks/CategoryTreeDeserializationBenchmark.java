@@ -0,0 +1,50 @@
+package br.com.setebit.vendasml.benchmarks;
+
+import br.com.setebit.vendasml.dto.CategoryResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Desserialização de árvores de CategoryResponse com CategorySettings completos em todos os nós
+ * (fanOut 6: profundidade 2 = 43 nós, 3 = 259 nós, 4 = 1555 nós)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CategoryTreeDeserializationBenchmark {
+
+    @Param({"2", "3", "4"})
+    int depth;
+
+    @Param({"6"})
+    int fanOut;
+
+    private ObjectMapper objectMapper;
+    private byte[] json;
+
+    @Setup
+    public void setUp() throws Exception {
+        objectMapper = Fixtures.objectMapper();
+        json = Fixtures.categoryTreeJson(objectMapper, depth, fanOut);
+    }
+
+    @Benchmark
+    public CategoryResponse deserialize() throws Exception {
+        return objectMapper.readValue(json, CategoryResponse.class);
+    }
+}
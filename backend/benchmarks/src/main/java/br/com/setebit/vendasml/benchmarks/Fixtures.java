@@ -0,0 +1,119 @@
+package br.com.setebit.vendasml.benchmarks;
+
+import br.com.setebit.vendasml.dto.ItemRequest;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Dados dos benchmarks, próximos dos payloads reais do Mercado Livre
+ */
+final class Fixtures {
+
+    private Fixtures() {
+    }
+
+    /**
+     * ObjectMapper com os mesmos padrões do Spring MVC / OpenFeign (ex: sem falhar em campos desconhecidos)
+     */
+    static ObjectMapper objectMapper() {
+        return Jackson2ObjectMapperBuilder.json().build();
+    }
+
+    /**
+     * Produto válido com descrição de {@code descriptionLength} caracteres e {@code pictures} imagens
+     */
+    static ItemRequest item(int descriptionLength, int pictures) {
+        StringBuilder description = new StringBuilder(descriptionLength);
+        String paragraph = "Produto novo, original, com nota fiscal e garantia de 12 meses. Envio imediato para todo o Brasil.\n";
+        while (description.length() < descriptionLength) {
+            description.append(paragraph, 0, Math.min(paragraph.length(), descriptionLength - description.length()));
+        }
+
+        List<ItemRequest.Picture> pictureList = new ArrayList<>(pictures);
+        for (int i = 0; i < pictures; i++) {
+            pictureList.add(new ItemRequest.Picture("https://http2.mlstatic.com/D_NQ_NP_" + (800000 + i) + "-MLB-O.jpg"));
+        }
+
+        return ItemRequest.builder()
+            .title("Fone de Ouvido Bluetooth Sem Fio com Cancelamento de Ruído Ativo e Estojo de Carga")
+            .category_id("MLB1055")
+            .price(349.90)
+            .currency_id("BRL")
+            .available_quantity(25)
+            .buying_mode("buy_it_now")
+            .condition("new")
+            .listing_type_id("gold_special")
+            .description(new ItemRequest.Description(description.toString()))
+            .pictures(pictureList)
+            .build();
+    }
+
+    /**
+     * JSON de uma árvore de categorias com {@code depth} níveis abaixo da raiz, {@code fanOut}
+     * filhos por nó e settings completos em todos os nós
+     */
+    static byte[] categoryTreeJson(ObjectMapper objectMapper, int depth, int fanOut) throws Exception {
+        return objectMapper.writeValueAsBytes(category(objectMapper, "MLB", depth, fanOut));
+    }
+
+    private static ObjectNode category(ObjectMapper objectMapper, String id, int depth, int fanOut) {
+        ObjectNode node = objectMapper.createObjectNode();
+        node.put("id", id);
+        node.put("name", "Categoria " + id);
+        node.set("settings", settings(objectMapper));
+        ArrayNode children = node.putArray("children_categories");
+        if (depth > 0) {
+            for (int i = 0; i < fanOut; i++) {
+                children.add(category(objectMapper, id + i, depth - 1, fanOut));
+            }
+        }
+        return node;
+    }
+
+    private static ObjectNode settings(ObjectMapper objectMapper) {
+        ObjectNode settings = objectMapper.createObjectNode();
+        settings.put("adult_content", false);
+        settings.put("buying_allowed", true);
+        settings.putArray("buying_modes").add("buy_it_now").add("auction");
+        settings.put("catalog_domain", "MLB-HEADPHONES");
+        settings.put("coverage_areas", "not_allowed");
+        settings.putArray("currencies").add("BRL");
+        settings.put("fragile", false);
+        settings.put("immediate_payment", "required");
+        settings.putArray("item_conditions").add("not_specified").add("used").add("new");
+        settings.put("items_reviews_allowed", false);
+        settings.put("listing_allowed", true);
+        settings.put("max_description_length", 50000);
+        settings.put("max_pictures_per_item", 12);
+        settings.put("max_sub_title_length", 70);
+        settings.put("max_title_length", 60);
+        settings.putNull("maximum_price");
+        settings.put("minimum_price", 8);
+        settings.putNull("mirror_category");
+        settings.putNull("mirror_master_category");
+        settings.put("price", "required");
+        settings.put("reservation_allowed", "not_allowed");
+        settings.putArray("restrictions");
+        settings.put("rounded_address", false);
+        settings.put("seller_contact", "not_allowed");
+        settings.putArray("shipping_modes").add("custom").add("not_specified").add("me2").add("me1");
+        settings.putArray("shipping_options").add("custom").add("carrier");
+        settings.put("shipping_profile", "optional");
+        settings.put("show_contact_information", false);
+        settings.put("simple_shipping", "optional");
+        settings.put("stock", "required");
+        settings.put("sub_vertical", "consumer_electronics");
+        settings.put("subscribable", false);
+        settings.putArray("tags");
+        settings.put("vertical", "consumer_electronics");
+        settings.put("vip_subdomain", "produto");
+        settings.putArray("buyer_protection_programs").add("delivery").add("undefined");
+        settings.put("status", "enabled");
+        return settings;
+    }
+}
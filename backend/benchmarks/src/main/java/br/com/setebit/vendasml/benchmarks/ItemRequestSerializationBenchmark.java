@@ -0,0 +1,54 @@
+package br.com.setebit.vendasml.benchmarks;
+
+import br.com.setebit.vendasml.dto.ItemRequest;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serialização (corpo do POST/PUT /items) e leitura de volta de um ItemRequest com 12 imagens,
+ * variando o tamanho da descrição até o limite de 50000 caracteres
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ItemRequestSerializationBenchmark {
+
+    @Param({"200", "5000", "50000"})
+    int descriptionLength;
+
+    private ObjectMapper objectMapper;
+    private ItemRequest item;
+    private byte[] json;
+
+    @Setup
+    public void setUp() throws Exception {
+        objectMapper = Fixtures.objectMapper();
+        item = Fixtures.item(descriptionLength, 12);
+        json = objectMapper.writeValueAsBytes(item);
+    }
+
+    @Benchmark
+    public byte[] serialize() throws Exception {
+        return objectMapper.writeValueAsBytes(item);
+    }
+
+    @Benchmark
+    public ItemRequest deserialize() throws Exception {
+        return objectMapper.readValue(json, ItemRequest.class);
+    }
+}
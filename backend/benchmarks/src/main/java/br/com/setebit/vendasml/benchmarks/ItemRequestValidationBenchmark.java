@@ -0,0 +1,70 @@
+package br.com.setebit.vendasml.benchmarks;
+
+import br.com.setebit.vendasml.dto.ItemRequest;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import jakarta.validation.ValidatorFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bean Validation do ItemRequest (@Valid dos endpoints, lotes e importação): item válido e
+ * item com várias violações (a interpolação das mensagens só acontece no segundo caso)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ItemRequestValidationBenchmark {
+
+    private ValidatorFactory validatorFactory;
+    private Validator validator;
+    private ItemRequest valid;
+    private ItemRequest invalid;
+
+    @Setup
+    public void setUp() {
+        validatorFactory = Validation.buildDefaultValidatorFactory();
+        validator = validatorFactory.getValidator();
+        valid = Fixtures.item(5000, 12);
+
+        invalid = Fixtures.item(5000, 12);
+        invalid.setTitle(" ");
+        invalid.setPrice(0.0);
+        invalid.setCurrency_id("real");
+        invalid.setAvailable_quantity(0);
+        invalid.setPictures(new ArrayList<>(Fixtures.item(0, 14).getPictures()));
+        invalid.getPictures().get(0).setSource("");
+    }
+
+    @TearDown
+    public void tearDown() {
+        validatorFactory.close();
+    }
+
+    @Benchmark
+    public Set<ConstraintViolation<ItemRequest>> validItem() {
+        return validator.validate(valid);
+    }
+
+    @Benchmark
+    public Set<ConstraintViolation<ItemRequest>> invalidItem() {
+        return validator.validate(invalid);
+    }
+}
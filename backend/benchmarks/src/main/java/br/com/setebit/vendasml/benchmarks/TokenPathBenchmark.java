@@ -0,0 +1,150 @@
+package br.com.setebit.vendasml.benchmarks;
+
+import br.com.setebit.vendasml.client.MercadoLivreAuthClient;
+import br.com.setebit.vendasml.dto.TokenResponse;
+import br.com.setebit.vendasml.entity.TokenEntity;
+import br.com.setebit.vendasml.repository.TokenRepository;
+import br.com.setebit.vendasml.service.MercadoLivreService;
+import br.com.setebit.vendasml.service.TokenCache;
+import br.com.setebit.vendasml.service.TokenRefreshCoordinator;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.util.ReflectionUtils;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Proxy;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Caminho de decisão do getValidAccessToken, sem banco nem rede: repositório e cliente OAuth
+ * são substituídos por implementações em memória.
+ *
+ * <ul>
+ *   <li>needsRefresh: a checagem do TokenEntity, para token longe e perto de expirar</li>
+ *   <li>freshToken: acerto no TokenCache, token fora do limite de refresh (caso comum)</li>
+ *   <li>expiringToken: token dentro do limite; toda chamada passa pelo single-flight e pelo refresh</li>
+ * </ul>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TokenPathBenchmark {
+
+    private static final long REFRESH_THRESHOLD_SECONDS = 300;
+    private static final String FRESH_USER = "100";
+    private static final String EXPIRING_USER = "200";
+
+    private TokenEntity freshEntity;
+    private TokenEntity expiringEntity;
+    private MercadoLivreService service;
+
+    @Setup
+    public void setUp() {
+        freshEntity = token(FRESH_USER, 6 * 3600);
+        expiringEntity = token(EXPIRING_USER, 60);
+
+        Map<String, TokenEntity> rows = new ConcurrentHashMap<>(Map.of(
+            FRESH_USER, token(FRESH_USER, 6 * 3600),
+            EXPIRING_USER, token(EXPIRING_USER, 60)));
+        TokenRepository repository = inMemoryRepository(rows);
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+        service = new MercadoLivreService(
+            refreshingAuthClient(), null, repository,
+            new TokenCache(repository, meterRegistry, 10_000),
+            new TokenRefreshCoordinator(meterRegistry, 10_000),
+            null, null, null, null, null, meterRegistry, null);
+        setField(service, "refreshThresholdSeconds", REFRESH_THRESHOLD_SECONDS);
+        setField(service, "clientId", "client-id");
+        setField(service, "clientSecret", "client-secret");
+    }
+
+    @Benchmark
+    public boolean needsRefreshFresh() {
+        return freshEntity.needsRefresh(REFRESH_THRESHOLD_SECONDS);
+    }
+
+    @Benchmark
+    public boolean needsRefreshExpiring() {
+        return expiringEntity.needsRefresh(REFRESH_THRESHOLD_SECONDS);
+    }
+
+    @Benchmark
+    public String freshToken() {
+        return service.getValidAccessToken(FRESH_USER);
+    }
+
+    @Benchmark
+    public String expiringToken() {
+        return service.getValidAccessToken(EXPIRING_USER);
+    }
+
+    private static TokenEntity token(String userId, long expiresInSeconds) {
+        return TokenEntity.builder()
+            .userId(userId)
+            .accessToken("APP_USR-" + userId + "-access")
+            .refreshToken("TG-" + userId + "-refresh")
+            .expiresIn(expiresInSeconds)
+            .expiresAt(LocalDateTime.now().plusSeconds(expiresInSeconds))
+            .createdAt(LocalDateTime.now())
+            .build();
+    }
+
+    /**
+     * Responde ao refresh com um token que continua dentro do limite, para que todo
+     * expiringToken percorra o refresh completo
+     */
+    private static MercadoLivreAuthClient refreshingAuthClient() {
+        return (MercadoLivreAuthClient) Proxy.newProxyInstance(
+            MercadoLivreAuthClient.class.getClassLoader(), new Class<?>[]{MercadoLivreAuthClient.class},
+            (proxy, method, args) -> switch (method.getName()) {
+                case "refreshToken" -> {
+                    TokenResponse response = new TokenResponse();
+                    response.setAccessToken("APP_USR-" + EXPIRING_USER + "-access");
+                    response.setRefreshToken("TG-" + EXPIRING_USER + "-refresh");
+                    response.setExpiresIn(60L);
+                    response.setTokenType("Bearer");
+                    yield response;
+                }
+                case "toString" -> "MercadoLivreAuthClient(benchmark)";
+                default -> throw new UnsupportedOperationException(method.getName());
+            });
+    }
+
+    private static TokenRepository inMemoryRepository(Map<String, TokenEntity> rows) {
+        return (TokenRepository) Proxy.newProxyInstance(
+            TokenRepository.class.getClassLoader(), new Class<?>[]{TokenRepository.class},
+            (proxy, method, args) -> switch (method.getName()) {
+                case "findById" -> Optional.ofNullable(rows.get((String) args[0]));
+                case "save" -> {
+                    TokenEntity entity = (TokenEntity) args[0];
+                    rows.put(entity.getUserId(), entity);
+                    yield entity;
+                }
+                case "toString" -> "TokenRepository(benchmark)";
+                default -> throw new UnsupportedOperationException(method.getName());
+            });
+    }
+
+    private static void setField(Object target, String name, Object value) {
+        Field field = ReflectionUtils.findField(target.getClass(), name);
+        ReflectionUtils.makeAccessible(field);
+        ReflectionUtils.setField(field, target, value);
+    }
+}
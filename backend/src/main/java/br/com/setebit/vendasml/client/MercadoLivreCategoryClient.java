@@ -2,8 +2,11 @@ package br.com.setebit.vendasml.client;
 
 import br.com.setebit.vendasml.dto.CategoryResponse;
 import org.springframework.cloud.openfeign.FeignClient;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestHeader;
 
 import java.util.List;
 
@@ -32,5 +35,29 @@ public interface MercadoLivreCategoryClient {
      */
     @GetMapping("/categories/{categoryId}")
     CategoryResponse getCategory(@PathVariable("categoryId") String categoryId);
+    
+    /**
+     * Versão condicional de getCategories: envia If-None-Match e expõe o ETag da resposta
+     * @param siteId ID do site (ex: MLB, MLA, MLM)
+     * @param ifNoneMatch ETag da versão em cache (opcional)
+     * @return Categorias com headers; 304 quando a versão em cache ainda é válida
+     */
+    @GetMapping("/sites/{siteId}/categories")
+    ResponseEntity<List<CategoryResponse>> getCategories(
+        @PathVariable("siteId") String siteId,
+        @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch
+    );
+    
+    /**
+     * Versão condicional de getCategory: envia If-None-Match e expõe o ETag da resposta
+     * @param categoryId ID da categoria (ex: MLB5672)
+     * @param ifNoneMatch ETag da versão em cache (opcional)
+     * @return Categoria com headers; 304 quando a versão em cache ainda é válida
+     */
+    @GetMapping("/categories/{categoryId}")
+    ResponseEntity<CategoryResponse> getCategory(
+        @PathVariable("categoryId") String categoryId,
+        @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch
+    );
 }
 
@@ -1,11 +1,16 @@
 package br.com.setebit.vendasml.client;
 
 import br.com.setebit.vendasml.config.FeignConfig;
+import br.com.setebit.vendasml.dto.ItemMultiGetResponse;
 import br.com.setebit.vendasml.dto.ItemRequest;
 import br.com.setebit.vendasml.dto.ItemResponse;
+import br.com.setebit.vendasml.dto.ItemSearchResponse;
 import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.List;
+import java.util.Map;
+
 @FeignClient(
     name = "mercadoLivreItemClient", 
     url = "${mercadolivre.base-url}",
@@ -25,6 +30,37 @@ public interface MercadoLivreItemClient {
         @PathVariable("itemId") String itemId
     );
     
+    /**
+     * Multi-get: até 20 IDs separados por vírgula, cada um com seu próprio status na resposta
+     */
+    @GetMapping("/items")
+    List<ItemMultiGetResponse> getItems(
+        @RequestHeader("Authorization") String authorization,
+        @RequestParam("ids") String ids
+    );
+    
+    /**
+     * Multi-get com apenas os atributos informados (ex: "id,last_updated"), para detecção de mudanças
+     */
+    @GetMapping("/items")
+    List<ItemMultiGetResponse> getItemsAttributes(
+        @RequestHeader("Authorization") String authorization,
+        @RequestParam("ids") String ids,
+        @RequestParam("attributes") String attributes
+    );
+    
+    /**
+     * Varredura dos IDs de produtos do vendedor: a primeira chamada vai sem scroll_id e as seguintes
+     * repetem o scroll_id recebido até a lista voltar vazia. Não é idempotente (cada chamada avança o cursor).
+     */
+    @GetMapping("/users/{userId}/items/search?search_type=scan")
+    ItemSearchResponse scanItems(
+        @RequestHeader("Authorization") String authorization,
+        @PathVariable("userId") String userId,
+        @RequestParam(value = "scroll_id", required = false) String scrollId,
+        @RequestParam("limit") int limit
+    );
+    
     @PutMapping("/items/{itemId}")
     ItemResponse updateItem(
         @RequestHeader("Authorization") String authorization,
@@ -32,6 +68,16 @@ public interface MercadoLivreItemClient {
         @RequestBody ItemRequest request
     );
     
+    /**
+     * Atualização parcial: só os campos presentes no corpo são alterados no Mercado Livre
+     */
+    @PutMapping("/items/{itemId}")
+    ItemResponse updateItemFields(
+        @RequestHeader("Authorization") String authorization,
+        @PathVariable("itemId") String itemId,
+        @RequestBody Map<String, Object> fields
+    );
+    
     @DeleteMapping("/items/{itemId}")
     void deleteItem(
         @RequestHeader("Authorization") String authorization,
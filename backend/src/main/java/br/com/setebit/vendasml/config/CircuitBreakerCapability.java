@@ -0,0 +1,71 @@
+package br.com.setebit.vendasml.config;
+
+import feign.Capability;
+import feign.Client;
+import feign.Request;
+import feign.Response;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.IOException;
+import java.net.URI;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Circuit breaker por família de endpoint (items, categories, oauth) em volta de cada tentativa.
+ * Falhas de I/O e respostas 5xx contam como erro; 4xx (inclusive 429) e rejeições locais do
+ * limitador de taxa não. Com o circuito aberto, a chamada falha na hora com 503, sem ocupar
+ * a thread esperando o Mercado Livre.
+ */
+public class CircuitBreakerCapability implements Capability, Ordered {
+
+    private final CircuitBreakerRegistry registry;
+
+    public CircuitBreakerCapability(CircuitBreakerRegistry registry) {
+        this.registry = registry;
+    }
+
+    /**
+     * Mais externo que o limitador de taxa: com o circuito aberto nenhum token é consumido
+     */
+    @Override
+    public int getOrder() {
+        return 200;
+    }
+
+    @Override
+    public Client enrich(Client client) {
+        return (request, options) -> execute(client, request, options);
+    }
+
+    private Response execute(Client client, Request request, Request.Options options) throws IOException {
+        MercadoLivreRateLimiter.Family family = MercadoLivreRateLimiter.Family.of(URI.create(request.url()).getPath());
+        CircuitBreaker circuitBreaker = registry.circuitBreaker(family.tag());
+        if (!circuitBreaker.tryAcquirePermission()) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE,
+                "Mercado Livre instável (" + circuitBreaker.getName() + "), circuito aberto. Tente novamente em instantes.");
+        }
+
+        long start = System.nanoTime();
+        try {
+            Response response = client.execute(request, options);
+            long elapsed = System.nanoTime() - start;
+            if (response.status() >= 500) {
+                circuitBreaker.onError(elapsed, TimeUnit.NANOSECONDS,
+                    new IOException("HTTP " + response.status() + " em " + request.httpMethod() + " " + family.tag()));
+            } else {
+                circuitBreaker.onSuccess(elapsed, TimeUnit.NANOSECONDS);
+            }
+            return response;
+        } catch (IOException e) {
+            circuitBreaker.onError(System.nanoTime() - start, TimeUnit.NANOSECONDS, e);
+            throw e;
+        } catch (RuntimeException e) {
+            circuitBreaker.releasePermission();
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package br.com.setebit.vendasml.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Modo de execução da aplicação, controlado por spring.threads.virtual.enabled.
+ *
+ * <p>Com virtual threads, o Tomcat atende cada requisição em uma virtual thread (e as chamadas
+ * Feign/JDBC bloqueiam só a virtual thread); o executor de fan-out interno também cria uma virtual
+ * thread por tarefa. Sem virtual threads, tudo roda em platform threads, o que permite comparar os modos.
+ *
+ * <p>Há dois executores: fanOutExecutor (nome usado na injeção pelos serviços internos) e
+ * asyncCallExecutor (só as rotas /api/produto/async, via MercadoLivreService).
+ */
+@Slf4j
+@Configuration
+public class ExecutionConfig {
+
+    /**
+     * Executor compartilhado das tarefas internas de fan-out (lotes, importação, multi-get, hedging).
+     * A concorrência é limitada por quem submete (semáforos por usuário/job), não pelo executor;
+     * no modo platform o pool cresce sob demanda para que tarefas aninhadas não se bloqueiem.
+     */
+    @Bean(destroyMethod = "shutdownNow")
+    public ExecutorService fanOutExecutor(@Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+        log.info("Executor de fan-out usando {} threads", virtualThreads ? "virtual" : "platform");
+        if (virtualThreads) {
+            return Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("fan-out-", 0).factory());
+        }
+        return Executors.newCachedThreadPool(Thread.ofPlatform().name("fan-out-", 0).daemon(true).factory());
+    }
+
+    /**
+     * Executor das rotas /api/produto/async: cada chamada em andamento ocupa uma thread dele durante a
+     * chamada Feign bloqueante. Com virtual threads isso não custa uma platform thread. Sem elas o pool
+     * é fixo (platform-threads) com fila limitada (queue-capacity) e, cheio, a rota responde 503 em vez
+     * de criar uma platform thread por requisição pendente. Suas tarefas não esperam outras tarefas dele
+     * (os estágios são encadeados), então o limite não causa deadlock.
+     */
+    @Bean(destroyMethod = "shutdownNow")
+    public ExecutorService asyncCallExecutor(
+            @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads,
+            @Value("${mercadolivre.async.platform-threads:32}") int platformThreads,
+            @Value("${mercadolivre.async.queue-capacity:256}") int queueCapacity) {
+        if (virtualThreads) {
+            return Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("async-call-", 0).factory());
+        }
+        log.info("Rotas assíncronas limitadas a {} platform threads (fila de {})", platformThreads, queueCapacity);
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(platformThreads, platformThreads, 60, TimeUnit.SECONDS,
+            new ArrayBlockingQueue<>(queueCapacity), Thread.ofPlatform().name("async-call-", 0).daemon(true).factory());
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+}
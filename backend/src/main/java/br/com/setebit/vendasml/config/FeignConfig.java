@@ -1,21 +1,138 @@
 package br.com.setebit.vendasml.config;
 
+import feign.Capability;
 import feign.Logger;
+import feign.Retryer;
 import feign.codec.ErrorDecoder;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.httpcomponents.hc5.PoolingHttpClientConnectionManagerMetricsBinder;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.io.HttpClientConnectionManager;
+import org.apache.hc.core5.util.TimeValue;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.openfeign.FeignLoggerFactory;
+import org.springframework.cloud.openfeign.clientconfig.HttpClient5FeignConfiguration;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
 
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Configuração comum dos clientes Feign do Mercado Livre.
+ *
+ * <p>O transporte padrão é o Apache HttpClient 5 com pool de conexões keep-alive
+ * (tamanhos, TTL e timeouts em spring.cloud.openfeign.httpclient). O perfil "http2" troca
+ * para o cliente HTTP/2 do JDK, que multiplexa as requisições em uma conexão por host.
+ *
+ * <p>Cada tentativa passa, de fora para dentro, pelo circuit breaker, pelo hedging, pelo limitador de taxa e pela
+ * descompactação gzip (ordem dada por {@link org.springframework.core.Ordered}); o Retryer repete a pilha inteira.
+ *
+ * <p>Esta classe também é a configuration de cada @FeignClient, portanto instanciada de novo no
+ * contexto de cada cliente: estado compartilhado fica em {@link MercadoLivreResilienceConfig}.
+ */
 @Configuration
 public class FeignConfig {
-    
+
+    /**
+     * BASIC apenas habilita o logger; o que é registrado (e com qual amostragem) é decidido pelo SampledFeignLogger
+     */
     @Bean
     public Logger.Level feignLoggerLevel() {
-        return Logger.Level.FULL;
+        return Logger.Level.BASIC;
     }
-    
+
+    @Bean
+    public FeignLoggerFactory sampledFeignLoggerFactory(Environment environment) {
+        SampledFeignLogger logger = new SampledFeignLogger(environment);
+        return type -> logger;
+    }
+
     @Bean
     public ErrorDecoder errorDecoder() {
         return new FeignErrorDecoder();
     }
-}
 
+    /**
+     * Descompacta respostas gzip quando o transporte não o faz (Accept-Encoding é enviado
+     * por spring.cloud.openfeign.compression.response.enabled)
+     */
+    @Bean
+    public Capability gzipDecodingCapability() {
+        return new GzipDecodingCapability();
+    }
+
+    /**
+     * Retries com backoff exponencial + jitter; o orçamento é o do contexto raiz, compartilhado entre todos os clientes
+     */
+    @Bean
+    public Retryer feignRetryer(
+            MeterRegistry meterRegistry,
+            MercadoLivreRetryer.RetryBudget mercadoLivreRetryBudget,
+            @Value("${mercadolivre.retry.max-attempts:3}") int maxAttempts,
+            @Value("${mercadolivre.retry.base-backoff-ms:100}") long baseBackoffMs,
+            @Value("${mercadolivre.retry.max-backoff-ms:2000}") long maxBackoffMs) {
+        return new MercadoLivreRetryer(maxAttempts, baseBackoffMs, maxBackoffMs, mercadoLivreRetryBudget, meterRegistry);
+    }
+
+    /**
+     * Circuit breakers do contexto raiz ({@link MercadoLivreResilienceConfig}): o estado de cada família é único
+     */
+    @Bean
+    public Capability circuitBreakerCapability(CircuitBreakerRegistry mercadoLivreCircuitBreakers) {
+        return new CircuitBreakerCapability(mercadoLivreCircuitBreakers);
+    }
+
+    /**
+     * Hedging opcional de GETs de itens e categorias (mercadolivre.hedging.enabled); latências e
+     * orçamento vêm do estado único do contexto raiz
+     */
+    @Bean
+    public Capability hedgingCapability(
+            MeterRegistry meterRegistry,
+            HedgingCapability.State mercadoLivreHedgingState,
+            @Value("${mercadolivre.hedging.enabled:false}") boolean enabled,
+            @Value("${mercadolivre.hedging.min-delay-ms:20}") long minDelayMs,
+            @Value("${mercadolivre.hedging.max-delay-ms:1000}") long maxDelayMs,
+            ExecutorService fanOutExecutor) {
+        return new HedgingCapability(enabled, minDelayMs, maxDelayMs, mercadoLivreHedgingState, fanOutExecutor,
+            meterRegistry);
+    }
+
+    /**
+     * Limita a taxa de chamadas (global, por vendedor e por família de endpoint) antes de sair para a rede
+     */
+    @Bean
+    public Capability rateLimitingCapability(MercadoLivreRateLimiter rateLimiter) {
+        return new RateLimitingCapability(rateLimiter);
+    }
+
+    /**
+     * Fecha conexões ociosas do pool antes que o servidor o faça, evitando falhas ao reutilizá-las.
+     * Os retries automáticos do HttpClient (inclusive de POST após 429/503) ficam desligados: só o
+     * MercadoLivreRetryer repete chamadas, com suas regras, orçamento e métricas.
+     */
+    @Bean
+    public HttpClient5FeignConfiguration.HttpClientBuilderCustomizer idleConnectionEviction(
+            @Value("${mercadolivre.http.idle-eviction-seconds:30}") long idleEvictionSeconds) {
+        return builder -> builder
+            .disableAutomaticRetries()
+            .evictExpiredConnections()
+            .evictIdleConnections(TimeValue.ofSeconds(idleEvictionSeconds));
+    }
+
+    /**
+     * Métricas do pool (httpcomponents.httpclient.pool.*: conexões leased, available, pending e limites)
+     */
+    @Bean
+    public MeterBinder feignConnectionPoolMetrics(ObjectProvider<HttpClientConnectionManager> connectionManager) {
+        return registry -> connectionManager.ifAvailable(manager -> {
+            if (manager instanceof PoolingHttpClientConnectionManager pool) {
+                new PoolingHttpClientConnectionManagerMetricsBinder(pool, "mercadolivre").bindTo(registry);
+            }
+        });
+    }
+}
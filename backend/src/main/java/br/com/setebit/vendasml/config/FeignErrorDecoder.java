@@ -1,16 +1,51 @@
 package br.com.setebit.vendasml.config;
 
 import feign.Response;
+import feign.RetryableException;
 import feign.codec.ErrorDecoder;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.server.ResponseStatusException;
 
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+
 public class FeignErrorDecoder implements ErrorDecoder {
     
+    /**
+     * Status transitórios: viram RetryableException para o MercadoLivreRetryer decidir se repete
+     */
+    private static final Set<HttpStatus> TRANSIENT = Set.of(
+        HttpStatus.TOO_MANY_REQUESTS,
+        HttpStatus.INTERNAL_SERVER_ERROR,
+        HttpStatus.BAD_GATEWAY,
+        HttpStatus.SERVICE_UNAVAILABLE,
+        HttpStatus.GATEWAY_TIMEOUT
+    );
+    
     @Override
     public Exception decode(String methodKey, Response response) {
         HttpStatus status = HttpStatus.valueOf(response.status());
+        ResponseStatusException error = toException(status, response);
+        if (!TRANSIENT.contains(status)) {
+            return error;
+        }
         
+        Collection<String> retryAfterHeader = response.headers().getOrDefault("Retry-After", List.of());
+        Duration retryAfter = RateLimitingCapability.retryAfter(
+            retryAfterHeader.isEmpty() ? null : retryAfterHeader.iterator().next());
+        return new RetryableException(
+            response.status(),
+            error.getReason(),
+            response.request().httpMethod(),
+            error,
+            retryAfter == null ? null : System.currentTimeMillis() + retryAfter.toMillis(),
+            response.request()
+        );
+    }
+    
+    private static ResponseStatusException toException(HttpStatus status, Response response) {
         return switch (status) {
             case UNAUTHORIZED -> new ResponseStatusException(
                 HttpStatus.UNAUTHORIZED, 
@@ -0,0 +1,24 @@
+package br.com.setebit.vendasml.config;
+
+import feign.Capability;
+import feign.Client;
+import org.springframework.core.Ordered;
+
+/**
+ * Envolve o transporte do Feign com o {@link GzipDecodingClient}
+ */
+public class GzipDecodingCapability implements Capability, Ordered {
+
+    /**
+     * Mais interno: logo acima do transporte
+     */
+    @Override
+    public int getOrder() {
+        return 0;
+    }
+
+    @Override
+    public Client enrich(Client client) {
+        return new GzipDecodingClient(client);
+    }
+}
@@ -0,0 +1,67 @@
+package br.com.setebit.vendasml.config;
+
+import feign.Client;
+import feign.Request;
+import feign.Response;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Collection;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Descompacta respostas gzip/deflate para os transportes que não fazem isso sozinhos
+ * (o cliente HTTP/2 do JDK). Com o Apache HttpClient 5 a resposta já chega descompactada,
+ * sem Content-Encoding, e passa direto.
+ */
+public class GzipDecodingClient implements Client {
+
+    private final Client delegate;
+
+    public GzipDecodingClient(Client delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public Response execute(Request request, Request.Options options) throws IOException {
+        Response response = delegate.execute(request, options);
+        String encoding = contentEncoding(response);
+        if (encoding == null || response.body() == null) {
+            return response;
+        }
+
+        InputStream body = response.body().asInputStream();
+        InputStream decoded = switch (encoding) {
+            case "gzip", "x-gzip" -> new GZIPInputStream(body);
+            case "deflate" -> new InflaterInputStream(body);
+            default -> null;
+        };
+        if (decoded == null) {
+            body.close();
+            throw new IOException("Content-Encoding não suportado: " + encoding);
+        }
+
+        Map<String, Collection<String>> headers = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        headers.putAll(response.headers());
+        headers.remove("Content-Encoding");
+        headers.remove("Content-Length");
+        return response.toBuilder()
+            .headers(headers)
+            .body(decoded, null)
+            .build();
+    }
+
+    private static String contentEncoding(Response response) {
+        for (Map.Entry<String, Collection<String>> header : response.headers().entrySet()) {
+            if ("Content-Encoding".equalsIgnoreCase(header.getKey()) && !header.getValue().isEmpty()) {
+                String value = header.getValue().iterator().next().trim().toLowerCase(Locale.ROOT);
+                return value.isEmpty() || value.equals("identity") ? null : value;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,332 @@
+package br.com.setebit.vendasml.config;
+
+import feign.Capability;
+import feign.Client;
+import feign.Request;
+import feign.Response;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.core.Ordered;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.URI;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Hedging de GETs de itens e categorias: se a primeira tentativa não responder dentro do
+ * percentil configurado (p95 por padrão) das latências recentes da família, uma segunda
+ * requisição idêntica é enviada. A primeira resposta vence; a outra é cancelada (a thread é
+ * interrompida, o que em virtual threads fecha o socket) ou, se já tiver resposta, tem o corpo fechado.
+ *
+ * <p>As tentativas rodam no executor de fan-out. Os hedges saem de um orçamento (budget-ratio
+ * das chamadas elegíveis) e cada tentativa passa pelo limitador de taxa. Métricas: ml.hedge.requests{family,outcome}, ml.hedge.delay{family}
+ * e ml.hedge.latency.saved{family} (estimativa, ver {@link LatencyWindow#expectedRemaining}).
+ *
+ * <p>Limite do cancelamento: o cliente Feign do Apache HttpClient 5 monta o request internamente e não
+ * expõe o {@code Cancellable} dele, então a interrupção da thread é o único sinal para a perdedora. Em
+ * virtual threads ela fecha o socket e a tentativa termina na hora. Em platform threads
+ * (spring.threads.virtual.enabled=false) a leitura bloqueante do socket ignora a interrupção: a perdedora
+ * segue até a resposta chegar (o corpo é fechado e a conexão volta ao pool) ou até o read-timeout,
+ * ocupando nesse tempo uma conexão do pool e uma thread do executor. Em nenhum dos modos a permissão do
+ * limitador de taxa volta: ela é consumida quando a tentativa sai. Por isso o hedging vem desligado e o
+ * orçamento limita quantas perdedoras podem existir ao mesmo tempo.
+ */
+public class HedgingCapability implements Capability, Ordered {
+
+    private final boolean enabled;
+    private final long minDelayNanos;
+    private final long maxDelayNanos;
+    private final State state;
+    private final MeterRegistry meterRegistry;
+    private final ExecutorService executor;
+
+    public HedgingCapability(boolean enabled, long minDelayMs, long maxDelayMs, State state,
+                             ExecutorService executor, MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.executor = executor;
+        this.minDelayNanos = TimeUnit.MILLISECONDS.toNanos(minDelayMs);
+        this.maxDelayNanos = TimeUnit.MILLISECONDS.toNanos(maxDelayMs);
+        this.state = state;
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Entre o circuit breaker (o resultado final conta uma vez) e o limitador de taxa (cada tentativa consome)
+     */
+    @Override
+    public int getOrder() {
+        return 150;
+    }
+
+    @Override
+    public Client enrich(Client client) {
+        if (!enabled) {
+            return client;
+        }
+        return (request, options) -> execute(client, request, options);
+    }
+
+    private Response execute(Client client, Request request, Request.Options options) throws IOException {
+        String path = URI.create(request.url()).getPath();
+        MercadoLivreRateLimiter.Family family = MercadoLivreRateLimiter.Family.of(path);
+        LatencyWindow window = state.windows.get(family);
+        // A varredura /users/{id}/items/search avança o cursor a cada chamada: um hedge pularia uma página
+        if (request.httpMethod() != Request.HttpMethod.GET || window == null || path.startsWith("/users")) {
+            return client.execute(request, options);
+        }
+
+        state.budget.deposit();
+        long start = System.nanoTime();
+        Race race = new Race(client, request, options, window);
+        Future<?> primary = race.launch(executor);
+
+        long threshold = window.threshold();
+        if (threshold == 0) {
+            record(family, "warming_up");
+            return race.await(primary, null);
+        }
+        long delay = Math.min(maxDelayNanos, Math.max(minDelayNanos, threshold));
+        if (race.awaitFirst(delay)) {
+            record(family, "not_needed");
+            return race.await(primary, null);
+        }
+        if (!state.budget.tryWithdraw()) {
+            record(family, "budget_exhausted");
+            return race.await(primary, null);
+        }
+
+        Future<?> hedge = race.launch(executor);
+        Response response = race.await(primary, hedge);
+        long elapsed = System.nanoTime() - start;
+        if (race.winner() == hedge) {
+            record(family, "hedge_won");
+            state.saved.get(family).record(window.expectedRemaining(elapsed), TimeUnit.NANOSECONDS);
+        } else {
+            record(family, "primary_won");
+        }
+        return response;
+    }
+
+    private void record(MercadoLivreRateLimiter.Family family, String outcome) {
+        meterRegistry.counter("ml.hedge.requests", "family", family.tag(), "outcome", outcome).increment();
+    }
+
+    /**
+     * Latências recentes, orçamento de hedges e métricas por família. Um único estado no contexto
+     * raiz ({@link MercadoLivreResilienceConfig}), compartilhado pela capability de cada cliente:
+     * o percentil vem de todas as chamadas da família e o orçamento vale para a aplicação inteira.
+     */
+    public static class State {
+        private final MercadoLivreRetryer.RetryBudget budget;
+        private final Map<MercadoLivreRateLimiter.Family, LatencyWindow> windows =
+            new EnumMap<>(MercadoLivreRateLimiter.Family.class);
+        private final Map<MercadoLivreRateLimiter.Family, Timer> saved = new EnumMap<>(MercadoLivreRateLimiter.Family.class);
+
+        public State(double percentile, int minSamples, int windowSize, double budgetRatio, MeterRegistry meterRegistry) {
+            this.budget = new MercadoLivreRetryer.RetryBudget(budgetRatio, 0, 10);
+            for (MercadoLivreRateLimiter.Family family : new MercadoLivreRateLimiter.Family[]{
+                    MercadoLivreRateLimiter.Family.ITEMS, MercadoLivreRateLimiter.Family.CATEGORIES}) {
+                LatencyWindow window = new LatencyWindow(windowSize, percentile, minSamples);
+                windows.put(family, window);
+                Gauge.builder("ml.hedge.delay", window, w -> w.threshold() / 1e9)
+                    .description("Espera antes do hedge (percentil das latências recentes)")
+                    .baseUnit("seconds")
+                    .tag("family", family.tag())
+                    .register(meterRegistry);
+                saved.put(family, Timer.builder("ml.hedge.latency.saved")
+                    .description("Latência economizada estimada quando o hedge vence")
+                    .tag("family", family.tag())
+                    .register(meterRegistry));
+            }
+        }
+    }
+
+    /**
+     * Disputa entre a tentativa original e o hedge: a primeira resposta completa o resultado,
+     * respostas que chegam depois são fechadas; o resultado só falha se todas as tentativas falharem.
+     */
+    private static class Race {
+        private final Client client;
+        private final Request request;
+        private final Request.Options options;
+        private final LatencyWindow window;
+        private final CompletableFuture<Response> result = new CompletableFuture<>();
+        private final ReentrantLock lock = new ReentrantLock();
+        private int launched;
+        private int failed;
+        private Throwable firstError;
+        private volatile Future<?> winner;
+
+        Race(Client client, Request request, Request.Options options, LatencyWindow window) {
+            this.client = client;
+            this.request = request;
+            this.options = options;
+            this.window = window;
+        }
+
+        Future<?> launch(ExecutorService executor) {
+            lock.lock();
+            try {
+                launched++;
+            } finally {
+                lock.unlock();
+            }
+            CompletableFuture<Future<?>> self = new CompletableFuture<>();
+            Future<?> future = executor.submit(() -> attempt(self.join()));
+            self.complete(future);
+            return future;
+        }
+
+        private void attempt(Future<?> self) {
+            long start = System.nanoTime();
+            try {
+                Response response = client.execute(request, options);
+                window.record(System.nanoTime() - start);
+                lock.lock();
+                try {
+                    if (result.isDone()) {
+                        response.close();
+                        return;
+                    }
+                    winner = self;
+                    result.complete(response);
+                } finally {
+                    lock.unlock();
+                }
+            } catch (IOException | RuntimeException e) {
+                lock.lock();
+                try {
+                    failed++;
+                    if (firstError == null) {
+                        firstError = e;
+                    }
+                    if (failed == launched) {
+                        result.completeExceptionally(firstError);
+                    }
+                } finally {
+                    lock.unlock();
+                }
+            }
+        }
+
+        /**
+         * @return true se alguma tentativa terminou (com sucesso ou falha de todas) dentro do prazo
+         */
+        boolean awaitFirst(long timeoutNanos) throws IOException {
+            try {
+                result.get(timeoutNanos, TimeUnit.NANOSECONDS);
+                return true;
+            } catch (TimeoutException e) {
+                return false;
+            } catch (ExecutionException e) {
+                return true;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Chamada interrompida aguardando o Mercado Livre");
+            }
+        }
+
+        Response await(Future<?> primary, Future<?> hedge) throws IOException {
+            try {
+                return result.get();
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof IOException ioException) {
+                    throw ioException;
+                }
+                if (e.getCause() instanceof RuntimeException runtimeException) {
+                    throw runtimeException;
+                }
+                throw new IOException(e.getCause());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Chamada interrompida aguardando o Mercado Livre");
+            } finally {
+                cancelLoser(primary);
+                cancelLoser(hedge);
+            }
+        }
+
+        /**
+         * Interrompe a tentativa que perdeu; em platform threads isso não aborta uma leitura já em curso
+         * (ver a documentação da classe), só a espera no limitador de taxa ou o início da chamada
+         */
+        private void cancelLoser(Future<?> attempt) {
+            if (attempt != null && attempt != winner) {
+                attempt.cancel(true);
+            }
+        }
+
+        Future<?> winner() {
+            return winner;
+        }
+    }
+
+    /**
+     * Janela circular das últimas latências; o percentil é recalculado a cada 64 amostras
+     */
+    static class LatencyWindow {
+        private static final int RECOMPUTE_EVERY = 64;
+
+        private final AtomicLongArray samples;
+        private final AtomicLong count = new AtomicLong();
+        private final double percentile;
+        private final int minSamples;
+        private volatile long[] sorted = new long[0];
+        private volatile long threshold;
+
+        LatencyWindow(int size, double percentile, int minSamples) {
+            this.samples = new AtomicLongArray(size);
+            this.percentile = percentile;
+            this.minSamples = Math.min(minSamples, size);
+        }
+
+        void record(long nanos) {
+            long n = count.getAndIncrement();
+            samples.set((int) (n % samples.length()), nanos);
+            if ((n + 1) % RECOMPUTE_EVERY == 0 && n + 1 >= minSamples) {
+                int size = (int) Math.min(n + 1, samples.length());
+                long[] copy = new long[size];
+                for (int i = 0; i < size; i++) {
+                    copy[i] = samples.get(i);
+                }
+                Arrays.sort(copy);
+                sorted = copy;
+                threshold = copy[Math.min(size - 1, (int) Math.ceil(percentile * size) - 1)];
+            }
+        }
+
+        /**
+         * @return percentil atual em nanos, ou 0 enquanto não há amostras suficientes
+         */
+        long threshold() {
+            return threshold;
+        }
+
+        /**
+         * Estimativa do quanto a tentativa original ainda levaria, sabendo que passou de {@code elapsed}:
+         * mediana das latências recentes acima de elapsed, menos elapsed
+         */
+        long expectedRemaining(long elapsed) {
+            long[] snapshot = sorted;
+            int from = Arrays.binarySearch(snapshot, elapsed + 1);
+            from = from < 0 ? -from - 1 : from;
+            if (from >= snapshot.length) {
+                return 0;
+            }
+            return snapshot[from + (snapshot.length - from) / 2] - elapsed;
+        }
+    }
+}
@@ -0,0 +1,282 @@
+package br.com.setebit.vendasml.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Limitador de taxa (token bucket) das chamadas ao Mercado Livre, em três níveis:
+ * global (cota do app), por vendedor (token de acesso) e por família de endpoint
+ * (items, categories, oauth). Uma chamada só sai quando os três buckets têm saldo;
+ * se o saldo só estiver disponível dentro de max-wait-ms, a chamada espera, senão é
+ * rejeitada localmente com 429.
+ *
+ * <p>Quando o Mercado Livre responde 429, os buckets do vendedor e da família ficam pausados pelo
+ * Retry-After e têm a taxa reduzida pela metade; a taxa volta gradualmente ao valor
+ * configurado a cada resposta bem-sucedida.
+ */
+@Slf4j
+@Component
+public class MercadoLivreRateLimiter {
+
+    private static final double RECOVERY_STEP = 0.05;
+    private static final double MIN_FACTOR = 0.1;
+
+    private final boolean enabled;
+    private final long maxWaitNanos;
+    private final long defaultRetryAfterMs;
+    private final TokenBucket global;
+    private final Map<Family, TokenBucket> families;
+    private final Cache<String, TokenBucket> sellers;
+    private final double sellerRate;
+    private final double sellerBurst;
+    private final MeterRegistry meterRegistry;
+    private final Map<Family, Counter> throttled;
+
+    public MercadoLivreRateLimiter(
+            MeterRegistry meterRegistry,
+            @Value("${mercadolivre.rate-limit.enabled:true}") boolean enabled,
+            @Value("${mercadolivre.rate-limit.max-wait-ms:500}") long maxWaitMs,
+            @Value("${mercadolivre.rate-limit.default-retry-after-ms:1000}") long defaultRetryAfterMs,
+            @Value("${mercadolivre.rate-limit.global.per-second:50}") double globalRate,
+            @Value("${mercadolivre.rate-limit.global.burst:100}") double globalBurst,
+            @Value("${mercadolivre.rate-limit.seller.per-second:10}") double sellerRate,
+            @Value("${mercadolivre.rate-limit.seller.burst:20}") double sellerBurst,
+            @Value("${mercadolivre.rate-limit.items.per-second:40}") double itemsRate,
+            @Value("${mercadolivre.rate-limit.items.burst:80}") double itemsBurst,
+            @Value("${mercadolivre.rate-limit.categories.per-second:20}") double categoriesRate,
+            @Value("${mercadolivre.rate-limit.categories.burst:40}") double categoriesBurst,
+            @Value("${mercadolivre.rate-limit.oauth.per-second:5}") double oauthRate,
+            @Value("${mercadolivre.rate-limit.oauth.burst:10}") double oauthBurst) {
+        this.meterRegistry = meterRegistry;
+        this.enabled = enabled;
+        this.maxWaitNanos = TimeUnit.MILLISECONDS.toNanos(maxWaitMs);
+        this.defaultRetryAfterMs = defaultRetryAfterMs;
+        this.global = new TokenBucket(globalRate, globalBurst);
+        this.families = Map.of(
+            Family.ITEMS, new TokenBucket(itemsRate, itemsBurst),
+            Family.CATEGORIES, new TokenBucket(categoriesRate, categoriesBurst),
+            Family.OAUTH, new TokenBucket(oauthRate, oauthBurst));
+        this.sellerRate = sellerRate;
+        this.sellerBurst = sellerBurst;
+        this.sellers = Caffeine.newBuilder()
+            .expireAfterAccess(Duration.ofMinutes(10))
+            .maximumSize(100_000)
+            .build();
+        this.throttled = Map.of(
+            Family.ITEMS, throttledCounter(Family.ITEMS),
+            Family.CATEGORIES, throttledCounter(Family.CATEGORIES),
+            Family.OAUTH, throttledCounter(Family.OAUTH),
+            Family.OTHER, throttledCounter(Family.OTHER));
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Reserva uma permissão em todos os níveis aplicáveis, esperando no máximo max-wait-ms
+     * @param seller chave do vendedor (token de acesso), ou null para chamadas sem token (OAuth)
+     * @throws RateLimitExceededException se algum nível não liberar dentro da espera máxima
+     */
+    public void acquire(Family family, String seller) {
+        List<TokenBucket> buckets = buckets(family, seller);
+        List<TokenBucket> reserved = new ArrayList<>(buckets.size());
+        long wait = 0;
+        for (TokenBucket bucket : buckets) {
+            long bucketWait = bucket.reserve(maxWaitNanos);
+            if (bucketWait < 0) {
+                reserved.forEach(TokenBucket::refund);
+                long retryAfterNanos = -bucketWait;
+                record(family, "rejected");
+                throw new RateLimitExceededException(
+                    "Limite de requisições ao Mercado Livre atingido (" + family.tag + "). Tente novamente em instantes.",
+                    Duration.ofNanos(retryAfterNanos));
+            }
+            reserved.add(bucket);
+            wait = Math.max(wait, bucketWait);
+        }
+
+        if (wait == 0) {
+            record(family, "allowed");
+            return;
+        }
+        record(family, "waited");
+        try {
+            TimeUnit.NANOSECONDS.sleep(wait);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RateLimitExceededException("Espera pelo limite de requisições interrompida", Duration.ofNanos(wait));
+        }
+    }
+
+    /**
+     * O Mercado Livre respondeu 429: pausa e reduz a taxa dos buckets do vendedor e da família.
+     * O bucket global não é penalizado, para que o 429 de um vendedor não freie os demais.
+     * @param retryAfter valor do cabeçalho Retry-After, ou null
+     */
+    public void onThrottled(Family family, String seller, Duration retryAfter) {
+        Duration pause = retryAfter != null ? retryAfter : Duration.ofMillis(defaultRetryAfterMs);
+        log.warn("Mercado Livre retornou 429 ({}), pausando por {} ms", family.tag, pause.toMillis());
+        throttled.get(family).increment();
+        buckets(family, seller).stream()
+            .filter(bucket -> bucket != global)
+            .forEach(bucket -> bucket.throttle(pause.toNanos()));
+    }
+
+    /**
+     * Resposta sem 429: recupera gradualmente a taxa reduzida por um 429 anterior
+     */
+    public void onSuccess(Family family, String seller) {
+        buckets(family, seller).forEach(TokenBucket::recover);
+    }
+
+    private List<TokenBucket> buckets(Family family, String seller) {
+        List<TokenBucket> buckets = new ArrayList<>(3);
+        buckets.add(global);
+        TokenBucket familyBucket = families.get(family);
+        if (familyBucket != null) {
+            buckets.add(familyBucket);
+        }
+        if (seller != null) {
+            buckets.add(sellers.get(seller, key -> new TokenBucket(sellerRate, sellerBurst)));
+        }
+        return buckets;
+    }
+
+    private void record(Family family, String outcome) {
+        meterRegistry.counter("ml.ratelimit.decisions", "family", family.tag, "outcome", outcome).increment();
+    }
+
+    private Counter throttledCounter(Family family) {
+        return Counter.builder("ml.ratelimit.remote.throttled")
+            .description("Respostas 429 recebidas do Mercado Livre")
+            .tag("family", family.tag)
+            .register(meterRegistry);
+    }
+
+    public enum Family {
+        ITEMS("items"), CATEGORIES("categories"), OAUTH("oauth"), OTHER("other");
+
+        private final String tag;
+
+        Family(String tag) {
+            this.tag = tag;
+        }
+
+        public String tag() {
+            return tag;
+        }
+
+        /**
+         * Família do endpoint a partir do caminho da URL
+         */
+        public static Family of(String path) {
+            if (path.startsWith("/items") || path.startsWith("/users")) {
+                return ITEMS;
+            }
+            if (path.startsWith("/categories") || path.startsWith("/sites")) {
+                return CATEGORIES;
+            }
+            if (path.startsWith("/oauth")) {
+                return OAUTH;
+            }
+            return OTHER;
+        }
+    }
+
+    /**
+     * Token bucket com reserva: o saldo pode ficar negativo para representar chamadas
+     * que já reservaram sua vez e estão esperando.
+     */
+    static class TokenBucket {
+        private final ReentrantLock lock = new ReentrantLock();
+        private final double baseRate;
+        private final double capacity;
+        private volatile double factor = 1.0;
+        private double tokens;
+        private long lastRefill = System.nanoTime();
+        private long pausedUntil;
+
+        TokenBucket(double ratePerSecond, double capacity) {
+            this.baseRate = ratePerSecond;
+            this.capacity = capacity;
+            this.tokens = capacity;
+        }
+
+        /**
+         * @return nanos de espera até a vez da chamada (0 = imediato), ou o negativo da espera
+         * necessária quando ela excede maxWaitNanos (nada é reservado nesse caso)
+         */
+        long reserve(long maxWaitNanos) {
+            lock.lock();
+            try {
+                long now = System.nanoTime();
+                refill(now);
+                long pause = Math.max(0, pausedUntil - now);
+                double rate = baseRate * factor;
+                long wait = pause + (tokens >= 1 ? 0 : (long) ((1 - tokens) / rate * 1e9));
+                if (wait > maxWaitNanos) {
+                    return -Math.max(wait, 1);
+                }
+                tokens -= 1;
+                return wait;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        void refund() {
+            lock.lock();
+            try {
+                tokens = Math.min(capacity, tokens + 1);
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        void throttle(long pauseNanos) {
+            lock.lock();
+            try {
+                long now = System.nanoTime();
+                refill(now);
+                pausedUntil = Math.max(pausedUntil, now + pauseNanos);
+                factor = Math.max(MIN_FACTOR, factor / 2);
+                tokens = Math.min(tokens, 0);
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        void recover() {
+            if (factor >= 1.0) {
+                return;
+            }
+            lock.lock();
+            try {
+                factor = Math.min(1.0, factor + RECOVERY_STEP);
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private void refill(long now) {
+            long from = Math.max(lastRefill, pausedUntil);
+            if (now > from) {
+                tokens = Math.min(capacity, tokens + (now - from) / 1e9 * baseRate * factor);
+            }
+            lastRefill = now;
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package br.com.setebit.vendasml.config;
+
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.micrometer.tagged.TaggedCircuitBreakerMetrics;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Estado de resiliência compartilhado por todos os clientes Feign do Mercado Livre.
+ *
+ * <p>Fica no contexto raiz e não é listado em configuration de nenhum @FeignClient: o
+ * FeignConfig é instanciado de novo no contexto filho de cada cliente, e o que estiver nele
+ * (orçamentos, circuit breakers, latências do hedging, métricas) seria duplicado por cliente. Os beans do FeignConfig
+ * recebem estes por injeção.
+ */
+@Configuration
+public class MercadoLivreResilienceConfig {
+
+    /**
+     * Orçamento de retries único: um retry de qualquer cliente gasta do mesmo saldo
+     */
+    @Bean
+    public MercadoLivreRetryer.RetryBudget mercadoLivreRetryBudget(
+            @Value("${mercadolivre.retry.budget.retry-ratio:0.1}") double retryRatio,
+            @Value("${mercadolivre.retry.budget.min-per-second:5}") double minPerSecond) {
+        return new MercadoLivreRetryer.RetryBudget(retryRatio, minPerSecond, Math.max(10, minPerSecond * 10));
+    }
+
+    /**
+     * Um circuit breaker por família de endpoint; estados e contagens exportados como resilience4j.circuitbreaker.*
+     */
+    @Bean
+    public CircuitBreakerRegistry mercadoLivreCircuitBreakers(
+            MeterRegistry meterRegistry,
+            @Value("${mercadolivre.circuit-breaker.failure-rate-threshold:50}") float failureRateThreshold,
+            @Value("${mercadolivre.circuit-breaker.sliding-window-size:50}") int slidingWindowSize,
+            @Value("${mercadolivre.circuit-breaker.minimum-number-of-calls:20}") int minimumNumberOfCalls,
+            @Value("${mercadolivre.circuit-breaker.slow-call-duration-ms:5000}") long slowCallDurationMs,
+            @Value("${mercadolivre.circuit-breaker.slow-call-rate-threshold:80}") float slowCallRateThreshold,
+            @Value("${mercadolivre.circuit-breaker.wait-in-open-state-seconds:30}") long waitInOpenStateSeconds,
+            @Value("${mercadolivre.circuit-breaker.permitted-calls-in-half-open-state:5}") int permittedCallsInHalfOpen) {
+        CircuitBreakerRegistry registry = CircuitBreakerRegistry.of(CircuitBreakerConfig.custom()
+            .slidingWindowType(CircuitBreakerConfig.SlidingWindowType.COUNT_BASED)
+            .slidingWindowSize(slidingWindowSize)
+            .minimumNumberOfCalls(minimumNumberOfCalls)
+            .failureRateThreshold(failureRateThreshold)
+            .slowCallDurationThreshold(Duration.ofMillis(slowCallDurationMs))
+            .slowCallRateThreshold(slowCallRateThreshold)
+            .waitDurationInOpenState(Duration.ofSeconds(waitInOpenStateSeconds))
+            .permittedNumberOfCallsInHalfOpenState(permittedCallsInHalfOpen)
+            .build());
+        TaggedCircuitBreakerMetrics.ofCircuitBreakerRegistry(registry).bindTo(meterRegistry);
+        return registry;
+    }
+
+    /**
+     * Latências recentes e orçamento do hedging, comuns às capabilities de todos os clientes
+     */
+    @Bean
+    public HedgingCapability.State mercadoLivreHedgingState(
+            MeterRegistry meterRegistry,
+            @Value("${mercadolivre.hedging.percentile:0.95}") double percentile,
+            @Value("${mercadolivre.hedging.min-samples:100}") int minSamples,
+            @Value("${mercadolivre.hedging.window-size:1024}") int windowSize,
+            @Value("${mercadolivre.hedging.budget-ratio:0.05}") double budgetRatio) {
+        return new HedgingCapability.State(percentile, minSamples, windowSize, budgetRatio, meterRegistry);
+    }
+}
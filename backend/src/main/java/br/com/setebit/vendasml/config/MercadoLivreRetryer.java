@@ -0,0 +1,167 @@
+package br.com.setebit.vendasml.config;
+
+import feign.Request;
+import feign.RetryableException;
+import feign.Retryer;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.apache.hc.client5.http.ConnectTimeoutException;
+import org.apache.hc.core5.http.ConnectionRequestTimeoutException;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.net.ConnectException;
+import java.net.UnknownHostException;
+import java.net.http.HttpConnectTimeoutException;
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Retryer dos clientes Feign: backoff exponencial com jitter ("full jitter") e orçamento de retries.
+ *
+ * <p>GET, PUT e DELETE são repetidos em falhas transitórias (I/O, 429, 5xx). POST não é idempotente:
+ * só é repetido quando há garantia de que o Mercado Livre não processou a requisição — falha ao
+ * conectar / obter conexão do pool, ou 429. Esgotadas as tentativas, o erro original
+ * (ResponseStatusException do FeignErrorDecoder) é propagado como antes.
+ *
+ * <p>O orçamento compartilhado limita os retries a uma fração das chamadas (retry-ratio), com um
+ * mínimo por segundo, para que uma degradação do Mercado Livre não seja multiplicada pelos retries.
+ */
+public class MercadoLivreRetryer implements Retryer {
+
+    private static final Set<Request.HttpMethod> IDEMPOTENT = EnumSet.of(
+        Request.HttpMethod.GET, Request.HttpMethod.HEAD, Request.HttpMethod.OPTIONS,
+        Request.HttpMethod.PUT, Request.HttpMethod.DELETE);
+
+    private final int maxAttempts;
+    private final long baseBackoffMs;
+    private final long maxBackoffMs;
+    private final RetryBudget budget;
+    private final MeterRegistry meterRegistry;
+    private int attempt = 1;
+
+    public MercadoLivreRetryer(int maxAttempts, long baseBackoffMs, long maxBackoffMs, RetryBudget budget,
+                               MeterRegistry meterRegistry) {
+        this.maxAttempts = maxAttempts;
+        this.baseBackoffMs = baseBackoffMs;
+        this.maxBackoffMs = maxBackoffMs;
+        this.budget = budget;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public void continueOrPropagate(RetryableException e) {
+        if (!isSafeToRetry(e)) {
+            throw propagate(e, "not_retryable");
+        }
+        if (attempt >= maxAttempts) {
+            throw propagate(e, "exhausted");
+        }
+
+        long backoff = ThreadLocalRandom.current().nextLong(
+            Math.min(maxBackoffMs, baseBackoffMs << Math.min(attempt - 1, 20)) + 1);
+        if (e.retryAfter() != null) {
+            long untilRetryAfter = e.retryAfter() - System.currentTimeMillis();
+            if (untilRetryAfter > maxBackoffMs) {
+                throw propagate(e, "retry_after_too_long");
+            }
+            backoff = Math.max(backoff, untilRetryAfter);
+        }
+        if (!budget.tryWithdraw()) {
+            throw propagate(e, "budget_exhausted");
+        }
+
+        attempt++;
+        record(e, "retried");
+        try {
+            TimeUnit.MILLISECONDS.sleep(backoff);
+        } catch (InterruptedException interrupted) {
+            Thread.currentThread().interrupt();
+            throw propagate(e, "interrupted");
+        }
+    }
+
+    /**
+     * Uma instância por chamada: cada chamada nova deposita no orçamento de retries
+     */
+    @Override
+    public Retryer clone() {
+        budget.deposit();
+        return new MercadoLivreRetryer(maxAttempts, baseBackoffMs, maxBackoffMs, budget, meterRegistry);
+    }
+
+    private static boolean isSafeToRetry(RetryableException e) {
+        if (e.method() == null || IDEMPOTENT.contains(e.method())) {
+            return true;
+        }
+        return e.status() == 429 || notSent(e.getCause());
+    }
+
+    /**
+     * Falhas em que a requisição certamente não chegou ao servidor
+     */
+    private static boolean notSent(Throwable cause) {
+        return cause instanceof ConnectException
+            || cause instanceof ConnectTimeoutException
+            || cause instanceof HttpConnectTimeoutException
+            || cause instanceof ConnectionRequestTimeoutException
+            || cause instanceof UnknownHostException;
+    }
+
+    private RuntimeException propagate(RetryableException e, String outcome) {
+        record(e, outcome);
+        return e.getCause() instanceof ResponseStatusException error ? error : e;
+    }
+
+    private void record(RetryableException e, String outcome) {
+        meterRegistry.counter("ml.retry.decisions",
+            "method", e.method() != null ? e.method().name() : "UNKNOWN",
+            "outcome", outcome).increment();
+    }
+
+    /**
+     * Orçamento de retries compartilhado: cada chamada deposita retry-ratio e cada retry gasta 1.
+     * Um mínimo de min-per-second é reposto com o tempo para não bloquear retries em tráfego baixo.
+     */
+    public static class RetryBudget {
+        private final ReentrantLock lock = new ReentrantLock();
+        private final double ratio;
+        private final double minPerSecond;
+        private final double capacity;
+        private double balance;
+        private long lastRefill = System.nanoTime();
+
+        public RetryBudget(double ratio, double minPerSecond, double capacity) {
+            this.ratio = ratio;
+            this.minPerSecond = minPerSecond;
+            this.capacity = capacity;
+            this.balance = capacity;
+        }
+
+        void deposit() {
+            lock.lock();
+            try {
+                balance = Math.min(capacity, balance + ratio);
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        boolean tryWithdraw() {
+            lock.lock();
+            try {
+                long now = System.nanoTime();
+                balance = Math.min(capacity, balance + (now - lastRefill) / 1e9 * minPerSecond);
+                lastRefill = now;
+                if (balance < 1) {
+                    return false;
+                }
+                balance -= 1;
+                return true;
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package br.com.setebit.vendasml.config;
+
+import feign.Capability;
+import feign.Client;
+import feign.Request;
+import feign.Response;
+import org.springframework.core.Ordered;
+
+import java.io.IOException;
+import java.net.URI;
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * Aplica o {@link MercadoLivreRateLimiter} em toda chamada dos clientes Feign.
+ * O vendedor é identificado pelo cabeçalho Authorization (um token por vendedor);
+ * respostas 429 alimentam o limitador com o Retry-After recebido.
+ */
+public class RateLimitingCapability implements Capability, Ordered {
+
+    private final MercadoLivreRateLimiter rateLimiter;
+
+    public RateLimitingCapability(MercadoLivreRateLimiter rateLimiter) {
+        this.rateLimiter = rateLimiter;
+    }
+
+    /**
+     * Entre o circuit breaker (externo) e o transporte
+     */
+    @Override
+    public int getOrder() {
+        return 100;
+    }
+
+    @Override
+    public Client enrich(Client client) {
+        if (!rateLimiter.isEnabled()) {
+            return client;
+        }
+        return (request, options) -> execute(client, request, options);
+    }
+
+    private Response execute(Client client, Request request, Request.Options options) throws IOException {
+        MercadoLivreRateLimiter.Family family = MercadoLivreRateLimiter.Family.of(URI.create(request.url()).getPath());
+        String seller = header(request.headers(), "Authorization");
+        rateLimiter.acquire(family, seller);
+
+        Response response = client.execute(request, options);
+        if (response.status() == 429) {
+            rateLimiter.onThrottled(family, seller, retryAfter(header(response.headers(), "Retry-After")));
+        } else if (response.status() < 500) {
+            rateLimiter.onSuccess(family, seller);
+        }
+        return response;
+    }
+
+    private static String header(Map<String, Collection<String>> headers, String name) {
+        for (Map.Entry<String, Collection<String>> header : headers.entrySet()) {
+            if (name.equalsIgnoreCase(header.getKey()) && !header.getValue().isEmpty()) {
+                return header.getValue().iterator().next();
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Retry-After em segundos ou como data HTTP
+     */
+    static Duration retryAfter(String value) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        try {
+            return Duration.ofSeconds(Math.max(0, Long.parseLong(value.trim())));
+        } catch (NumberFormatException e) {
+            try {
+                Duration until = Duration.between(ZonedDateTime.now(),
+                    ZonedDateTime.parse(value.trim(), DateTimeFormatter.RFC_1123_DATE_TIME));
+                return until.isNegative() ? Duration.ZERO : until;
+            } catch (DateTimeParseException ignored) {
+                return null;
+            }
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package br.com.setebit.vendasml.config;
+
+import feign.Logger;
+import feign.Request;
+import feign.Response;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.env.Environment;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Logger do Feign com amostragem por cliente e por classe de status.
+ *
+ * <p>Gera uma única linha por chamada, ao final, com campos estruturados (cliente, método,
+ * URL, status, tempo). Cabeçalhos e corpos nunca são registrados, então o custo não depende
+ * do tamanho do payload e o Authorization / tokens do corpo do OAuth não aparecem no log;
+ * parâmetros de query sensíveis são mascarados.
+ *
+ * <p>Taxas em mercadolivre.http-logging.sample-rates.{2xx,3xx,4xx,5xx,error}, com sobrescrita
+ * por cliente em mercadolivre.http-logging.clients.{NomeDaInterface}.{classe}.
+ */
+public class SampledFeignLogger extends Logger {
+
+    private static final org.slf4j.Logger log = LoggerFactory.getLogger("br.com.setebit.vendasml.http");
+    private static final Set<String> SENSITIVE_PARAMS = Set.of(
+        "access_token", "refresh_token", "client_secret", "code", "token");
+    private static final Pattern QUERY_PARAM = Pattern.compile("([?&])([^=&]+)=([^&]*)");
+    private static final Map<String, Double> DEFAULT_RATES = Map.of(
+        "2xx", 0.01, "3xx", 0.01, "4xx", 1.0, "5xx", 1.0, "error", 1.0);
+
+    private final Environment environment;
+    private final Map<String, Double> rates = new ConcurrentHashMap<>();
+
+    public SampledFeignLogger(Environment environment) {
+        this.environment = environment;
+    }
+
+    @Override
+    protected void log(String configKey, String format, Object... args) {
+        // Não usado: cada chamada gera uma única linha em logAndRebufferResponse ou logIOException
+    }
+
+    @Override
+    protected void logRequest(String configKey, Level logLevel, Request request) {
+        // A requisição é registrada junto com a resposta, se amostrada
+    }
+
+    @Override
+    protected void logRetry(String configKey, Level logLevel) {
+        log.debug("Nova tentativa: {}", configKey);
+    }
+
+    @Override
+    protected Response logAndRebufferResponse(String configKey, Level logLevel, Response response, long elapsedTime) {
+        String statusClass = response.status() / 100 + "xx";
+        if (sampled(configKey, statusClass)) {
+            Request request = response.request();
+            String url = redact(request.url());
+            log.atLevel(response.status() >= 500 ? org.slf4j.event.Level.WARN : org.slf4j.event.Level.INFO)
+                .addKeyValue("http.client", client(configKey))
+                .addKeyValue("http.operation", configKey)
+                .addKeyValue("http.method", request.httpMethod())
+                .addKeyValue("http.url", url)
+                .addKeyValue("http.status", response.status())
+                .addKeyValue("http.elapsed_ms", elapsedTime)
+                .log("{} {} -> {} em {} ms", request.httpMethod(), url, response.status(), elapsedTime);
+        }
+        return response;
+    }
+
+    @Override
+    protected IOException logIOException(String configKey, Level logLevel, IOException ioe, long elapsedTime) {
+        // Sem o Request aqui: a URL fica de fora, o configKey identifica a chamada
+        if (sampled(configKey, "error")) {
+            log.atWarn()
+                .addKeyValue("http.client", client(configKey))
+                .addKeyValue("http.operation", configKey)
+                .addKeyValue("http.elapsed_ms", elapsedTime)
+                .addKeyValue("error.type", ioe.getClass().getSimpleName())
+                .log("Falha de I/O em {} após {} ms: {}", configKey, elapsedTime, ioe.getMessage());
+        }
+        return ioe;
+    }
+
+    private boolean sampled(String configKey, String statusClass) {
+        if (!log.isInfoEnabled()) {
+            return false;
+        }
+        double rate = rate(client(configKey), statusClass);
+        return rate >= 1.0 || (rate > 0 && ThreadLocalRandom.current().nextDouble() < rate);
+    }
+
+    private double rate(String client, String statusClass) {
+        return rates.computeIfAbsent(client + "." + statusClass, key -> {
+            Double global = environment.getProperty("mercadolivre.http-logging.sample-rates." + statusClass,
+                Double.class, DEFAULT_RATES.getOrDefault(statusClass, 1.0));
+            return environment.getProperty("mercadolivre.http-logging.clients." + key, Double.class, global);
+        });
+    }
+
+    /**
+     * Nome da interface do cliente a partir do configKey (ex: MercadoLivreItemClient#getItem(String,String))
+     */
+    private static String client(String configKey) {
+        int separator = configKey.indexOf('#');
+        return separator < 0 ? configKey : configKey.substring(0, separator);
+    }
+
+    static String redact(String url) {
+        if (url.indexOf('?') < 0) {
+            return url;
+        }
+        Matcher matcher = QUERY_PARAM.matcher(url);
+        StringBuilder redacted = new StringBuilder();
+        while (matcher.find()) {
+            String value = SENSITIVE_PARAMS.contains(matcher.group(2)) ? "***" : matcher.group(3);
+            matcher.appendReplacement(redacted, Matcher.quoteReplacement(matcher.group(1) + matcher.group(2) + "=" + value));
+        }
+        matcher.appendTail(redacted);
+        return redacted.toString();
+    }
+}
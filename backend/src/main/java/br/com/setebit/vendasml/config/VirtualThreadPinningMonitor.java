@@ -0,0 +1,105 @@
+package br.com.setebit.vendasml.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingStream;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Diagnóstico de pinning: escuta o evento JFR jdk.VirtualThreadPinned (virtual thread que bloqueou
+ * sem liberar a carrier thread, ex: dentro de synchronized ou em código nativo) e publica
+ * jvm.threads.virtual.pinned{frame}, onde frame é o primeiro método fora do JDK na pilha.
+ * Cada frame novo gera um WARN com a pilha resumida.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = {"spring.threads.virtual.enabled", "mercadolivre.virtual-threads.pinning-monitor.enabled"},
+    havingValue = "true")
+public class VirtualThreadPinningMonitor {
+
+    private static final String EVENT = "jdk.VirtualThreadPinned";
+    private static final int LOGGED_FRAMES = 8;
+
+    private final MeterRegistry meterRegistry;
+    private final Duration threshold;
+    private final Set<String> reported = ConcurrentHashMap.newKeySet();
+    private RecordingStream stream;
+
+    public VirtualThreadPinningMonitor(
+            MeterRegistry meterRegistry,
+            @Value("${mercadolivre.virtual-threads.pinning-monitor.threshold-ms:20}") long thresholdMs) {
+        this.meterRegistry = meterRegistry;
+        this.threshold = Duration.ofMillis(thresholdMs);
+    }
+
+    @PostConstruct
+    void start() {
+        stream = new RecordingStream();
+        stream.enable(EVENT).withThreshold(threshold).withStackTrace();
+        stream.onEvent(EVENT, this::onPinned);
+        stream.startAsync();
+        log.info("Monitor de pinning de virtual threads ativo (limite {} ms)", threshold.toMillis());
+    }
+
+    @PreDestroy
+    void stop() {
+        if (stream != null) {
+            stream.close();
+        }
+    }
+
+    private void onPinned(RecordedEvent event) {
+        String frame = applicationFrame(event.getStackTrace());
+        meterRegistry.counter("jvm.threads.virtual.pinned", "frame", frame).increment();
+        Timer.builder("jvm.threads.virtual.pinned.duration")
+            .description("Tempo em que uma virtual thread ficou presa à carrier thread")
+            .tag("frame", frame)
+            .register(meterRegistry)
+            .record(event.getDuration());
+
+        if (reported.add(frame)) {
+            log.warn("Virtual thread presa à carrier thread por {} ms em {}:\n{}",
+                event.getDuration().toMillis(), frame, summary(event.getStackTrace()));
+        }
+    }
+
+    /**
+     * Primeiro frame fora do JDK (onde o código da aplicação ou de uma biblioteca bloqueou)
+     */
+    private static String applicationFrame(RecordedStackTrace stackTrace) {
+        if (stackTrace == null) {
+            return "unknown";
+        }
+        for (RecordedFrame frame : stackTrace.getFrames()) {
+            String type = frame.getMethod().getType().getName();
+            if (!type.startsWith("java.") && !type.startsWith("jdk.") && !type.startsWith("sun.")) {
+                return type + "." + frame.getMethod().getName();
+            }
+        }
+        return "jdk";
+    }
+
+    private static String summary(RecordedStackTrace stackTrace) {
+        if (stackTrace == null) {
+            return "\t(sem pilha)";
+        }
+        StringBuilder summary = new StringBuilder();
+        stackTrace.getFrames().stream().limit(LOGGED_FRAMES).forEach(frame -> summary
+            .append("\tat ").append(frame.getMethod().getType().getName())
+            .append('.').append(frame.getMethod().getName())
+            .append(':').append(frame.getLineNumber()).append('\n'));
+        return summary.toString();
+    }
+}
@@ -1,10 +1,14 @@
 package br.com.setebit.vendasml.controller;
 
 import br.com.setebit.vendasml.dto.CategoryResponse;
+import br.com.setebit.vendasml.dto.CategorySearchResult;
+import br.com.setebit.vendasml.dto.CategorySnapshotInfo;
 import br.com.setebit.vendasml.dto.ItemRequest;
 import br.com.setebit.vendasml.dto.ItemResponse;
 import br.com.setebit.vendasml.dto.TokenRequest;
 import br.com.setebit.vendasml.dto.TokenResponse;
+import br.com.setebit.vendasml.service.CategorySearchService;
+import br.com.setebit.vendasml.service.CategoryTreeService;
 import br.com.setebit.vendasml.service.MercadoLivreService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -38,6 +42,8 @@ import java.util.List;
 public class CategoriaController {
     
     private final MercadoLivreService mercadoLivreService;
+    private final CategoryTreeService categoryTreeService;
+    private final CategorySearchService categorySearchService;
 
     @Operation(
         summary = "Listar categorias de um site",
@@ -72,5 +78,76 @@ public class CategoriaController {
         CategoryResponse category = mercadoLivreService.getCategory(categoryId);
         return ResponseEntity.ok(category);
     }
+    
+    @Operation(
+        summary = "Buscar categorias por nome",
+        description = "Busca categorias pelo nome (ou parte dele), sem diferenciar acentos e maiúsculas, usando o snapshot local da árvore. Retorna os IDs ordenados por relevância com o caminho completo."
+    )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Categorias encontradas",
+                content = @Content(schema = @Schema(implementation = CategorySearchResult.class))),
+        @ApiResponse(responseCode = "404", description = "Snapshot de categorias não disponível para o site")
+    })
+    @GetMapping("/search")
+    public ResponseEntity<List<CategorySearchResult>> searchCategories(
+            @Parameter(description = "Texto da busca (ex: celular, tênis corr)", required = true)
+            @RequestParam String q,
+            @Parameter(description = "ID do site (padrão MLB)")
+            @RequestParam(defaultValue = "MLB") String siteId,
+            @Parameter(description = "Máximo de resultados (padrão 20, máximo 100)")
+            @RequestParam(defaultValue = "20") int limit) {
+        int boundedLimit = Math.min(Math.max(limit, 1), 100);
+        return ResponseEntity.ok(categorySearchService.search(siteId, q, boundedLimit));
+    }
+    
+    @Operation(
+        summary = "Obter subárvore de categorias do snapshot local",
+        description = "Retorna a categoria e suas subcategorias até a profundidade informada, a partir do snapshot local da árvore (sem acessar o Mercado Livre). Informe o ID do site (ex: MLB) para obter a árvore a partir da raiz."
+    )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Subárvore obtida com sucesso",
+                content = @Content(schema = @Schema(implementation = CategoryResponse.class))),
+        @ApiResponse(responseCode = "404", description = "Categoria não encontrada nos snapshots carregados")
+    })
+    @GetMapping("/arvore/{categoryId}")
+    public ResponseEntity<CategoryResponse> getCategoryTree(
+            @Parameter(description = "ID da categoria (ex: MLB5672) ou do site (ex: MLB)", required = true)
+            @PathVariable String categoryId,
+            @Parameter(description = "Níveis de subcategorias a incluir (padrão 1)")
+            @RequestParam(defaultValue = "1") int depth) {
+        return ResponseEntity.ok(categoryTreeService.getSubtree(categoryId, Math.max(0, depth)));
+    }
+    
+    @Operation(
+        summary = "Consultar snapshot da árvore de categorias",
+        description = "Informa se há snapshot local da árvore de categorias do site, quantas categorias contém e quando foi rastreado"
+    )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Situação do snapshot",
+                content = @Content(schema = @Schema(implementation = CategorySnapshotInfo.class)))
+    })
+    @GetMapping("/snapshots/{siteId}")
+    public ResponseEntity<CategorySnapshotInfo> getSnapshotInfo(
+            @Parameter(description = "ID do site (ex: MLB)", required = true)
+            @PathVariable String siteId) {
+        return ResponseEntity.ok(categoryTreeService.getInfo(siteId));
+    }
+    
+    @Operation(
+        summary = "Gerar snapshot da árvore de categorias",
+        description = "Inicia em segundo plano o rastreamento completo da árvore de categorias do site e grava um novo snapshot local"
+    )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "202", description = "Rastreamento iniciado",
+                content = @Content(schema = @Schema(implementation = CategorySnapshotInfo.class))),
+        @ApiResponse(responseCode = "409", description = "Já existe um rastreamento em andamento para o site")
+    })
+    @PostMapping("/snapshots/{siteId}")
+    public ResponseEntity<CategorySnapshotInfo> crawlSnapshot(
+            @Parameter(description = "ID do site (ex: MLB)", required = true)
+            @PathVariable String siteId) {
+        boolean started = categoryTreeService.startCrawl(siteId);
+        HttpStatus status = started ? HttpStatus.ACCEPTED : HttpStatus.CONFLICT;
+        return ResponseEntity.status(status).body(categoryTreeService.getInfo(siteId));
+    }
 }
-
@@ -0,0 +1,191 @@
+package br.com.setebit.vendasml.controller;
+
+import br.com.setebit.vendasml.dto.ItemMultiGetResponse;
+import br.com.setebit.vendasml.dto.ItemRequest;
+import br.com.setebit.vendasml.dto.ItemResponse;
+import br.com.setebit.vendasml.service.CancellableFutures;
+import br.com.setebit.vendasml.service.MercadoLivreService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
+
+/**
+ * Variantes assíncronas das operações de produto: a thread do Tomcat é liberada assim que a
+ * chamada é iniciada e a resposta é escrita quando o Mercado Livre responde. Se a requisição
+ * expirar (spring.mvc.async.request-timeout) ou o cliente desconectar, a chamada em andamento
+ * é cancelada.
+ */
+@Slf4j
+@RestController
+@RequestMapping("/api/produto/async")
+@RequiredArgsConstructor
+@Tag(name = "Produto (assíncrono)", description = "Operações de produto sem ocupar a thread da requisição durante a chamada ao Mercado Livre")
+public class ProdutoAsyncController {
+
+    private final MercadoLivreService mercadoLivreService;
+
+    @Operation(
+            summary = "Criar produto (assíncrono)",
+            description = "Cria um novo produto no Mercado Livre sem ocupar a thread da requisição"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "201", description = "Produto criado com sucesso",
+                    content = @Content(schema = @Schema(implementation = ItemResponse.class))),
+            @ApiResponse(responseCode = "400", description = "Dados inválidos"),
+            @ApiResponse(responseCode = "504", description = "Mercado Livre não respondeu a tempo")
+    })
+    @PostMapping("/produtos")
+    public DeferredResult<ResponseEntity<ItemResponse>> createProduct(
+            @Parameter(description = "ID do usuário", required = true)
+            @RequestParam String userId,
+            @Parameter(description = "Dados do produto", required = true)
+            @Valid @RequestBody ItemRequest request) {
+        return defer(mercadoLivreService.createProductAsync(userId, request),
+                item -> ResponseEntity.status(HttpStatus.CREATED).body(item));
+    }
+
+    @Operation(
+            summary = "Consultar produto (assíncrono)",
+            description = "Busca um produto do Mercado Livre por ID. Acertos no cache de itens respondem sem nenhuma chamada; maxStaleSeconds limita a idade aceita."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Produto encontrado",
+                    content = @Content(schema = @Schema(implementation = ItemResponse.class))),
+            @ApiResponse(responseCode = "404", description = "Produto não encontrado"),
+            @ApiResponse(responseCode = "504", description = "Mercado Livre não respondeu a tempo")
+    })
+    @GetMapping("/produtos/{id}")
+    public DeferredResult<ResponseEntity<ItemResponse>> getProduct(
+            @Parameter(description = "ID do usuário", required = true)
+            @RequestParam String userId,
+            @Parameter(description = "ID do produto no Mercado Livre", required = true)
+            @PathVariable String id,
+            @Parameter(description = "Idade máxima, em segundos, aceita para uma cópia em cache")
+            @RequestParam(required = false) Long maxStaleSeconds) {
+        if (maxStaleSeconds != null && maxStaleSeconds < 0) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "maxStaleSeconds não pode ser negativo");
+        }
+        Duration maxStale = maxStaleSeconds == null ? null : Duration.ofSeconds(maxStaleSeconds);
+        return defer(mercadoLivreService.getProductAsync(userId, id, maxStale), ResponseEntity::ok);
+    }
+
+    @Operation(
+            summary = "Consultar vários produtos (assíncrono)",
+            description = "Multi-get com os blocos de até 20 IDs buscados em paralelo. Cada item retorna seu próprio status (code) e corpo (body), na ordem dos IDs informados."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Resultado por produto",
+                    content = @Content(schema = @Schema(implementation = ItemMultiGetResponse.class))),
+            @ApiResponse(responseCode = "400", description = "Nenhum ID informado ou IDs demais"),
+            @ApiResponse(responseCode = "504", description = "Mercado Livre não respondeu a tempo")
+    })
+    @GetMapping("/produtos")
+    public DeferredResult<ResponseEntity<List<ItemMultiGetResponse>>> getProducts(
+            @Parameter(description = "ID do usuário", required = true)
+            @RequestParam String userId,
+            @Parameter(description = "IDs dos produtos separados por vírgula (máximo 100)", required = true)
+            @RequestParam List<String> ids) {
+        if (ids.isEmpty() || ids.size() > 100) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Informe entre 1 e 100 IDs de produtos");
+        }
+        return defer(mercadoLivreService.getProductsAsync(userId, ids), ResponseEntity::ok);
+    }
+
+    @Operation(
+            summary = "Atualizar produto (assíncrono)",
+            description = "Atualiza um produto existente no Mercado Livre sem ocupar a thread da requisição"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Produto atualizado com sucesso",
+                    content = @Content(schema = @Schema(implementation = ItemResponse.class))),
+            @ApiResponse(responseCode = "404", description = "Produto não encontrado"),
+            @ApiResponse(responseCode = "504", description = "Mercado Livre não respondeu a tempo")
+    })
+    @PutMapping("/produtos/{id}")
+    public DeferredResult<ResponseEntity<ItemResponse>> updateProduct(
+            @Parameter(description = "ID do usuário", required = true)
+            @RequestParam String userId,
+            @Parameter(description = "ID do produto no Mercado Livre", required = true)
+            @PathVariable String id,
+            @Parameter(description = "Dados atualizados do produto", required = true)
+            @Valid @RequestBody ItemRequest request) {
+        return defer(mercadoLivreService.updateProductAsync(userId, id, request), ResponseEntity::ok);
+    }
+
+    @Operation(
+            summary = "Deletar produto (assíncrono)",
+            description = "Remove um produto do Mercado Livre sem ocupar a thread da requisição"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "204", description = "Produto deletado com sucesso"),
+            @ApiResponse(responseCode = "404", description = "Produto não encontrado"),
+            @ApiResponse(responseCode = "504", description = "Mercado Livre não respondeu a tempo")
+    })
+    @DeleteMapping("/produtos/{id}")
+    public DeferredResult<ResponseEntity<Void>> deleteProduct(
+            @Parameter(description = "ID do usuário", required = true)
+            @RequestParam String userId,
+            @Parameter(description = "ID do produto no Mercado Livre", required = true)
+            @PathVariable String id) {
+        return defer(mercadoLivreService.deleteProductAsync(userId, id), ignored -> ResponseEntity.noContent().build());
+    }
+
+    /**
+     * Liga o future ao DeferredResult: timeout da requisição ou desconexão do cliente cancelam o future
+     * (e com ele a chamada ao Mercado Livre); o timeout do serviço vira 504
+     */
+    private <T, R> DeferredResult<R> defer(CompletableFuture<T> future, Function<T, R> toResponse) {
+        DeferredResult<R> result = new DeferredResult<>();
+        result.onTimeout(() -> {
+            future.cancel(true);
+            result.setErrorResult(new ResponseStatusException(HttpStatus.GATEWAY_TIMEOUT,
+                    "Tempo esgotado aguardando o Mercado Livre"));
+        });
+        result.onError(error -> {
+            log.debug("Requisição assíncrona encerrada com erro, cancelando chamada: {}", error.getMessage());
+            future.cancel(true);
+        });
+        future.whenComplete((value, error) -> {
+            if (error == null) {
+                result.setResult(toResponse.apply(value));
+            } else {
+                result.setErrorResult(toHttpError(error));
+            }
+        });
+        return result;
+    }
+
+    private static Throwable toHttpError(Throwable failure) {
+        Throwable error = CancellableFutures.unwrap(failure);
+        if (error instanceof TimeoutException) {
+            return new ResponseStatusException(HttpStatus.GATEWAY_TIMEOUT, "Tempo esgotado aguardando o Mercado Livre");
+        }
+        return error;
+    }
+}
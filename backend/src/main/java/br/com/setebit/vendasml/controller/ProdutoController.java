@@ -1,8 +1,19 @@
 package br.com.setebit.vendasml.controller;
 
+import br.com.setebit.vendasml.dto.BatchItemRequest;
+import br.com.setebit.vendasml.dto.BatchItemResponse;
+import br.com.setebit.vendasml.dto.ImportJobStatus;
+import br.com.setebit.vendasml.dto.ItemMultiGetResponse;
 import br.com.setebit.vendasml.dto.ItemRequest;
 import br.com.setebit.vendasml.dto.ItemResponse;
+import br.com.setebit.vendasml.dto.PriceStockAccepted;
+import br.com.setebit.vendasml.dto.PriceStockBatchRequest;
+import br.com.setebit.vendasml.dto.PriceStockUpdate;
+import br.com.setebit.vendasml.service.IdempotencyService;
 import br.com.setebit.vendasml.service.MercadoLivreService;
+import br.com.setebit.vendasml.service.PriceStockCoalescer;
+import br.com.setebit.vendasml.service.ProdutoBatchService;
+import br.com.setebit.vendasml.service.ProdutoImportService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -13,7 +24,11 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -21,9 +36,17 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
 
 @Slf4j
 @RestController
@@ -32,7 +55,14 @@ import org.springframework.web.bind.annotation.RestController;
 @Tag(name = "Produto", description = "API para integração com Mercado Livre - Autenticação OAuth e gerenciamento de produtos")
 public class ProdutoController {
 
+    private static final String IDEMPOTENCY_KEY = "Idempotency-Key";
+    private static final String IDEMPOTENT_REPLAYED = "Idempotent-Replayed";
+
     private final MercadoLivreService mercadoLivreService;
+    private final ProdutoBatchService produtoBatchService;
+    private final ProdutoImportService produtoImportService;
+    private final IdempotencyService idempotencyService;
+    private final PriceStockCoalescer priceStockCoalescer;
 
     @Operation(
             summary = "Criar produto",
@@ -42,21 +72,33 @@ public class ProdutoController {
             @ApiResponse(responseCode = "201", description = "Produto criado com sucesso",
                     content = @Content(schema = @Schema(implementation = ItemResponse.class))),
             @ApiResponse(responseCode = "400", description = "Dados inválidos"),
-            @ApiResponse(responseCode = "401", description = "Token inválido ou expirado")
+            @ApiResponse(responseCode = "401", description = "Token inválido ou expirado"),
+            @ApiResponse(responseCode = "409", description = "Requisição com a mesma Idempotency-Key ainda em processamento"),
+            @ApiResponse(responseCode = "422", description = "Idempotency-Key já utilizada com outro corpo")
     })
     @PostMapping("/produtos")
     public ResponseEntity<ItemResponse> createProduct(
             @Parameter(description = "ID do usuário", required = true)
             @RequestParam String userId,
+            @Parameter(description = "Chave única da criação (ex: UUID). Repetições com a mesma chave devolvem o produto já criado, com Idempotent-Replayed: true, sem chamar o Mercado Livre de novo")
+            @RequestHeader(value = IDEMPOTENCY_KEY, required = false) String idempotencyKey,
             @Parameter(description = "Dados do produto", required = true)
             @Valid @RequestBody ItemRequest request) {
-        ItemResponse response = mercadoLivreService.createProduct(userId, request);
-        return ResponseEntity.status(HttpStatus.CREATED).body(response);
+        if (idempotencyKey == null) {
+            ItemResponse response = mercadoLivreService.createProduct(userId, request);
+            return ResponseEntity.status(HttpStatus.CREATED).body(response);
+        }
+        IdempotencyService.Result result = idempotencyService.createOnce(userId, idempotencyKey, request,
+                () -> "Bearer " + mercadoLivreService.getValidAccessToken(userId),
+                authorization -> mercadoLivreService.sendCreate(authorization, userId, request));
+        return ResponseEntity.status(HttpStatus.CREATED)
+                .header(IDEMPOTENT_REPLAYED, String.valueOf(result.replayed()))
+                .body(result.item());
     }
 
     @Operation(
             summary = "Consultar produto",
-            description = "Busca um produto específico do Mercado Livre por ID"
+            description = "Busca um produto específico do Mercado Livre por ID. Leituras repetidas são servidas por um cache de TTL curto por usuário; maxStaleSeconds limita a idade aceita (0 força a consulta ao Mercado Livre)."
     )
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Produto encontrado",
@@ -68,11 +110,38 @@ public class ProdutoController {
             @Parameter(description = "ID do usuário", required = true)
             @RequestParam String userId,
             @Parameter(description = "ID do produto no Mercado Livre", required = true)
-            @PathVariable String id) {
-        ItemResponse response = mercadoLivreService.getProduct(userId, id);
+            @PathVariable String id,
+            @Parameter(description = "Idade máxima, em segundos, aceita para uma cópia em cache")
+            @RequestParam(required = false) Long maxStaleSeconds) {
+        if (maxStaleSeconds != null && maxStaleSeconds < 0) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "maxStaleSeconds não pode ser negativo");
+        }
+        Duration maxStale = maxStaleSeconds == null ? null : Duration.ofSeconds(maxStaleSeconds);
+        ItemResponse response = mercadoLivreService.getProduct(userId, id, maxStale);
         return ResponseEntity.ok(response);
     }
 
+    @Operation(
+            summary = "Consultar vários produtos",
+            description = "Busca vários produtos do Mercado Livre de uma vez (multi-get, até 20 IDs por chamada ao Mercado Livre). Cada item retorna seu próprio status (code) e corpo (body), na ordem dos IDs informados."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Resultado por produto",
+                    content = @Content(schema = @Schema(implementation = ItemMultiGetResponse.class))),
+            @ApiResponse(responseCode = "400", description = "Nenhum ID informado ou IDs demais")
+    })
+    @GetMapping("/produtos")
+    public ResponseEntity<List<ItemMultiGetResponse>> getProducts(
+            @Parameter(description = "ID do usuário", required = true)
+            @RequestParam String userId,
+            @Parameter(description = "IDs dos produtos separados por vírgula (máximo 100)", required = true)
+            @RequestParam List<String> ids) {
+        if (ids.isEmpty() || ids.size() > 100) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Informe entre 1 e 100 IDs de produtos");
+        }
+        return ResponseEntity.ok(mercadoLivreService.getProducts(userId, ids));
+    }
+
     @Operation(
             summary = "Atualizar produto",
             description = "Atualiza um produto existente no Mercado Livre"
@@ -94,6 +163,47 @@ public class ProdutoController {
         return ResponseEntity.ok(response);
     }
 
+    @Operation(
+            summary = "Atualizar preço e/ou estoque",
+            description = "Caminho rápido para alterações frequentes de price e available_quantity. Responde na hora; alterações do mesmo produto dentro da janela (mercadolivre.price-stock.window-ms) são combinadas e só o último valor é enviado ao Mercado Livre em um PUT parcial."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "202", description = "Alteração aceita",
+                    content = @Content(schema = @Schema(implementation = PriceStockAccepted.class))),
+            @ApiResponse(responseCode = "400", description = "Nem price nem available_quantity informados"),
+            @ApiResponse(responseCode = "429", description = "Muitos produtos aguardando envio")
+    })
+    @PutMapping("/produtos/{id}/preco-estoque")
+    public ResponseEntity<PriceStockAccepted> updatePriceStock(
+            @Parameter(description = "ID do usuário", required = true)
+            @RequestParam String userId,
+            @Parameter(description = "ID do produto no Mercado Livre", required = true)
+            @PathVariable String id,
+            @Parameter(description = "Novo preço e/ou estoque", required = true)
+            @Valid @RequestBody PriceStockUpdate request) {
+        request.setItem_id(id);
+        return ResponseEntity.accepted().body(priceStockCoalescer.submit(userId, List.of(request)));
+    }
+
+    @Operation(
+            summary = "Atualizar preço e/ou estoque em lote",
+            description = "Mesmo caminho rápido para vários produtos em uma chamada (item_id obrigatório em cada alteração). Alterações repetidas do mesmo produto são combinadas, mantendo o último valor."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "202", description = "Alterações aceitas",
+                    content = @Content(schema = @Schema(implementation = PriceStockAccepted.class))),
+            @ApiResponse(responseCode = "400", description = "Lote vazio, grande demais ou alteração sem item_id/valores"),
+            @ApiResponse(responseCode = "429", description = "Muitos produtos aguardando envio")
+    })
+    @PostMapping("/produtos/preco-estoque")
+    public ResponseEntity<PriceStockAccepted> updatePriceStockBatch(
+            @Parameter(description = "ID do usuário", required = true)
+            @RequestParam String userId,
+            @Parameter(description = "Alterações de preço/estoque", required = true)
+            @Valid @RequestBody PriceStockBatchRequest request) {
+        return ResponseEntity.accepted().body(priceStockCoalescer.submit(userId, request.getUpdates()));
+    }
+
     @Operation(
             summary = "Deletar produto",
             description = "Remove um produto do Mercado Livre"
@@ -112,4 +222,86 @@ public class ProdutoController {
         return ResponseEntity.noContent().build();
     }
 
+    @Operation(
+            summary = "Executar lote de operações de produtos",
+            description = "Cria, atualiza e/ou deleta vários produtos em uma única chamada. O token é resolvido uma vez e as operações são executadas em paralelo (com limite por usuário). Cada operação retorna seu próprio status; falhas individuais não interrompem o lote."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Lote processado; verifique o status de cada operação",
+                    content = @Content(schema = @Schema(implementation = BatchItemResponse.class))),
+            @ApiResponse(responseCode = "400", description = "Lote vazio ou com mais operações que o permitido"),
+            @ApiResponse(responseCode = "404", description = "Token não encontrado para o usuário")
+    })
+    @PostMapping("/produtos/batch")
+    public ResponseEntity<BatchItemResponse> batchProducts(
+            @Parameter(description = "ID do usuário", required = true)
+            @RequestParam String userId,
+            @Parameter(description = "Operações do lote", required = true)
+            @Valid @RequestBody BatchItemRequest request) {
+        BatchItemResponse response = produtoBatchService.execute(userId, request.getOperations());
+        return ResponseEntity.ok(response);
+    }
+
+    @Operation(
+            summary = "Importar produtos em massa",
+            description = "Recebe um arquivo NDJSON (um ItemRequest por linha) ou CSV (cabeçalho com os campos do ItemRequest; description em texto e pictures separadas por '|') e cria os produtos em segundo plano. Retorna o ID da importação para acompanhar o progresso e consultar o resultado de cada linha."
+    )
+    @io.swagger.v3.oas.annotations.parameters.RequestBody(content = {
+            @Content(mediaType = "application/x-ndjson"),
+            @Content(mediaType = "text/csv")
+    })
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "202", description = "Importação iniciada",
+                    content = @Content(schema = @Schema(implementation = ImportJobStatus.class))),
+            @ApiResponse(responseCode = "415", description = "Formato não suportado")
+    })
+    @PostMapping(value = "/produtos/import", consumes = {"application/x-ndjson", "text/csv"})
+    public ResponseEntity<ImportJobStatus> importProducts(
+            @Parameter(description = "ID do usuário", required = true)
+            @RequestParam String userId,
+            @Parameter(hidden = true)
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) MediaType contentType,
+            @Parameter(hidden = true)
+            InputStream body) {
+        ImportJobStatus status = produtoImportService.start(userId, contentType, body);
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(status);
+    }
+
+    @Operation(
+            summary = "Consultar importação",
+            description = "Retorna o progresso de uma importação em massa: linhas lidas, sucessos e falhas"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Situação da importação",
+                    content = @Content(schema = @Schema(implementation = ImportJobStatus.class))),
+            @ApiResponse(responseCode = "404", description = "Importação não encontrada")
+    })
+    @GetMapping("/produtos/import/{jobId}")
+    public ResponseEntity<ImportJobStatus> getImportStatus(
+            @Parameter(description = "ID da importação", required = true)
+            @PathVariable String jobId) {
+        return ResponseEntity.ok(produtoImportService.getStatus(jobId));
+    }
+
+    @Operation(
+            summary = "Resultados da importação",
+            description = "Retorna em NDJSON o resultado de cada linha processada até o momento (linha, status, item_id ou erro)"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Resultados por linha"),
+            @ApiResponse(responseCode = "404", description = "Importação não encontrada")
+    })
+    @GetMapping(value = "/produtos/import/{jobId}/resultados", produces = "application/x-ndjson")
+    public ResponseEntity<Resource> getImportResults(
+            @Parameter(description = "ID da importação", required = true)
+            @PathVariable String jobId) {
+        Path results = produtoImportService.getResultsFile(jobId);
+        if (!Files.exists(results)) {
+            return ResponseEntity.noContent().build();
+        }
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType("application/x-ndjson"))
+                .body(new FileSystemResource(results));
+    }
+
 }
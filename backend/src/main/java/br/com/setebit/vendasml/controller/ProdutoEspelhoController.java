@@ -0,0 +1,118 @@
+package br.com.setebit.vendasml.controller;
+
+import br.com.setebit.vendasml.dto.ItemMirrorPage;
+import br.com.setebit.vendasml.dto.ItemMirrorResponse;
+import br.com.setebit.vendasml.dto.ItemMirrorSyncStatus;
+import br.com.setebit.vendasml.service.ItemMirrorService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.net.URI;
+
+/**
+ * Listagens servidas pela cópia local dos produtos (item_mirror), sem chamar o Mercado Livre.
+ * Os dados refletem a última sincronização (campo synced_at de cada produto).
+ */
+@RestController
+@RequestMapping("/api/produto/espelho")
+@RequiredArgsConstructor
+@Tag(name = "Produto (cópia local)", description = "Sincronização e consulta da cópia local dos produtos de cada vendedor")
+public class ProdutoEspelhoController {
+
+    private final ItemMirrorService itemMirrorService;
+
+    @Operation(
+            summary = "Sincronizar cópia local",
+            description = "Inicia em segundo plano a sincronização dos produtos do vendedor: a primeira lê todos os produtos, as seguintes só os novos ou alterados (last_updated). Se já houver uma em andamento, retorna o estado dela."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "202", description = "Sincronização iniciada ou em andamento",
+                    content = @Content(schema = @Schema(implementation = ItemMirrorSyncStatus.class))),
+            @ApiResponse(responseCode = "404", description = "Token não encontrado para o usuário")
+    })
+    @PostMapping("/sync")
+    public ResponseEntity<ItemMirrorSyncStatus> sync(
+            @Parameter(description = "ID do usuário", required = true)
+            @RequestParam String userId) {
+        return ResponseEntity.accepted()
+                .location(URI.create("/api/produto/espelho/sync?userId=" + userId))
+                .body(itemMirrorService.startSync(userId));
+    }
+
+    @Operation(
+            summary = "Consultar sincronização",
+            description = "Estado da sincronização em andamento ou da última executada neste processo"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Estado da sincronização",
+                    content = @Content(schema = @Schema(implementation = ItemMirrorSyncStatus.class))),
+            @ApiResponse(responseCode = "404", description = "Nenhuma sincronização executada para o usuário")
+    })
+    @GetMapping("/sync")
+    public ResponseEntity<ItemMirrorSyncStatus> getSync(
+            @Parameter(description = "ID do usuário", required = true)
+            @RequestParam String userId) {
+        return ResponseEntity.ok(itemMirrorService.getSyncStatus(userId));
+    }
+
+    @Operation(
+            summary = "Listar produtos (cópia local)",
+            description = "Produtos do vendedor com filtros opcionais, do mais recentemente alterado para o mais antigo"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Página de produtos",
+                    content = @Content(schema = @Schema(implementation = ItemMirrorPage.class))),
+            @ApiResponse(responseCode = "400", description = "Paginação inválida")
+    })
+    @GetMapping("/produtos")
+    public ResponseEntity<ItemMirrorPage> listProducts(
+            @Parameter(description = "ID do usuário", required = true)
+            @RequestParam String userId,
+            @Parameter(description = "Status no Mercado Livre (ex: active, paused, closed)")
+            @RequestParam(required = false) String status,
+            @Parameter(description = "ID da categoria")
+            @RequestParam(required = false) String categoryId,
+            @Parameter(description = "Preço mínimo")
+            @RequestParam(required = false) Double minPrice,
+            @Parameter(description = "Preço máximo")
+            @RequestParam(required = false) Double maxPrice,
+            @Parameter(description = "Trecho do título")
+            @RequestParam(required = false) String title,
+            @Parameter(description = "Página (a partir de 0)")
+            @RequestParam(defaultValue = "0") int page,
+            @Parameter(description = "Produtos por página (máximo 200)")
+            @RequestParam(defaultValue = "50") int size) {
+        return ResponseEntity.ok(itemMirrorService.search(userId, status, categoryId, minPrice, maxPrice, title, page, size));
+    }
+
+    @Operation(
+            summary = "Consultar produto (cópia local)",
+            description = "Produto como estava na última sincronização"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Produto encontrado",
+                    content = @Content(schema = @Schema(implementation = ItemMirrorResponse.class))),
+            @ApiResponse(responseCode = "404", description = "Produto não está na cópia local")
+    })
+    @GetMapping("/produtos/{id}")
+    public ResponseEntity<ItemMirrorResponse> getProduct(
+            @Parameter(description = "ID do usuário", required = true)
+            @RequestParam String userId,
+            @Parameter(description = "ID do produto no Mercado Livre", required = true)
+            @PathVariable String id) {
+        return ResponseEntity.ok(itemMirrorService.getItem(userId, id));
+    }
+}
@@ -0,0 +1,117 @@
+package br.com.setebit.vendasml.controller;
+
+import br.com.setebit.vendasml.dto.ItemRequest;
+import br.com.setebit.vendasml.dto.OutboxOperationStatus;
+import br.com.setebit.vendasml.service.ItemOutboxService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.net.URI;
+
+/**
+ * Escritas de produto com confirmação imediata: a operação é gravada no outbox e a resposta
+ * 202 traz o ID para consultar o resultado em /api/produto/outbox/operacoes/{operationId}.
+ * Operações do mesmo produto chegam ao Mercado Livre na ordem em que foram aceitas.
+ */
+@RestController
+@RequestMapping("/api/produto/outbox")
+@RequiredArgsConstructor
+@Tag(name = "Produto (outbox)", description = "Escritas de produto aceitas na hora e enviadas ao Mercado Livre em segundo plano, com retries e consulta de status")
+public class ProdutoOutboxController {
+
+    private final ItemOutboxService itemOutboxService;
+
+    @Operation(
+            summary = "Criar produto (outbox)",
+            description = "Registra a criação do produto e responde sem esperar o Mercado Livre. O item_id aparece na consulta da operação quando ela for concluída."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "202", description = "Operação aceita",
+                    content = @Content(schema = @Schema(implementation = OutboxOperationStatus.class))),
+            @ApiResponse(responseCode = "400", description = "Dados inválidos")
+    })
+    @PostMapping("/produtos")
+    public ResponseEntity<OutboxOperationStatus> createProduct(
+            @Parameter(description = "ID do usuário", required = true)
+            @RequestParam String userId,
+            @Parameter(description = "Dados do produto", required = true)
+            @Valid @RequestBody ItemRequest request) {
+        return accepted(itemOutboxService.enqueueCreate(userId, request));
+    }
+
+    @Operation(
+            summary = "Atualizar produto (outbox)",
+            description = "Registra a atualização do produto e responde sem esperar o Mercado Livre"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "202", description = "Operação aceita",
+                    content = @Content(schema = @Schema(implementation = OutboxOperationStatus.class))),
+            @ApiResponse(responseCode = "400", description = "Dados inválidos")
+    })
+    @PutMapping("/produtos/{id}")
+    public ResponseEntity<OutboxOperationStatus> updateProduct(
+            @Parameter(description = "ID do usuário", required = true)
+            @RequestParam String userId,
+            @Parameter(description = "ID do produto no Mercado Livre", required = true)
+            @PathVariable String id,
+            @Parameter(description = "Dados atualizados do produto", required = true)
+            @Valid @RequestBody ItemRequest request) {
+        return accepted(itemOutboxService.enqueueUpdate(userId, id, request));
+    }
+
+    @Operation(
+            summary = "Deletar produto (outbox)",
+            description = "Registra a exclusão do produto e responde sem esperar o Mercado Livre"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "202", description = "Operação aceita",
+                    content = @Content(schema = @Schema(implementation = OutboxOperationStatus.class)))
+    })
+    @DeleteMapping("/produtos/{id}")
+    public ResponseEntity<OutboxOperationStatus> deleteProduct(
+            @Parameter(description = "ID do usuário", required = true)
+            @RequestParam String userId,
+            @Parameter(description = "ID do produto no Mercado Livre", required = true)
+            @PathVariable String id) {
+        return accepted(itemOutboxService.enqueueDelete(userId, id));
+    }
+
+    @Operation(
+            summary = "Consultar operação do outbox",
+            description = "Retorna a situação da operação: PENDING (na fila ou aguardando retry), IN_PROGRESS, SUCCEEDED ou FAILED, com tentativas, último status HTTP e erro"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Situação da operação",
+                    content = @Content(schema = @Schema(implementation = OutboxOperationStatus.class))),
+            @ApiResponse(responseCode = "404", description = "Operação não encontrada (ou já removida após a retenção)")
+    })
+    @GetMapping("/operacoes/{operationId}")
+    public ResponseEntity<OutboxOperationStatus> getOperation(
+            @Parameter(description = "ID da operação", required = true)
+            @PathVariable String operationId) {
+        return ResponseEntity.ok(itemOutboxService.getStatus(operationId));
+    }
+
+    private static ResponseEntity<OutboxOperationStatus> accepted(OutboxOperationStatus status) {
+        return ResponseEntity.accepted()
+                .location(URI.create("/api/produto/outbox/operacoes/" + status.getOperationId()))
+                .body(status);
+    }
+}
@@ -0,0 +1,33 @@
+package br.com.setebit.vendasml.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchItemOperation {
+    @NotNull(message = "Operação é obrigatória")
+    private Type operation;
+    
+    /**
+     * ID do produto no Mercado Livre (obrigatório para UPDATE e DELETE)
+     */
+    @JsonProperty("item_id")
+    private String itemId;
+    
+    /**
+     * Dados do produto (obrigatório para CREATE e UPDATE). Validado individualmente,
+     * para que um item inválido não invalide o lote inteiro.
+     */
+    private ItemRequest item;
+    
+    public enum Type {
+        CREATE, UPDATE, DELETE
+    }
+}
@@ -0,0 +1,21 @@
+package br.com.setebit.vendasml.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchItemRequest {
+    @NotEmpty(message = "Informe pelo menos uma operação")
+    @Size(max = 1000, message = "Máximo de 1000 operações por lote")
+    private List<@NotNull(message = "Operação não pode ser nula") BatchItemOperation> operations;
+}
@@ -0,0 +1,34 @@
+package br.com.setebit.vendasml.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BatchItemResult {
+    /**
+     * Posição da operação na lista enviada
+     */
+    private int index;
+    
+    private BatchItemOperation.Type operation;
+    
+    @JsonProperty("item_id")
+    private String itemId;
+    
+    /**
+     * Status HTTP da operação individual
+     */
+    private int status;
+    
+    private ItemResponse item;
+    
+    private String error;
+}
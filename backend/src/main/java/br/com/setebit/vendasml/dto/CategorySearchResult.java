@@ -0,0 +1,29 @@
+package br.com.setebit.vendasml.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CategorySearchResult {
+    private String id;
+    private String name;
+    
+    /**
+     * Nomes das categorias da principal até a encontrada (inclusive)
+     */
+    private List<String> path;
+    
+    /**
+     * Categoria folha: apenas categorias sem subcategorias aceitam anúncios
+     */
+    private boolean leaf;
+    
+    private float score;
+}
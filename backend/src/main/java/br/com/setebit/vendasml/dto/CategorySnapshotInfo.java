@@ -0,0 +1,28 @@
+package br.com.setebit.vendasml.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CategorySnapshotInfo {
+    @JsonProperty("site_id")
+    private String siteId;
+
+    private boolean available;
+
+    @JsonProperty("category_count")
+    private int categoryCount;
+
+    @JsonProperty("crawled_at")
+    private Instant crawledAt;
+
+    private boolean crawling;
+}
@@ -0,0 +1,48 @@
+package br.com.setebit.vendasml.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ImportJobStatus {
+    @JsonProperty("job_id")
+    private String jobId;
+    
+    @JsonProperty("user_id")
+    private String userId;
+    
+    private String format;
+    
+    private Status status;
+    
+    /**
+     * Linhas lidas do arquivo até o momento
+     */
+    private long rows;
+    
+    private long succeeded;
+    
+    private long failed;
+    
+    @JsonProperty("started_at")
+    private Instant startedAt;
+    
+    @JsonProperty("finished_at")
+    private Instant finishedAt;
+    
+    private String error;
+    
+    public enum Status {
+        RUNNING, COMPLETED, FAILED
+    }
+}
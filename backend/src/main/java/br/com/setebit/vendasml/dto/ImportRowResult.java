@@ -0,0 +1,27 @@
+package br.com.setebit.vendasml.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ImportRowResult {
+    /**
+     * Número da linha (NDJSON) ou do registro (CSV, sem contar o cabeçalho)
+     */
+    private long row;
+    
+    private int status;
+    
+    @JsonProperty("item_id")
+    private String itemId;
+    
+    private String error;
+}
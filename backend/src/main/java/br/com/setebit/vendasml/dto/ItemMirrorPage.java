@@ -0,0 +1,25 @@
+package br.com.setebit.vendasml.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ItemMirrorPage {
+    /**
+     * Produtos que atendem aos filtros
+     */
+    private long total;
+    
+    private int page;
+    
+    private int size;
+    
+    private List<ItemMirrorResponse> items;
+}
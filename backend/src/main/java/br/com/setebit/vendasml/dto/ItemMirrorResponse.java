@@ -0,0 +1,53 @@
+package br.com.setebit.vendasml.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Produto servido pela cópia local (item_mirror), sem chamada ao Mercado Livre
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ItemMirrorResponse {
+    @JsonProperty("item_id")
+    private String itemId;
+    
+    private String title;
+    
+    @JsonProperty("category_id")
+    private String categoryId;
+    
+    private Double price;
+    
+    @JsonProperty("currency_id")
+    private String currencyId;
+    
+    @JsonProperty("available_quantity")
+    private Integer availableQuantity;
+    
+    @JsonProperty("sold_quantity")
+    private Integer soldQuantity;
+    
+    private String status;
+    
+    private String permalink;
+    
+    /**
+     * Última alteração no Mercado Livre (UTC)
+     */
+    @JsonProperty("last_updated")
+    private LocalDateTime lastUpdated;
+    
+    /**
+     * Última sincronização que confirmou o produto
+     */
+    @JsonProperty("synced_at")
+    private LocalDateTime syncedAt;
+}
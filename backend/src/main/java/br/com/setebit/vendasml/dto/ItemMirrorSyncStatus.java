@@ -0,0 +1,73 @@
+package br.com.setebit.vendasml.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ItemMirrorSyncStatus {
+    @JsonProperty("user_id")
+    private String userId;
+    
+    private Status status;
+    
+    /**
+     * IDs recebidos da varredura do vendedor
+     */
+    private long scanned;
+    
+    /**
+     * Produtos já conhecidos conferidos só pelo last_updated
+     */
+    private long checked;
+    
+    /**
+     * Produtos relidos por completo (novos ou alterados)
+     */
+    private long fetched;
+    
+    /**
+     * Produtos gravados na cópia local (conteúdo novo ou alterado)
+     */
+    private long updated;
+    
+    /**
+     * Produtos sem alteração desde a sincronização anterior
+     */
+    private long unchanged;
+    
+    /**
+     * Produtos removidos da cópia local por não existirem mais no vendedor
+     */
+    private long removed;
+    
+    /**
+     * Produtos que não puderam ser lidos nesta sincronização
+     */
+    private long failed;
+    
+    @JsonProperty("started_at")
+    private Instant startedAt;
+    
+    @JsonProperty("finished_at")
+    private Instant finishedAt;
+    
+    private String error;
+    
+    /**
+     * PARTIAL: parte dos produtos falhou ou a varredura não trouxe todos os IDs; nada é removido
+     * da cópia local e a próxima sincronização relê o que faltou
+     */
+    public enum Status {
+        RUNNING, COMPLETED, PARTIAL, FAILED
+    }
+}
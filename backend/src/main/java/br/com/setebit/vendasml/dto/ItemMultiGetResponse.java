@@ -0,0 +1,16 @@
+package br.com.setebit.vendasml.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Entrada da resposta de GET /items?ids=: status HTTP e corpo de cada item solicitado
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ItemMultiGetResponse {
+    private Integer code;
+    private ItemResponse body;
+}
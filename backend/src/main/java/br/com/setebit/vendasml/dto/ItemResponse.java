@@ -7,12 +7,27 @@ import lombok.Data;
 public class ItemResponse {
     private String id;
     private String title;
+    
+    @JsonProperty("category_id")
+    private String categoryId;
+    
     private Double price;
     
+    @JsonProperty("currency_id")
+    private String currencyId;
+    
     @JsonProperty("available_quantity")
     private Integer availableQuantity;
     
+    @JsonProperty("sold_quantity")
+    private Integer soldQuantity;
+    
     private String status;
     private String permalink;
+    
+    /**
+     * Data da última alteração no Mercado Livre (ISO-8601)
+     */
+    @JsonProperty("last_updated")
+    private String lastUpdated;
 }
-
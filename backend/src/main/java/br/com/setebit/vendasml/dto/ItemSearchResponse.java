@@ -0,0 +1,26 @@
+package br.com.setebit.vendasml.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * Página de GET /users/{id}/items/search?search_type=scan: IDs dos produtos do vendedor e o
+ * scroll_id para a próxima página (sem o limite de offset da busca paginada)
+ */
+@Data
+public class ItemSearchResponse {
+    private List<String> results;
+    
+    @JsonProperty("scroll_id")
+    private String scrollId;
+    
+    private Paging paging;
+    
+    @Data
+    public static class Paging {
+        private Long total;
+        private Integer limit;
+    }
+}
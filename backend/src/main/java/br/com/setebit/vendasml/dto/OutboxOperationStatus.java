@@ -0,0 +1,65 @@
+package br.com.setebit.vendasml.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class OutboxOperationStatus {
+    @JsonProperty("operation_id")
+    private String operationId;
+    
+    @JsonProperty("user_id")
+    private String userId;
+    
+    /**
+     * CREATE, UPDATE ou DELETE
+     */
+    private String operation;
+    
+    /**
+     * Produto alvo; em criações, preenchido quando o Mercado Livre devolve o ID
+     */
+    @JsonProperty("item_id")
+    private String itemId;
+    
+    private Status status;
+    
+    /**
+     * Tentativas de envio ao Mercado Livre até o momento
+     */
+    private int attempts;
+    
+    /**
+     * Status HTTP da última tentativa
+     */
+    @JsonProperty("http_status")
+    private Integer httpStatus;
+    
+    private String error;
+    
+    @JsonProperty("created_at")
+    private LocalDateTime createdAt;
+    
+    @JsonProperty("updated_at")
+    private LocalDateTime updatedAt;
+    
+    /**
+     * Próxima tentativa, enquanto a operação estiver pendente
+     */
+    @JsonProperty("next_attempt_at")
+    private LocalDateTime nextAttemptAt;
+    
+    public enum Status {
+        PENDING, IN_PROGRESS, SUCCEEDED, FAILED
+    }
+}
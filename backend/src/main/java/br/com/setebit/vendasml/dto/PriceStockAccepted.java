@@ -0,0 +1,29 @@
+package br.com.setebit.vendasml.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PriceStockAccepted {
+    /**
+     * Alterações aceitas
+     */
+    private int accepted;
+    
+    /**
+     * Alterações combinadas com outra já pendente para o mesmo produto (só o último valor é enviado)
+     */
+    private int coalesced;
+    
+    /**
+     * Atraso máximo até o envio ao Mercado Livre
+     */
+    @JsonProperty("window_ms")
+    private long windowMs;
+}
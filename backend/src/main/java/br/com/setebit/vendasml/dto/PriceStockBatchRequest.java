@@ -0,0 +1,22 @@
+package br.com.setebit.vendasml.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PriceStockBatchRequest {
+    @NotEmpty(message = "Informe pelo menos uma alteração")
+    @Size(max = 5000, message = "Máximo de 5000 alterações por chamada")
+    private List<@Valid @NotNull(message = "Alteração não pode ser nula") PriceStockUpdate> updates;
+}
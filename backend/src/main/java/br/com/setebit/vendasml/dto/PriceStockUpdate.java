@@ -0,0 +1,28 @@
+package br.com.setebit.vendasml.dto;
+
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Min;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Alteração de preço e/ou estoque de um produto. Campos ausentes não são alterados.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PriceStockUpdate {
+    /**
+     * Obrigatório no envio em lote; na rota por produto vem do caminho
+     */
+    private String item_id;
+    
+    @DecimalMin(value = "0.01", message = "Preço deve ser maior que zero")
+    private Double price;
+    
+    @Min(value = 0, message = "Quantidade não pode ser negativa")
+    private Integer available_quantity;
+}
@@ -0,0 +1,96 @@
+package br.com.setebit.vendasml.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+import org.springframework.data.domain.Persistable;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+/**
+ * Idempotency-Key recebida na criação de produto, por usuário. Enquanto IN_PROGRESS a chave
+ * reserva a criação; COMPLETED guarda a resposta (ou o erro) devolvida nas repetições.
+ */
+@Entity
+@Table(name = "idempotency_keys")
+@IdClass(IdempotencyKeyEntity.Key.class)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class IdempotencyKeyEntity implements Persistable<IdempotencyKeyEntity.Key> {
+    @Id
+    @Column(name = "user_id", length = 20)
+    private String userId;
+    
+    @Id
+    @Column(name = "idempotency_key", length = 100)
+    private String idempotencyKey;
+    
+    /**
+     * SHA-256 do corpo da requisição: a mesma chave com outro corpo é rejeitada
+     */
+    @Column(name = "request_hash", length = 64, nullable = false, updatable = false)
+    private String requestHash;
+    
+    @Enumerated(EnumType.STRING)
+    @JdbcTypeCode(SqlTypes.VARCHAR)
+    @Column(name = "status", length = 16, nullable = false)
+    private Status status;
+    
+    @Column(name = "response_status")
+    private Integer responseStatus;
+    
+    /**
+     * ItemResponse em JSON quando a criação deu certo
+     */
+    @Column(name = "response_body", columnDefinition = "MEDIUMTEXT")
+    private String responseBody;
+    
+    @Column(name = "error", length = 1000)
+    private String error;
+    
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+    
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+    
+    /**
+     * Chaves são sempre inseridas com persist: uma chave duplicada falha no insert em vez de
+     * sobrescrever a reserva de outra requisição
+     */
+    @Transient
+    @Builder.Default
+    private boolean newEntry = true;
+    
+    @Override
+    public Key getId() {
+        return new Key(userId, idempotencyKey);
+    }
+    
+    @Override
+    public boolean isNew() {
+        return newEntry;
+    }
+    
+    @PostPersist
+    @PostLoad
+    protected void markPersisted() {
+        newEntry = false;
+    }
+    
+    public enum Status {
+        IN_PROGRESS, COMPLETED
+    }
+    
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private String userId;
+        private String idempotencyKey;
+    }
+}
@@ -0,0 +1,87 @@
+package br.com.setebit.vendasml.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Cópia local de um produto do vendedor, mantida pela sincronização com o Mercado Livre.
+ * last_updated (do Mercado Livre) e content_hash decidem se o produto precisa ser relido.
+ */
+@Entity
+@Table(name = "item_mirror")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ItemMirrorEntity {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @Column(name = "user_id", length = 20, nullable = false, updatable = false)
+    private String userId;
+    
+    @Column(name = "item_id", length = 30, nullable = false, updatable = false)
+    private String itemId;
+    
+    @Column(name = "title", length = 256)
+    private String title;
+    
+    @Column(name = "category_id", length = 30)
+    private String categoryId;
+    
+    @Column(name = "price")
+    private Double price;
+    
+    @Column(name = "currency_id", length = 3)
+    private String currencyId;
+    
+    @Column(name = "available_quantity")
+    private Integer availableQuantity;
+    
+    @Column(name = "sold_quantity")
+    private Integer soldQuantity;
+    
+    @Column(name = "status", length = 20)
+    private String status;
+    
+    @Column(name = "permalink", length = 500)
+    private String permalink;
+    
+    /**
+     * Última alteração do produto no Mercado Livre (UTC)
+     */
+    @Column(name = "last_updated")
+    private LocalDateTime lastUpdated;
+    
+    /**
+     * SHA-256 do produto como lido do Mercado Livre
+     */
+    @Column(name = "content_hash", length = 64, nullable = false)
+    private String contentHash;
+    
+    /**
+     * Início da última sincronização que encontrou o produto no vendedor
+     */
+    @Column(name = "synced_at", nullable = false)
+    private LocalDateTime syncedAt;
+    
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+    
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+    
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+        updatedAt = createdAt;
+    }
+    
+    @PreUpdate
+    protected void onUpdate() {
+        updatedAt = LocalDateTime.now();
+    }
+}
@@ -0,0 +1,102 @@
+package br.com.setebit.vendasml.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+import java.time.LocalDateTime;
+
+/**
+ * Escrita de produto aceita pela API e ainda não (ou já) enviada ao Mercado Livre.
+ * O id crescente define a ordem de despacho das operações com a mesma ordering_key.
+ */
+@Entity
+@Table(name = "item_outbox")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ItemOutboxEntity {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @Column(name = "operation_id", length = 36, nullable = false, unique = true, updatable = false)
+    private String operationId;
+    
+    @Column(name = "user_id", length = 20, nullable = false, updatable = false)
+    private String userId;
+    
+    @Enumerated(EnumType.STRING)
+    @JdbcTypeCode(SqlTypes.VARCHAR)
+    @Column(name = "operation", length = 16, nullable = false, updatable = false)
+    private Operation operation;
+    
+    @Column(name = "item_id", length = 30, updatable = false)
+    private String itemId;
+    
+    /**
+     * item_id para atualizações e exclusões; o próprio operation_id para criações
+     */
+    @Column(name = "ordering_key", length = 64, nullable = false, updatable = false)
+    private String orderingKey;
+    
+    /**
+     * Hash não negativo da ordering_key: define o worker que despacha a operação
+     */
+    @Column(name = "ordering_hash", nullable = false, updatable = false)
+    private Integer orderingHash;
+    
+    /**
+     * ItemRequest em JSON (null para exclusões)
+     */
+    @Column(name = "payload", columnDefinition = "MEDIUMTEXT", updatable = false)
+    private String payload;
+    
+    @Enumerated(EnumType.STRING)
+    @JdbcTypeCode(SqlTypes.VARCHAR)
+    @Column(name = "status", length = 16, nullable = false)
+    private Status status;
+    
+    @Column(name = "attempts", nullable = false)
+    private Integer attempts;
+    
+    @Column(name = "next_attempt_at", nullable = false)
+    private LocalDateTime nextAttemptAt;
+    
+    /**
+     * Status HTTP da última tentativa
+     */
+    @Column(name = "http_status")
+    private Integer httpStatus;
+    
+    @Column(name = "result_item_id", length = 30)
+    private String resultItemId;
+    
+    @Column(name = "error", length = 1000)
+    private String error;
+    
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+    
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+    
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+        updatedAt = createdAt;
+        if (nextAttemptAt == null) {
+            nextAttemptAt = createdAt;
+        }
+    }
+    
+    public enum Operation {
+        CREATE, UPDATE, DELETE
+    }
+    
+    public enum Status {
+        PENDING, IN_PROGRESS, SUCCEEDED, FAILED
+    }
+}
@@ -0,0 +1,52 @@
+package br.com.setebit.vendasml.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.springframework.data.domain.Persistable;
+
+import java.time.LocalDateTime;
+
+/**
+ * Lease de uma tarefa agendada: só a instância dona (owner) a executa até locked_until
+ */
+@Entity
+@Table(name = "scheduler_locks")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class SchedulerLockEntity implements Persistable<String> {
+    @Id
+    @Column(name = "name", length = 64)
+    private String name;
+    
+    @Column(name = "owner", length = 100, nullable = false)
+    private String owner;
+    
+    @Column(name = "locked_until", nullable = false)
+    private LocalDateTime lockedUntil;
+    
+    /**
+     * Sempre inserida com persist: duas instâncias criando o lease ao mesmo tempo falham no
+     * insert em vez de uma sobrescrever a outra
+     */
+    @Transient
+    @Builder.Default
+    private boolean newEntry = true;
+    
+    @Override
+    public String getId() {
+        return name;
+    }
+    
+    @Override
+    public boolean isNew() {
+        return newEntry;
+    }
+    
+    @PostPersist
+    @PostLoad
+    protected void markPersisted() {
+        newEntry = false;
+    }
+}
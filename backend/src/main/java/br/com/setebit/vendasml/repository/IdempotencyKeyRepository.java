@@ -0,0 +1,36 @@
+package br.com.setebit.vendasml.repository;
+
+import br.com.setebit.vendasml.entity.IdempotencyKeyEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+@Repository
+public interface IdempotencyKeyRepository extends JpaRepository<IdempotencyKeyEntity, IdempotencyKeyEntity.Key> {
+
+    /**
+     * Remove a chave apenas se ela ainda for a mesma reserva (mesmo created_at) que quem chamou leu
+     */
+    @Transactional
+    @Modifying
+    @Query("""
+        delete from IdempotencyKeyEntity k
+        where k.userId = :userId
+          and k.idempotencyKey = :idempotencyKey
+          and k.createdAt = :createdAt
+        """)
+    int deleteIfUnchanged(
+        @Param("userId") String userId,
+        @Param("idempotencyKey") String idempotencyKey,
+        @Param("createdAt") LocalDateTime createdAt);
+
+    @Transactional
+    @Modifying
+    @Query("delete from IdempotencyKeyEntity k where k.expiresAt < :now")
+    int deleteExpired(@Param("now") LocalDateTime now);
+}
@@ -0,0 +1,86 @@
+package br.com.setebit.vendasml.repository;
+
+import br.com.setebit.vendasml.entity.ItemMirrorEntity;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface ItemMirrorRepository extends JpaRepository<ItemMirrorEntity, Long> {
+
+    Optional<ItemMirrorEntity> findByUserIdAndItemId(String userId, String itemId);
+
+    List<ItemMirrorEntity> findByUserIdAndItemIdIn(String userId, Collection<String> itemIds);
+
+    /**
+     * Só o necessário para a detecção de mudanças, sem carregar as entidades
+     */
+    @Query("""
+        select m.itemId as itemId, m.lastUpdated as lastUpdated
+        from ItemMirrorEntity m
+        where m.userId = :userId and m.itemId in :itemIds
+        """)
+    List<SyncState> findSyncState(@Param("userId") String userId, @Param("itemIds") Collection<String> itemIds);
+
+    /**
+     * Produtos do vendedor com filtros opcionais (índices por user_id + status, categoria ou preço)
+     */
+    @Query("""
+        select m from ItemMirrorEntity m
+        where m.userId = :userId
+          and (:status is null or m.status = :status)
+          and (:categoryId is null or m.categoryId = :categoryId)
+          and (:minPrice is null or m.price >= :minPrice)
+          and (:maxPrice is null or m.price <= :maxPrice)
+          and (:title is null or lower(m.title) like lower(concat('%', cast(:title as string), '%')))
+        """)
+    Page<ItemMirrorEntity> search(
+        @Param("userId") String userId,
+        @Param("status") String status,
+        @Param("categoryId") String categoryId,
+        @Param("minPrice") Double minPrice,
+        @Param("maxPrice") Double maxPrice,
+        @Param("title") String title,
+        Pageable pageable);
+
+    /**
+     * Marca produtos sem mudanças como vistos na sincronização atual
+     */
+    @Transactional
+    @Modifying
+    @Query("""
+        update ItemMirrorEntity m
+        set m.syncedAt = :syncedAt
+        where m.userId = :userId and m.itemId in :itemIds
+        """)
+    int markSynced(
+        @Param("userId") String userId,
+        @Param("itemIds") Collection<String> itemIds,
+        @Param("syncedAt") LocalDateTime syncedAt);
+
+    /**
+     * Remove produtos que uma sincronização completa não encontrou mais no vendedor
+     */
+    @Transactional
+    @Modifying
+    @Query("delete from ItemMirrorEntity m where m.userId = :userId and m.syncedAt < :syncedAt")
+    int deleteNotSyncedSince(@Param("userId") String userId, @Param("syncedAt") LocalDateTime syncedAt);
+
+    long countByUserId(String userId);
+
+    interface SyncState {
+        String getItemId();
+
+        LocalDateTime getLastUpdated();
+    }
+}
@@ -0,0 +1,110 @@
+package br.com.setebit.vendasml.repository;
+
+import br.com.setebit.vendasml.entity.ItemOutboxEntity;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface ItemOutboxRepository extends JpaRepository<ItemOutboxEntity, Long> {
+
+    Optional<ItemOutboxEntity> findByOperationId(String operationId);
+
+    long countByStatus(ItemOutboxEntity.Status status);
+
+    /**
+     * Operações vencidas de um worker, na ordem de inserção: só a primeira não finalizada de cada
+     * ordering_key entra, de modo que um produto aguardando retry (ou em andamento) não ocupa o
+     * lote nem segura os demais produtos da partição (idx_item_outbox_ordering_key_status_id)
+     */
+    @Query("""
+        select o from ItemOutboxEntity o
+        where o.status = br.com.setebit.vendasml.entity.ItemOutboxEntity.Status.PENDING
+          and o.nextAttemptAt <= :now
+          and mod(o.orderingHash, :partitions) = :partition
+          and not exists (
+              select 1 from ItemOutboxEntity p
+              where p.orderingKey = o.orderingKey
+                and p.status in :statuses
+                and p.id < o.id)
+        order by o.id asc
+        """)
+    List<ItemOutboxEntity> findDue(
+        @Param("statuses") Collection<ItemOutboxEntity.Status> statuses,
+        @Param("partitions") int partitions,
+        @Param("partition") int partition,
+        @Param("now") LocalDateTime now,
+        Pageable pageable);
+
+    /**
+     * Marca a operação como em andamento se ela ainda estiver pendente
+     * @return 1 se a operação foi reservada por quem chamou, 0 se outro worker chegou antes
+     */
+    @Transactional
+    @Modifying
+    @Query("""
+        update ItemOutboxEntity o
+        set o.status = br.com.setebit.vendasml.entity.ItemOutboxEntity.Status.IN_PROGRESS,
+            o.attempts = o.attempts + 1,
+            o.updatedAt = :now
+        where o.id = :id
+          and o.status = br.com.setebit.vendasml.entity.ItemOutboxEntity.Status.PENDING
+        """)
+    int claim(@Param("id") Long id, @Param("now") LocalDateTime now);
+
+    /**
+     * Devolve para a fila atualizações e exclusões em andamento há mais tempo que o lease (worker
+     * interrompido). Criações não voltam: veja {@link #failExpiredCreates}.
+     */
+    @Transactional
+    @Modifying
+    @Query("""
+        update ItemOutboxEntity o
+        set o.status = br.com.setebit.vendasml.entity.ItemOutboxEntity.Status.PENDING,
+            o.updatedAt = :now
+        where o.status = br.com.setebit.vendasml.entity.ItemOutboxEntity.Status.IN_PROGRESS
+          and o.operation <> br.com.setebit.vendasml.entity.ItemOutboxEntity.Operation.CREATE
+          and o.updatedAt < :limit
+        """)
+    int releaseExpired(@Param("limit") LocalDateTime limit, @Param("now") LocalDateTime now);
+
+    /**
+     * Criações em andamento há mais tempo que o lease: o POST pode ter sido processado pelo Mercado
+     * Livre antes da interrupção, então repetir poderia publicar o produto duas vezes. Ficam FAILED
+     * com o erro informado (resultado desconhecido) para conferência pelo vendedor.
+     */
+    @Transactional
+    @Modifying
+    @Query("""
+        update ItemOutboxEntity o
+        set o.status = br.com.setebit.vendasml.entity.ItemOutboxEntity.Status.FAILED,
+            o.httpStatus = null,
+            o.error = :error,
+            o.updatedAt = :now
+        where o.status = br.com.setebit.vendasml.entity.ItemOutboxEntity.Status.IN_PROGRESS
+          and o.operation = br.com.setebit.vendasml.entity.ItemOutboxEntity.Operation.CREATE
+          and o.updatedAt < :limit
+        """)
+    int failExpiredCreates(@Param("limit") LocalDateTime limit, @Param("now") LocalDateTime now,
+                           @Param("error") String error);
+
+    @Transactional
+    @Modifying
+    @Query("""
+        delete from ItemOutboxEntity o
+        where o.status in :statuses
+          and o.updatedAt < :limit
+        """)
+    int deleteFinishedBefore(
+        @Param("statuses") Collection<ItemOutboxEntity.Status> statuses,
+        @Param("limit") LocalDateTime limit);
+}
@@ -0,0 +1,50 @@
+package br.com.setebit.vendasml.repository;
+
+import br.com.setebit.vendasml.entity.SchedulerLockEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+@Repository
+public interface SchedulerLockRepository extends JpaRepository<SchedulerLockEntity, String> {
+
+    /**
+     * Renova o lease de quem já é dono ou toma um lease expirado
+     * @return 1 se quem chamou ficou com o lease, 0 se outra instância o detém (ou ele ainda não existe)
+     */
+    @Transactional
+    @Modifying
+    @Query("""
+        update SchedulerLockEntity l
+        set l.owner = :owner,
+            l.lockedUntil = :until
+        where l.name = :name
+          and (l.owner = :owner or l.lockedUntil <= :now)
+        """)
+    int acquire(
+        @Param("name") String name,
+        @Param("owner") String owner,
+        @Param("now") LocalDateTime now,
+        @Param("until") LocalDateTime until);
+
+    /**
+     * Libera o lease no encerramento, para outra instância assumir na próxima execução
+     */
+    @Transactional
+    @Modifying
+    @Query("""
+        update SchedulerLockEntity l
+        set l.lockedUntil = :now
+        where l.name = :name
+          and l.owner = :owner
+        """)
+    int release(
+        @Param("name") String name,
+        @Param("owner") String owner,
+        @Param("now") LocalDateTime now);
+}
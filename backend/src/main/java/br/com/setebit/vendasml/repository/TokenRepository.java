@@ -1,10 +1,42 @@
 package br.com.setebit.vendasml.repository;
 
 import br.com.setebit.vendasml.entity.TokenEntity;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.List;
+
 @Repository
 public interface TokenRepository extends JpaRepository<TokenEntity, String> {
-}
 
+    long countByExpiresAtLessThanEqual(LocalDateTime instant);
+
+    long countByExpiresAtBetween(LocalDateTime from, LocalDateTime to);
+
+    /**
+     * Primeira página de tokens que expiram entre o limite inferior e o horizonte, na ordem do idx_expires_at
+     */
+    List<TokenEntity> findByExpiresAtBetweenOrderByExpiresAtAscUserIdAsc(
+        LocalDateTime floor, LocalDateTime horizon, Pageable pageable);
+
+    /**
+     * Páginas seguintes por keyset (expires_at, user_id), estável mesmo com tokens
+     * sendo renovados durante a varredura
+     */
+    @Query("""
+        select t from TokenEntity t
+        where t.expiresAt <= :horizon
+          and (t.expiresAt > :lastExpiresAt
+               or (t.expiresAt = :lastExpiresAt and t.userId > :lastUserId))
+        order by t.expiresAt asc, t.userId asc
+        """)
+    List<TokenEntity> findExpiringAfterKey(
+        @Param("horizon") LocalDateTime horizon,
+        @Param("lastExpiresAt") LocalDateTime lastExpiresAt,
+        @Param("lastUserId") String lastUserId,
+        Pageable pageable);
+}
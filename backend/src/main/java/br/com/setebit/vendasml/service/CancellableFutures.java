@@ -0,0 +1,125 @@
+package br.com.setebit.vendasml.service;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+
+/**
+ * Composição de CompletableFutures em que o cancelamento chega até a chamada em andamento.
+ *
+ * <p>{@code CompletableFuture.cancel} não interrompe a tarefa nem se propaga para os estágios
+ * anteriores; aqui, quando o resultado termina com erro (cancelamento, timeout de orTimeout ou
+ * falha), o estágio em execução é cancelado com interrupção, o que encerra a chamada HTTP bloqueada.
+ */
+public final class CancellableFutures {
+
+    private CancellableFutures() {
+    }
+
+    /**
+     * Executa a tarefa no executor; cancelar o future interrompe a thread da tarefa.
+     * Executor cheio (ou encerrado) vira um future com 503, sem exceção para quem chama.
+     */
+    static <T> CompletableFuture<T> supply(ExecutorService executor, Callable<T> task) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        Future<?> running;
+        try {
+            running = executor.submit(() -> {
+                try {
+                    result.complete(task.call());
+                } catch (Throwable e) {
+                    result.completeExceptionally(e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            result.completeExceptionally(new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE,
+                "Muitas chamadas ao Mercado Livre em andamento. Tente novamente em instantes."));
+            return result;
+        }
+        result.whenComplete((value, error) -> {
+            if (error != null) {
+                running.cancel(true);
+            }
+        });
+        return result;
+    }
+
+    /**
+     * Encadeia o próximo estágio; o erro do resultado cancela o estágio que estiver em andamento
+     */
+    static <T, U> CompletableFuture<U> compose(CompletableFuture<T> stage,
+                                               Function<? super T, CompletableFuture<U>> next) {
+        CompletableFuture<U> result = new CompletableFuture<>();
+        AtomicReference<CompletableFuture<?>> current = new AtomicReference<>(stage);
+        stage.whenComplete((value, error) -> {
+            if (error != null) {
+                result.completeExceptionally(unwrap(error));
+                return;
+            }
+            CompletableFuture<U> nextStage;
+            try {
+                nextStage = next.apply(value);
+            } catch (RuntimeException e) {
+                result.completeExceptionally(e);
+                return;
+            }
+            current.set(nextStage);
+            if (result.isDone()) {
+                nextStage.cancel(true);
+                return;
+            }
+            nextStage.whenComplete((nextValue, nextError) -> {
+                if (nextError != null) {
+                    result.completeExceptionally(unwrap(nextError));
+                } else {
+                    result.complete(nextValue);
+                }
+            });
+        });
+        result.whenComplete((value, error) -> {
+            if (error != null) {
+                current.get().cancel(true);
+            }
+        });
+        return result;
+    }
+
+    /**
+     * Aguarda todos os futures; a primeira falha (ou o cancelamento do resultado) cancela os demais
+     */
+    static <T> CompletableFuture<List<T>> all(List<CompletableFuture<T>> futures) {
+        CompletableFuture<List<T>> result = CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new))
+            .thenApply(ignored -> futures.stream().map(CompletableFuture::join).toList());
+        futures.forEach(future -> future.whenComplete((value, error) -> {
+            if (error != null) {
+                result.completeExceptionally(unwrap(error));
+            }
+        }));
+        result.whenComplete((value, error) -> {
+            if (error != null) {
+                futures.forEach(future -> future.cancel(true));
+            }
+        });
+        return result;
+    }
+
+    /**
+     * Causa original de uma falha embrulhada em CompletionException/ExecutionException
+     */
+    public static Throwable unwrap(Throwable error) {
+        while ((error instanceof CompletionException || error instanceof ExecutionException) && error.getCause() != null) {
+            error = error.getCause();
+        }
+        return error;
+    }
+}
@@ -0,0 +1,137 @@
+package br.com.setebit.vendasml.service;
+
+import br.com.setebit.vendasml.client.MercadoLivreCategoryClient;
+import br.com.setebit.vendasml.dto.CategoryResponse;
+import com.github.benmanes.caffeine.cache.AsyncLoadingCache;
+import com.github.benmanes.caffeine.cache.CacheLoader;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.BiFunction;
+
+/**
+ * Cache das categorias do Mercado Livre.
+ * Após o TTL a entrada continua sendo servida (stale) enquanto é revalidada em segundo plano
+ * com If-None-Match; um 304 apenas renova a entrada. Entradas que passam de max-stale
+ * expiram e o cache é limitado por quantidade.
+ */
+@Slf4j
+@Component
+public class CategoryCache {
+
+    private final AsyncLoadingCache<String, Revalidated<List<CategoryResponse>>> siteCategories;
+    private final AsyncLoadingCache<String, Revalidated<CategoryResponse>> categories;
+
+    public CategoryCache(
+            MercadoLivreCategoryClient categoryClient,
+            MeterRegistry meterRegistry,
+            @Value("${mercadolivre.category-cache.ttl-seconds:3600}") long ttlSeconds,
+            @Value("${mercadolivre.category-cache.max-stale-seconds:86400}") long maxStaleSeconds,
+            @Value("${mercadolivre.category-cache.maximum-size:20000}") long maximumSize) {
+        Duration ttl = Duration.ofSeconds(ttlSeconds);
+        Duration maxStale = Duration.ofSeconds(Math.max(ttlSeconds, maxStaleSeconds));
+
+        this.siteCategories = Caffeine.newBuilder()
+            .maximumSize(maximumSize)
+            .refreshAfterWrite(ttl)
+            .expireAfterWrite(maxStale)
+            .recordStats()
+            .buildAsync(new ConditionalLoader<>(categoryClient::getCategories));
+        this.categories = Caffeine.newBuilder()
+            .maximumSize(maximumSize)
+            .refreshAfterWrite(ttl)
+            .expireAfterWrite(maxStale)
+            .recordStats()
+            .buildAsync(new ConditionalLoader<>(categoryClient::getCategory));
+
+        CaffeineCacheMetrics.monitor(meterRegistry, siteCategories, "ml.categories.sites");
+        CaffeineCacheMetrics.monitor(meterRegistry, categories, "ml.categories");
+    }
+
+    public List<CategoryResponse> getCategories(String siteId) {
+        return join(siteCategories.get(siteId)).body();
+    }
+
+    public CategoryResponse getCategory(String categoryId) {
+        return join(categories.get(categoryId)).body();
+    }
+
+    /**
+     * Categoria já em cache (mesmo que stale), sem buscar no Mercado Livre
+     */
+    public Optional<CategoryResponse> getCachedCategory(String categoryId) {
+        return Optional.ofNullable(categories.synchronous().getIfPresent(categoryId)).map(Revalidated::body);
+    }
+
+    private static <T> T join(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Corpo da resposta junto com o ETag usado na revalidação
+     */
+    record Revalidated<T>(T body, String etag) {
+
+        Revalidated<T> renewed() {
+            return new Revalidated<>(body, etag);
+        }
+    }
+
+    /**
+     * Carga inicial sem condição; recargas enviam o ETag conhecido e reaproveitam o corpo em caso de 304.
+     * Se a revalidação falhar, o Caffeine mantém a versão anterior até expirar.
+     */
+    private static class ConditionalLoader<T> implements CacheLoader<String, Revalidated<T>> {
+
+        private final BiFunction<String, String, ResponseEntity<T>> fetch;
+
+        ConditionalLoader(BiFunction<String, String, ResponseEntity<T>> fetch) {
+            this.fetch = fetch;
+        }
+
+        @Override
+        public Revalidated<T> load(String key) {
+            ResponseEntity<T> response = fetch.apply(key, null);
+            return new Revalidated<>(response.getBody(), response.getHeaders().getETag());
+        }
+
+        @Override
+        public Revalidated<T> reload(String key, Revalidated<T> oldValue) {
+            if (oldValue.etag() == null) {
+                return load(key);
+            }
+            try {
+                ResponseEntity<T> response = fetch.apply(key, oldValue.etag());
+                if (response.getStatusCode().isSameCodeAs(HttpStatus.NOT_MODIFIED)) {
+                    return oldValue.renewed();
+                }
+                return new Revalidated<>(response.getBody(), response.getHeaders().getETag());
+            } catch (ResponseStatusException e) {
+                if (e.getStatusCode().isSameCodeAs(HttpStatus.NOT_MODIFIED)) {
+                    log.debug("Categoria {} não modificada, renovando cache", key);
+                    return oldValue.renewed();
+                }
+                throw e;
+            }
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package br.com.setebit.vendasml.service;
+
+import br.com.setebit.vendasml.dto.CategorySearchResult;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.List;
+
+/**
+ * Busca de categorias por nome sobre o snapshot local da árvore, sem chamar o Mercado Livre.
+ * O índice de cada site é montado pelo {@link CategoryTreeService} ao publicar o snapshot.
+ */
+@Service
+@RequiredArgsConstructor
+public class CategorySearchService {
+
+    private final CategoryTreeService categoryTreeService;
+
+    /**
+     * Busca categorias por nome (prefixos, sem diferenciar acentos e maiúsculas)
+     * @param siteId ID do site (ex: MLB)
+     * @param query texto digitado pelo vendedor (ex: "tênis corr")
+     * @param limit máximo de resultados
+     * @return categorias ordenadas por relevância, com o caminho completo
+     */
+    public List<CategorySearchResult> search(String siteId, String query, int limit) {
+        CategorySearchIndex index = getIndex(siteId);
+        CategoryTreeSnapshot snapshot = index.snapshot();
+
+        return index.search(query, limit).stream()
+            .map(hit -> CategorySearchResult.builder()
+                .id(snapshot.id(hit.node()))
+                .name(snapshot.name(hit.node()))
+                .path(snapshot.path(hit.node()).stream().map(snapshot::name).toList())
+                .leaf(snapshot.childCount(hit.node()) == 0)
+                .score(hit.score())
+                .build())
+            .toList();
+    }
+
+    private CategorySearchIndex getIndex(String siteId) {
+        return categoryTreeService.getSearchIndex(siteId)
+            .orElseThrow(() -> new ResponseStatusException(
+                HttpStatus.NOT_FOUND,
+                "Snapshot de categorias não disponível para o site: " + siteId
+            ));
+    }
+}
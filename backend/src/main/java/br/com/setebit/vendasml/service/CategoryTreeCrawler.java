@@ -0,0 +1,190 @@
+package br.com.setebit.vendasml.service;
+
+import br.com.setebit.vendasml.client.MercadoLivreCategoryClient;
+import br.com.setebit.vendasml.config.RateLimitExceededException;
+import br.com.setebit.vendasml.dto.CategoryResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Percorre a árvore completa de categorias de um site seguindo children_categories.
+ * Cada categoria é buscada em uma virtual thread; o número de chamadas simultâneas
+ * ao Mercado Livre é limitado por um semáforo.
+ */
+@Slf4j
+@Component
+public class CategoryTreeCrawler {
+
+    private static final int MAX_ATTEMPTS = 3;
+
+    private final MercadoLivreCategoryClient categoryClient;
+    private final int concurrency;
+    private final Duration timeout;
+
+    public CategoryTreeCrawler(
+            MercadoLivreCategoryClient categoryClient,
+            @Value("${mercadolivre.category-snapshot.crawl-concurrency:16}") int concurrency,
+            @Value("${mercadolivre.category-snapshot.crawl-timeout-minutes:30}") long timeoutMinutes) {
+        this.categoryClient = categoryClient;
+        this.concurrency = concurrency;
+        this.timeout = Duration.ofMinutes(timeoutMinutes);
+    }
+
+    /**
+     * Rastreia a árvore do site
+     * @param siteId ID do site (ex: MLB)
+     * @return categorias principais com children_categories preenchidos em todos os níveis (sem settings)
+     */
+    public List<CategoryResponse> crawl(String siteId) {
+        log.info("Iniciando rastreamento da árvore de categorias do site: {}", siteId);
+        long start = System.nanoTime();
+
+        List<CategoryResponse> roots = copyOf(categoryClient.getCategories(siteId));
+        Crawl crawl = new Crawl(new Semaphore(concurrency));
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            crawl.executor = executor;
+            // Segura o contador acima de zero enquanto as raízes são submetidas: sem isso, a subárvore da
+            // primeira raiz poderia terminar antes da segunda ser submetida e concluir o rastreamento cedo
+            crawl.pending.incrementAndGet();
+            roots.forEach(crawl::submit);
+            crawl.release();
+            try {
+                crawl.done.get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+            } catch (ExecutionException e) {
+                executor.shutdownNow();
+                throw new ResponseStatusException(
+                    HttpStatus.BAD_GATEWAY,
+                    "Erro ao rastrear categorias do site " + siteId + ": " + e.getCause().getMessage()
+                );
+            } catch (TimeoutException e) {
+                executor.shutdownNow();
+                throw new ResponseStatusException(
+                    HttpStatus.GATEWAY_TIMEOUT,
+                    "Tempo esgotado ao rastrear categorias do site " + siteId
+                );
+            } catch (InterruptedException e) {
+                executor.shutdownNow();
+                Thread.currentThread().interrupt();
+                throw new ResponseStatusException(
+                    HttpStatus.SERVICE_UNAVAILABLE,
+                    "Rastreamento de categorias interrompido"
+                );
+            }
+        }
+
+        log.info("Árvore do site {} rastreada: {} categorias em {} ms",
+            siteId, crawl.fetched.get(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        return roots;
+    }
+
+    /**
+     * Busca a categoria com até MAX_ATTEMPTS tentativas. Uma rejeição local do limitador de taxa não
+     * é falha: a chamada nem saiu, então não conta como tentativa e espera o Retry-After informado.
+     * Isso mantém o rastreamento dentro da cota de categorias qualquer que seja crawl-concurrency.
+     */
+    private CategoryResponse fetchWithRetry(String categoryId, Semaphore permits) throws InterruptedException {
+        for (int attempt = 1; ; ) {
+            long sleepMs;
+            permits.acquire();
+            try {
+                return categoryClient.getCategory(categoryId);
+            } catch (RateLimitExceededException e) {
+                long retryAfterMs = Math.max(1, e.getRetryAfter().toMillis());
+                sleepMs = retryAfterMs + ThreadLocalRandom.current().nextLong(retryAfterMs + 1);
+            } catch (RuntimeException e) {
+                if (attempt >= MAX_ATTEMPTS) {
+                    throw e;
+                }
+                log.debug("Falha ao buscar categoria {} (tentativa {}): {}", categoryId, attempt, e.getMessage());
+                sleepMs = 500L * attempt++;
+            } finally {
+                permits.release();
+            }
+            Thread.sleep(sleepMs);
+        }
+    }
+
+    /**
+     * Mantém apenas id, nome e a lista de filhos, descartando settings para reduzir memória
+     */
+    private static List<CategoryResponse> copyOf(List<CategoryResponse> categories) {
+        List<CategoryResponse> copies = new ArrayList<>(categories == null ? 0 : categories.size());
+        if (categories != null) {
+            for (CategoryResponse category : categories) {
+                CategoryResponse copy = new CategoryResponse();
+                copy.setId(category.getId());
+                copy.setName(category.getName());
+                copies.add(copy);
+            }
+        }
+        return copies;
+    }
+
+    /**
+     * Estado de um rastreamento. Cada nó pendente incrementa o contador antes de ser submetido
+     * e o decrementa ao terminar, depois de submeter os filhos; quando chega a zero a árvore está completa.
+     */
+    private class Crawl {
+
+        private final Semaphore permits;
+        private final AtomicInteger pending = new AtomicInteger();
+        private final AtomicInteger fetched = new AtomicInteger();
+        private final Set<String> visited = ConcurrentHashMap.newKeySet();
+        private final CompletableFuture<Void> done = new CompletableFuture<>();
+        private ExecutorService executor;
+
+        Crawl(Semaphore permits) {
+            this.permits = permits;
+        }
+
+        void submit(CategoryResponse node) {
+            if (!visited.add(node.getId())) {
+                return;
+            }
+            pending.incrementAndGet();
+            executor.execute(() -> {
+                try {
+                    if (!done.isDone()) {
+                        CategoryResponse details = fetchWithRetry(node.getId(), permits);
+                        fetched.incrementAndGet();
+                        List<CategoryResponse> children = copyOf(details.getChildrenCategories());
+                        node.setChildrenCategories(children);
+                        children.forEach(this::submit);
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    done.completeExceptionally(e);
+                } catch (RuntimeException e) {
+                    done.completeExceptionally(e);
+                } finally {
+                    release();
+                }
+            });
+        }
+
+        void release() {
+            if (pending.decrementAndGet() == 0) {
+                done.complete(null);
+            }
+        }
+    }
+}
@@ -0,0 +1,179 @@
+package br.com.setebit.vendasml.service;
+
+import br.com.setebit.vendasml.dto.CategoryResponse;
+import br.com.setebit.vendasml.dto.CategorySnapshotInfo;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Mantém os snapshots da árvore de categorias por site.
+ * Os arquivos existentes são mapeados na inicialização (warm start sem rastrear novamente)
+ * e um novo rastreamento substitui o arquivo de forma atômica.
+ */
+@Slf4j
+@Service
+public class CategoryTreeService {
+
+    private static final String FILE_PREFIX = "categorias-";
+    private static final String FILE_SUFFIX = ".snapshot";
+
+    private final CategoryTreeCrawler crawler;
+    private final Path directory;
+    private final Map<String, CategoryTreeSnapshot> snapshots = new ConcurrentHashMap<>();
+    private final Map<String, CategorySearchIndex> searchIndexes = new ConcurrentHashMap<>();
+    private final Set<String> crawling = ConcurrentHashMap.newKeySet();
+
+    public CategoryTreeService(
+            CategoryTreeCrawler crawler,
+            @Value("${mercadolivre.category-snapshot.directory:./data/categorias}") String directory) {
+        this.crawler = crawler;
+        this.directory = Paths.get(directory);
+    }
+
+    @PostConstruct
+    void loadSnapshots() {
+        if (!Files.isDirectory(directory)) {
+            log.info("Nenhum snapshot de categorias encontrado em {}", directory.toAbsolutePath());
+            return;
+        }
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, FILE_PREFIX + "*" + FILE_SUFFIX)) {
+            for (Path file : files) {
+                try {
+                    CategoryTreeSnapshot snapshot = CategoryTreeSnapshot.open(file);
+                    publish(snapshot);
+                    log.info("Snapshot de categorias carregado: site {}, {} categorias, rastreado em {}",
+                        snapshot.siteId(), snapshot.size() - 1, snapshot.crawledAt());
+                } catch (IOException e) {
+                    log.warn("Ignorando snapshot de categorias inválido {}: {}", file, e.getMessage());
+                }
+            }
+        } catch (IOException e) {
+            log.warn("Erro ao listar snapshots de categorias em {}: {}", directory, e.getMessage());
+        }
+    }
+
+    public Optional<CategoryTreeSnapshot> getSnapshot(String siteId) {
+        return Optional.ofNullable(snapshots.get(siteId));
+    }
+
+    /**
+     * Índice de busca por nome do snapshot atual do site (o snapshot indexado vem no próprio índice)
+     */
+    public Optional<CategorySearchIndex> getSearchIndex(String siteId) {
+        return Optional.ofNullable(searchIndexes.get(siteId));
+    }
+
+    /**
+     * Retorna a subárvore a partir da categoria, sem acessar o Mercado Livre
+     * @param categoryId ID da categoria (ex: MLB5672) ou ID do site para a árvore inteira
+     * @param depth níveis de subcategorias a incluir
+     */
+    public CategoryResponse getSubtree(String categoryId, int depth) {
+        return findSubtree(categoryId, depth).orElseThrow(() -> new ResponseStatusException(
+            HttpStatus.NOT_FOUND,
+            "Categoria não encontrada nos snapshots carregados: " + categoryId
+        ));
+    }
+
+    /**
+     * Mesma busca de {@link #getSubtree}, vazia quando nenhum snapshot carregado contém a categoria
+     */
+    public Optional<CategoryResponse> findSubtree(String categoryId, int depth) {
+        for (CategoryTreeSnapshot snapshot : snapshots.values()) {
+            int index = snapshot.indexOf(categoryId);
+            if (index >= 0) {
+                return Optional.of(snapshot.toCategoryResponse(index, depth));
+            }
+        }
+        return Optional.empty();
+    }
+
+    public CategorySnapshotInfo getInfo(String siteId) {
+        CategoryTreeSnapshot snapshot = snapshots.get(siteId);
+        return CategorySnapshotInfo.builder()
+            .siteId(siteId)
+            .available(snapshot != null)
+            .categoryCount(snapshot == null ? 0 : snapshot.size() - 1)
+            .crawledAt(snapshot == null ? null : snapshot.crawledAt())
+            .crawling(crawling.contains(siteId))
+            .build();
+    }
+
+    /**
+     * Inicia o rastreamento do site em segundo plano
+     * @return false se já houver um rastreamento em andamento para o site
+     */
+    public boolean startCrawl(String siteId) {
+        if (!crawling.add(siteId)) {
+            return false;
+        }
+        Thread.ofVirtual().name("category-crawler-" + siteId).start(() -> {
+            try {
+                crawlAndPublish(siteId);
+            } catch (Exception e) {
+                log.error("Erro ao gerar snapshot de categorias do site {}: {}", siteId, e.getMessage(), e);
+            } finally {
+                crawling.remove(siteId);
+            }
+        });
+        return true;
+    }
+
+    /**
+     * Rastreia a árvore, grava em arquivo temporário e o move sobre o snapshot atual;
+     * só então o novo snapshot passa a ser servido.
+     */
+    CategoryTreeSnapshot crawlAndPublish(String siteId) throws IOException {
+        List<CategoryResponse> roots = crawler.crawl(siteId);
+
+        Files.createDirectories(directory);
+        Path target = directory.resolve(FILE_PREFIX + siteId + FILE_SUFFIX);
+        Path temp = Files.createTempFile(directory, FILE_PREFIX + siteId, ".tmp");
+        try {
+            try (OutputStream output = Files.newOutputStream(temp)) {
+                CategoryTreeSnapshot.write(output, siteId, roots, Instant.now());
+            }
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+
+        CategoryTreeSnapshot snapshot = CategoryTreeSnapshot.open(target);
+        publish(snapshot);
+        log.info("Snapshot de categorias publicado: site {}, {} categorias", siteId, snapshot.size() - 1);
+        return snapshot;
+    }
+
+    /**
+     * Monta o índice de busca antes de expor o snapshot: as buscas trocam do índice antigo para
+     * o novo de uma vez, sem que nenhuma requisição pague a construção. A reconstrução completa é
+     * intencional (custo em {@link CategorySearchIndex#build}); durante ela o índice antigo e o novo
+     * coexistem em memória.
+     */
+    private void publish(CategoryTreeSnapshot snapshot) {
+        long start = System.nanoTime();
+        CategorySearchIndex index = CategorySearchIndex.build(snapshot);
+        log.info("Índice de busca de categorias do site {} construído em {} ms",
+            snapshot.siteId(), (System.nanoTime() - start) / 1_000_000);
+        searchIndexes.put(snapshot.siteId(), index);
+        snapshots.put(snapshot.siteId(), snapshot);
+    }
+}
@@ -0,0 +1,249 @@
+package br.com.setebit.vendasml.service;
+
+import br.com.setebit.vendasml.dto.CategoryResponse;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Snapshot binário e compacto da árvore de categorias de um site, lido via memory-map.
+ *
+ * <p>Formato (big-endian):
+ * <pre>
+ * header   magic(int "VMLC") | version(short) | reserved(short) | crawledAt(long, epoch ms)
+ *          | nodeCount(int) | stringsOffset(int)
+ * nodes    nodeCount x [idRef(int) | nameRef(int) | parent(int) | firstChild(int) | childCount(int)]
+ * strings  [length(unsigned short) | bytes UTF-8] ...
+ * </pre>
+ * Os nós são gravados em largura a partir da raiz sintética (índice 0, id = siteId),
+ * de modo que os filhos de cada nó ficam contíguos. Referências de string são relativas
+ * ao início da área de strings.
+ */
+public final class CategoryTreeSnapshot {
+
+    static final int MAGIC = 0x564D4C43;
+    static final short VERSION = 1;
+    private static final int HEADER_SIZE = 24;
+    private static final int NODE_SIZE = 20;
+    private static final int NO_PARENT = -1;
+
+    private final ByteBuffer buffer;
+    private final Instant crawledAt;
+    private final int nodeCount;
+    private final int stringsOffset;
+    private final Map<String, Integer> indexById;
+
+    private CategoryTreeSnapshot(ByteBuffer buffer) throws IOException {
+        this.buffer = buffer;
+        if (buffer.limit() < HEADER_SIZE || buffer.getInt(0) != MAGIC) {
+            throw new IOException("Snapshot de categorias inválido");
+        }
+        short version = buffer.getShort(4);
+        if (version != VERSION) {
+            throw new IOException("Versão de snapshot não suportada: " + version);
+        }
+        this.crawledAt = Instant.ofEpochMilli(buffer.getLong(8));
+        this.nodeCount = buffer.getInt(16);
+        this.stringsOffset = buffer.getInt(20);
+        if (nodeCount < 1 || stringsOffset != HEADER_SIZE + nodeCount * NODE_SIZE || stringsOffset > buffer.limit()) {
+            throw new IOException("Snapshot de categorias corrompido");
+        }
+
+        this.indexById = new HashMap<>(nodeCount * 2);
+        for (int i = 0; i < nodeCount; i++) {
+            indexById.put(id(i), i);
+        }
+    }
+
+    /**
+     * Mapeia o arquivo em memória (somente leitura). O mapeamento permanece válido após fechar o canal.
+     */
+    public static CategoryTreeSnapshot open(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            return new CategoryTreeSnapshot(mapped);
+        }
+    }
+
+    /**
+     * Grava a árvore no formato do snapshot
+     * @param siteId ID do site, usado como id da raiz sintética
+     * @param roots categorias principais do site, com children_categories preenchidos recursivamente
+     */
+    public static void write(OutputStream output, String siteId, List<CategoryResponse> roots, Instant crawledAt)
+            throws IOException {
+        CategoryResponse root = new CategoryResponse();
+        root.setId(siteId);
+        root.setName(siteId);
+        root.setChildrenCategories(roots);
+
+        List<CategoryResponse> ordered = new ArrayList<>();
+        List<Integer> parents = new ArrayList<>();
+        LinkedList<CategoryResponse> queue = new LinkedList<>();
+        LinkedList<Integer> queueParents = new LinkedList<>();
+        queue.add(root);
+        queueParents.add(NO_PARENT);
+        while (!queue.isEmpty()) {
+            CategoryResponse node = queue.removeFirst();
+            int index = ordered.size();
+            ordered.add(node);
+            parents.add(queueParents.removeFirst());
+            if (node.getChildrenCategories() != null) {
+                for (CategoryResponse child : node.getChildrenCategories()) {
+                    queue.add(child);
+                    queueParents.add(index);
+                }
+            }
+        }
+
+        ByteArrayOutputStream strings = new ByteArrayOutputStream();
+        DataOutputStream stringsOut = new DataOutputStream(strings);
+        int[] idRefs = new int[ordered.size()];
+        int[] nameRefs = new int[ordered.size()];
+        for (int i = 0; i < ordered.size(); i++) {
+            idRefs[i] = appendString(stringsOut, ordered.get(i).getId());
+            nameRefs[i] = appendString(stringsOut, ordered.get(i).getName());
+        }
+
+        DataOutputStream out = new DataOutputStream(new BufferedOutputStream(output));
+        out.writeInt(MAGIC);
+        out.writeShort(VERSION);
+        out.writeShort(0);
+        out.writeLong(crawledAt.toEpochMilli());
+        out.writeInt(ordered.size());
+        out.writeInt(HEADER_SIZE + ordered.size() * NODE_SIZE);
+
+        int nextChild = 1;
+        for (int i = 0; i < ordered.size(); i++) {
+            List<CategoryResponse> children = ordered.get(i).getChildrenCategories();
+            int childCount = children == null ? 0 : children.size();
+            out.writeInt(idRefs[i]);
+            out.writeInt(nameRefs[i]);
+            out.writeInt(parents.get(i));
+            out.writeInt(childCount == 0 ? 0 : nextChild);
+            out.writeInt(childCount);
+            nextChild += childCount;
+        }
+        strings.writeTo(out);
+        out.flush();
+    }
+
+    private static int appendString(DataOutputStream out, String value) throws IOException {
+        int ref = out.size();
+        byte[] bytes = (value == null ? "" : value).getBytes(StandardCharsets.UTF_8);
+        if (bytes.length > 0xFFFF) {
+            throw new IOException("Texto muito longo para o snapshot: " + bytes.length + " bytes");
+        }
+        out.writeShort(bytes.length);
+        out.write(bytes);
+        return ref;
+    }
+
+    public String siteId() {
+        return id(0);
+    }
+
+    public Instant crawledAt() {
+        return crawledAt;
+    }
+
+    /**
+     * Quantidade de nós, incluindo a raiz sintética do site
+     */
+    public int size() {
+        return nodeCount;
+    }
+
+    /**
+     * @return índice do nó ou -1 se a categoria não estiver no snapshot
+     */
+    public int indexOf(String categoryId) {
+        return indexById.getOrDefault(categoryId, -1);
+    }
+
+    public String id(int index) {
+        return string(nodeInt(index, 0));
+    }
+
+    public String name(int index) {
+        return string(nodeInt(index, 4));
+    }
+
+    public int parent(int index) {
+        return nodeInt(index, 8);
+    }
+
+    public int firstChild(int index) {
+        return nodeInt(index, 12);
+    }
+
+    public int childCount(int index) {
+        return nodeInt(index, 16);
+    }
+
+    /**
+     * Caminho da categoria principal até o nó (sem a raiz sintética do site)
+     */
+    public List<Integer> path(int index) {
+        LinkedList<Integer> path = new LinkedList<>();
+        for (int current = index; current > 0; current = parent(current)) {
+            path.addFirst(current);
+        }
+        return path;
+    }
+
+    /**
+     * Converte a subárvore a partir do nó em CategoryResponse (sem settings)
+     * @param depth níveis de filhos a incluir (0 = apenas o nó, sem children_categories)
+     */
+    public CategoryResponse toCategoryResponse(int index, int depth) {
+        CategoryResponse category = new CategoryResponse();
+        category.setId(id(index));
+        category.setName(name(index));
+        category.setChildrenCategories(depth > 0 ? children(index, depth) : null);
+        return category;
+    }
+
+    /**
+     * Filhos diretos do nó, cada um expandido com depth - 1 níveis
+     */
+    public List<CategoryResponse> children(int index, int depth) {
+        int count = childCount(index);
+        List<CategoryResponse> children = new ArrayList<>(count);
+        int first = firstChild(index);
+        for (int child = first; child < first + count; child++) {
+            children.add(toCategoryResponse(child, depth - 1));
+        }
+        return children;
+    }
+
+    private int nodeInt(int index, int fieldOffset) {
+        if (index < 0 || index >= nodeCount) {
+            throw new IndexOutOfBoundsException("Nó inexistente no snapshot: " + index);
+        }
+        return buffer.getInt(HEADER_SIZE + index * NODE_SIZE + fieldOffset);
+    }
+
+    private String string(int ref) {
+        int position = stringsOffset + ref;
+        int length = Short.toUnsignedInt(buffer.getShort(position));
+        byte[] bytes = new byte[length];
+        buffer.get(position + 2, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,342 @@
+package br.com.setebit.vendasml.service;
+
+import br.com.setebit.vendasml.dto.ItemRequest;
+import br.com.setebit.vendasml.dto.ItemResponse;
+import br.com.setebit.vendasml.entity.IdempotencyKeyEntity;
+import br.com.setebit.vendasml.repository.IdempotencyKeyRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Criação de produto idempotente pelo cabeçalho Idempotency-Key (por usuário).
+ *
+ * <p>A primeira requisição com a chave a reserva no banco (IN_PROGRESS) e chama o Mercado Livre;
+ * duplicatas concorrentes no mesmo processo esperam o resultado dela, e as de outros processos
+ * consultam o banco até a conclusão. Depois de concluída, a chave devolve a resposta guardada
+ * sem chamar o Mercado Livre até expirar (ttl-hours).
+ *
+ * <p>Falhas em que o produto certamente não foi criado liberam a chave para uma nova tentativa:
+ * as anteriores ao envio (obtenção do token, inclusive o 504 da espera pelo refresh) e as
+ * respostas 4xx (inclusive 429) e 503. Falhas ambíguas da chamada ao Mercado Livre (demais 5xx,
+ * I/O) ficam guardadas e são repetidas nas duplicatas, para não arriscar um anúncio em dobro.
+ *
+ * <p>A reserva não tem heartbeat: outro processo a considera abandonada lock-timeout-seconds
+ * depois do created_at, mesmo que a criação ainda esteja em andamento. O valor deve ficar acima da
+ * duração máxima de uma criação: espera pelo token (token-refresh-wait-timeout-ms) mais as
+ * tentativas do POST (espera do limitador de taxa + connect + pool + read timeout do Feign, até
+ * retry.max-attempts, com os backoffs): cerca de 60 s com a configuração padrão, para um lock-timeout de 120 s.
+ */
+@Slf4j
+@Service
+public class IdempotencyService {
+
+    public static final int MAX_KEY_LENGTH = 100;
+    private static final long POLL_INTERVAL_MS = 200;
+    private static final int MAX_ERROR_LENGTH = 1000;
+
+    private final IdempotencyKeyRepository idempotencyKeyRepository;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+    private final Duration ttl;
+    private final Duration waitTimeout;
+    private final Duration lockTimeout;
+    private final Map<IdempotencyKeyEntity.Key, InFlight> inFlight = new ConcurrentHashMap<>();
+
+    public IdempotencyService(
+            IdempotencyKeyRepository idempotencyKeyRepository,
+            ObjectMapper objectMapper,
+            MeterRegistry meterRegistry,
+            @Value("${mercadolivre.idempotency.ttl-hours:24}") long ttlHours,
+            @Value("${mercadolivre.idempotency.wait-timeout-ms:30000}") long waitTimeoutMs,
+            @Value("${mercadolivre.idempotency.lock-timeout-seconds:120}") long lockTimeoutSeconds) {
+        this.idempotencyKeyRepository = idempotencyKeyRepository;
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
+        this.ttl = Duration.ofHours(ttlHours);
+        this.waitTimeout = Duration.ofMillis(waitTimeoutMs);
+        this.lockTimeout = Duration.ofSeconds(lockTimeoutSeconds);
+    }
+
+    /**
+     * @param replayed true quando a resposta veio de uma requisição anterior com a mesma chave
+     */
+    public record Result(ItemResponse item, boolean replayed) {
+    }
+
+    private record InFlight(String requestHash, CompletableFuture<ItemResponse> outcome) {
+    }
+
+    /**
+     * Executa {@code create} no máximo uma vez por (userId, idempotencyKey)
+     * @param authorize obtém o cabeçalho Authorization; falhar aqui libera a chave (nada foi enviado)
+     * @param create envia a criação ao Mercado Livre com o Authorization obtido
+     * @throws ResponseStatusException 422 se a chave já foi usada com outro corpo; 409 se a
+     * requisição original não terminar dentro de wait-timeout-ms
+     */
+    public Result createOnce(String userId, String idempotencyKey, ItemRequest request,
+                             Supplier<String> authorize, Function<String, ItemResponse> create) {
+        if (idempotencyKey.isBlank() || idempotencyKey.length() > MAX_KEY_LENGTH) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                "Idempotency-Key deve ter entre 1 e " + MAX_KEY_LENGTH + " caracteres");
+        }
+        IdempotencyKeyEntity.Key key = new IdempotencyKeyEntity.Key(userId, idempotencyKey);
+        String requestHash = hash(request);
+
+        InFlight mine = new InFlight(requestHash, new CompletableFuture<>());
+        InFlight running = inFlight.putIfAbsent(key, mine);
+        if (running != null) {
+            checkSameRequest(running.requestHash(), requestHash);
+            record("joined");
+            return new Result(await(running.outcome()), true);
+        }
+
+        try {
+            IdempotencyKeyEntity entry = reserve(key, requestHash);
+            if (entry.getStatus() == IdempotencyKeyEntity.Status.COMPLETED) {
+                ItemResponse item = replay(entry);
+                mine.outcome().complete(item);
+                record("replayed");
+                return new Result(item, true);
+            }
+
+            ItemResponse item = execute(entry, authorize, create);
+            mine.outcome().complete(item);
+            record("executed");
+            return new Result(item, false);
+        } catch (RuntimeException e) {
+            mine.outcome().completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, mine);
+        }
+    }
+
+    /**
+     * Reserva a chave para esta requisição, esperando se outra (de outro processo) estiver em andamento
+     * @return a reserva desta requisição (IN_PROGRESS), ou a chave já concluída (COMPLETED) para replay
+     */
+    private IdempotencyKeyEntity reserve(IdempotencyKeyEntity.Key key, String requestHash) {
+        long deadline = System.nanoTime() + waitTimeout.toNanos();
+        while (true) {
+            LocalDateTime now = LocalDateTime.now();
+            Optional<IdempotencyKeyEntity> existing = idempotencyKeyRepository.findById(key);
+            if (existing.isEmpty()) {
+                Optional<IdempotencyKeyEntity> inserted = tryInsert(key, requestHash, now);
+                if (inserted.isPresent()) {
+                    return inserted.get();
+                }
+                continue;
+            }
+
+            IdempotencyKeyEntity entry = existing.get();
+            if (entry.getExpiresAt().isBefore(now)) {
+                idempotencyKeyRepository.deleteIfUnchanged(key.getUserId(), key.getIdempotencyKey(), entry.getCreatedAt());
+                continue;
+            }
+            checkSameRequest(entry.getRequestHash(), requestHash);
+            if (entry.getStatus() == IdempotencyKeyEntity.Status.COMPLETED) {
+                return entry;
+            }
+            if (entry.getCreatedAt().plus(lockTimeout).isBefore(now)) {
+                log.warn("Idempotency-Key {} do usuário {} abandonada em processamento desde {}; liberando",
+                    key.getIdempotencyKey(), key.getUserId(), entry.getCreatedAt());
+                idempotencyKeyRepository.deleteIfUnchanged(key.getUserId(), key.getIdempotencyKey(), entry.getCreatedAt());
+                continue;
+            }
+            if (System.nanoTime() >= deadline) {
+                record("conflict");
+                throw inProgress();
+            }
+            try {
+                TimeUnit.MILLISECONDS.sleep(POLL_INTERVAL_MS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw inProgress();
+            }
+        }
+    }
+
+    private Optional<IdempotencyKeyEntity> tryInsert(IdempotencyKeyEntity.Key key, String requestHash, LocalDateTime now) {
+        IdempotencyKeyEntity entry = IdempotencyKeyEntity.builder()
+            .userId(key.getUserId())
+            .idempotencyKey(key.getIdempotencyKey())
+            .requestHash(requestHash)
+            .status(IdempotencyKeyEntity.Status.IN_PROGRESS)
+            // Sem fração de segundo: DATETIME arredonda, e created_at identifica a reserva em deleteIfUnchanged
+            .createdAt(now.truncatedTo(ChronoUnit.SECONDS))
+            .expiresAt(now.plus(ttl))
+            .build();
+        try {
+            return Optional.of(idempotencyKeyRepository.saveAndFlush(entry));
+        } catch (DataIntegrityViolationException e) {
+            // Outra requisição inseriu a mesma chave entre a leitura e o insert
+            return Optional.empty();
+        }
+    }
+
+    private ItemResponse execute(IdempotencyKeyEntity entry, Supplier<String> authorize,
+                                 Function<String, ItemResponse> create) {
+        String authorization;
+        try {
+            authorization = authorize.get();
+        } catch (RuntimeException e) {
+            // Nada chegou ao Mercado Livre (ex: 504 aguardando o refresh do token)
+            release(entry);
+            throw e;
+        }
+
+        ItemResponse item;
+        try {
+            item = create.apply(authorization);
+        } catch (ResponseStatusException e) {
+            onFailure(entry, e.getStatusCode().value(), e.getReason());
+            throw e;
+        } catch (RuntimeException e) {
+            onFailure(entry, HttpStatus.BAD_GATEWAY.value(), "Erro na comunicação com Mercado Livre: " + e.getMessage());
+            throw e;
+        }
+
+        try {
+            entry.setStatus(IdempotencyKeyEntity.Status.COMPLETED);
+            entry.setResponseStatus(HttpStatus.CREATED.value());
+            entry.setResponseBody(objectMapper.writeValueAsString(item));
+            entry.setExpiresAt(LocalDateTime.now().plus(ttl));
+            idempotencyKeyRepository.save(entry);
+        } catch (JsonProcessingException | RuntimeException e) {
+            // O produto já foi criado: a resposta segue para o chamador mesmo sem o registro para replay
+            log.error("Erro ao registrar Idempotency-Key {} do usuário {}: {}",
+                entry.getIdempotencyKey(), entry.getUserId(), e.getMessage(), e);
+        }
+        return item;
+    }
+
+    private void onFailure(IdempotencyKeyEntity entry, int status, String error) {
+        if (status < 500 || status == HttpStatus.SERVICE_UNAVAILABLE.value()) {
+            release(entry);
+            return;
+        }
+        try {
+            entry.setStatus(IdempotencyKeyEntity.Status.COMPLETED);
+            entry.setResponseStatus(status);
+            entry.setError(error != null && error.length() > MAX_ERROR_LENGTH ? error.substring(0, MAX_ERROR_LENGTH) : error);
+            entry.setExpiresAt(LocalDateTime.now().plus(ttl));
+            idempotencyKeyRepository.save(entry);
+        } catch (RuntimeException e) {
+            log.error("Erro ao registrar falha da Idempotency-Key {} do usuário {}: {}",
+                entry.getIdempotencyKey(), entry.getUserId(), e.getMessage(), e);
+        }
+    }
+
+    /**
+     * O produto certamente não foi criado: a próxima requisição com a chave tenta de novo
+     */
+    private void release(IdempotencyKeyEntity entry) {
+        try {
+            idempotencyKeyRepository.deleteIfUnchanged(entry.getUserId(), entry.getIdempotencyKey(), entry.getCreatedAt());
+        } catch (RuntimeException e) {
+            log.error("Erro ao liberar a Idempotency-Key {} do usuário {}: {}",
+                entry.getIdempotencyKey(), entry.getUserId(), e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Resposta guardada de uma chave concluída: o produto criado, ou o mesmo erro da primeira tentativa
+     */
+    private ItemResponse replay(IdempotencyKeyEntity entry) {
+        if (entry.getResponseStatus() == null || entry.getResponseStatus() >= 300) {
+            throw new ResponseStatusException(
+                HttpStatus.valueOf(entry.getResponseStatus() != null ? entry.getResponseStatus() : HttpStatus.BAD_GATEWAY.value()),
+                entry.getError());
+        }
+        try {
+            return objectMapper.readValue(entry.getResponseBody(), ItemResponse.class);
+        } catch (JsonProcessingException e) {
+            throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR,
+                "Resposta guardada para a Idempotency-Key não pôde ser lida");
+        }
+    }
+
+    private ItemResponse await(CompletableFuture<ItemResponse> outcome) {
+        try {
+            return outcome.get(waitTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new ResponseStatusException(HttpStatus.BAD_GATEWAY, e.getCause().getMessage());
+        } catch (TimeoutException e) {
+            record("conflict");
+            throw inProgress();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw inProgress();
+        }
+    }
+
+    private void checkSameRequest(String expected, String actual) {
+        if (!expected.equals(actual)) {
+            record("mismatch");
+            throw new ResponseStatusException(HttpStatus.UNPROCESSABLE_ENTITY,
+                "Idempotency-Key já utilizada com outro corpo de requisição");
+        }
+    }
+
+    private static ResponseStatusException inProgress() {
+        return new ResponseStatusException(HttpStatus.CONFLICT,
+            "Requisição com a mesma Idempotency-Key ainda em processamento. Tente novamente em instantes.");
+    }
+
+    private String hash(ItemRequest request) {
+        try {
+            byte[] body = objectMapper.writeValueAsBytes(request);
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(body));
+        } catch (JsonProcessingException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Produto inválido: " + e.getOriginalMessage());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private void record(String outcome) {
+        meterRegistry.counter("ml.idempotency.requests", "outcome", outcome).increment();
+    }
+
+    /**
+     * Remove as chaves expiradas
+     */
+    @Scheduled(fixedDelayString = "${mercadolivre.idempotency.cleanup-interval-ms:3600000}")
+    public void purgeExpiredKeys() {
+        try {
+            int purged = idempotencyKeyRepository.deleteExpired(LocalDateTime.now());
+            if (purged > 0) {
+                log.info("{} Idempotency-Key(s) expiradas removidas", purged);
+            }
+        } catch (RuntimeException e) {
+            log.warn("Erro ao remover Idempotency-Keys expiradas: {}", e.getMessage());
+        }
+    }
+}
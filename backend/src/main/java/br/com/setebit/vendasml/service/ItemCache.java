@@ -0,0 +1,119 @@
+package br.com.setebit.vendasml.service;
+
+import br.com.setebit.vendasml.dto.ItemResponse;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.ConcurrentStatsCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+/**
+ * Cache read-through dos produtos, com TTL curto, na frente do GET /items/{id}.
+ *
+ * <p>A chave inclui o userId: um item lido com o token de um vendedor nunca é servido
+ * para outro userId. Escritas (criar/atualizar) substituem a entrada com a resposta do
+ * Mercado Livre e a exclusão deixa uma marca de remoção, de modo que uma leitura iniciada
+ * antes da escrita não sobrescreve o resultado mais novo ao terminar.
+ */
+@Component
+public class ItemCache {
+
+    private final Cache<Key, Entry> cache;
+    private final ConcurrentStatsCounter stats = new ConcurrentStatsCounter();
+    private final Duration ttl;
+
+    public ItemCache(
+            MeterRegistry meterRegistry,
+            @Value("${mercadolivre.item-cache.ttl-seconds:30}") long ttlSeconds,
+            @Value("${mercadolivre.item-cache.maximum-size:10000}") long maximumSize) {
+        this.ttl = Duration.ofSeconds(ttlSeconds);
+        this.cache = Caffeine.newBuilder()
+            .maximumSize(maximumSize)
+            .expireAfterWrite(ttl)
+            .recordStats(() -> stats)
+            .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "ml.items");
+    }
+
+    /**
+     * Devolve o item do cache se ele tiver no máximo {@code maxStale} de idade; senão busca com o loader.
+     * @param maxStale idade máxima aceita pelo chamador (null usa o TTL; zero força a busca)
+     */
+    public ItemResponse get(String userId, String itemId, Duration maxStale, Supplier<ItemResponse> loader) {
+        Key key = new Key(userId, itemId);
+        Instant now = Instant.now();
+        Entry cached = cache.policy().getIfPresentQuietly(key);
+        if (cached != null && cached.item != null && isFreshEnough(cached, now, maxStale)) {
+            stats.recordHits(1);
+            return cached.item;
+        }
+
+        stats.recordMisses(1);
+        ItemResponse item = loader.get();
+        cache.asMap().merge(key, new Entry(item, now), ItemCache::newest);
+        return item;
+    }
+
+    /**
+     * Versão assíncrona de {@link #get}: um acerto no cache completa na hora, sem passar pelo executor
+     * @return o future do loader em caso de miss (cancelá-lo cancela a busca)
+     */
+    public CompletableFuture<ItemResponse> getAsync(String userId, String itemId, Duration maxStale,
+                                                    Supplier<CompletableFuture<ItemResponse>> loader) {
+        Key key = new Key(userId, itemId);
+        Instant now = Instant.now();
+        Entry cached = cache.policy().getIfPresentQuietly(key);
+        if (cached != null && cached.item != null && isFreshEnough(cached, now, maxStale)) {
+            stats.recordHits(1);
+            return CompletableFuture.completedFuture(cached.item);
+        }
+
+        stats.recordMisses(1);
+        CompletableFuture<ItemResponse> loading = loader.get();
+        loading.thenAccept(item -> cache.asMap().merge(key, new Entry(item, now), ItemCache::newest));
+        return loading;
+    }
+
+    /**
+     * Substitui a entrada com a resposta de uma escrita (criação ou atualização) no Mercado Livre
+     */
+    public void put(String userId, ItemResponse item) {
+        if (item == null || item.getId() == null) {
+            return;
+        }
+        cache.asMap().merge(new Key(userId, item.getId()), new Entry(item, Instant.now()), ItemCache::newest);
+    }
+
+    /**
+     * Remove o item do cache, impedindo que leituras anteriores em andamento o repopulem
+     */
+    public void evict(String userId, String itemId) {
+        cache.put(new Key(userId, itemId), new Entry(null, Instant.now()));
+    }
+
+    private boolean isFreshEnough(Entry entry, Instant now, Duration maxStale) {
+        Duration limit = maxStale == null || maxStale.compareTo(ttl) > 0 ? ttl : maxStale;
+        return !entry.fetchedAt.plus(limit).isBefore(now);
+    }
+
+    private static Entry newest(Entry current, Entry candidate) {
+        return candidate.fetchedAt.isBefore(current.fetchedAt) ? current : candidate;
+    }
+
+    private record Key(String userId, String itemId) {
+    }
+
+    /**
+     * @param item null marca um item removido
+     * @param fetchedAt início da leitura ou fim da escrita que produziu a entrada
+     */
+    private record Entry(ItemResponse item, Instant fetchedAt) {
+    }
+}
@@ -0,0 +1,221 @@
+package br.com.setebit.vendasml.service;
+
+import br.com.setebit.vendasml.dto.ItemRequest;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Lê incrementalmente um arquivo de importação de produtos, uma linha/registro por vez.
+ * Erros de conversão de um registro são devolvidos na própria linha, sem interromper a leitura.
+ */
+interface ItemImportReader extends Closeable {
+
+    /**
+     * @return próximo registro, ou null no fim do arquivo
+     */
+    ImportRow next() throws IOException;
+
+    record ImportRow(long row, ItemRequest item, String error) {
+    }
+
+    enum Format {
+        NDJSON, CSV
+    }
+
+    static ItemImportReader open(Format format, BufferedReader reader, ObjectMapper objectMapper) throws IOException {
+        return switch (format) {
+            case NDJSON -> new NdjsonReader(reader, objectMapper);
+            case CSV -> new CsvReader(reader);
+        };
+    }
+
+    /**
+     * Um objeto JSON de ItemRequest por linha; linhas em branco são ignoradas
+     */
+    final class NdjsonReader implements ItemImportReader {
+
+        private final BufferedReader reader;
+        private final ObjectMapper objectMapper;
+        private long line;
+
+        NdjsonReader(BufferedReader reader, ObjectMapper objectMapper) {
+            this.reader = reader;
+            this.objectMapper = objectMapper;
+        }
+
+        @Override
+        public ImportRow next() throws IOException {
+            String content;
+            do {
+                content = reader.readLine();
+                line++;
+                if (content == null) {
+                    return null;
+                }
+            } while (content.isBlank());
+
+            try {
+                return new ImportRow(line, objectMapper.readValue(content, ItemRequest.class), null);
+            } catch (JsonProcessingException e) {
+                return new ImportRow(line, null, "JSON inválido: " + e.getOriginalMessage());
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            reader.close();
+        }
+    }
+
+    /**
+     * CSV (RFC 4180) com cabeçalho usando os nomes dos campos do ItemRequest:
+     * title, category_id, price, currency_id, available_quantity, buying_mode, condition,
+     * listing_type_id, description (texto) e pictures (URLs separadas por '|').
+     */
+    final class CsvReader implements ItemImportReader {
+
+        private static final int MAX_FIELD_LENGTH = 100_000;
+        private static final List<String> REQUIRED_COLUMNS = List.of(
+            "title", "category_id", "price", "currency_id", "available_quantity",
+            "buying_mode", "condition", "listing_type_id", "description", "pictures");
+
+        private final BufferedReader reader;
+        private final Map<String, Integer> columns = new HashMap<>();
+        private long row;
+
+        CsvReader(BufferedReader reader) throws IOException {
+            this.reader = reader;
+            List<String> header = readRecord();
+            if (header == null) {
+                throw new IOException("Arquivo CSV vazio");
+            }
+            for (int i = 0; i < header.size(); i++) {
+                columns.put(header.get(i).trim().toLowerCase(Locale.ROOT), i);
+            }
+            List<String> missing = REQUIRED_COLUMNS.stream().filter(column -> !columns.containsKey(column)).toList();
+            if (!missing.isEmpty()) {
+                throw new IOException("Colunas obrigatórias ausentes no CSV: " + missing);
+            }
+        }
+
+        @Override
+        public ImportRow next() throws IOException {
+            List<String> record;
+            do {
+                record = readRecord();
+                if (record == null) {
+                    return null;
+                }
+            } while (record.size() == 1 && record.get(0).isBlank());
+
+            row++;
+            try {
+                return new ImportRow(row, toItemRequest(record), null);
+            } catch (NumberFormatException e) {
+                return new ImportRow(row, null, "Valor numérico inválido: " + e.getMessage());
+            }
+        }
+
+        private ItemRequest toItemRequest(List<String> record) {
+            String pictures = get(record, "pictures");
+            String description = get(record, "description");
+            return ItemRequest.builder()
+                .title(get(record, "title"))
+                .category_id(get(record, "category_id"))
+                .price(parseDouble(get(record, "price")))
+                .currency_id(get(record, "currency_id"))
+                .available_quantity(parseInt(get(record, "available_quantity")))
+                .buying_mode(get(record, "buying_mode"))
+                .condition(get(record, "condition"))
+                .listing_type_id(get(record, "listing_type_id"))
+                .description(description == null ? null : new ItemRequest.Description(description))
+                .pictures(pictures == null ? null : Arrays.stream(pictures.split("\\|"))
+                    .map(String::trim)
+                    .filter(source -> !source.isEmpty())
+                    .map(ItemRequest.Picture::new)
+                    .toList())
+                .build();
+        }
+
+        private String get(List<String> record, String column) {
+            int index = columns.get(column);
+            if (index >= record.size()) {
+                return null;
+            }
+            String value = record.get(index);
+            return value.isEmpty() ? null : value;
+        }
+
+        private static Double parseDouble(String value) {
+            return value == null ? null : Double.valueOf(value.trim());
+        }
+
+        private static Integer parseInt(String value) {
+            return value == null ? null : Integer.valueOf(value.trim());
+        }
+
+        /**
+         * Lê um registro, respeitando aspas (com "" como escape) e quebras de linha dentro de campos
+         * @return campos do registro, ou null no fim do arquivo
+         */
+        private List<String> readRecord() throws IOException {
+            List<String> fields = new ArrayList<>();
+            StringBuilder field = new StringBuilder();
+            boolean quoted = false;
+            boolean read = false;
+            int c;
+            while ((c = reader.read()) != -1) {
+                read = true;
+                if (quoted) {
+                    if (c == '"') {
+                        reader.mark(1);
+                        int next = reader.read();
+                        if (next == '"') {
+                            field.append('"');
+                        } else {
+                            quoted = false;
+                            if (next != -1) {
+                                reader.reset();
+                            }
+                        }
+                    } else {
+                        field.append((char) c);
+                    }
+                } else if (c == '"' && field.isEmpty()) {
+                    quoted = true;
+                } else if (c == ',') {
+                    fields.add(field.toString());
+                    field.setLength(0);
+                } else if (c == '\n') {
+                    fields.add(field.toString());
+                    return fields;
+                } else if (c != '\r') {
+                    field.append((char) c);
+                }
+                if (field.length() > MAX_FIELD_LENGTH) {
+                    throw new IOException("Campo do CSV excede " + MAX_FIELD_LENGTH + " caracteres");
+                }
+            }
+            if (!read) {
+                return null;
+            }
+            fields.add(field.toString());
+            return fields;
+        }
+
+        @Override
+        public void close() throws IOException {
+            reader.close();
+        }
+    }
+}
@@ -0,0 +1,422 @@
+package br.com.setebit.vendasml.service;
+
+import br.com.setebit.vendasml.client.MercadoLivreItemClient;
+import br.com.setebit.vendasml.dto.ItemMirrorPage;
+import br.com.setebit.vendasml.dto.ItemMirrorResponse;
+import br.com.setebit.vendasml.dto.ItemMirrorSyncStatus;
+import br.com.setebit.vendasml.dto.ItemMultiGetResponse;
+import br.com.setebit.vendasml.dto.ItemResponse;
+import br.com.setebit.vendasml.dto.ItemSearchResponse;
+import br.com.setebit.vendasml.entity.ItemMirrorEntity;
+import br.com.setebit.vendasml.repository.ItemMirrorRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * Cópia local (item_mirror) dos produtos de cada vendedor, para listagens servidas pelo MySQL.
+ *
+ * <p>A sincronização percorre os IDs do vendedor com a varredura por scroll_id e processa cada
+ * bloco de 20 IDs em paralelo (limitado por mercadolivre.item-mirror.concurrency): produtos já
+ * conhecidos são conferidos por um multi-get só com id e last_updated, e apenas os novos ou
+ * alterados são relidos por completo. Um produto relido com o mesmo content_hash não é regravado.
+ * Ao fim de uma varredura completa e sem falhas, os produtos que não apareceram são removidos.
+ *
+ * <p>Métricas: ml.items.mirror.sync{status} (duração) e ml.items.mirror.items{result=unchanged|updated|failed|removed}.
+ */
+@Slf4j
+@Service
+public class ItemMirrorService {
+
+    private static final int MAX_PAGE_SIZE = 200;
+    private static final String CHANGE_ATTRIBUTES = "id,last_updated";
+
+    private final ItemMirrorRepository repository;
+    private final MercadoLivreItemClient itemClient;
+    private final MercadoLivreService mercadoLivreService;
+    private final ExecutorService fanOutExecutor;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+    private final int concurrency;
+    private final int scanPageSize;
+    private final Map<String, SyncJob> jobs = new ConcurrentHashMap<>();
+
+    public ItemMirrorService(
+            ItemMirrorRepository repository,
+            MercadoLivreItemClient itemClient,
+            MercadoLivreService mercadoLivreService,
+            ExecutorService fanOutExecutor,
+            ObjectMapper objectMapper,
+            MeterRegistry meterRegistry,
+            @Value("${mercadolivre.item-mirror.concurrency:8}") int concurrency,
+            @Value("${mercadolivre.item-mirror.scan-page-size:100}") int scanPageSize) {
+        this.repository = repository;
+        this.itemClient = itemClient;
+        this.mercadoLivreService = mercadoLivreService;
+        this.fanOutExecutor = fanOutExecutor;
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
+        this.concurrency = Math.max(concurrency, 1);
+        this.scanPageSize = Math.min(Math.max(scanPageSize, 1), 100);
+    }
+
+    /**
+     * Inicia a sincronização do vendedor em segundo plano; se já houver uma em andamento, devolve o estado dela
+     */
+    public ItemMirrorSyncStatus startSync(String userId) {
+        return start(userId).toStatus();
+    }
+
+    /**
+     * Sincroniza o vendedor e espera o fim (usado pela sincronização periódica)
+     */
+    public ItemMirrorSyncStatus syncNow(String userId) {
+        SyncJob job = start(userId);
+        job.done.join();
+        return job.toStatus();
+    }
+
+    private SyncJob start(String userId) {
+        SyncJob created = new SyncJob(userId);
+        SyncJob job = jobs.compute(userId, (id, current) ->
+            current != null && current.status == ItemMirrorSyncStatus.Status.RUNNING ? current : created);
+        if (job == created) {
+            fanOutExecutor.execute(() -> run(job));
+        }
+        return job;
+    }
+
+    public ItemMirrorSyncStatus getSyncStatus(String userId) {
+        SyncJob job = jobs.get(userId);
+        if (job == null) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Nenhuma sincronização executada para o usuário: " + userId);
+        }
+        return job.toStatus();
+    }
+
+    public ItemMirrorPage search(String userId, String status, String categoryId, Double minPrice, Double maxPrice,
+                                 String title, int page, int size) {
+        if (page < 0 || size < 1 || size > MAX_PAGE_SIZE) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                "page deve ser >= 0 e size entre 1 e " + MAX_PAGE_SIZE);
+        }
+        PageRequest pageable = PageRequest.of(page, size,
+            Sort.by(Sort.Order.desc("lastUpdated"), Sort.Order.asc("itemId")));
+        Page<ItemMirrorEntity> result = repository.search(userId, blankToNull(status), blankToNull(categoryId),
+            minPrice, maxPrice, blankToNull(title), pageable);
+        return ItemMirrorPage.builder()
+            .total(result.getTotalElements())
+            .page(page)
+            .size(size)
+            .items(result.getContent().stream().map(ItemMirrorService::toResponse).toList())
+            .build();
+    }
+
+    public ItemMirrorResponse getItem(String userId, String itemId) {
+        return repository.findByUserIdAndItemId(userId, itemId)
+            .map(ItemMirrorService::toResponse)
+            .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND,
+                "Produto não encontrado na cópia local: " + itemId));
+    }
+
+    private void run(SyncJob job) {
+        String userId = job.userId;
+        // DATETIME não guarda fração: synced_at truncado para que a comparação da remoção seja exata
+        LocalDateTime syncedAt = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+        Semaphore permits = new Semaphore(concurrency);
+        Timer.Sample sample = Timer.start(meterRegistry);
+        Long total = null;
+        String scanError = null;
+        try {
+            String scrollId = null;
+            while (true) {
+                ItemSearchResponse page = itemClient.scanItems(authorization(userId), userId, scrollId, scanPageSize);
+                if (page.getPaging() != null && page.getPaging().getTotal() != null) {
+                    total = page.getPaging().getTotal();
+                }
+                List<String> ids = page.getResults() == null ? List.of() : page.getResults();
+                if (ids.isEmpty()) {
+                    break;
+                }
+                job.scanned.addAndGet(ids.size());
+                for (int from = 0; from < ids.size(); from += ItemMultiGetBatcher.MAX_IDS_PER_CALL) {
+                    List<String> chunk = List.copyOf(ids.subList(from, Math.min(ids.size(), from + ItemMultiGetBatcher.MAX_IDS_PER_CALL)));
+                    permits.acquireUninterruptibly();
+                    fanOutExecutor.execute(() -> {
+                        try {
+                            syncChunk(job, chunk, syncedAt);
+                        } catch (RuntimeException e) {
+                            log.warn("Falha sincronizando {} produtos do usuário {}: {}", chunk.size(), userId, e.getMessage());
+                            job.failed.addAndGet(chunk.size());
+                            count("failed", chunk.size());
+                            job.error = e.getMessage();
+                        } finally {
+                            permits.release();
+                        }
+                    });
+                }
+                scrollId = page.getScrollId();
+                if (scrollId == null) {
+                    break;
+                }
+            }
+        } catch (RuntimeException e) {
+            log.error("Erro na varredura de produtos do usuário {}: {}", userId, e.getMessage());
+            scanError = e.getMessage();
+        }
+
+        // Espera os blocos em andamento antes de decidir o resultado
+        permits.acquireUninterruptibly(concurrency);
+        try {
+            if (scanError != null) {
+                job.finish(ItemMirrorSyncStatus.Status.FAILED, scanError);
+                return;
+            }
+            boolean complete = job.failed.get() == 0 && (total == null || job.scanned.get() >= total);
+            if (complete) {
+                int removed = repository.deleteNotSyncedSince(userId, syncedAt);
+                job.removed.set(removed);
+                count("removed", removed);
+            } else {
+                log.warn("Sincronização do usuário {} incompleta ({} de {} IDs, {} falhas): produtos ausentes não removidos",
+                    userId, job.scanned.get(), total, job.failed.get());
+            }
+            job.finish(complete ? ItemMirrorSyncStatus.Status.COMPLETED : ItemMirrorSyncStatus.Status.PARTIAL, job.error);
+            log.info("Sincronização do usuário {}: {} IDs, {} relidos, {} gravados, {} sem alteração, {} removidos",
+                userId, job.scanned.get(), job.fetched.get(), job.updated.get(), job.unchanged.get(), job.removed.get());
+        } catch (RuntimeException e) {
+            log.error("Erro finalizando a sincronização do usuário {}: {}", userId, e.getMessage());
+            job.finish(ItemMirrorSyncStatus.Status.FAILED, e.getMessage());
+        } finally {
+            sample.stop(meterRegistry.timer("ml.items.mirror.sync", "status", job.status.name().toLowerCase()));
+            job.done.complete(null);
+        }
+    }
+
+    /**
+     * Confere um bloco de até 20 IDs e grava o que mudou
+     */
+    private void syncChunk(SyncJob job, List<String> ids, LocalDateTime syncedAt) {
+        String userId = job.userId;
+        Map<String, LocalDateTime> known = repository.findSyncState(userId, ids).stream()
+            .collect(Collectors.toMap(ItemMirrorRepository.SyncState::getItemId,
+                state -> Objects.requireNonNullElse(state.getLastUpdated(), LocalDateTime.MIN)));
+
+        List<String> unchanged = new ArrayList<>();
+        List<String> toFetch = new ArrayList<>();
+        if (known.isEmpty()) {
+            toFetch.addAll(ids);
+        } else {
+            List<String> knownIds = ids.stream().filter(known::containsKey).toList();
+            Map<String, LocalDateTime> current = new HashMap<>();
+            for (ItemMultiGetResponse response : itemClient.getItemsAttributes(
+                    authorization(userId), String.join(",", knownIds), CHANGE_ATTRIBUTES)) {
+                if (isOk(response)) {
+                    LocalDateTime lastUpdated = parseLastUpdated(response.getBody().getLastUpdated());
+                    if (lastUpdated != null) {
+                        current.put(response.getBody().getId(), lastUpdated);
+                    }
+                }
+            }
+            job.checked.addAndGet(knownIds.size());
+            for (String id : ids) {
+                LocalDateTime lastUpdated = current.get(id);
+                if (lastUpdated != null && lastUpdated.equals(known.get(id))) {
+                    unchanged.add(id);
+                } else {
+                    toFetch.add(id);
+                }
+            }
+        }
+
+        if (!toFetch.isEmpty()) {
+            job.fetched.addAndGet(toFetch.size());
+            Map<String, ItemMirrorEntity> existing = repository.findByUserIdAndItemIdIn(userId, toFetch).stream()
+                .collect(Collectors.toMap(ItemMirrorEntity::getItemId, entity -> entity));
+            List<ItemMirrorEntity> changed = new ArrayList<>();
+            int failed = 0;
+            for (ItemMultiGetResponse response : itemClient.getItems(authorization(userId), String.join(",", toFetch))) {
+                if (!isOk(response)) {
+                    // 404: removido entre a varredura e a leitura; fica fora do synced_at e sai na remoção
+                    if (response.getCode() == null || response.getCode() != HttpStatus.NOT_FOUND.value()) {
+                        failed++;
+                    }
+                    continue;
+                }
+                ItemResponse item = response.getBody();
+                String hash = contentHash(item);
+                ItemMirrorEntity entity = existing.get(item.getId());
+                if (entity != null && hash.equals(entity.getContentHash())) {
+                    unchanged.add(item.getId());
+                    continue;
+                }
+                if (entity == null) {
+                    entity = ItemMirrorEntity.builder().userId(userId).itemId(item.getId()).build();
+                }
+                apply(entity, item, hash, syncedAt);
+                changed.add(entity);
+            }
+            if (!changed.isEmpty()) {
+                repository.saveAll(changed);
+                job.updated.addAndGet(changed.size());
+                count("updated", changed.size());
+            }
+            if (failed > 0) {
+                job.failed.addAndGet(failed);
+                count("failed", failed);
+            }
+        }
+
+        if (!unchanged.isEmpty()) {
+            repository.markSynced(userId, unchanged, syncedAt);
+            job.unchanged.addAndGet(unchanged.size());
+            count("unchanged", unchanged.size());
+        }
+    }
+
+    private String authorization(String userId) {
+        return "Bearer " + mercadoLivreService.getValidAccessToken(userId);
+    }
+
+    private static boolean isOk(ItemMultiGetResponse response) {
+        return response.getCode() != null && response.getCode() == HttpStatus.OK.value()
+            && response.getBody() != null && response.getBody().getId() != null;
+    }
+
+    private static void apply(ItemMirrorEntity entity, ItemResponse item, String hash, LocalDateTime syncedAt) {
+        entity.setTitle(item.getTitle());
+        entity.setCategoryId(item.getCategoryId());
+        entity.setPrice(item.getPrice());
+        entity.setCurrencyId(item.getCurrencyId());
+        entity.setAvailableQuantity(item.getAvailableQuantity());
+        entity.setSoldQuantity(item.getSoldQuantity());
+        entity.setStatus(item.getStatus());
+        entity.setPermalink(item.getPermalink());
+        entity.setLastUpdated(parseLastUpdated(item.getLastUpdated()));
+        entity.setContentHash(hash);
+        entity.setSyncedAt(syncedAt);
+    }
+
+    private String contentHash(ItemResponse item) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(objectMapper.writeValueAsBytes(item)));
+        } catch (JsonProcessingException | NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * last_updated do Mercado Livre (ex: 2024-05-01T10:00:00.000Z) em UTC; null se ausente ou inválido
+     */
+    static LocalDateTime parseLastUpdated(String value) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        try {
+            return OffsetDateTime.parse(value).withOffsetSameInstant(ZoneOffset.UTC).toLocalDateTime()
+                .truncatedTo(ChronoUnit.MILLIS);
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+
+    private void count(String result, long amount) {
+        meterRegistry.counter("ml.items.mirror.items", "result", result).increment(amount);
+    }
+
+    private static String blankToNull(String value) {
+        return value == null || value.isBlank() ? null : value;
+    }
+
+    private static ItemMirrorResponse toResponse(ItemMirrorEntity entity) {
+        return ItemMirrorResponse.builder()
+            .itemId(entity.getItemId())
+            .title(entity.getTitle())
+            .categoryId(entity.getCategoryId())
+            .price(entity.getPrice())
+            .currencyId(entity.getCurrencyId())
+            .availableQuantity(entity.getAvailableQuantity())
+            .soldQuantity(entity.getSoldQuantity())
+            .status(entity.getStatus())
+            .permalink(entity.getPermalink())
+            .lastUpdated(entity.getLastUpdated())
+            .syncedAt(entity.getSyncedAt())
+            .build();
+    }
+
+    /**
+     * Estado de uma sincronização: apenas contadores
+     */
+    private static class SyncJob {
+        private final String userId;
+        private final Instant startedAt = Instant.now();
+        private final AtomicLong scanned = new AtomicLong();
+        private final AtomicLong checked = new AtomicLong();
+        private final AtomicLong fetched = new AtomicLong();
+        private final AtomicLong updated = new AtomicLong();
+        private final AtomicLong unchanged = new AtomicLong();
+        private final AtomicLong removed = new AtomicLong();
+        private final AtomicLong failed = new AtomicLong();
+        private final CompletableFuture<Void> done = new CompletableFuture<>();
+        private volatile ItemMirrorSyncStatus.Status status = ItemMirrorSyncStatus.Status.RUNNING;
+        private volatile Instant finishedAt;
+        private volatile String error;
+
+        SyncJob(String userId) {
+            this.userId = userId;
+        }
+
+        void finish(ItemMirrorSyncStatus.Status status, String error) {
+            this.error = error;
+            this.finishedAt = Instant.now();
+            this.status = status;
+        }
+
+        ItemMirrorSyncStatus toStatus() {
+            return ItemMirrorSyncStatus.builder()
+                .userId(userId)
+                .status(status)
+                .scanned(scanned.get())
+                .checked(checked.get())
+                .fetched(fetched.get())
+                .updated(updated.get())
+                .unchanged(unchanged.get())
+                .removed(removed.get())
+                .failed(failed.get())
+                .startedAt(startedAt)
+                .finishedAt(finishedAt)
+                .error(error)
+                .build();
+        }
+    }
+}
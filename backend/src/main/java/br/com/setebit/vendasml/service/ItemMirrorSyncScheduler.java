@@ -0,0 +1,87 @@
+package br.com.setebit.vendasml.service;
+
+import br.com.setebit.vendasml.dto.ItemMirrorSyncStatus;
+import br.com.setebit.vendasml.entity.TokenEntity;
+import br.com.setebit.vendasml.repository.TokenRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Sincronização incremental periódica da cópia local de todos os vendedores com token,
+ * um vendedor por vez para não disputar a cota do Mercado Livre com o tráfego dos usuários.
+ *
+ * <p>Só uma instância sincroniza por vez (lease em scheduler_locks, como no refresh proativo de
+ * tokens). O lease é renovado antes de cada vendedor e liberado no fim da rodada; se a renovação
+ * falhar (a rodada demorou mais que lease-seconds para um vendedor e outra instância assumiu), esta
+ * instância para e deixa o restante para a dona atual.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "mercadolivre.item-mirror.scheduler", name = "enabled", havingValue = "true")
+public class ItemMirrorSyncScheduler {
+
+    private static final int PAGE_SIZE = 200;
+    private static final String LOCK_NAME = "item-mirror-sync";
+
+    private final TokenRepository tokenRepository;
+    private final ItemMirrorService itemMirrorService;
+    private final SchedulerLockService schedulerLockService;
+    private final Duration lease;
+
+    public ItemMirrorSyncScheduler(
+            TokenRepository tokenRepository,
+            ItemMirrorService itemMirrorService,
+            SchedulerLockService schedulerLockService,
+            @Value("${mercadolivre.item-mirror.scheduler.lease-seconds:900}") long leaseSeconds) {
+        this.tokenRepository = tokenRepository;
+        this.itemMirrorService = itemMirrorService;
+        this.schedulerLockService = schedulerLockService;
+        this.lease = Duration.ofSeconds(leaseSeconds);
+    }
+
+    @Scheduled(
+        fixedDelayString = "${mercadolivre.item-mirror.scheduler.interval-ms:3600000}",
+        initialDelayString = "${mercadolivre.item-mirror.scheduler.initial-delay-ms:300000}"
+    )
+    public void syncAll() {
+        if (!schedulerLockService.tryAcquire(LOCK_NAME, lease)) {
+            log.debug("Sincronização periódica da cópia local executando em outra instância");
+            return;
+        }
+        try {
+            syncAllSellers();
+        } finally {
+            schedulerLockService.release(LOCK_NAME);
+        }
+    }
+
+    private void syncAllSellers() {
+        Page<TokenEntity> page = tokenRepository.findAll(PageRequest.of(0, PAGE_SIZE, Sort.by("userId")));
+        while (true) {
+            for (TokenEntity token : page.getContent()) {
+                if (!schedulerLockService.tryAcquire(LOCK_NAME, lease)) {
+                    log.warn("Lease da sincronização periódica perdido antes do usuário {}; rodada interrompida",
+                        token.getUserId());
+                    return;
+                }
+                ItemMirrorSyncStatus status = itemMirrorService.syncNow(token.getUserId());
+                if (status.getStatus() != ItemMirrorSyncStatus.Status.COMPLETED) {
+                    log.warn("Sincronização periódica do usuário {} terminou como {}: {}",
+                        token.getUserId(), status.getStatus(), status.getError());
+                }
+            }
+            if (!page.hasNext()) {
+                break;
+            }
+            page = tokenRepository.findAll(page.nextPageable());
+        }
+    }
+}
@@ -0,0 +1,239 @@
+package br.com.setebit.vendasml.service;
+
+import br.com.setebit.vendasml.client.MercadoLivreItemClient;
+import br.com.setebit.vendasml.dto.ItemMultiGetResponse;
+import br.com.setebit.vendasml.dto.ItemResponse;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Agrupa buscas individuais de itens feitas ao mesmo tempo em uma única chamada
+ * GET /items?ids= (até 20 IDs). O primeiro pedido abre uma janela curta; os pedidos
+ * que chegam nela para o mesmo token entram no mesmo lote, que é enviado ao fim da janela
+ * ou assim que atinge o tamanho máximo. Cada chamador recebe apenas o seu item.
+ */
+@Slf4j
+@Component
+public class ItemMultiGetBatcher {
+
+    public static final int MAX_IDS_PER_CALL = 20;
+
+    private final MercadoLivreItemClient itemClient;
+    private final ExecutorService fanOutExecutor;
+    private final boolean enabled;
+    private final long windowMs;
+    private final int maxBatchSize;
+    private final long timeoutMs;
+    private final DistributionSummary batchSize;
+    private final Map<String, PendingBatch> pending = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "item-multiget-batcher");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public ItemMultiGetBatcher(
+            MercadoLivreItemClient itemClient,
+            ExecutorService fanOutExecutor,
+            MeterRegistry meterRegistry,
+            @Value("${mercadolivre.item-batching.enabled:false}") boolean enabled,
+            @Value("${mercadolivre.item-batching.window-ms:5}") long windowMs,
+            @Value("${mercadolivre.item-batching.max-batch-size:20}") int maxBatchSize,
+            @Value("${mercadolivre.item-batching.timeout-ms:10000}") long timeoutMs) {
+        this.itemClient = itemClient;
+        this.fanOutExecutor = fanOutExecutor;
+        this.enabled = enabled;
+        this.windowMs = windowMs;
+        this.maxBatchSize = Math.min(Math.max(maxBatchSize, 1), MAX_IDS_PER_CALL);
+        this.timeoutMs = timeoutMs;
+        this.batchSize = DistributionSummary.builder("ml.items.multiget.batch.size")
+            .description("Itens distintos por chamada agrupada de GET /items?ids=")
+            .register(meterRegistry);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Busca o item através do próximo lote do token informado
+     */
+    public ItemResponse getItem(String authorization, String itemId) {
+        CompletableFuture<ItemResponse> result = new CompletableFuture<>();
+        while (true) {
+            PendingBatch batch = pending.computeIfAbsent(authorization, this::openBatch);
+            int size = batch.add(itemId, result, maxBatchSize);
+            if (size > 0) {
+                if (size >= maxBatchSize) {
+                    flush(authorization, batch);
+                }
+                break;
+            }
+            pending.remove(authorization, batch);
+        }
+        return await(itemId, result);
+    }
+
+    private PendingBatch openBatch(String authorization) {
+        PendingBatch batch = new PendingBatch();
+        scheduler.schedule(() -> flush(authorization, batch), windowMs, TimeUnit.MILLISECONDS);
+        return batch;
+    }
+
+    /**
+     * Fecha o lote (se ainda aberto) e envia a chamada pelo executor de fan-out
+     */
+    private void flush(String authorization, PendingBatch batch) {
+        pending.remove(authorization, batch);
+        Map<String, List<CompletableFuture<ItemResponse>>> waiters = batch.close();
+        if (waiters == null || waiters.isEmpty()) {
+            return;
+        }
+        fanOutExecutor.execute(() -> execute(authorization, waiters));
+    }
+
+    private void execute(String authorization, Map<String, List<CompletableFuture<ItemResponse>>> waiters) {
+        batchSize.record(waiters.size());
+        try {
+            List<String> ids = new ArrayList<>(waiters.keySet());
+            List<ItemMultiGetResponse> responses = match(ids, itemClient.getItems(authorization, String.join(",", ids)));
+            for (int i = 0; i < ids.size(); i++) {
+                ItemMultiGetResponse response = responses.get(i);
+                List<CompletableFuture<ItemResponse>> futures = waiters.get(ids.get(i));
+                if (response.getCode() != null && response.getCode() == HttpStatus.OK.value() && response.getBody() != null) {
+                    futures.forEach(future -> future.complete(response.getBody()));
+                } else {
+                    ResponseStatusException error = toException(response.getCode());
+                    futures.forEach(future -> future.completeExceptionally(error));
+                }
+            }
+        } catch (RuntimeException e) {
+            log.warn("Erro no multi-get de {} itens: {}", waiters.size(), e.getMessage());
+            waiters.values().forEach(futures -> futures.forEach(future -> future.completeExceptionally(e)));
+        }
+    }
+
+    /**
+     * Associa as entradas do multi-get aos IDs pedidos, mantendo o status de cada uma. Entradas de
+     * erro (403, 404, 5xx) não trazem body.id: o Mercado Livre responde na ordem dos IDs, então
+     * elas são associadas pela posição quando a resposta tem uma entrada por ID. Um ID sem entrada
+     * fica 404 se todas as entradas foram associadas e 502 caso contrário (resposta inesperada).
+     * @return uma entrada por ID pedido, na mesma ordem
+     */
+    static List<ItemMultiGetResponse> match(List<String> requested, List<ItemMultiGetResponse> responses) {
+        Map<String, ItemMultiGetResponse> byId = new HashMap<>();
+        boolean positional = responses.size() == requested.size();
+        int unmatched = 0;
+        for (int i = 0; i < responses.size(); i++) {
+            ItemMultiGetResponse response = responses.get(i);
+            String itemId = response.getBody() != null && response.getBody().getId() != null
+                ? response.getBody().getId()
+                : positional ? requested.get(i) : null;
+            if (itemId == null || byId.putIfAbsent(itemId, response) != null) {
+                unmatched++;
+            }
+        }
+        ItemMultiGetResponse missing = new ItemMultiGetResponse(
+            unmatched == 0 ? HttpStatus.NOT_FOUND.value() : HttpStatus.BAD_GATEWAY.value(), null);
+        return requested.stream()
+            .map(itemId -> byId.getOrDefault(itemId, missing))
+            .toList();
+    }
+
+    /**
+     * Mesmo mapeamento de status usado pelo FeignErrorDecoder nas chamadas individuais
+     */
+    static ResponseStatusException toException(Integer code) {
+        HttpStatus resolved = code == null ? null : HttpStatus.resolve(code);
+        HttpStatus status = resolved == null ? HttpStatus.BAD_GATEWAY : resolved;
+        return switch (status) {
+            case UNAUTHORIZED -> new ResponseStatusException(status, "Token inválido ou expirado. Tente fazer refresh.");
+            case FORBIDDEN -> new ResponseStatusException(status, "Acesso negado ao recurso");
+            case NOT_FOUND -> new ResponseStatusException(status, "Recurso não encontrado");
+            default -> new ResponseStatusException(status, "Erro na comunicação com Mercado Livre: " + status.getReasonPhrase());
+        };
+    }
+
+    private ItemResponse await(String itemId, CompletableFuture<ItemResponse> result) {
+        try {
+            return result.get(timeoutMs, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new ResponseStatusException(HttpStatus.BAD_GATEWAY, e.getCause().getMessage());
+        } catch (TimeoutException e) {
+            throw new ResponseStatusException(
+                HttpStatus.GATEWAY_TIMEOUT,
+                "Tempo esgotado buscando produto: " + itemId
+            );
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Busca de produto interrompida");
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdownNow();
+    }
+
+    /**
+     * Lote em formação. Pedidos repetidos do mesmo item compartilham a mesma posição no lote.
+     */
+    private static class PendingBatch {
+        private final ReentrantLock lock = new ReentrantLock();
+        private Map<String, List<CompletableFuture<ItemResponse>>> waiters = new LinkedHashMap<>();
+
+        /**
+         * @return quantidade de itens distintos após a inclusão, ou 0 se o lote já foi fechado ou está cheio
+         */
+        int add(String itemId, CompletableFuture<ItemResponse> future, int maxSize) {
+            lock.lock();
+            try {
+                if (waiters == null || (waiters.size() >= maxSize && !waiters.containsKey(itemId))) {
+                    return 0;
+                }
+                waiters.computeIfAbsent(itemId, id -> new ArrayList<>(1)).add(future);
+                return waiters.size();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        /**
+         * @return pedidos do lote, ou null se outro fluxo já o fechou
+         */
+        Map<String, List<CompletableFuture<ItemResponse>>> close() {
+            lock.lock();
+            try {
+                Map<String, List<CompletableFuture<ItemResponse>>> closed = waiters;
+                waiters = null;
+                return closed;
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+}
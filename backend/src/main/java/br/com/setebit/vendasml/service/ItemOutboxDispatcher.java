@@ -0,0 +1,339 @@
+package br.com.setebit.vendasml.service;
+
+import br.com.setebit.vendasml.config.RateLimitExceededException;
+import br.com.setebit.vendasml.dto.ItemRequest;
+import br.com.setebit.vendasml.dto.ItemResponse;
+import br.com.setebit.vendasml.entity.ItemOutboxEntity;
+import br.com.setebit.vendasml.repository.ItemOutboxRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Workers que drenam o item_outbox para o Mercado Livre.
+ *
+ * <p>Cada operação pertence a uma partição (hash da ordering_key módulo o número de workers) e
+ * cada worker despacha a sua partição sequencialmente, na ordem do id: duas operações do mesmo
+ * produto nunca andam em paralelo nem fora de ordem. Uma operação aguardando retry segura as
+ * seguintes do mesmo produto, mas não as de outros produtos.
+ *
+ * <p>Falhas transitórias (429, 5xx, I/O) de atualizações e exclusões são repetidas com backoff
+ * exponencial e jitter até max-attempts. Criações seguem a mesma regra do MercadoLivreRetryer
+ * para POST: só são repetidas quando o Mercado Livre certamente não criou o produto (429 e 503).
+ * A entrega de atualizações e exclusões é at-least-once: uma operação interrompida no meio (queda
+ * do processo) volta para a fila após o lease. Uma criação interrompida não volta, pois o Mercado
+ * Livre pode ter criado o produto: ela fica FAILED com resultado desconhecido.
+ */
+@Slf4j
+@Component
+public class ItemOutboxDispatcher {
+
+    private static final Set<ItemOutboxEntity.Status> UNFINISHED =
+        EnumSet.of(ItemOutboxEntity.Status.PENDING, ItemOutboxEntity.Status.IN_PROGRESS);
+    private static final Set<ItemOutboxEntity.Status> FINISHED =
+        EnumSet.of(ItemOutboxEntity.Status.SUCCEEDED, ItemOutboxEntity.Status.FAILED);
+    private static final Set<Integer> CREATE_RETRYABLE = Set.of(
+        HttpStatus.TOO_MANY_REQUESTS.value(), HttpStatus.SERVICE_UNAVAILABLE.value());
+    private static final int MAX_ERROR_LENGTH = 1000;
+    private static final String UNKNOWN_CREATE_OUTCOME = "Criação interrompida em andamento; o produto pode ter sido "
+        + "criado no Mercado Livre. Confira os anúncios do vendedor antes de enviar de novo.";
+
+    private final ItemOutboxRepository outboxRepository;
+    private final MercadoLivreService mercadoLivreService;
+    private final ObjectMapper objectMapper;
+    private final ExecutorService fanOutExecutor;
+    private final MeterRegistry meterRegistry;
+    private final boolean enabled;
+    private final int partitions;
+    private final int batchSize;
+    private final long pollIntervalMs;
+    private final int maxAttempts;
+    private final long baseBackoffMs;
+    private final long maxBackoffMs;
+    private final Duration lease;
+    private final Duration retention;
+    private final Semaphore[] signals;
+    private final List<Future<?>> workers = new ArrayList<>();
+    private final AtomicLong backlog = new AtomicLong();
+
+    public ItemOutboxDispatcher(
+            ItemOutboxRepository outboxRepository,
+            MercadoLivreService mercadoLivreService,
+            ObjectMapper objectMapper,
+            ExecutorService fanOutExecutor,
+            MeterRegistry meterRegistry,
+            @Value("${mercadolivre.outbox.enabled:true}") boolean enabled,
+            @Value("${mercadolivre.outbox.partitions:8}") int partitions,
+            @Value("${mercadolivre.outbox.batch-size:100}") int batchSize,
+            @Value("${mercadolivre.outbox.poll-interval-ms:1000}") long pollIntervalMs,
+            @Value("${mercadolivre.outbox.max-attempts:8}") int maxAttempts,
+            @Value("${mercadolivre.outbox.base-backoff-ms:1000}") long baseBackoffMs,
+            @Value("${mercadolivre.outbox.max-backoff-ms:300000}") long maxBackoffMs,
+            @Value("${mercadolivre.outbox.lease-seconds:300}") long leaseSeconds,
+            @Value("${mercadolivre.outbox.retention-hours:72}") long retentionHours) {
+        this.outboxRepository = outboxRepository;
+        this.mercadoLivreService = mercadoLivreService;
+        this.objectMapper = objectMapper;
+        this.fanOutExecutor = fanOutExecutor;
+        this.meterRegistry = meterRegistry;
+        this.enabled = enabled;
+        this.partitions = partitions;
+        this.batchSize = batchSize;
+        this.pollIntervalMs = pollIntervalMs;
+        this.maxAttempts = maxAttempts;
+        this.baseBackoffMs = baseBackoffMs;
+        this.maxBackoffMs = maxBackoffMs;
+        this.lease = Duration.ofSeconds(leaseSeconds);
+        this.retention = Duration.ofHours(retentionHours);
+        this.signals = new Semaphore[partitions];
+        for (int i = 0; i < partitions; i++) {
+            signals[i] = new Semaphore(0);
+        }
+        Gauge.builder("ml.outbox.backlog", backlog, AtomicLong::get)
+            .description("Operações pendentes no outbox (atualizado pela manutenção)")
+            .register(meterRegistry);
+    }
+
+    @PostConstruct
+    void start() {
+        if (!enabled) {
+            log.info("Despacho do outbox desabilitado (mercadolivre.outbox.enabled=false)");
+            return;
+        }
+        for (int i = 0; i < partitions; i++) {
+            int partition = i;
+            workers.add(fanOutExecutor.submit(() -> run(partition)));
+        }
+        log.info("Outbox de produtos: {} workers de despacho", partitions);
+    }
+
+    @PreDestroy
+    void stop() {
+        workers.forEach(worker -> worker.cancel(true));
+    }
+
+    /**
+     * Acorda o worker da partição logo após o insert, sem esperar a próxima varredura
+     */
+    public void wake(int orderingHash) {
+        signals[Math.floorMod(orderingHash, partitions)].release();
+    }
+
+    private void run(int partition) {
+        Semaphore signal = signals[partition];
+        while (!Thread.currentThread().isInterrupted()) {
+            long waitMs;
+            try {
+                waitMs = drain(partition);
+            } catch (RuntimeException e) {
+                log.warn("Erro no worker {} do outbox: {}", partition, e.getMessage());
+                waitMs = pollIntervalMs;
+            }
+            try {
+                if (waitMs > 0 && signal.tryAcquire(waitMs, TimeUnit.MILLISECONDS)) {
+                    signal.drainPermits();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * Despacha as operações vencidas da partição: a primeira não finalizada de cada produto
+     * @return ms até a próxima varredura (0 = há mais operações na fila)
+     */
+    private long drain(int partition) {
+        List<ItemOutboxEntity> entries = outboxRepository.findDue(
+            UNFINISHED, partitions, partition, LocalDateTime.now(), PageRequest.of(0, batchSize));
+        long waitMs = pollIntervalMs;
+        int finished = 0;
+
+        for (ItemOutboxEntity entry : entries) {
+            if (Thread.currentThread().isInterrupted()) {
+                return 0;
+            }
+            if (dispatch(entry)) {
+                finished++;
+            } else if (entry.getStatus() == ItemOutboxEntity.Status.PENDING) {
+                // Reagendada: as próximas do mesmo produto esperam, as dos outros seguem
+                waitMs = Math.min(waitMs, Math.max(1, ChronoUnit.MILLIS.between(LocalDateTime.now(), entry.getNextAttemptAt())));
+            }
+        }
+        // Concluir uma operação libera a seguinte do mesmo produto: nova varredura imediata
+        return finished > 0 ? 0 : waitMs;
+    }
+
+    /**
+     * @return true se a operação terminou (sucesso ou falha definitiva); false se foi reagendada
+     * ou se outro worker a reservou antes
+     */
+    private boolean dispatch(ItemOutboxEntity entry) {
+        if (outboxRepository.claim(entry.getId(), LocalDateTime.now()) == 0) {
+            return false;
+        }
+        entry.setAttempts(entry.getAttempts() + 1);
+        try {
+            ItemResponse item = execute(entry);
+            finish(entry, ItemOutboxEntity.Status.SUCCEEDED, successStatus(entry.getOperation()),
+                item != null ? item.getId() : null, null);
+            return true;
+        } catch (ResponseStatusException e) {
+            Duration retryAfter = e instanceof RateLimitExceededException rateLimited ? rateLimited.getRetryAfter() : null;
+            return onFailure(entry, e.getStatusCode().value(), e.getReason(), retryAfter);
+        } catch (RuntimeException e) {
+            return onFailure(entry, HttpStatus.BAD_GATEWAY.value(),
+                "Erro na comunicação com Mercado Livre: " + e.getMessage(), null);
+        }
+    }
+
+    private ItemResponse execute(ItemOutboxEntity entry) {
+        return switch (entry.getOperation()) {
+            case CREATE -> mercadoLivreService.createProduct(entry.getUserId(), readPayload(entry));
+            case UPDATE -> mercadoLivreService.updateProduct(entry.getUserId(), entry.getItemId(), readPayload(entry));
+            case DELETE -> {
+                mercadoLivreService.deleteProduct(entry.getUserId(), entry.getItemId());
+                yield null;
+            }
+        };
+    }
+
+    private ItemRequest readPayload(ItemOutboxEntity entry) {
+        try {
+            return objectMapper.readValue(entry.getPayload(), ItemRequest.class);
+        } catch (JsonProcessingException e) {
+            throw new ResponseStatusException(HttpStatus.UNPROCESSABLE_ENTITY,
+                "Produto gravado no outbox não pôde ser lido: " + e.getOriginalMessage());
+        }
+    }
+
+    private boolean onFailure(ItemOutboxEntity entry, int status, String error, Duration retryAfter) {
+        if (entry.getOperation() == ItemOutboxEntity.Operation.DELETE && status == HttpStatus.NOT_FOUND.value()) {
+            // Reentrega de uma exclusão já feita
+            finish(entry, ItemOutboxEntity.Status.SUCCEEDED, status, null, null);
+            return true;
+        }
+        if (!isRetryable(entry.getOperation(), status) || entry.getAttempts() >= maxAttempts) {
+            log.warn("Operação {} ({}) do outbox falhou após {} tentativa(s): {} {}",
+                entry.getOperationId(), entry.getOperation(), entry.getAttempts(), status, error);
+            finish(entry, ItemOutboxEntity.Status.FAILED, status, null, error);
+            return true;
+        }
+
+        long backoff = ThreadLocalRandom.current().nextLong(
+            Math.min(maxBackoffMs, baseBackoffMs << Math.min(entry.getAttempts() - 1, 20)) + 1);
+        if (retryAfter != null) {
+            backoff = Math.max(backoff, retryAfter.toMillis());
+        }
+        LocalDateTime now = LocalDateTime.now();
+        entry.setStatus(ItemOutboxEntity.Status.PENDING);
+        entry.setNextAttemptAt(now.plus(backoff, ChronoUnit.MILLIS));
+        entry.setHttpStatus(status);
+        entry.setError(truncate(error));
+        entry.setUpdatedAt(now);
+        outboxRepository.save(entry);
+        record(entry.getOperation(), "retried");
+        return false;
+    }
+
+    private static boolean isRetryable(ItemOutboxEntity.Operation operation, int status) {
+        if (operation == ItemOutboxEntity.Operation.CREATE) {
+            return CREATE_RETRYABLE.contains(status);
+        }
+        return status == HttpStatus.TOO_MANY_REQUESTS.value() || status >= 500;
+    }
+
+    private void finish(ItemOutboxEntity entry, ItemOutboxEntity.Status status, int httpStatus,
+                        String resultItemId, String error) {
+        LocalDateTime now = LocalDateTime.now();
+        entry.setStatus(status);
+        entry.setHttpStatus(httpStatus);
+        entry.setResultItemId(resultItemId);
+        entry.setError(truncate(error));
+        entry.setUpdatedAt(now);
+        outboxRepository.save(entry);
+        record(entry.getOperation(), status == ItemOutboxEntity.Status.SUCCEEDED ? "succeeded" : "failed");
+        Timer.builder("ml.outbox.lag")
+            .description("Tempo entre o aceite da operação e sua conclusão no Mercado Livre")
+            .tag("operation", entry.getOperation().name().toLowerCase())
+            .register(meterRegistry)
+            .record(Duration.between(entry.getCreatedAt(), now));
+    }
+
+    private static int successStatus(ItemOutboxEntity.Operation operation) {
+        return switch (operation) {
+            case CREATE -> HttpStatus.CREATED.value();
+            case UPDATE -> HttpStatus.OK.value();
+            case DELETE -> HttpStatus.NO_CONTENT.value();
+        };
+    }
+
+    private void record(ItemOutboxEntity.Operation operation, String outcome) {
+        meterRegistry.counter("ml.outbox.operations",
+            "operation", operation.name().toLowerCase(), "outcome", outcome).increment();
+    }
+
+    private static String truncate(String error) {
+        return error == null || error.length() <= MAX_ERROR_LENGTH ? error : error.substring(0, MAX_ERROR_LENGTH);
+    }
+
+    /**
+     * Devolve para a fila operações presas em andamento (criações ficam FAILED), remove as finalizadas após a retenção
+     * e atualiza o gauge ml.outbox.backlog
+     */
+    @Scheduled(
+        fixedDelayString = "${mercadolivre.outbox.maintenance-interval-ms:60000}",
+        initialDelayString = "${mercadolivre.outbox.maintenance-initial-delay-ms:5000}"
+    )
+    public void maintenance() {
+        LocalDateTime now = LocalDateTime.now();
+        try {
+            int unknown = outboxRepository.failExpiredCreates(now.minus(lease), now, UNKNOWN_CREATE_OUTCOME);
+            if (unknown > 0) {
+                log.warn("{} criação(ões) do outbox interrompidas em andamento marcadas como FAILED (resultado desconhecido)",
+                    unknown);
+                meterRegistry.counter("ml.outbox.operations", "operation", "create", "outcome", "unknown")
+                    .increment(unknown);
+            }
+            int released = outboxRepository.releaseExpired(now.minus(lease), now);
+            if (released > 0) {
+                log.warn("{} operação(ões) do outbox presas em andamento voltaram para a fila", released);
+                for (Semaphore signal : signals) {
+                    signal.release();
+                }
+            }
+            int purged = outboxRepository.deleteFinishedBefore(FINISHED, now.minus(retention));
+            if (purged > 0) {
+                log.info("{} operação(ões) finalizadas removidas do outbox", purged);
+            }
+            backlog.set(outboxRepository.countByStatus(ItemOutboxEntity.Status.PENDING));
+        } catch (RuntimeException e) {
+            log.warn("Erro na manutenção do outbox: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package br.com.setebit.vendasml.service;
+
+import br.com.setebit.vendasml.dto.ItemRequest;
+import br.com.setebit.vendasml.dto.OutboxOperationStatus;
+import br.com.setebit.vendasml.entity.ItemOutboxEntity;
+import br.com.setebit.vendasml.repository.ItemOutboxRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.UUID;
+
+/**
+ * Escritas de produto pelo outbox: a operação é gravada na tabela item_outbox e a resposta
+ * volta logo após o insert, com o ID para acompanhar o resultado. O envio ao Mercado Livre fica
+ * com o {@link ItemOutboxDispatcher}.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ItemOutboxService {
+
+    private final ItemOutboxRepository outboxRepository;
+    private final ItemOutboxDispatcher dispatcher;
+    private final ObjectMapper objectMapper;
+
+    public OutboxOperationStatus enqueueCreate(String userId, ItemRequest request) {
+        return enqueue(userId, ItemOutboxEntity.Operation.CREATE, null, request);
+    }
+
+    public OutboxOperationStatus enqueueUpdate(String userId, String itemId, ItemRequest request) {
+        return enqueue(userId, ItemOutboxEntity.Operation.UPDATE, itemId, request);
+    }
+
+    public OutboxOperationStatus enqueueDelete(String userId, String itemId) {
+        return enqueue(userId, ItemOutboxEntity.Operation.DELETE, itemId, null);
+    }
+
+    public OutboxOperationStatus getStatus(String operationId) {
+        return outboxRepository.findByOperationId(operationId)
+            .map(ItemOutboxService::toStatus)
+            .orElseThrow(() -> new ResponseStatusException(
+                HttpStatus.NOT_FOUND, "Operação não encontrada: " + operationId));
+    }
+
+    /**
+     * Operações do mesmo produto compartilham a ordering_key e são despachadas na ordem de
+     * inserção; criações não têm produto ainda e usam o próprio ID como chave.
+     */
+    private OutboxOperationStatus enqueue(String userId, ItemOutboxEntity.Operation operation,
+                                          String itemId, ItemRequest request) {
+        String operationId = UUID.randomUUID().toString();
+        String orderingKey = itemId != null ? itemId : operationId;
+        ItemOutboxEntity entry = ItemOutboxEntity.builder()
+            .operationId(operationId)
+            .userId(userId)
+            .operation(operation)
+            .itemId(itemId)
+            .orderingKey(orderingKey)
+            .orderingHash(orderingKey.hashCode() & Integer.MAX_VALUE)
+            .payload(request != null ? toJson(request) : null)
+            .status(ItemOutboxEntity.Status.PENDING)
+            .attempts(0)
+            .build();
+        outboxRepository.save(entry);
+        log.debug("Operação {} ({}) registrada no outbox para usuário {}", operationId, operation, userId);
+        dispatcher.wake(entry.getOrderingHash());
+        return toStatus(entry);
+    }
+
+    private String toJson(ItemRequest request) {
+        try {
+            return objectMapper.writeValueAsString(request);
+        } catch (JsonProcessingException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Produto inválido: " + e.getOriginalMessage());
+        }
+    }
+
+    private static OutboxOperationStatus toStatus(ItemOutboxEntity entry) {
+        OutboxOperationStatus.Status status = OutboxOperationStatus.Status.valueOf(entry.getStatus().name());
+        return OutboxOperationStatus.builder()
+            .operationId(entry.getOperationId())
+            .userId(entry.getUserId())
+            .operation(entry.getOperation().name())
+            .itemId(entry.getItemId() != null ? entry.getItemId() : entry.getResultItemId())
+            .status(status)
+            .attempts(entry.getAttempts())
+            .httpStatus(entry.getHttpStatus())
+            .error(entry.getError())
+            .createdAt(entry.getCreatedAt())
+            .updatedAt(entry.getUpdatedAt())
+            .nextAttemptAt(status == OutboxOperationStatus.Status.PENDING ? entry.getNextAttemptAt() : null)
+            .build();
+    }
+}
@@ -0,0 +1,267 @@
+package br.com.setebit.vendasml.service;
+
+import br.com.setebit.vendasml.dto.ItemRequest;
+import br.com.setebit.vendasml.dto.ItemResponse;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Último estado conhecido de cada produto: o último ItemRequest aceito pelo Mercado Livre,
+ * guardado como uma impressão digital (SHA-256 truncado) e o tamanho em JSON de cada campo,
+ * nunca o conteúdo (descrições chegam a 50.000 caracteres), junto com o last_updated que o
+ * Mercado Livre devolveu nessa escrita.
+ *
+ * <p>O estado é local ao processo: escritas feitas por outra instância, pelo outbox em outro nó ou
+ * direto no Mercado Livre não passam por ele. Por isso, antes de usar o estado, o produto atual é
+ * lido (GET) e o last_updated comparado: só se for o mesmo da última escrita conhecida a
+ * atualização é comparada campo a campo e só os campos alterados vão no PUT (sem alterações, o
+ * PUT não é feito e o produto lido é a resposta). Se o last_updated mudou, ou sem estado conhecido
+ * (produto nunca escrito por este processo, expirado ou após uma falha), o produto completo é
+ * enviado. Uma escrita externa entre o GET e o PUT ainda não é vista; a janela é de uma chamada.
+ *
+ * <p>Quem escreve no produto faz diff, PUT e remember dentro de {@link #locked}: duas atualizações
+ * concorrentes do mesmo produto não comparam com o mesmo estado (A→B seguido de B→A seria
+ * ignorado como sem alterações) nem gravam o estado fora da ordem em que o Mercado Livre aceitou.
+ *
+ * <p>Métricas: ml.items.update.diff{result=full|stale|partial|skipped}
+ * (stale = estado conhecido descartado porque o produto mudou fora deste processo), ml.items.update.fields.changed
+ * e ml.items.update.bytes{kind=full|sent} (tamanho do produto completo vs. o que foi enviado).
+ */
+@Component
+public class ItemStateStore {
+
+    private static final OutputStream DISCARD = OutputStream.nullOutputStream();
+
+    private final ObjectMapper objectMapper;
+    private final boolean enabled;
+    private final Cache<Key, State> states;
+    private final MeterRegistry meterRegistry;
+    private final DistributionSummary changedFields;
+    private final Counter fullBytes;
+    private final Counter sentBytes;
+    private final ReentrantLock[] locks;
+
+    public ItemStateStore(
+            ObjectMapper objectMapper,
+            MeterRegistry meterRegistry,
+            @Value("${mercadolivre.item-state.enabled:true}") boolean enabled,
+            @Value("${mercadolivre.item-state.maximum-size:50000}") long maximumSize,
+            @Value("${mercadolivre.item-state.ttl-minutes:60}") long ttlMinutes,
+            @Value("${mercadolivre.item-state.lock-stripes:1024}") int lockStripes) {
+        this.objectMapper = objectMapper;
+        this.enabled = enabled;
+        this.meterRegistry = meterRegistry;
+        this.states = Caffeine.newBuilder()
+            .maximumSize(maximumSize)
+            .expireAfterWrite(Duration.ofMinutes(ttlMinutes))
+            .build();
+        this.changedFields = DistributionSummary.builder("ml.items.update.fields.changed")
+            .description("Campos alterados por atualização de produto com estado conhecido")
+            .register(meterRegistry);
+        this.fullBytes = bytesCounter("full");
+        this.sentBytes = bytesCounter("sent");
+        this.locks = new ReentrantLock[Math.max(lockStripes, 1)];
+        for (int i = 0; i < locks.length; i++) {
+            locks[i] = new ReentrantLock();
+        }
+    }
+
+    /**
+     * Executa a escrita do produto com exclusão mútua por (usuário, produto). Os locks são
+     * listrados: produtos diferentes podem dividir um lock, nunca o contrário. ReentrantLock
+     * não prende a carrier thread de uma virtual thread durante o PUT.
+     */
+    public <T> T locked(String userId, String itemId, Supplier<T> write) {
+        ReentrantLock lock = locks[Math.floorMod(new Key(userId, itemId).hashCode(), locks.length)];
+        lock.lock();
+        try {
+            return write.get();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Compara a atualização com o último estado conhecido do produto
+     * @param current lê o produto no Mercado Livre; só é chamado quando há estado conhecido, para
+     * confirmar pelo last_updated que ninguém mais escreveu no produto desde então
+     */
+    public Diff diff(String userId, String itemId, ItemRequest request, Supplier<ItemResponse> current) {
+        ObjectNode tree = objectMapper.valueToTree(request);
+        Map<String, Field> fields = fingerprint(tree);
+        Key key = new Key(userId, itemId);
+        State known = enabled ? states.getIfPresent(key) : null;
+        long full = fields.values().stream().mapToLong(Field::bytes).sum();
+
+        if (known == null) {
+            record("full", full, full);
+            return new Diff(key, fields, null, null);
+        }
+        ItemResponse item = current.get();
+        if (item == null || known.lastUpdated() == null || !known.lastUpdated().equals(item.getLastUpdated())) {
+            states.invalidate(key);
+            record("stale", full, full);
+            return new Diff(key, fields, null, item);
+        }
+
+        Map<String, Object> changes = new LinkedHashMap<>();
+        long sent = 0;
+        for (Iterator<Map.Entry<String, JsonNode>> it = tree.fields(); it.hasNext(); ) {
+            Map.Entry<String, JsonNode> field = it.next();
+            Field value = fields.get(field.getKey());
+            if (!value.equals(known.fields().get(field.getKey()))) {
+                changes.put(field.getKey(), field.getValue());
+                sent += value.bytes();
+            }
+        }
+        changedFields.record(changes.size());
+        record(changes.isEmpty() ? "skipped" : "partial", full, sent);
+        return new Diff(key, fields, Collections.unmodifiableMap(changes), item);
+    }
+
+    /**
+     * O Mercado Livre aceitou a atualização: o estado passa a ser o do ItemRequest comparado
+     * @param accepted produto devolvido pelo PUT (last_updated da escrita)
+     */
+    public void remember(Diff diff, ItemResponse accepted) {
+        if (enabled) {
+            states.put(diff.key(), new State(diff.fields(), accepted != null ? accepted.getLastUpdated() : null));
+        }
+    }
+
+    /**
+     * O Mercado Livre aceitou o produto completo (criação ou PUT sem diff)
+     * @param accepted produto devolvido pelo Mercado Livre (id e last_updated da escrita)
+     */
+    public void remember(String userId, ItemResponse accepted, ItemRequest request) {
+        if (enabled && accepted != null && accepted.getId() != null) {
+            states.put(new Key(userId, accepted.getId()),
+                new State(fingerprint(objectMapper.valueToTree(request)), accepted.getLastUpdated()));
+        }
+    }
+
+    /**
+     * Estado incerto (falha na escrita), produto alterado por outra escrita parcial (preço/estoque)
+     * ou removido: a próxima atualização envia o produto completo
+     */
+    public void forget(String userId, String itemId) {
+        if (itemId != null) {
+            states.invalidate(new Key(userId, itemId));
+        }
+    }
+
+    private Map<String, Field> fingerprint(ObjectNode tree) {
+        Map<String, Field> fields = new HashMap<>();
+        MessageDigest digest = sha256();
+        for (Iterator<Map.Entry<String, JsonNode>> it = tree.fields(); it.hasNext(); ) {
+            Map.Entry<String, JsonNode> field = it.next();
+            CountingOutputStream counter = new CountingOutputStream(new DigestOutputStream(DISCARD, digest));
+            try {
+                objectMapper.writeValue(counter, field.getValue());
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            fields.put(field.getKey(), new Field(ByteBuffer.wrap(digest.digest()).getLong(), counter.count));
+        }
+        return fields;
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private void record(String result, long full, long sent) {
+        meterRegistry.counter("ml.items.update.diff", "result", result).increment();
+        fullBytes.increment(full);
+        sentBytes.increment(sent);
+    }
+
+    private Counter bytesCounter(String kind) {
+        return Counter.builder("ml.items.update.bytes")
+            .description("Bytes dos campos do produto nas atualizações: completo vs. enviado ao Mercado Livre")
+            .baseUnit("bytes")
+            .tag("kind", kind)
+            .register(meterRegistry);
+    }
+
+    /**
+     * @param changes campos alterados (nome JSON → valor); null quando não há estado conhecido
+     * confiável e o produto deve ser enviado completo
+     * @param current produto lido no Mercado Livre para conferir o estado (null sem estado conhecido)
+     */
+    public record Diff(Key key, Map<String, Field> fields, Map<String, Object> changes, ItemResponse current) {
+
+        public boolean isFull() {
+            return changes == null;
+        }
+
+        public boolean isEmpty() {
+            return changes != null && changes.isEmpty();
+        }
+    }
+
+    public record Key(String userId, String itemId) {
+    }
+
+    /**
+     * @param lastUpdated last_updated devolvido pelo Mercado Livre na escrita que gerou o estado
+     */
+    private record State(Map<String, Field> fields, String lastUpdated) {
+    }
+
+    /**
+     * @param hash primeiros 8 bytes do SHA-256 do valor em JSON
+     * @param bytes tamanho do valor em JSON
+     */
+    public record Field(long hash, long bytes) {
+    }
+
+    private static class CountingOutputStream extends OutputStream {
+        private final OutputStream delegate;
+        private long count;
+
+        CountingOutputStream(OutputStream delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            delegate.write(b);
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            delegate.write(b, off, len);
+            count += len;
+        }
+    }
+}
@@ -1,14 +1,16 @@
 package br.com.setebit.vendasml.service;
 
 import br.com.setebit.vendasml.client.MercadoLivreAuthClient;
-import br.com.setebit.vendasml.client.MercadoLivreCategoryClient;
 import br.com.setebit.vendasml.client.MercadoLivreItemClient;
 import br.com.setebit.vendasml.dto.CategoryResponse;
+import br.com.setebit.vendasml.dto.ItemMultiGetResponse;
 import br.com.setebit.vendasml.dto.ItemRequest;
 import br.com.setebit.vendasml.dto.ItemResponse;
 import br.com.setebit.vendasml.dto.TokenResponse;
 import br.com.setebit.vendasml.entity.TokenEntity;
 import br.com.setebit.vendasml.repository.TokenRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
@@ -20,7 +22,15 @@ import org.springframework.util.MultiValueMap;
 import org.springframework.web.server.ResponseStatusException;
 
 import java.time.LocalDateTime;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
 
 @Slf4j
 @Service
@@ -29,8 +39,16 @@ public class MercadoLivreService {
     
     private final MercadoLivreAuthClient authClient;
     private final MercadoLivreItemClient itemClient;
-    private final MercadoLivreCategoryClient categoryClient;
     private final TokenRepository tokenRepository;
+    private final TokenCache tokenCache;
+    private final TokenRefreshCoordinator refreshCoordinator;
+    private final CategoryCache categoryCache;
+    private final CategoryTreeService categoryTreeService;
+    private final ItemMultiGetBatcher itemBatcher;
+    private final ItemCache itemCache;
+    private final ExecutorService asyncCallExecutor;
+    private final MeterRegistry meterRegistry;
+    private final ItemStateStore itemStateStore;
     
     @Value("${mercadolivre.client-id}")
     private String clientId;
@@ -47,6 +65,9 @@ public class MercadoLivreService {
     @Value("${mercadolivre.token-refresh-threshold-seconds:300}")
     private long refreshThresholdSeconds;
     
+    @Value("${mercadolivre.async.timeout-ms:15000}")
+    private long asyncTimeoutMs;
+    
     /**
      * Obtém token usando código de autorização e persiste no banco
      */
@@ -72,7 +93,7 @@ public class MercadoLivreService {
                 .expiresAt(LocalDateTime.now().plusSeconds(response.getExpiresIn()))
                 .build();
             
-            tokenRepository.save(tokenEntity);
+            tokenCache.put(tokenRepository.save(tokenEntity));
             log.info("Token salvo para usuário: {}", response.getUserId());
             
             return response;
@@ -86,17 +107,30 @@ public class MercadoLivreService {
     }
     
     /**
-     * Atualiza o token de acesso usando refresh token
+     * Atualiza o token de acesso usando refresh token.
+     * Refreshes concorrentes para o mesmo usuário são coalescidos em uma única chamada.
      */
-    @Transactional
     public TokenResponse refreshAccessToken(String userId) {
+        return refreshCoordinator.refresh(userId, () -> executeRefresh(userId, "manual"));
+    }
+    
+    /**
+     * Executa o refresh no Mercado Livre e persiste o novo token.
+     * Não abre transação própria para não segurar conexão do pool durante a chamada OAuth.
+     * @param trigger origem do refresh para ml.token.refresh (lazy, expired, proactive, manual)
+     */
+    private TokenResponse executeRefresh(String userId, String trigger) {
         log.info("Atualizando token para usuário: {}", userId);
+        Timer.Sample sample = Timer.start(meterRegistry);
         
         TokenEntity tokenEntity = tokenRepository.findById(userId)
-            .orElseThrow(() -> new ResponseStatusException(
-                HttpStatus.NOT_FOUND, 
-                "Token não encontrado para usuário: " + userId
-            ));
+            .orElseThrow(() -> {
+                recordRefresh(sample, trigger, "failure");
+                return new ResponseStatusException(
+                    HttpStatus.NOT_FOUND, 
+                    "Token não encontrado para usuário: " + userId
+                );
+            });
         
         MultiValueMap<String, String> formData = new LinkedMultiValueMap<>();
         formData.add("grant_type", "refresh_token");
@@ -112,11 +146,13 @@ public class MercadoLivreService {
             tokenEntity.setExpiresIn(response.getExpiresIn());
             tokenEntity.setExpiresAt(LocalDateTime.now().plusSeconds(response.getExpiresIn()));
             
-            tokenRepository.save(tokenEntity);
+            tokenCache.put(tokenRepository.save(tokenEntity));
             log.info("Token atualizado para usuário: {}", userId);
+            recordRefresh(sample, trigger, "success");
             
             return response;
         } catch (Exception e) {
+            recordRefresh(sample, trigger, "failure");
             log.error("Erro ao atualizar token: {}", e.getMessage(), e);
             throw new ResponseStatusException(
                 HttpStatus.BAD_REQUEST, 
@@ -126,10 +162,11 @@ public class MercadoLivreService {
     }
     
     /**
-     * Obtém token válido, fazendo refresh se necessário
+     * Obtém token válido, fazendo refresh se necessário.
+     * Consulta primeiro o cache em memória; o banco só é acessado em caso de miss.
      */
-    private String getValidAccessToken(String userId) {
-        TokenEntity tokenEntity = tokenRepository.findById(userId)
+    public String getValidAccessToken(String userId) {
+        TokenEntity tokenEntity = tokenCache.get(userId)
             .orElseThrow(() -> new ResponseStatusException(
                 HttpStatus.NOT_FOUND, 
                 "Token não encontrado para usuário: " + userId
@@ -137,38 +174,174 @@ public class MercadoLivreService {
         
         if (tokenEntity.needsRefresh(refreshThresholdSeconds)) {
             log.info("Token expirando, fazendo refresh automático");
-            refreshAccessToken(userId);
-            tokenEntity = tokenRepository.findById(userId).orElseThrow();
+            String trigger = tokenEntity.isExpired() ? "expired" : "lazy";
+            refreshCoordinator.refresh(userId, () -> refreshIfStillNeeded(userId, trigger));
+            tokenEntity = tokenCache.get(userId).orElseThrow();
         }
         
         return tokenEntity.getAccessToken();
     }
     
+    /**
+     * Refresh automático: se outra requisição já renovou o token entre a leitura
+     * e a entrada no single-flight, reaproveita o token atual sem chamar o Mercado Livre.
+     */
+    private TokenResponse refreshIfStillNeeded(String userId, String trigger) {
+        TokenEntity current = tokenCache.get(userId).orElse(null);
+        if (current != null && !current.needsRefresh(refreshThresholdSeconds)) {
+            log.debug("Token já renovado por outra requisição para usuário: {}", userId);
+            recordRefresh(null, trigger, "skipped");
+            return toTokenResponse(current);
+        }
+        return executeRefresh(userId, trigger);
+    }
+    
+    /**
+     * Refresh proativo: renova apenas se o token ainda expira antes do horizonte,
+     * já que uma requisição pode tê-lo renovado enquanto o agendamento aguardava.
+     */
+    public void refreshIfExpiringBefore(String userId, LocalDateTime horizon) {
+        refreshCoordinator.refresh(userId, () -> {
+            TokenEntity current = tokenCache.get(userId).orElse(null);
+            if (current != null && current.getExpiresAt() != null && current.getExpiresAt().isAfter(horizon)) {
+                log.debug("Token fora do horizonte de refresh, ignorando usuário: {}", userId);
+                recordRefresh(null, "proactive", "skipped");
+                return toTokenResponse(current);
+            }
+            return executeRefresh(userId, "proactive");
+        });
+    }
+    
+    /**
+     * ml.token.refresh{trigger,outcome}: contagem e duração dos refreshes executados;
+     * skipped (já renovado por outra requisição) só é contado
+     */
+    private void recordRefresh(Timer.Sample sample, String trigger, String outcome) {
+        Timer timer = Timer.builder("ml.token.refresh")
+            .description("Refreshes de token por origem e resultado")
+            .tag("trigger", trigger)
+            .tag("outcome", outcome)
+            .register(meterRegistry);
+        if (sample != null) {
+            sample.stop(timer);
+        } else {
+            timer.record(Duration.ZERO);
+        }
+    }
+    
+    private TokenResponse toTokenResponse(TokenEntity tokenEntity) {
+        TokenResponse response = new TokenResponse();
+        response.setAccessToken(tokenEntity.getAccessToken());
+        response.setRefreshToken(tokenEntity.getRefreshToken());
+        response.setExpiresIn(tokenEntity.getExpiresIn());
+        response.setTokenType("Bearer");
+        response.setUserId(Long.valueOf(tokenEntity.getUserId()));
+        return response;
+    }
+    
     /**
      * Cria produto no Mercado Livre
      */
     public ItemResponse createProduct(String userId, ItemRequest request) {
+        return sendCreate("Bearer " + getValidAccessToken(userId), userId, request);
+    }
+    
+    /**
+     * POST /items com o token já obtido: quem chama distingue falhas anteriores ao envio (token)
+     * das da chamada ao Mercado Livre
+     */
+    public ItemResponse sendCreate(String authorization, String userId, ItemRequest request) {
         log.info("Criando produto para usuário: {}", userId);
-        String token = getValidAccessToken(userId);
-        return itemClient.createItem("Bearer " + token, request);
+        ItemResponse item = itemClient.createItem(authorization, request);
+        itemCache.put(userId, item);
+        if (item != null) {
+            itemStateStore.remember(userId, item, request);
+        }
+        return item;
     }
     
     /**
-     * Busca produto no Mercado Livre
+     * Busca produto no Mercado Livre (servido pelo cache de itens quando dentro do TTL)
      */
     public ItemResponse getProduct(String userId, String itemId) {
-        log.info("Buscando produto {} para usuário: {}", itemId, userId);
-        String token = getValidAccessToken(userId);
-        return itemClient.getItem("Bearer " + token, itemId);
+        return getProduct(userId, itemId, null);
+    }
+    
+    /**
+     * Busca produto no Mercado Livre aceitando uma cópia em cache de até {@code maxStale} de idade.
+     * Com o micro-batching habilitado, buscas simultâneas do mesmo usuário viram um único multi-get.
+     * @param maxStale idade máxima aceita (null usa o TTL do cache; zero sempre consulta o Mercado Livre)
+     */
+    public ItemResponse getProduct(String userId, String itemId, Duration maxStale) {
+        log.debug("Buscando produto {} para usuário: {}", itemId, userId);
+        return itemCache.get(userId, itemId, maxStale, () -> {
+            String token = getValidAccessToken(userId);
+            if (itemBatcher.isEnabled()) {
+                return itemBatcher.getItem("Bearer " + token, itemId);
+            }
+            return itemClient.getItem("Bearer " + token, itemId);
+        });
+    }
+    
+    /**
+     * Busca vários produtos usando o multi-get do Mercado Livre (até 20 IDs por chamada)
+     * @return um resultado por ID solicitado, na mesma ordem, com o status individual
+     */
+    public List<ItemMultiGetResponse> getProducts(String userId, List<String> itemIds) {
+        log.debug("Buscando {} produtos para usuário: {}", itemIds.size(), userId);
+        String authorization = "Bearer " + getValidAccessToken(userId);
+        List<String> distinctIds = itemIds.stream().distinct().toList();
+        
+        Map<String, ItemMultiGetResponse> byId = new HashMap<>();
+        for (int start = 0; start < distinctIds.size(); start += ItemMultiGetBatcher.MAX_IDS_PER_CALL) {
+            List<String> chunk = distinctIds.subList(start,
+                Math.min(start + ItemMultiGetBatcher.MAX_IDS_PER_CALL, distinctIds.size()));
+            List<ItemMultiGetResponse> responses = ItemMultiGetBatcher.match(chunk,
+                itemClient.getItems(authorization, String.join(",", chunk)));
+            for (int i = 0; i < chunk.size(); i++) {
+                byId.put(chunk.get(i), responses.get(i));
+            }
+        }
+        
+        return itemIds.stream().map(byId::get).toList();
     }
     
     /**
-     * Atualiza produto no Mercado Livre
+     * Atualiza produto no Mercado Livre enviando só os campos alterados desde a última escrita conhecida
      */
     public ItemResponse updateProduct(String userId, String itemId, ItemRequest request) {
         log.info("Atualizando produto {} para usuário: {}", itemId, userId);
-        String token = getValidAccessToken(userId);
-        return itemClient.updateItem("Bearer " + token, itemId, request);
+        return sendUpdate("Bearer " + getValidAccessToken(userId), userId, itemId, request);
+    }
+    
+    /**
+     * PUT /items/{id} com o diff calculado pelo {@link ItemStateStore}: produto completo sem estado
+     * conhecido ou quando o produto mudou desde a última escrita conhecida (last_updated conferido
+     * com um GET), só os campos alterados quando o estado confere, e nenhum PUT quando nada mudou
+     * (a resposta é o produto lido na conferência)
+     */
+    ItemResponse sendUpdate(String authorization, String userId, String itemId, ItemRequest request) {
+        return itemStateStore.locked(userId, itemId, () -> {
+            try {
+                ItemStateStore.Diff diff = itemStateStore.diff(userId, itemId, request,
+                    () -> itemClient.getItem(authorization, itemId));
+                if (diff.isEmpty()) {
+                    log.debug("Produto {} sem alterações desde a última escrita, PUT ignorado", itemId);
+                    itemCache.put(userId, diff.current());
+                    return diff.current();
+                }
+                ItemResponse item = diff.isFull()
+                    ? itemClient.updateItem(authorization, itemId, request)
+                    : itemClient.updateItemFields(authorization, itemId, diff.changes());
+                itemCache.put(userId, item);
+                itemStateStore.remember(diff, item);
+                return item;
+            } catch (RuntimeException e) {
+                itemCache.evict(userId, itemId);
+                itemStateStore.forget(userId, itemId);
+                throw e;
+            }
+        });
     }
     
     /**
@@ -177,7 +350,108 @@ public class MercadoLivreService {
     public void deleteProduct(String userId, String itemId) {
         log.info("Deletando produto {} para usuário: {}", itemId, userId);
         String token = getValidAccessToken(userId);
-        itemClient.deleteItem("Bearer " + token, itemId);
+        try {
+            itemClient.deleteItem("Bearer " + token, itemId);
+        } finally {
+            itemCache.evict(userId, itemId);
+            itemStateStore.forget(userId, itemId);
+        }
+    }
+    
+    /**
+     * Versão assíncrona de {@link #getValidAccessToken}: consulta ao cache/banco e eventual refresh
+     * rodam no executor das chamadas assíncronas, sem ocupar a thread da requisição
+     */
+    public CompletableFuture<String> getValidAccessTokenAsync(String userId) {
+        return CancellableFutures.supply(asyncCallExecutor, () -> getValidAccessToken(userId));
+    }
+    
+    /**
+     * Cria produto no Mercado Livre de forma assíncrona.
+     * Timeout (mercadolivre.async.timeout-ms) e cancelamento interrompem a chamada em andamento.
+     */
+    public CompletableFuture<ItemResponse> createProductAsync(String userId, ItemRequest request) {
+        log.info("Criando produto (assíncrono) para usuário: {}", userId);
+        return withTimeout(CancellableFutures.compose(getValidAccessTokenAsync(userId), token ->
+            CancellableFutures.supply(asyncCallExecutor, () -> sendCreate("Bearer " + token, userId, request))));
+    }
+    
+    /**
+     * Busca produto de forma assíncrona; um acerto no cache de itens completa sem nenhuma chamada
+     */
+    public CompletableFuture<ItemResponse> getProductAsync(String userId, String itemId, Duration maxStale) {
+        log.debug("Buscando produto {} (assíncrono) para usuário: {}", itemId, userId);
+        return itemCache.getAsync(userId, itemId, maxStale, () -> withTimeout(
+            CancellableFutures.compose(getValidAccessTokenAsync(userId), token ->
+                CancellableFutures.supply(asyncCallExecutor, () -> itemBatcher.isEnabled()
+                    ? itemBatcher.getItem("Bearer " + token, itemId)
+                    : itemClient.getItem("Bearer " + token, itemId)))));
+    }
+    
+    /**
+     * Multi-get assíncrono: os blocos de até 20 IDs são buscados em paralelo
+     * @return um resultado por ID solicitado, na mesma ordem, com o status individual
+     */
+    public CompletableFuture<List<ItemMultiGetResponse>> getProductsAsync(String userId, List<String> itemIds) {
+        log.debug("Buscando {} produtos (assíncrono) para usuário: {}", itemIds.size(), userId);
+        List<String> distinctIds = itemIds.stream().distinct().toList();
+        CompletableFuture<List<List<ItemMultiGetResponse>>> fetched = CancellableFutures.compose(
+            getValidAccessTokenAsync(userId), token -> {
+                List<CompletableFuture<List<ItemMultiGetResponse>>> chunks = new ArrayList<>();
+                for (int start = 0; start < distinctIds.size(); start += ItemMultiGetBatcher.MAX_IDS_PER_CALL) {
+                    List<String> chunk = distinctIds.subList(start,
+                        Math.min(start + ItemMultiGetBatcher.MAX_IDS_PER_CALL, distinctIds.size()));
+                    chunks.add(CancellableFutures.supply(asyncCallExecutor, () -> ItemMultiGetBatcher.match(chunk,
+                        itemClient.getItems("Bearer " + token, String.join(",", chunk)))));
+                }
+                return CancellableFutures.all(chunks);
+            });
+        return withTimeout(CancellableFutures.compose(fetched, chunks -> {
+            List<ItemMultiGetResponse> responses = chunks.stream().flatMap(List::stream).toList();
+            Map<String, ItemMultiGetResponse> byId = new HashMap<>();
+            for (int i = 0; i < distinctIds.size(); i++) {
+                byId.put(distinctIds.get(i), responses.get(i));
+            }
+            return CompletableFuture.completedFuture(itemIds.stream().map(byId::get).toList());
+        }));
+    }
+    
+    /**
+     * Atualiza produto no Mercado Livre de forma assíncrona, com o mesmo diff de {@link #updateProduct}
+     */
+    public CompletableFuture<ItemResponse> updateProductAsync(String userId, String itemId, ItemRequest request) {
+        log.info("Atualizando produto {} (assíncrono) para usuário: {}", itemId, userId);
+        CompletableFuture<ItemResponse> result = withTimeout(CancellableFutures.compose(getValidAccessTokenAsync(userId),
+            token -> CancellableFutures.supply(asyncCallExecutor, () -> sendUpdate("Bearer " + token, userId, itemId, request))));
+        result.whenComplete((item, error) -> {
+            if (error != null) {
+                // Timeout ou cancelamento: o PUT pode ter chegado ao Mercado Livre
+                itemCache.evict(userId, itemId);
+                itemStateStore.forget(userId, itemId);
+            }
+        });
+        return result;
+    }
+    
+    /**
+     * Deleta produto no Mercado Livre de forma assíncrona
+     */
+    public CompletableFuture<Void> deleteProductAsync(String userId, String itemId) {
+        log.info("Deletando produto {} (assíncrono) para usuário: {}", itemId, userId);
+        CompletableFuture<Void> result = withTimeout(CancellableFutures.compose(getValidAccessTokenAsync(userId),
+            token -> CancellableFutures.supply(asyncCallExecutor, () -> {
+                itemClient.deleteItem("Bearer " + token, itemId);
+                return null;
+            })));
+        result.whenComplete((ignored, error) -> {
+            itemCache.evict(userId, itemId);
+            itemStateStore.forget(userId, itemId);
+        });
+        return result;
+    }
+    
+    private <T> CompletableFuture<T> withTimeout(CompletableFuture<T> future) {
+        return future.orTimeout(asyncTimeoutMs, TimeUnit.MILLISECONDS);
     }
     
     /**
@@ -193,14 +467,19 @@ public class MercadoLivreService {
     }
     
     /**
-     * Lista todas as categorias principais de um site
+     * Lista todas as categorias principais de um site.
+     * Usa o snapshot local da árvore quando disponível; senão, o cache de categorias.
      * @param siteId ID do site (ex: MLB para Brasil, MLA para Argentina)
      * @return Lista de categorias principais
      */
     public List<CategoryResponse> getCategories(String siteId) {
-        log.info("Listando categorias do site: {}", siteId);
+        log.debug("Listando categorias do site: {}", siteId);
+        Optional<CategoryTreeSnapshot> snapshot = categoryTreeService.getSnapshot(siteId);
+        if (snapshot.isPresent()) {
+            return snapshot.get().children(0, 1);
+        }
         try {
-            return categoryClient.getCategories(siteId);
+            return categoryCache.getCategories(siteId);
         } catch (Exception e) {
             log.error("Erro ao listar categorias: {}", e.getMessage(), e);
             throw new ResponseStatusException(
@@ -211,14 +490,26 @@ public class MercadoLivreService {
     }
     
     /**
-     * Obtém detalhes de uma categoria específica, incluindo subcategorias
+     * Obtém detalhes de uma categoria específica, incluindo subcategorias.
+     * O snapshot local da árvore não guarda settings: ele só responde quando contém a categoria e os
+     * settings dela já estão no cache de categorias. Nos demais casos a resposta vem do cache de
+     * categorias (que busca no Mercado Livre se preciso), com os mesmos campos de sempre.
      * @param categoryId ID da categoria (ex: MLB5672)
      * @return Detalhes da categoria com subcategorias
      */
     public CategoryResponse getCategory(String categoryId) {
-        log.info("Buscando categoria: {}", categoryId);
+        log.debug("Buscando categoria: {}", categoryId);
+        Optional<CategoryResponse> cached = categoryCache.getCachedCategory(categoryId);
+        Optional<CategoryResponse> fromSnapshot = cached.isPresent()
+            ? categoryTreeService.findSubtree(categoryId, 1)
+            : Optional.empty();
+        if (fromSnapshot.isPresent()) {
+            CategoryResponse category = fromSnapshot.get();
+            category.setSettings(cached.get().getSettings());
+            return category;
+        }
         try {
-            return categoryClient.getCategory(categoryId);
+            return categoryCache.getCategory(categoryId);
         } catch (Exception e) {
             log.error("Erro ao buscar categoria: {}", e.getMessage(), e);
             throw new ResponseStatusException(
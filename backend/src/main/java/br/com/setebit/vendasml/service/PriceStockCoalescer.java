@@ -0,0 +1,345 @@
+package br.com.setebit.vendasml.service;
+
+import br.com.setebit.vendasml.client.MercadoLivreItemClient;
+import br.com.setebit.vendasml.config.RateLimitExceededException;
+import br.com.setebit.vendasml.dto.ItemResponse;
+import br.com.setebit.vendasml.dto.PriceStockAccepted;
+import br.com.setebit.vendasml.dto.PriceStockUpdate;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Alterações de preço e estoque em alta frequência (repricer, ERP). A primeira alteração de um
+ * produto abre uma janela; as que chegam nela para o mesmo produto substituem os valores
+ * pendentes (vale o último) e, ao fim da janela, um único PUT /items/{id} parcial envia só
+ * price e/ou available_quantity.
+ *
+ * <p>Cada produto tem no máximo um envio em andamento e um pendente: alterações que chegam
+ * durante o envio esperam o fim dele e saem na janela seguinte, sempre em ordem. As chamadas
+ * ao Mercado Livre ficam limitadas a uma por produto por janela, qualquer que seja o volume.
+ *
+ * <p>Os produtos com janela encerrada entram em uma fila e no máximo max-concurrent-sends envios
+ * rodam ao mesmo tempo (padrão: a taxa do bucket items do limitador), para que uma rajada de
+ * milhares de produtos não crie uma thread por produto. Uma rejeição local do limitador de taxa
+ * não conta como tentativa: os valores voltam para o produto e o envio é reagendado após o
+ * Retry-After.
+ *
+ * <p>Métricas: ml.items.pricestock.updates (alterações recebidas), ml.items.pricestock.calls{outcome}
+ * (PUTs enviados; rate_limited = adiados pelo limitador local), ml.items.pricestock.coalesced (alterações por PUT: a média é a taxa de
+ * coalescência) e ml.items.pricestock.pending (produtos aguardando envio).
+ */
+@Slf4j
+@Component
+public class PriceStockCoalescer {
+
+    private final MercadoLivreService mercadoLivreService;
+    private final MercadoLivreItemClient itemClient;
+    private final ItemCache itemCache;
+    private final ItemStateStore itemStateStore;
+    private final ExecutorService fanOutExecutor;
+    private final MeterRegistry meterRegistry;
+    private final long windowMs;
+    private final int maxPendingItems;
+    private final int maxAttempts;
+    private final long maxBackoffMs;
+    private final Counter updates;
+    private final DistributionSummary coalesced;
+    private final Map<Key, Slot> slots = new ConcurrentHashMap<>();
+    private final Queue<Key> ready = new ConcurrentLinkedQueue<>();
+    private final Semaphore sends;
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "price-stock-coalescer");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public PriceStockCoalescer(
+            MercadoLivreService mercadoLivreService,
+            MercadoLivreItemClient itemClient,
+            ItemCache itemCache,
+            ItemStateStore itemStateStore,
+            ExecutorService fanOutExecutor,
+            MeterRegistry meterRegistry,
+            @Value("${mercadolivre.price-stock.window-ms:1000}") long windowMs,
+            @Value("${mercadolivre.price-stock.max-pending-items:100000}") int maxPendingItems,
+            @Value("${mercadolivre.price-stock.max-attempts:3}") int maxAttempts,
+            @Value("${mercadolivre.price-stock.max-backoff-ms:10000}") long maxBackoffMs,
+            @Value("${mercadolivre.price-stock.max-concurrent-sends:${mercadolivre.rate-limit.items.per-second:40}}") int maxConcurrentSends) {
+        this.mercadoLivreService = mercadoLivreService;
+        this.itemClient = itemClient;
+        this.itemCache = itemCache;
+        this.itemStateStore = itemStateStore;
+        this.fanOutExecutor = fanOutExecutor;
+        this.meterRegistry = meterRegistry;
+        this.windowMs = windowMs;
+        this.maxPendingItems = maxPendingItems;
+        this.maxAttempts = Math.max(maxAttempts, 1);
+        this.maxBackoffMs = maxBackoffMs;
+        this.sends = new Semaphore(Math.max(maxConcurrentSends, 1));
+        this.updates = Counter.builder("ml.items.pricestock.updates")
+            .description("Alterações de preço/estoque recebidas")
+            .register(meterRegistry);
+        this.coalesced = DistributionSummary.builder("ml.items.pricestock.coalesced")
+            .description("Alterações de preço/estoque combinadas em cada PUT enviado ao Mercado Livre")
+            .register(meterRegistry);
+        Gauge.builder("ml.items.pricestock.pending", slots, Map::size)
+            .description("Produtos com alteração de preço/estoque aguardando envio")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Aceita alterações de um ou mais produtos do usuário; o envio acontece em segundo plano
+     */
+    public PriceStockAccepted submit(String userId, List<PriceStockUpdate> changes) {
+        for (PriceStockUpdate change : changes) {
+            if (change.getItem_id() == null || change.getItem_id().isBlank()) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "item_id é obrigatório em cada alteração");
+            }
+            if (change.getPrice() == null && change.getAvailable_quantity() == null) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "Informe price e/ou available_quantity (produto " + change.getItem_id() + ")");
+            }
+        }
+        int merged = 0;
+        for (PriceStockUpdate change : changes) {
+            if (offer(new Key(userId, change.getItem_id()), change)) {
+                merged++;
+            }
+        }
+        updates.increment(changes.size());
+        return PriceStockAccepted.builder()
+            .accepted(changes.size())
+            .coalesced(merged)
+            .windowMs(windowMs)
+            .build();
+    }
+
+    /**
+     * @return true se a alteração foi combinada com outra já pendente para o produto
+     */
+    private boolean offer(Key key, PriceStockUpdate change) {
+        boolean[] merged = new boolean[1];
+        slots.compute(key, (k, slot) -> {
+            if (slot == null) {
+                if (slots.size() >= maxPendingItems) {
+                    throw new ResponseStatusException(HttpStatus.TOO_MANY_REQUESTS,
+                        "Muitos produtos com preço/estoque aguardando envio; tente novamente em instantes");
+                }
+                slot = new Slot();
+            }
+            merged[0] = slot.events > 0;
+            slot.merge(change.getPrice(), change.getAvailable_quantity(), 1);
+            if (slot.events == 1 && !slot.sending) {
+                schedule(k, windowMs);
+            }
+            return slot;
+        });
+        return merged[0];
+    }
+
+    private void schedule(Key key, long delayMs) {
+        scheduler.schedule(() -> {
+            ready.add(key);
+            dispatch();
+        }, delayMs, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Inicia envios da fila enquanto houver vaga. Quem libera uma vaga chama de novo, então um
+     * produto que entrou na fila com todas as vagas ocupadas sai assim que a primeira terminar.
+     */
+    private void dispatch() {
+        while (!ready.isEmpty() && sends.tryAcquire()) {
+            Key key = ready.poll();
+            if (key == null) {
+                sends.release();
+                continue;
+            }
+            try {
+                fanOutExecutor.execute(() -> {
+                    try {
+                        flush(key);
+                    } finally {
+                        sends.release();
+                        dispatch();
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                sends.release();
+                log.warn("Envio de preço/estoque do produto {} descartado: executor encerrado", key.itemId());
+            }
+        }
+    }
+
+    /**
+     * Envia os valores pendentes do produto e reagenda se chegaram novos durante o envio
+     */
+    private void flush(Key key) {
+        Pending pending = take(key);
+        if (pending == null) {
+            return;
+        }
+        long nextDelay = windowMs;
+        try {
+            send(key, pending);
+            record("succeeded", pending);
+        } catch (RateLimitExceededException e) {
+            // A chamada nem saiu: devolve os valores sem gastar uma tentativa
+            slots.computeIfPresent(key, (k, slot) -> {
+                slot.restore(pending, false);
+                return slot;
+            });
+            nextDelay = Math.max(1, e.getRetryAfter().toMillis());
+            meterRegistry.counter("ml.items.pricestock.calls", "outcome", "rate_limited").increment();
+        } catch (RuntimeException e) {
+            int status = e instanceof ResponseStatusException statusException
+                ? statusException.getStatusCode().value()
+                : HttpStatus.BAD_GATEWAY.value();
+            boolean retryable = status == HttpStatus.TOO_MANY_REQUESTS.value() || status >= 500;
+            if (retryable && pending.attempts() + 1 < maxAttempts) {
+                slots.computeIfPresent(key, (k, slot) -> {
+                    slot.restore(pending, true);
+                    return slot;
+                });
+                nextDelay = Math.max(windowMs, ThreadLocalRandom.current().nextLong(
+                    Math.min(maxBackoffMs, windowMs << Math.min(pending.attempts(), 20)) + 1));
+                meterRegistry.counter("ml.items.pricestock.calls", "outcome", "retried").increment();
+            } else {
+                log.warn("Falha ao enviar preço/estoque do produto {} após {} tentativa(s): {}",
+                    key.itemId(), pending.attempts() + 1, e.getMessage());
+                record("failed", pending);
+            }
+        } finally {
+            long delay = nextDelay;
+            slots.computeIfPresent(key, (k, slot) -> {
+                slot.sending = false;
+                if (slot.events == 0) {
+                    return null;
+                }
+                schedule(k, delay);
+                return slot;
+            });
+        }
+    }
+
+    private Pending take(Key key) {
+        Pending[] taken = new Pending[1];
+        slots.computeIfPresent(key, (k, slot) -> {
+            if (slot.sending || slot.events == 0) {
+                return slot;
+            }
+            taken[0] = new Pending(slot.price, slot.quantity, slot.events, slot.attempts);
+            slot.price = null;
+            slot.quantity = null;
+            slot.events = 0;
+            slot.attempts = 0;
+            slot.sending = true;
+            return slot;
+        });
+        return taken[0];
+    }
+
+    private void send(Key key, Pending pending) {
+        Map<String, Object> fields = new LinkedHashMap<>();
+        if (pending.price() != null) {
+            fields.put("price", pending.price());
+        }
+        if (pending.quantity() != null) {
+            fields.put("available_quantity", pending.quantity());
+        }
+        String token = mercadoLivreService.getValidAccessToken(key.userId());
+        itemStateStore.locked(key.userId(), key.itemId(), () -> {
+            try {
+                ItemResponse item = itemClient.updateItemFields("Bearer " + token, key.itemId(), fields);
+                itemCache.put(key.userId(), item);
+                return item;
+            } catch (RuntimeException e) {
+                itemCache.evict(key.userId(), key.itemId());
+                throw e;
+            } finally {
+                // O last_updated mudou (ou é incerto): a próxima atualização do produto o envia completo
+                itemStateStore.forget(key.userId(), key.itemId());
+            }
+        });
+    }
+
+    private void record(String outcome, Pending pending) {
+        meterRegistry.counter("ml.items.pricestock.calls", "outcome", outcome).increment();
+        coalesced.record(pending.events());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdownNow();
+        if (!slots.isEmpty()) {
+            log.warn("{} produto(s) com preço/estoque pendente não enviados no encerramento", slots.size());
+        }
+    }
+
+    private record Key(String userId, String itemId) {
+    }
+
+    /**
+     * Valores retirados para um envio; attempts conta as falhas anteriores desses valores
+     */
+    private record Pending(Double price, Integer quantity, int events, int attempts) {
+    }
+
+    /**
+     * Estado por produto, alterado só dentro de compute do mapa
+     */
+    private static class Slot {
+        private Double price;
+        private Integer quantity;
+        private int events;
+        private int attempts;
+        private boolean sending;
+
+        void merge(Double newPrice, Integer newQuantity, int count) {
+            if (newPrice != null) {
+                price = newPrice;
+            }
+            if (newQuantity != null) {
+                quantity = newQuantity;
+            }
+            events += count;
+        }
+
+        /**
+         * Devolve valores de um envio que falhou, sem sobrescrever os mais novos que chegaram durante ele
+         * @param countAttempt false quando a chamada não chegou a sair (limitador de taxa local)
+         */
+        void restore(Pending failed, boolean countAttempt) {
+            if (price == null) {
+                price = failed.price();
+            }
+            if (quantity == null) {
+                quantity = failed.quantity();
+            }
+            events += failed.events();
+            attempts = Math.max(attempts, failed.attempts() + (countAttempt ? 1 : 0));
+        }
+    }
+}
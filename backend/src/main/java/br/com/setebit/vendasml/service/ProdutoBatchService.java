@@ -0,0 +1,221 @@
+package br.com.setebit.vendasml.service;
+
+import br.com.setebit.vendasml.client.MercadoLivreItemClient;
+import br.com.setebit.vendasml.dto.BatchItemOperation;
+import br.com.setebit.vendasml.dto.BatchItemResponse;
+import br.com.setebit.vendasml.dto.BatchItemResult;
+import br.com.setebit.vendasml.dto.ItemRequest;
+import br.com.setebit.vendasml.dto.ItemResponse;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.stream.Collectors;
+
+/**
+ * Executa lotes de operações de produto (criar, atualizar, deletar) de um usuário.
+ * O token é resolvido uma única vez por lote e as chamadas ao Mercado Livre são distribuídas
+ * no executor de fan-out, limitadas por um semáforo por usuário compartilhado entre lotes simultâneos.
+ * Cada operação tem seu próprio resultado: uma falha não interrompe o lote.
+ */
+@Slf4j
+@Service
+public class ProdutoBatchService {
+
+    private final MercadoLivreService mercadoLivreService;
+    private final MercadoLivreItemClient itemClient;
+    private final ItemCache itemCache;
+    private final ItemStateStore itemStateStore;
+    private final Validator validator;
+    private final ExecutorService fanOutExecutor;
+    private final int perUserConcurrency;
+    private final Cache<String, Semaphore> userPermits;
+
+    public ProdutoBatchService(
+            MercadoLivreService mercadoLivreService,
+            MercadoLivreItemClient itemClient,
+            ItemCache itemCache,
+            ItemStateStore itemStateStore,
+            Validator validator,
+            ExecutorService fanOutExecutor,
+            @Value("${mercadolivre.batch.per-user-concurrency:8}") int perUserConcurrency) {
+        this.mercadoLivreService = mercadoLivreService;
+        this.itemClient = itemClient;
+        this.itemCache = itemCache;
+        this.itemStateStore = itemStateStore;
+        this.validator = validator;
+        this.fanOutExecutor = fanOutExecutor;
+        this.perUserConcurrency = perUserConcurrency;
+        this.userPermits = Caffeine.newBuilder()
+            .expireAfterAccess(Duration.ofMinutes(10))
+            .build();
+    }
+
+    public BatchItemResponse execute(String userId, List<BatchItemOperation> operations) {
+        log.info("Executando lote de {} operações para usuário: {}", operations.size(), userId);
+        String authorization = "Bearer " + mercadoLivreService.getValidAccessToken(userId);
+        Semaphore permits = userPermits.get(userId, key -> new Semaphore(perUserConcurrency));
+
+        // A permissão é obtida antes do submit (como na importação): no máximo per-user-concurrency
+        // tarefas existem por usuário, mesmo com o executor de platform threads sem limite de tamanho
+        List<Future<BatchItemResult>> futures = new ArrayList<>(operations.size());
+        try {
+            for (int i = 0; i < operations.size(); i++) {
+                int index = i;
+                BatchItemOperation operation = operations.get(i);
+                String invalid = validate(operation);
+                if (invalid != null) {
+                    futures.add(CompletableFuture.completedFuture(
+                        failure(index, operation, HttpStatus.BAD_REQUEST.value(), invalid)));
+                    continue;
+                }
+                permits.acquire();
+                try {
+                    futures.add(fanOutExecutor.submit(() -> executeWithPermit(index, userId, operation, authorization, permits)));
+                } catch (RejectedExecutionException e) {
+                    permits.release();
+                    throw e;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        List<BatchItemResult> results = new ArrayList<>(operations.size());
+        for (int i = 0; i < operations.size(); i++) {
+            results.add(i < futures.size()
+                ? await(i, operations.get(i), futures.get(i))
+                : failure(i, operations.get(i), HttpStatus.SERVICE_UNAVAILABLE.value(), "Lote interrompido"));
+        }
+
+        int succeeded = (int) results.stream().filter(result -> result.getStatus() < 300).count();
+        log.info("Lote concluído para usuário {}: {} sucesso(s), {} falha(s)",
+            userId, succeeded, results.size() - succeeded);
+        return BatchItemResponse.builder()
+            .total(results.size())
+            .succeeded(succeeded)
+            .failed(results.size() - succeeded)
+            .results(results)
+            .build();
+    }
+
+    /**
+     * Executa uma operação já validada; a permissão foi obtida por quem submeteu e é liberada aqui
+     */
+    private BatchItemResult executeWithPermit(int index, String userId, BatchItemOperation operation,
+                                              String authorization, Semaphore permits) {
+        try {
+            ItemResponse item = switch (operation.getOperation()) {
+                case CREATE -> itemClient.createItem(authorization, operation.getItem());
+                case UPDATE -> mercadoLivreService.sendUpdate(authorization, userId, operation.getItemId(), operation.getItem());
+                case DELETE -> {
+                    itemClient.deleteItem(authorization, operation.getItemId());
+                    yield null;
+                }
+            };
+            if (item != null) {
+                itemCache.put(userId, item);
+            } else {
+                itemCache.evict(userId, operation.getItemId());
+                itemStateStore.forget(userId, operation.getItemId());
+            }
+            if (operation.getOperation() == BatchItemOperation.Type.CREATE && item != null) {
+                itemStateStore.remember(userId, item, operation.getItem());
+            }
+            return BatchItemResult.builder()
+                .index(index)
+                .operation(operation.getOperation())
+                .itemId(item != null ? item.getId() : operation.getItemId())
+                .status(switch (operation.getOperation()) {
+                    case CREATE -> HttpStatus.CREATED.value();
+                    case UPDATE -> HttpStatus.OK.value();
+                    case DELETE -> HttpStatus.NO_CONTENT.value();
+                })
+                .item(item)
+                .build();
+        } catch (ResponseStatusException e) {
+            evictIfExisting(userId, operation);
+            return failure(index, operation, e.getStatusCode().value(), e.getReason());
+        } catch (RuntimeException e) {
+            evictIfExisting(userId, operation);
+            log.warn("Erro na operação {} do lote: {}", index, e.getMessage());
+            return failure(index, operation, HttpStatus.BAD_GATEWAY.value(),
+                "Erro na comunicação com Mercado Livre: " + e.getMessage());
+        } finally {
+            permits.release();
+        }
+    }
+
+    /**
+     * Após uma falha de atualização/exclusão o estado do item é incerto: descarta o cache e o estado conhecido
+     */
+    private void evictIfExisting(String userId, BatchItemOperation operation) {
+        if (operation.getItemId() != null) {
+            itemCache.evict(userId, operation.getItemId());
+            itemStateStore.forget(userId, operation.getItemId());
+        }
+    }
+
+    /**
+     * @return mensagem de erro, ou null se a operação for válida
+     */
+    private String validate(BatchItemOperation operation) {
+        BatchItemOperation.Type type = operation.getOperation();
+        if (type == null) {
+            return "Operação é obrigatória";
+        }
+        if (type != BatchItemOperation.Type.CREATE && (operation.getItemId() == null || operation.getItemId().isBlank())) {
+            return "ID do produto é obrigatório para " + type;
+        }
+        if (type == BatchItemOperation.Type.DELETE) {
+            return null;
+        }
+        if (operation.getItem() == null) {
+            return "Dados do produto são obrigatórios para " + type;
+        }
+        Set<ConstraintViolation<ItemRequest>> violations = validator.validate(operation.getItem());
+        if (violations.isEmpty()) {
+            return null;
+        }
+        return violations.stream()
+            .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+            .sorted()
+            .collect(Collectors.joining("; "));
+    }
+
+    private BatchItemResult await(int index, BatchItemOperation operation, Future<BatchItemResult> future) {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            return failure(index, operation, HttpStatus.INTERNAL_SERVER_ERROR.value(), e.getCause().getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return failure(index, operation, HttpStatus.SERVICE_UNAVAILABLE.value(), "Lote interrompido");
+        }
+    }
+
+    private static BatchItemResult failure(int index, BatchItemOperation operation, int status, String error) {
+        return BatchItemResult.builder()
+            .index(index)
+            .operation(operation.getOperation())
+            .itemId(operation.getItemId())
+            .status(status)
+            .error(error)
+            .build();
+    }
+}
@@ -0,0 +1,291 @@
+package br.com.setebit.vendasml.service;
+
+import br.com.setebit.vendasml.dto.ImportJobStatus;
+import br.com.setebit.vendasml.dto.ImportRowResult;
+import br.com.setebit.vendasml.dto.ItemRequest;
+import br.com.setebit.vendasml.dto.ItemResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Collectors;
+
+/**
+ * Importação em massa de produtos a partir de NDJSON ou CSV.
+ *
+ * <p>O upload é gravado em disco e processado em segundo plano, registro a registro:
+ * cada linha válida vira um createProduct executado no executor de fan-out, e um semáforo
+ * bloqueia a leitura quando há chamadas demais em andamento (backpressure). Os resultados
+ * por linha são gravados em um arquivo NDJSON consultável pelo ID do job, de modo que o
+ * uso de memória não depende do tamanho do arquivo.
+ */
+@Slf4j
+@Service
+public class ProdutoImportService {
+
+    private final MercadoLivreService mercadoLivreService;
+    private final Validator validator;
+    private final ObjectMapper objectMapper;
+    private final ExecutorService fanOutExecutor;
+    private final Path directory;
+    private final int concurrency;
+    private final Duration retention;
+    private final Map<String, ImportJob> jobs = new ConcurrentHashMap<>();
+
+    public ProdutoImportService(
+            MercadoLivreService mercadoLivreService,
+            Validator validator,
+            ObjectMapper objectMapper,
+            ExecutorService fanOutExecutor,
+            @Value("${mercadolivre.import.directory:${java.io.tmpdir}/vendasml-import}") String directory,
+            @Value("${mercadolivre.import.concurrency:8}") int concurrency,
+            @Value("${mercadolivre.import.retention-hours:24}") long retentionHours) {
+        this.mercadoLivreService = mercadoLivreService;
+        this.validator = validator;
+        this.objectMapper = objectMapper;
+        this.fanOutExecutor = fanOutExecutor;
+        this.directory = Paths.get(directory);
+        this.concurrency = concurrency;
+        this.retention = Duration.ofHours(retentionHours);
+    }
+
+    /**
+     * Grava o upload em disco e inicia o processamento em segundo plano
+     * @param contentType text/csv para CSV; demais tipos aceitos são lidos como NDJSON
+     */
+    public ImportJobStatus start(String userId, MediaType contentType, InputStream body) {
+        ItemImportReader.Format format = "csv".equalsIgnoreCase(contentType.getSubtype())
+            ? ItemImportReader.Format.CSV
+            : ItemImportReader.Format.NDJSON;
+        String jobId = UUID.randomUUID().toString();
+        ImportJob job = new ImportJob(jobId, userId, format,
+            directory.resolve(jobId + ".upload"), directory.resolve(jobId + ".results.ndjson"));
+        try {
+            Files.createDirectories(directory);
+            Files.copy(body, job.uploadFile);
+        } catch (IOException e) {
+            log.error("Erro ao receber arquivo de importação: {}", e.getMessage(), e);
+            throw new ResponseStatusException(
+                HttpStatus.BAD_REQUEST,
+                "Erro ao receber arquivo de importação: " + e.getMessage()
+            );
+        }
+
+        jobs.put(jobId, job);
+        log.info("Importação {} recebida para usuário {} ({})", jobId, userId, format);
+        fanOutExecutor.execute(() -> run(job));
+        return job.toStatus();
+    }
+
+    public ImportJobStatus getStatus(String jobId) {
+        return findJob(jobId).toStatus();
+    }
+
+    /**
+     * Arquivo NDJSON com o resultado de cada linha processada até o momento
+     */
+    public Path getResultsFile(String jobId) {
+        return findJob(jobId).resultsFile;
+    }
+
+    private ImportJob findJob(String jobId) {
+        ImportJob job = jobs.get(jobId);
+        if (job == null) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Importação não encontrada: " + jobId);
+        }
+        return job;
+    }
+
+    private void run(ImportJob job) {
+        Semaphore permits = new Semaphore(concurrency);
+        ReentrantLock writeLock = new ReentrantLock();
+
+        try (ItemImportReader reader = ItemImportReader.open(job.format,
+                Files.newBufferedReader(job.uploadFile, StandardCharsets.UTF_8), objectMapper);
+             BufferedWriter results = Files.newBufferedWriter(job.resultsFile, StandardCharsets.UTF_8)) {
+
+            try {
+                ItemImportReader.ImportRow row;
+                while ((row = reader.next()) != null) {
+                    job.rows.incrementAndGet();
+                    String error = row.error() != null ? row.error() : validate(row.item());
+                    if (error != null) {
+                        record(job, results, writeLock, failure(row.row(), HttpStatus.BAD_REQUEST.value(), error));
+                        continue;
+                    }
+
+                    permits.acquire();
+                    ItemImportReader.ImportRow current = row;
+                    fanOutExecutor.execute(() -> {
+                        try {
+                            record(job, results, writeLock, createItem(job.userId, current));
+                        } finally {
+                            permits.release();
+                        }
+                    });
+                }
+            } finally {
+                // Todas as permissões livres = nenhuma chamada em andamento; só então o arquivo pode ser fechado
+                permits.acquireUninterruptibly(concurrency);
+            }
+            job.finish(ImportJobStatus.Status.COMPLETED, null);
+            log.info("Importação {} concluída: {} linhas, {} sucesso(s), {} falha(s)",
+                job.id, job.rows.get(), job.succeeded.get(), job.failed.get());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            job.finish(ImportJobStatus.Status.FAILED, "Importação interrompida");
+        } catch (IOException | UncheckedIOException e) {
+            log.error("Erro na importação {}: {}", job.id, e.getMessage(), e);
+            job.finish(ImportJobStatus.Status.FAILED, e.getMessage());
+        } finally {
+            deleteQuietly(job.uploadFile);
+        }
+    }
+
+    private ImportRowResult createItem(String userId, ItemImportReader.ImportRow row) {
+        try {
+            ItemResponse item = mercadoLivreService.createProduct(userId, row.item());
+            return ImportRowResult.builder()
+                .row(row.row())
+                .status(HttpStatus.CREATED.value())
+                .itemId(item != null ? item.getId() : null)
+                .build();
+        } catch (ResponseStatusException e) {
+            return failure(row.row(), e.getStatusCode().value(), e.getReason());
+        } catch (RuntimeException e) {
+            return failure(row.row(), HttpStatus.BAD_GATEWAY.value(),
+                "Erro na comunicação com Mercado Livre: " + e.getMessage());
+        }
+    }
+
+    private void record(ImportJob job, BufferedWriter results, ReentrantLock writeLock, ImportRowResult result) {
+        if (result.getStatus() < 300) {
+            job.succeeded.incrementAndGet();
+        } else {
+            job.failed.incrementAndGet();
+        }
+        writeLock.lock();
+        try {
+            results.write(objectMapper.writeValueAsString(result));
+            results.newLine();
+            results.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * @return mensagem de erro, ou null se o produto for válido
+     */
+    private String validate(ItemRequest item) {
+        Set<ConstraintViolation<ItemRequest>> violations = validator.validate(item);
+        if (violations.isEmpty()) {
+            return null;
+        }
+        return violations.stream()
+            .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+            .sorted()
+            .collect(Collectors.joining("; "));
+    }
+
+    private static ImportRowResult failure(long row, int status, String error) {
+        return ImportRowResult.builder().row(row).status(status).error(error).build();
+    }
+
+    /**
+     * Remove jobs finalizados (e seus arquivos) após o período de retenção
+     */
+    @Scheduled(fixedDelayString = "${mercadolivre.import.cleanup-interval-ms:3600000}")
+    public void purgeExpiredJobs() {
+        Instant limit = Instant.now().minus(retention);
+        jobs.values().removeIf(job -> {
+            if (job.finishedAt == null || job.finishedAt.isAfter(limit)) {
+                return false;
+            }
+            deleteQuietly(job.resultsFile);
+            return true;
+        });
+    }
+
+    private static void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.warn("Não foi possível remover {}: {}", file, e.getMessage());
+        }
+    }
+
+    /**
+     * Estado de uma importação: apenas contadores, nunca as linhas em si
+     */
+    private static class ImportJob {
+        private final String id;
+        private final String userId;
+        private final ItemImportReader.Format format;
+        private final Path uploadFile;
+        private final Path resultsFile;
+        private final Instant startedAt = Instant.now();
+        private final AtomicLong rows = new AtomicLong();
+        private final AtomicLong succeeded = new AtomicLong();
+        private final AtomicLong failed = new AtomicLong();
+        private volatile ImportJobStatus.Status status = ImportJobStatus.Status.RUNNING;
+        private volatile Instant finishedAt;
+        private volatile String error;
+
+        ImportJob(String id, String userId, ItemImportReader.Format format, Path uploadFile, Path resultsFile) {
+            this.id = id;
+            this.userId = userId;
+            this.format = format;
+            this.uploadFile = uploadFile;
+            this.resultsFile = resultsFile;
+        }
+
+        void finish(ImportJobStatus.Status status, String error) {
+            this.error = error;
+            this.finishedAt = Instant.now();
+            this.status = status;
+        }
+
+        ImportJobStatus toStatus() {
+            return ImportJobStatus.builder()
+                .jobId(id)
+                .userId(userId)
+                .format(format.name().toLowerCase())
+                .status(status)
+                .rows(rows.get())
+                .succeeded(succeeded.get())
+                .failed(failed.get())
+                .startedAt(startedAt)
+                .finishedAt(finishedAt)
+                .error(error)
+                .build();
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package br.com.setebit.vendasml.service;
+
+import br.com.setebit.vendasml.entity.SchedulerLockEntity;
+import br.com.setebit.vendasml.repository.SchedulerLockRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.UUID;
+
+/**
+ * Eleição de uma instância para tarefas agendadas que não devem rodar em paralelo em várias
+ * réplicas (ex: refresh proativo de tokens). O dono renova o lease a cada execução; se ele
+ * parar, outra instância assume quando o lease expira.
+ */
+@Slf4j
+@Service
+public class SchedulerLockService {
+
+    private final SchedulerLockRepository schedulerLockRepository;
+    private final String owner;
+
+    public SchedulerLockService(SchedulerLockRepository schedulerLockRepository) {
+        this.schedulerLockRepository = schedulerLockRepository;
+        String name = ManagementFactory.getRuntimeMXBean().getName() + "/" + UUID.randomUUID();
+        this.owner = name.length() > 100 ? name.substring(name.length() - 100) : name;
+    }
+
+    /**
+     * Toma ou renova o lease da tarefa
+     * @return true se esta instância deve executar a tarefa agora
+     */
+    public boolean tryAcquire(String name, Duration lease) {
+        // DATETIME guarda segundos: comparações com o valor gravado usam a mesma precisão
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+        LocalDateTime until = now.plus(lease);
+        if (schedulerLockRepository.acquire(name, owner, now, until) == 1) {
+            return true;
+        }
+        if (schedulerLockRepository.existsById(name)) {
+            return false;
+        }
+        try {
+            schedulerLockRepository.saveAndFlush(SchedulerLockEntity.builder()
+                .name(name)
+                .owner(owner)
+                .lockedUntil(until)
+                .build());
+            log.info("Instância {} assumiu a tarefa {}", owner, name);
+            return true;
+        } catch (DataIntegrityViolationException e) {
+            // Outra instância criou o lease entre a leitura e o insert
+            return false;
+        }
+    }
+
+    public void release(String name) {
+        schedulerLockRepository.release(name, owner, LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS));
+    }
+}
@@ -0,0 +1,114 @@
+package br.com.setebit.vendasml.service;
+
+import br.com.setebit.vendasml.entity.TokenEntity;
+import br.com.setebit.vendasml.repository.TokenRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+/**
+ * Cache em memória dos tokens por userId, na frente do TokenRepository.
+ * As entradas expiram no expiresAt do próprio token e são atualizadas (write-through)
+ * sempre que um token é obtido ou renovado.
+ */
+@Slf4j
+@Component
+public class TokenCache {
+
+    private final TokenRepository tokenRepository;
+    private final Cache<String, TokenEntity> cache;
+
+    public TokenCache(
+            TokenRepository tokenRepository,
+            MeterRegistry meterRegistry,
+            @Value("${mercadolivre.token-cache.maximum-size:10000}") long maximumSize) {
+        this.tokenRepository = tokenRepository;
+        this.cache = Caffeine.newBuilder()
+            .maximumSize(maximumSize)
+            .expireAfter(new ExpiresAtExpiry())
+            .recordStats()
+            .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "ml.tokens");
+    }
+
+    /**
+     * Busca o token no cache; em caso de miss, carrega do banco e popula o cache.
+     * A consulta ao banco é feita fora do lock do cache para não prender a thread
+     * carregadora enquanto espera o JDBC.
+     */
+    public Optional<TokenEntity> get(String userId) {
+        TokenEntity cached = cache.getIfPresent(userId);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+
+        Optional<TokenEntity> loaded = tokenRepository.findById(userId);
+        loaded.ifPresent(token -> cache.put(userId, token));
+        return loaded;
+    }
+
+    /**
+     * Atualiza o cache com o token recém-salvo. Se houver transação ativa,
+     * a entrada é descartada caso a transação sofra rollback.
+     */
+    public void put(TokenEntity token) {
+        String userId = token.getUserId();
+        cache.put(userId, token);
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status != STATUS_COMMITTED) {
+                        log.debug("Rollback ao salvar token, removendo do cache: {}", userId);
+                        cache.invalidate(userId);
+                    }
+                }
+            });
+        }
+    }
+
+    public void evict(String userId) {
+        cache.invalidate(userId);
+    }
+
+    /**
+     * Expira cada entrada exatamente no expiresAt do token.
+     */
+    private static class ExpiresAtExpiry implements Expiry<String, TokenEntity> {
+
+        @Override
+        public long expireAfterCreate(String userId, TokenEntity token, long currentTime) {
+            return remainingNanos(token);
+        }
+
+        @Override
+        public long expireAfterUpdate(String userId, TokenEntity token, long currentTime, long currentDuration) {
+            return remainingNanos(token);
+        }
+
+        @Override
+        public long expireAfterRead(String userId, TokenEntity token, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+
+        private static long remainingNanos(TokenEntity token) {
+            if (token.getExpiresAt() == null) {
+                return 0;
+            }
+            Duration remaining = Duration.between(LocalDateTime.now(), token.getExpiresAt());
+            return Math.max(0, remaining.toNanos());
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package br.com.setebit.vendasml.service;
+
+import br.com.setebit.vendasml.repository.TokenRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Gauges dos tokens perto de expirar, atualizados por contagem periódica no banco (idx_expires_at):
+ * ml.tokens.expiring (vencem dentro do limite de refresh, ou seja, a próxima requisição do usuário
+ * pagaria o refresh) e ml.tokens.expired (já vencidos, precisam de novo refresh ou reautorização).
+ */
+@Slf4j
+@Component
+public class TokenExpiryMetrics {
+
+    private final TokenRepository tokenRepository;
+    private final long refreshThresholdSeconds;
+    private final AtomicLong expiring = new AtomicLong();
+    private final AtomicLong expired = new AtomicLong();
+
+    public TokenExpiryMetrics(
+            TokenRepository tokenRepository,
+            MeterRegistry meterRegistry,
+            @Value("${mercadolivre.token-refresh-threshold-seconds:300}") long refreshThresholdSeconds) {
+        this.tokenRepository = tokenRepository;
+        this.refreshThresholdSeconds = refreshThresholdSeconds;
+        Gauge.builder("ml.tokens.expiring", expiring, AtomicLong::get)
+            .description("Tokens que vencem dentro do limite de refresh")
+            .register(meterRegistry);
+        Gauge.builder("ml.tokens.expired", expired, AtomicLong::get)
+            .description("Tokens já vencidos")
+            .register(meterRegistry);
+    }
+
+    @Scheduled(
+        fixedDelayString = "${mercadolivre.token-metrics.interval-ms:60000}",
+        initialDelayString = "${mercadolivre.token-metrics.initial-delay-ms:10000}"
+    )
+    public void refresh() {
+        LocalDateTime now = LocalDateTime.now();
+        try {
+            expired.set(tokenRepository.countByExpiresAtLessThanEqual(now));
+            expiring.set(tokenRepository.countByExpiresAtBetween(now, now.plusSeconds(refreshThresholdSeconds)));
+        } catch (RuntimeException e) {
+            log.warn("Falha ao contar tokens perto de expirar: {}", e.getMessage());
+        }
+    }
+}
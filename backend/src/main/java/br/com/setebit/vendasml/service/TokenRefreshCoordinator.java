@@ -0,0 +1,116 @@
+package br.com.setebit.vendasml.service;
+
+import br.com.setebit.vendasml.dto.TokenResponse;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Garante no máximo um refresh em andamento por userId (single-flight).
+ * A primeira requisição executa o refresh; as concorrentes aguardam o mesmo resultado,
+ * evitando que o Mercado Livre rotacione o refresh token várias vezes em paralelo.
+ */
+@Slf4j
+@Component
+public class TokenRefreshCoordinator {
+
+    private final ConcurrentHashMap<String, InFlightRefresh> inFlight = new ConcurrentHashMap<>();
+    private final Duration waitTimeout;
+    private final Counter leaderCounter;
+    private final Counter followerCounter;
+    private final DistributionSummary coalescedWaiters;
+
+    public TokenRefreshCoordinator(
+            MeterRegistry meterRegistry,
+            @Value("${mercadolivre.token-refresh-wait-timeout-ms:10000}") long waitTimeoutMs) {
+        this.waitTimeout = Duration.ofMillis(waitTimeoutMs);
+        this.leaderCounter = Counter.builder("ml.token.refresh.coalescing")
+            .description("Requisições de refresh por papel no single-flight")
+            .tag("role", "leader")
+            .register(meterRegistry);
+        this.followerCounter = Counter.builder("ml.token.refresh.coalescing")
+            .description("Requisições de refresh por papel no single-flight")
+            .tag("role", "follower")
+            .register(meterRegistry);
+        this.coalescedWaiters = DistributionSummary.builder("ml.token.refresh.coalesced.waiters")
+            .description("Requisições que aguardaram cada refresh executado")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Executa o refresh se não houver outro em andamento para o usuário;
+     * caso contrário aguarda o resultado do refresh em andamento.
+     */
+    public TokenResponse refresh(String userId, Supplier<TokenResponse> refresher) {
+        InFlightRefresh flight = new InFlightRefresh();
+        InFlightRefresh existing = inFlight.putIfAbsent(userId, flight);
+        if (existing != null) {
+            existing.waiters.incrementAndGet();
+            followerCounter.increment();
+            log.debug("Refresh já em andamento, aguardando resultado para usuário: {}", userId);
+            return await(userId, existing.result);
+        }
+
+        leaderCounter.increment();
+        try {
+            TokenResponse response = refresher.get();
+            flight.result.complete(response);
+            return response;
+        } catch (RuntimeException e) {
+            flight.result.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(userId, flight);
+            coalescedWaiters.record(flight.waiters.get());
+        }
+    }
+
+    /**
+     * Aguarda o refresh em andamento. CompletableFuture.get estaciona a thread via LockSupport,
+     * sem monitor, de modo que virtual threads não prendem a carrier thread durante a espera.
+     */
+    private TokenResponse await(String userId, CompletableFuture<TokenResponse> result) {
+        try {
+            return result.get(waitTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new ResponseStatusException(
+                HttpStatus.BAD_REQUEST,
+                "Erro ao atualizar token: " + e.getCause().getMessage()
+            );
+        } catch (TimeoutException e) {
+            log.warn("Tempo esgotado aguardando refresh do token para usuário: {}", userId);
+            throw new ResponseStatusException(
+                HttpStatus.GATEWAY_TIMEOUT,
+                "Tempo esgotado aguardando refresh do token para usuário: " + userId
+            );
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ResponseStatusException(
+                HttpStatus.SERVICE_UNAVAILABLE,
+                "Interrompido aguardando refresh do token para usuário: " + userId
+            );
+        }
+    }
+
+    private static class InFlightRefresh {
+        private final CompletableFuture<TokenResponse> result = new CompletableFuture<>();
+        private final AtomicInteger waiters = new AtomicInteger();
+    }
+}
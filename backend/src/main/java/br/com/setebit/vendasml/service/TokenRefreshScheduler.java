@@ -0,0 +1,201 @@
+package br.com.setebit.vendasml.service;
+
+import br.com.setebit.vendasml.entity.TokenEntity;
+import br.com.setebit.vendasml.repository.TokenRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Renova em segundo plano os tokens que expiram dentro do horizonte configurado,
+ * para que as requisições dos usuários quase nunca paguem o refresh OAuth.
+ * A varredura usa o idx_expires_at em páginas; cada refresh é atrasado por um jitter
+ * aleatório e o paralelismo é limitado pelo tamanho do pool.
+ *
+ * <p>Só uma instância varre por vez (lease em scheduler_locks). Tokens expirados há mais que
+ * expired-grace-seconds ficam de fora: o usuário está inativo e o refresh acontece na próxima
+ * requisição dele. Um refresh que falha (ex: invalid_grant de um token revogado) só é tentado de
+ * novo após um backoff exponencial por usuário, ou antes disso se o token for regravado (nova autorização).
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "mercadolivre.token-refresher", name = "enabled", havingValue = "true")
+public class TokenRefreshScheduler {
+
+    private static final String LOCK_NAME = "token-refresher";
+
+    private final TokenRepository tokenRepository;
+    private final MercadoLivreService mercadoLivreService;
+    private final SchedulerLockService schedulerLockService;
+    private final ScheduledExecutorService executor;
+    private final long horizonSeconds;
+    private final long expiredGraceSeconds;
+    private final int pageSize;
+    private final long maxJitterMs;
+    private final long baseBackoffMs;
+    private final long maxBackoffMs;
+    private final Duration lease;
+    private final Cache<String, Failure> failures;
+
+    public TokenRefreshScheduler(
+            TokenRepository tokenRepository,
+            MercadoLivreService mercadoLivreService,
+            SchedulerLockService schedulerLockService,
+            @Value("${mercadolivre.token-refresher.horizon-seconds:900}") long horizonSeconds,
+            @Value("${mercadolivre.token-refresher.expired-grace-seconds:3600}") long expiredGraceSeconds,
+            @Value("${mercadolivre.token-refresher.page-size:200}") int pageSize,
+            @Value("${mercadolivre.token-refresher.parallelism:4}") int parallelism,
+            @Value("${mercadolivre.token-refresher.max-jitter-ms:30000}") long maxJitterMs,
+            @Value("${mercadolivre.token-refresher.interval-ms:60000}") long intervalMs,
+            @Value("${mercadolivre.token-refresher.failure-max-backoff-seconds:3600}") long failureMaxBackoffSeconds,
+            @Value("${mercadolivre.token-refresher.lease-seconds:300}") long leaseSeconds) {
+        this.tokenRepository = tokenRepository;
+        this.mercadoLivreService = mercadoLivreService;
+        this.schedulerLockService = schedulerLockService;
+        this.horizonSeconds = horizonSeconds;
+        this.expiredGraceSeconds = expiredGraceSeconds;
+        this.pageSize = pageSize;
+        this.maxJitterMs = maxJitterMs;
+        this.baseBackoffMs = intervalMs;
+        this.maxBackoffMs = Math.max(intervalMs, TimeUnit.SECONDS.toMillis(failureMaxBackoffSeconds));
+        this.lease = Duration.ofSeconds(leaseSeconds);
+        this.failures = Caffeine.newBuilder()
+            .expireAfterWrite(Duration.ofMillis(maxBackoffMs).plusSeconds(expiredGraceSeconds))
+            .build();
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ScheduledThreadPoolExecutor(parallelism, runnable -> {
+            Thread thread = new Thread(runnable, "token-refresher-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @Scheduled(
+        fixedDelayString = "${mercadolivre.token-refresher.interval-ms:60000}",
+        initialDelayString = "${mercadolivre.token-refresher.initial-delay-ms:30000}"
+    )
+    public void refreshExpiringTokens() {
+        if (!schedulerLockService.tryAcquire(LOCK_NAME, lease)) {
+            log.debug("Refresh proativo executando em outra instância");
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime horizon = now.plusSeconds(horizonSeconds);
+        LocalDateTime floor = now.minusSeconds(expiredGraceSeconds);
+        PageRequest page = PageRequest.of(0, pageSize);
+
+        List<TokenEntity> tokens = tokenRepository.findByExpiresAtBetweenOrderByExpiresAtAscUserIdAsc(floor, horizon, page);
+        int total = 0;
+        int failed = 0;
+        int backingOff = 0;
+
+        while (!tokens.isEmpty()) {
+            List<TokenEntity> due = new ArrayList<>(tokens.size());
+            for (TokenEntity token : tokens) {
+                if (isBackingOff(token)) {
+                    backingOff++;
+                } else {
+                    due.add(token);
+                }
+            }
+            failed += refreshPage(due, horizon);
+            total += due.size();
+
+            TokenEntity last = tokens.get(tokens.size() - 1);
+            tokens = tokenRepository.findExpiringAfterKey(horizon, last.getExpiresAt(), last.getUserId(), page);
+        }
+
+        if (total > 0 || backingOff > 0) {
+            log.info("Refresh proativo concluído: {} tokens processados, {} falhas, {} em backoff após falha",
+                total, failed, backingOff);
+        }
+    }
+
+    /**
+     * Agenda o refresh de cada token da página com um atraso aleatório e aguarda a página terminar
+     * antes de buscar a próxima, mantendo a memória limitada ao tamanho da página.
+     */
+    private int refreshPage(List<TokenEntity> tokens, LocalDateTime horizon) {
+        List<Future<?>> futures = new ArrayList<>(tokens.size());
+        for (TokenEntity token : tokens) {
+            long jitter = maxJitterMs > 0 ? ThreadLocalRandom.current().nextLong(maxJitterMs) : 0;
+            futures.add(executor.schedule(() -> refresh(token, horizon), jitter, TimeUnit.MILLISECONDS));
+        }
+
+        int failed = 0;
+        for (Future<?> future : futures) {
+            try {
+                future.get();
+            } catch (ExecutionException e) {
+                failed++;
+                log.warn("Falha no refresh proativo: {}", e.getCause().getMessage());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                futures.forEach(pending -> pending.cancel(false));
+                return failed;
+            }
+        }
+        return failed;
+    }
+
+    private void refresh(TokenEntity token, LocalDateTime horizon) {
+        String userId = token.getUserId();
+        try {
+            mercadoLivreService.refreshIfExpiringBefore(userId, horizon);
+            failures.invalidate(userId);
+        } catch (RuntimeException e) {
+            Failure previous = failures.getIfPresent(userId);
+            int attempts = previous != null && previous.expiresAt().equals(token.getExpiresAt())
+                ? previous.attempts() + 1
+                : 1;
+            long backoff = Math.min(maxBackoffMs, baseBackoffMs << Math.min(attempts - 1, 20));
+            failures.put(userId, new Failure(attempts, token.getExpiresAt(),
+                System.currentTimeMillis() + backoff));
+            throw e;
+        }
+    }
+
+    /**
+     * O último refresh do usuário falhou com o mesmo token que está gravado e o backoff não passou
+     */
+    private boolean isBackingOff(TokenEntity token) {
+        Failure failure = failures.getIfPresent(token.getUserId());
+        return failure != null
+            && failure.expiresAt().equals(token.getExpiresAt())
+            && failure.retryAtMillis() > System.currentTimeMillis();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+        try {
+            schedulerLockService.release(LOCK_NAME);
+        } catch (RuntimeException e) {
+            log.debug("Lease do refresh proativo não liberado no encerramento: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * @param expiresAt expiração do token que falhou: um token regravado não herda o backoff
+     */
+    private record Failure(int attempts, LocalDateTime expiresAt, long retryAtMillis) {
+    }
+}
@@ -0,0 +1,31 @@
+-- Flyway migration: Create item_outbox table
+-- Version: 2
+-- Description: Outbox das escritas de produtos (criar, atualizar, deletar) despachadas em segundo plano
+
+CREATE TABLE IF NOT EXISTS item_outbox (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    operation_id VARCHAR(36) NOT NULL,
+    user_id VARCHAR(20) NOT NULL,
+    operation VARCHAR(16) NOT NULL,
+    item_id VARCHAR(30),
+    ordering_key VARCHAR(64) NOT NULL,
+    ordering_hash INT NOT NULL,
+    payload MEDIUMTEXT,
+    status VARCHAR(16) NOT NULL,
+    attempts INT NOT NULL,
+    next_attempt_at DATETIME NOT NULL,
+    http_status INT,
+    result_item_id VARCHAR(30),
+    error VARCHAR(1000),
+    created_at DATETIME NOT NULL,
+    updated_at DATETIME NOT NULL
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
+
+-- Consulta de status pelo ID devolvido ao chamador
+CREATE UNIQUE INDEX idx_item_outbox_operation_id ON item_outbox(operation_id);
+
+-- Workers leem as operações pendentes na ordem de inserção (id)
+CREATE INDEX idx_item_outbox_status_id ON item_outbox(status, id);
+
+-- Limpeza das operações finalizadas
+CREATE INDEX idx_item_outbox_status_updated_at ON item_outbox(status, updated_at);
@@ -0,0 +1,19 @@
+-- Flyway migration: Create idempotency_keys table
+-- Version: 3
+-- Description: Chaves Idempotency-Key da criação de produtos, com a resposta guardada para replay
+
+CREATE TABLE IF NOT EXISTS idempotency_keys (
+    user_id VARCHAR(20) NOT NULL,
+    idempotency_key VARCHAR(100) NOT NULL,
+    request_hash CHAR(64) NOT NULL,
+    status VARCHAR(16) NOT NULL,
+    response_status INT,
+    response_body MEDIUMTEXT,
+    error VARCHAR(1000),
+    created_at DATETIME NOT NULL,
+    expires_at DATETIME NOT NULL,
+    PRIMARY KEY (user_id, idempotency_key)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
+
+-- Limpeza das chaves expiradas
+CREATE INDEX idx_idempotency_keys_expires_at ON idempotency_keys(expires_at);
@@ -0,0 +1,29 @@
+-- Flyway migration: Create item_mirror table
+-- Version: 4
+-- Description: Cópia local dos produtos de cada vendedor, sincronizada incrementalmente com o Mercado Livre
+
+CREATE TABLE IF NOT EXISTS item_mirror (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    user_id VARCHAR(20) NOT NULL,
+    item_id VARCHAR(30) NOT NULL,
+    title VARCHAR(256),
+    category_id VARCHAR(30),
+    price DOUBLE,
+    currency_id VARCHAR(3),
+    available_quantity INT,
+    sold_quantity INT,
+    status VARCHAR(20),
+    permalink VARCHAR(500),
+    last_updated DATETIME(3),
+    content_hash CHAR(64) NOT NULL,
+    synced_at DATETIME NOT NULL,
+    created_at DATETIME NOT NULL,
+    updated_at DATETIME NOT NULL,
+    CONSTRAINT uk_item_mirror_user_item UNIQUE (user_id, item_id)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
+
+-- Filtros das rotas de leitura (sempre por vendedor) e varredura de produtos removidos
+CREATE INDEX idx_item_mirror_user_status ON item_mirror(user_id, status, last_updated);
+CREATE INDEX idx_item_mirror_user_category ON item_mirror(user_id, category_id, last_updated);
+CREATE INDEX idx_item_mirror_user_price ON item_mirror(user_id, price);
+CREATE INDEX idx_item_mirror_user_synced ON item_mirror(user_id, synced_at);
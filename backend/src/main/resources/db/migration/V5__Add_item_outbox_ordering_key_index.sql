@@ -0,0 +1,6 @@
+-- Flyway migration: Add item_outbox ordering_key index
+-- Version: 5
+-- Description: Workers leem só a primeira operação não finalizada de cada produto
+
+-- Verifica se há operação anterior não finalizada da mesma ordering_key
+CREATE INDEX idx_item_outbox_ordering_key_status_id ON item_outbox(ordering_key, status, id);
@@ -0,0 +1,9 @@
+-- Flyway migration: Create scheduler_locks table
+-- Version: 6
+-- Description: Lease das tarefas agendadas que devem rodar em uma única instância
+
+CREATE TABLE IF NOT EXISTS scheduler_locks (
+    name VARCHAR(64) PRIMARY KEY,
+    owner VARCHAR(100) NOT NULL,
+    locked_until DATETIME NOT NULL
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
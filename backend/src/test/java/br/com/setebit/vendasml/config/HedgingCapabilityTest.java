@@ -0,0 +1,140 @@
+package br.com.setebit.vendasml.config;
+
+import feign.Client;
+import feign.Request;
+import feign.Response;
+import feign.Util;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class HedgingCapabilityTest {
+
+	private static final long DELAY_MS = 100;
+	private static final Request.Options OPTIONS = new Request.Options();
+
+	private SimpleMeterRegistry meterRegistry;
+	private ExecutorService executor;
+	private Client client;
+	private final AtomicInteger calls = new AtomicInteger();
+	private final List<Long> attemptStarts = new CopyOnWriteArrayList<>();
+	private final CountDownLatch loserInterrupted = new CountDownLatch(1);
+	private volatile List<Long> latenciesMs;
+
+	@BeforeEach
+	void setUp() throws IOException {
+		meterRegistry = new SimpleMeterRegistry();
+		executor = Executors.newCachedThreadPool();
+		HedgingCapability.State state = new HedgingCapability.State(0.5, 64, 64, 1.0, meterRegistry);
+		// Espera fixa de 100 ms antes do hedge, qualquer que seja o percentil
+		HedgingCapability capability = new HedgingCapability(true, DELAY_MS, DELAY_MS, state, executor, meterRegistry);
+		client = capability.enrich(this::respond);
+
+		// Amostras suficientes para o percentil sair do aquecimento
+		latenciesMs = List.of(1L);
+		for (int i = 0; i < 64; i++) {
+			client.execute(get(), OPTIONS).close();
+		}
+		calls.set(0);
+		attemptStarts.clear();
+	}
+
+	@AfterEach
+	void tearDown() {
+		executor.shutdownNow();
+	}
+
+	@Test
+	void fastResponseIsNotHedged() throws Exception {
+		latenciesMs = List.of(10L);
+
+		assertEquals("attempt-1", body(client.execute(get(), OPTIONS)));
+
+		Thread.sleep(DELAY_MS * 2);
+		assertEquals(1, calls.get());
+		assertEquals(1.0, outcome("not_needed"));
+	}
+
+	@Test
+	void hedgeFiresOnlyAfterTheDelayAndTheFirstResponseWins() throws Exception {
+		latenciesMs = List.of(5_000L, 0L);
+		long start = System.nanoTime();
+
+		String body = body(client.execute(get(), OPTIONS));
+
+		assertEquals("attempt-2", body);
+		assertEquals(2, attemptStarts.size());
+		long hedgeStartedAfterMs = TimeUnit.NANOSECONDS.toMillis(attemptStarts.get(1) - start);
+		assertTrue(hedgeStartedAfterMs >= DELAY_MS, "hedge após " + hedgeStartedAfterMs + " ms");
+		assertTrue(Duration.ofNanos(System.nanoTime() - start).toMillis() < 5_000);
+		assertTrue(loserInterrupted.await(1, TimeUnit.SECONDS), "tentativa original não foi cancelada");
+		assertEquals(1.0, outcome("hedge_won"));
+	}
+
+	@Test
+	void primaryThatAnswersFirstWinsOverTheHedge() throws Exception {
+		latenciesMs = List.of(300L, 5_000L);
+		long start = System.nanoTime();
+
+		String body = body(client.execute(get(), OPTIONS));
+
+		assertEquals("attempt-1", body);
+		assertEquals(2, calls.get());
+		assertTrue(Duration.ofNanos(System.nanoTime() - start).toMillis() < 5_000);
+		assertTrue(loserInterrupted.await(1, TimeUnit.SECONDS), "hedge não foi cancelado");
+		assertEquals(1.0, outcome("primary_won"));
+	}
+
+	/**
+	 * Cliente simulado: a n-ésima tentativa demora latenciesMs[n] e responde "attempt-n"
+	 */
+	private Response respond(Request request, Request.Options options) throws IOException {
+		int attempt = calls.incrementAndGet();
+		attemptStarts.add(System.nanoTime());
+		List<Long> latencies = latenciesMs;
+		try {
+			Thread.sleep(latencies.get(Math.min(attempt, latencies.size()) - 1));
+		} catch (InterruptedException e) {
+			loserInterrupted.countDown();
+			throw new InterruptedIOException();
+		}
+		return Response.builder()
+			.status(200)
+			.request(request)
+			.headers(Map.of())
+			.body("attempt-" + attempt, StandardCharsets.UTF_8)
+			.build();
+	}
+
+	private double outcome(String outcome) {
+		return meterRegistry.counter("ml.hedge.requests", "family", "items", "outcome", outcome).count();
+	}
+
+	private static String body(Response response) throws IOException {
+		try (response) {
+			return Util.toString(response.body().asReader(StandardCharsets.UTF_8));
+		}
+	}
+
+	private static Request get() {
+		return Request.create(Request.HttpMethod.GET, "https://api.mercadolibre.com/items/MLB1", Map.of(), null,
+			StandardCharsets.UTF_8, null);
+	}
+}
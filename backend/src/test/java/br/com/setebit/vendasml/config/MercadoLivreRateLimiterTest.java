@@ -0,0 +1,109 @@
+package br.com.setebit.vendasml.config;
+
+import br.com.setebit.vendasml.config.MercadoLivreRateLimiter.Family;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MercadoLivreRateLimiterTest {
+
+	private static final double UNLIMITED = 1_000_000;
+
+	private SimpleMeterRegistry meterRegistry;
+	private MercadoLivreRateLimiter limiter;
+
+	@BeforeEach
+	void setUp() {
+		meterRegistry = new SimpleMeterRegistry();
+		// Só o bucket do vendedor limita: 1 chamada/s com rajada de 5, espera máxima de 50 ms
+		limiter = new MercadoLivreRateLimiter(meterRegistry, true, 50, 1000,
+			UNLIMITED, UNLIMITED, 1, 5, UNLIMITED, UNLIMITED, UNLIMITED, UNLIMITED, UNLIMITED, UNLIMITED);
+	}
+
+	@Test
+	void burstIsAdmittedWithoutWaiting() {
+		exhaust("seller-a");
+
+		assertEquals(5, decisions("allowed"));
+		assertEquals(0, decisions("waited"));
+	}
+
+	@Test
+	void callBeyondMaxWaitIsRejected() {
+		exhaust("seller-a");
+
+		RateLimitExceededException rejected = assertThrows(RateLimitExceededException.class,
+			() -> limiter.acquire(Family.ITEMS, "seller-a"));
+
+		assertEquals(HttpStatus.TOO_MANY_REQUESTS, rejected.getStatusCode());
+		assertEquals(1, decisions("rejected"));
+	}
+
+	@Test
+	void callWithinMaxWaitWaitsForItsTurn() {
+		MercadoLivreRateLimiter fast = new MercadoLivreRateLimiter(meterRegistry, true, 50, 1000,
+			UNLIMITED, UNLIMITED, 100, 1, UNLIMITED, UNLIMITED, UNLIMITED, UNLIMITED, UNLIMITED, UNLIMITED);
+		fast.acquire(Family.ITEMS, "seller-a");
+
+		long start = System.nanoTime();
+		fast.acquire(Family.ITEMS, "seller-a");
+
+		assertTrue(Duration.ofNanos(System.nanoTime() - start).toMillis() >= 5);
+		assertEquals(1, decisions("waited"));
+	}
+
+	@Test
+	void rejectionCarriesTheRetryAfter() {
+		exhaust("seller-a");
+
+		RateLimitExceededException rejected = assertThrows(RateLimitExceededException.class,
+			() -> limiter.acquire(Family.ITEMS, "seller-a"));
+
+		// Próxima permissão do bucket de 1/s
+		long retryAfterMs = rejected.getRetryAfter().toMillis();
+		assertTrue(retryAfterMs > 900 && retryAfterMs <= 1000, "retry-after: " + retryAfterMs);
+		assertEquals("1", rejected.getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+	}
+
+	@Test
+	void remoteThrottlePausesForTheRetryAfter() {
+		limiter.onThrottled(Family.ITEMS, "seller-a", Duration.ofSeconds(3));
+
+		RateLimitExceededException rejected = assertThrows(RateLimitExceededException.class,
+			() -> limiter.acquire(Family.ITEMS, "seller-a"));
+
+		assertTrue(rejected.getRetryAfter().toMillis() > 2900, "retry-after: " + rejected.getRetryAfter());
+		assertEquals("3", rejected.getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+	}
+
+	@Test
+	void sellerBucketsAreIsolated() {
+		exhaust("seller-a");
+		assertThrows(RateLimitExceededException.class, () -> limiter.acquire(Family.ITEMS, "seller-a"));
+
+		for (int i = 0; i < 5; i++) {
+			assertDoesNotThrow(() -> limiter.acquire(Family.ITEMS, "seller-b"));
+		}
+		limiter.onThrottled(Family.ITEMS, "seller-a", Duration.ofSeconds(3));
+		assertDoesNotThrow(() -> limiter.acquire(Family.CATEGORIES, "seller-c"));
+	}
+
+	private void exhaust(String seller) {
+		for (int i = 0; i < 5; i++) {
+			limiter.acquire(Family.ITEMS, seller);
+		}
+	}
+
+	private double decisions(String outcome) {
+		return meterRegistry.counter("ml.ratelimit.decisions", "family", "items", "outcome", outcome).count();
+	}
+}
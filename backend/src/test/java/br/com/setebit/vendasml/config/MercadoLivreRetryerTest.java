@@ -0,0 +1,116 @@
+package br.com.setebit.vendasml.config;
+
+import feign.Request;
+import feign.RetryableException;
+import feign.Retryer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.net.ConnectException;
+import java.net.SocketTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class MercadoLivreRetryerTest {
+
+	private SimpleMeterRegistry meterRegistry;
+
+	@BeforeEach
+	void setUp() {
+		meterRegistry = new SimpleMeterRegistry();
+	}
+
+	@Test
+	void postIsNotRetriedOnServerError() {
+		RetryableException e = status(Request.HttpMethod.POST, HttpStatus.SERVICE_UNAVAILABLE);
+
+		RuntimeException thrown = assertThrows(RuntimeException.class, () -> retryer(3).continueOrPropagate(e));
+
+		assertSame(e.getCause(), thrown);
+		assertEquals(1.0, decisions("POST", "not_retryable"));
+	}
+
+	@Test
+	void postIsNotRetriedOnReadTimeout() {
+		RetryableException e = io(Request.HttpMethod.POST, new SocketTimeoutException("Read timed out"));
+
+		assertSame(e, assertThrows(RetryableException.class, () -> retryer(3).continueOrPropagate(e)));
+		assertEquals(1.0, decisions("POST", "not_retryable"));
+	}
+
+	@Test
+	void postIsRetriedOnTooManyRequestsAndConnectFailure() {
+		MercadoLivreRetryer retryer = retryer(3);
+
+		assertDoesNotThrow(() -> retryer.continueOrPropagate(status(Request.HttpMethod.POST, HttpStatus.TOO_MANY_REQUESTS)));
+		assertDoesNotThrow(() -> retryer.continueOrPropagate(
+			io(Request.HttpMethod.POST, new ConnectException("Connection refused"))));
+		assertEquals(2.0, decisions("POST", "retried"));
+	}
+
+	@Test
+	void idempotentMethodsAreRetriedUntilMaxAttempts() {
+		MercadoLivreRetryer retryer = retryer(3);
+		RetryableException e = status(Request.HttpMethod.PUT, HttpStatus.BAD_GATEWAY);
+
+		assertDoesNotThrow(() -> retryer.continueOrPropagate(e));
+		assertDoesNotThrow(() -> retryer.continueOrPropagate(io(Request.HttpMethod.PUT, new SocketTimeoutException())));
+		RuntimeException thrown = assertThrows(RuntimeException.class, () -> retryer.continueOrPropagate(e));
+
+		assertSame(e.getCause(), thrown);
+		assertEquals(2.0, decisions("PUT", "retried"));
+		assertEquals(1.0, decisions("PUT", "exhausted"));
+	}
+
+	@Test
+	void budgetLimitsRetriesAcrossCalls() {
+		MercadoLivreRetryer.RetryBudget budget = new MercadoLivreRetryer.RetryBudget(0, 0, 1);
+		MercadoLivreRetryer first = new MercadoLivreRetryer(3, 1, 5, budget, meterRegistry);
+		Retryer second = first.clone();
+		RetryableException e = status(Request.HttpMethod.GET, HttpStatus.SERVICE_UNAVAILABLE);
+
+		assertDoesNotThrow(() -> first.continueOrPropagate(e));
+		assertThrows(ResponseStatusException.class, () -> second.continueOrPropagate(e));
+
+		assertEquals(1.0, decisions("GET", "budget_exhausted"));
+	}
+
+	@Test
+	void retryAfterLongerThanMaxBackoffIsNotWaited() {
+		RetryableException e = new RetryableException(HttpStatus.TOO_MANY_REQUESTS.value(), "Too Many Requests",
+			Request.HttpMethod.GET, new ResponseStatusException(HttpStatus.TOO_MANY_REQUESTS),
+			System.currentTimeMillis() + 60_000, request(Request.HttpMethod.GET));
+
+		assertThrows(ResponseStatusException.class, () -> retryer(3).continueOrPropagate(e));
+		assertEquals(1.0, decisions("GET", "retry_after_too_long"));
+	}
+
+	private MercadoLivreRetryer retryer(int maxAttempts) {
+		return new MercadoLivreRetryer(maxAttempts, 1, 5, new MercadoLivreRetryer.RetryBudget(0.1, 10, 100), meterRegistry);
+	}
+
+	private double decisions(String method, String outcome) {
+		return meterRegistry.counter("ml.retry.decisions", "method", method, "outcome", outcome).count();
+	}
+
+	private static RetryableException status(Request.HttpMethod method, HttpStatus status) {
+		return new RetryableException(status.value(), status.getReasonPhrase(), method,
+			new ResponseStatusException(status), (Long) null, request(method));
+	}
+
+	private static RetryableException io(Request.HttpMethod method, Exception cause) {
+		return new RetryableException(-1, cause.getMessage(), method, cause, (Long) null, request(method));
+	}
+
+	private static Request request(Request.HttpMethod method) {
+		return Request.create(method, "https://api.mercadolibre.com/items", Map.of(), null, StandardCharsets.UTF_8, null);
+	}
+}
@@ -0,0 +1,259 @@
+package br.com.setebit.vendasml.loadtest;
+
+import br.com.setebit.vendasml.simulator.MercadoLivreSimulator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Teste de carga de ponta a ponta: a aplicação completa (Tomcat, Feign, cache, retries) contra o
+ * {@link MercadoLivreSimulator}. Fica fora do mvn test; rodar com {@code mvn -B verify -Pload-test}.
+ *
+ * <p>Parâmetros (propriedades do sistema): loadtest.concurrency (32), loadtest.duration-seconds (30),
+ * loadtest.warmup-seconds (5), loadtest.seed (7), loadtest.min-success-ratio (0.95),
+ * loadtest.rate-limit (false: o limitador local mediria a cota, não a aplicação) e os simulator.*.
+ * O relatório (vazão e percentis por endpoint, pico de platform threads e pinning/s) vai para a saída e para target/load-test/report.json.
+ */
+@Tag("load")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("test")
+class ProdutoLoadTest {
+
+	private static final ObjectMapper JSON = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+	private static final MercadoLivreSimulator.Settings SETTINGS = MercadoLivreSimulator.Settings.fromSystemProperties()
+		// Token vence a cada ~5s de teste (limite de refresh de 300s): exercita refresh e rotação sob carga
+		.withAccessTokenTtlSeconds(Long.getLong("loadtest.access-token-ttl-seconds", 305));
+	private static final MercadoLivreSimulator SIMULATOR = startSimulator();
+
+	@LocalServerPort
+	int port;
+
+	@Autowired
+	MeterRegistry meterRegistry;
+
+	@Value("${spring.threads.virtual.enabled:false}")
+	boolean virtualThreads;
+
+	private final HttpClient http = HttpClient.newBuilder()
+		.executor(Executors.newVirtualThreadPerTaskExecutor())
+		.connectTimeout(Duration.ofSeconds(5))
+		.build();
+
+	@DynamicPropertySource
+	static void simulatorProperties(DynamicPropertyRegistry registry) {
+		registry.add("mercadolivre.base-url", SIMULATOR::baseUrl);
+		registry.add("mercadolivre.auth-url", SIMULATOR::baseUrl);
+		registry.add("mercadolivre.rate-limit.enabled", () -> System.getProperty("loadtest.rate-limit", "false"));
+		registry.add("spring.jpa.show-sql", () -> "false");
+		registry.add("logging.level.br.com.setebit.vendasml", () -> "WARN");
+	}
+
+	@AfterAll
+	static void stopSimulator() {
+		SIMULATOR.close();
+	}
+
+	@Test
+	void produtoEndpointsUnderLoad() throws Exception {
+		HttpResponse<String> token = send("POST", "/api/mercadolivre/token", "{\"code\":\"TG-load-test\"}");
+		assertEquals(200, token.statusCode(), token.body());
+
+		int concurrency = Integer.getInteger("loadtest.concurrency", 32);
+		long seed = Long.getLong("loadtest.seed", 7);
+		run(concurrency, seed, Duration.ofSeconds(Long.getLong("loadtest.warmup-seconds", 5)));
+		ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+		threads.resetPeakThreadCount();
+		double pinnedBefore = pinned();
+		long start = System.nanoTime();
+		List<Sample> samples = run(concurrency, seed + 1, Duration.ofSeconds(Long.getLong("loadtest.duration-seconds", 30)));
+		double elapsedSeconds = (System.nanoTime() - start) / 1e9;
+
+		Map<String, Object> report = report(samples, elapsedSeconds, concurrency);
+		report.put("virtual_threads", virtualThreads);
+		report.put("peak_platform_threads", threads.getPeakThreadCount());
+		report.put("pinned_per_second", (pinned() - pinnedBefore) / elapsedSeconds);
+		System.out.printf("Modo %s: pico de %d platform threads, %.2f pinning/s%n", virtualThreads ? "virtual" : "platform",
+			threads.getPeakThreadCount(), report.get("pinned_per_second"));
+		Path output = Path.of("target", "load-test", "report.json");
+		Files.createDirectories(output.getParent());
+		JSON.writeValue(output.toFile(), report);
+
+		long failures = samples.stream().filter(sample -> sample.status() < 0).count();
+		long successes = samples.stream().filter(sample -> sample.status() >= 200 && sample.status() < 300).count();
+		Map<String, Long> simulator = SIMULATOR.counters();
+		assertEquals(0, failures, "Requisições sem resposta da aplicação");
+		assertTrue(successes >= samples.size() * Double.parseDouble(System.getProperty("loadtest.min-success-ratio", "0.95")),
+			"Taxa de sucesso abaixo do mínimo: " + successes + " de " + samples.size());
+		assertEquals(0, simulator.getOrDefault("oauth invalid_grant", 0L), "Refresh token reutilizado após rotação");
+	}
+
+	/**
+	 * Cada worker repete o cenário até o prazo; a sequência de operações depende só da seed
+	 */
+	private List<Sample> run(int concurrency, long seed, Duration duration) throws Exception {
+		long deadline = System.nanoTime() + duration.toNanos();
+		try (ExecutorService workers = Executors.newVirtualThreadPerTaskExecutor()) {
+			List<Future<List<Sample>>> futures = IntStream.range(0, concurrency)
+				.mapToObj(worker -> workers.submit(() -> worker(new Random(seed * 1000 + worker), deadline)))
+				.toList();
+			List<Sample> samples = new ArrayList<>();
+			for (Future<List<Sample>> future : futures) {
+				samples.addAll(future.get());
+			}
+			return samples;
+		}
+	}
+
+	private List<Sample> worker(Random random, long deadline) {
+		String userId = SETTINGS.sellerId();
+		List<Sample> samples = new ArrayList<>();
+		while (System.nanoTime() < deadline) {
+			String itemId = MercadoLivreSimulator.itemId(random.nextInt(SETTINGS.itemCount()));
+			int operation = random.nextInt(100);
+			if (operation < 35) {
+				String maxStale = random.nextBoolean() ? "&maxStaleSeconds=0" : "";
+				samples.add(call("GET /produtos/{id}", "GET", "/api/produto/produtos/" + itemId + "?userId=" + userId + maxStale, null));
+			} else if (operation < 50) {
+				String ids = IntStream.range(0, 20)
+					.mapToObj(i -> MercadoLivreSimulator.itemId(random.nextInt(SETTINGS.itemCount())))
+					.collect(Collectors.joining(","));
+				samples.add(call("GET /produtos?ids", "GET", "/api/produto/produtos?userId=" + userId + "&ids=" + ids, null));
+			} else if (operation < 60) {
+				samples.add(call("GET /async/produtos/{id}", "GET",
+					"/api/produto/async/produtos/" + itemId + "?userId=" + userId + "&maxStaleSeconds=0", null));
+			} else if (operation < 70) {
+				samples.add(call("POST /produtos", "POST", "/api/produto/produtos?userId=" + userId, item(random)));
+			} else if (operation < 85) {
+				samples.add(call("PUT /produtos/{id}", "PUT", "/api/produto/produtos/" + itemId + "?userId=" + userId, item(random)));
+			} else {
+				String categoryId = "MLB" + random.nextInt(10) + random.nextInt(5);
+				samples.add(call("GET /categorias/{id}", "GET", "/api/categoria/categorias/" + categoryId, null));
+			}
+		}
+		return samples;
+	}
+
+	private Sample call(String endpoint, String method, String path, String body) {
+		long start = System.nanoTime();
+		try {
+			int status = send(method, path, body).statusCode();
+			return new Sample(endpoint, status, System.nanoTime() - start);
+		} catch (IOException | InterruptedException e) {
+			return new Sample(endpoint, -1, System.nanoTime() - start);
+		}
+	}
+
+	private HttpResponse<String> send(String method, String path, String body) throws IOException, InterruptedException {
+		HttpRequest.Builder request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + path))
+			.timeout(Duration.ofSeconds(30))
+			.header("Content-Type", "application/json")
+			.method(method, body == null ? HttpRequest.BodyPublishers.noBody() : HttpRequest.BodyPublishers.ofString(body));
+		return http.send(request.build(), HttpResponse.BodyHandlers.ofString());
+	}
+
+	private static String item(Random random) {
+		return """
+			{"title":"Produto de carga %d","category_id":"MLB1055","price":%d.90,"currency_id":"BRL",
+			 "available_quantity":%d,"buying_mode":"buy_it_now","condition":"new","listing_type_id":"gold_special",
+			 "description":{"plain_text":"Descrição do produto de teste de carga"},
+			 "pictures":[{"source":"https://http2.mlstatic.com/D_NQ_NP_1-MLB-O.jpg"}]}
+			""".formatted(random.nextInt(100_000), 10 + random.nextInt(500), 1 + random.nextInt(50));
+	}
+
+	private Map<String, Object> report(List<Sample> samples, double elapsedSeconds, int concurrency) {
+		Map<String, List<Sample>> byEndpoint = samples.stream()
+			.collect(Collectors.groupingBy(Sample::endpoint, TreeMap::new, Collectors.toList()));
+		byEndpoint.put("TOTAL", samples);
+
+		System.out.printf("%nTeste de carga: %d workers, %.1f s, simulador %s%n", concurrency, elapsedSeconds, SETTINGS);
+		System.out.printf("%-26s %8s %9s %7s %8s %8s %8s %8s%n", "endpoint", "reqs", "req/s", "erros", "p50 ms", "p90 ms", "p99 ms", "max ms");
+		Map<String, Object> endpoints = new LinkedHashMap<>();
+		byEndpoint.forEach((endpoint, list) -> {
+			long[] latencies = list.stream().mapToLong(Sample::nanos).sorted().toArray();
+			long errors = list.stream().filter(sample -> sample.status() < 200 || sample.status() >= 300).count();
+			Map<String, Object> stats = new LinkedHashMap<>();
+			stats.put("requests", list.size());
+			stats.put("throughput_per_second", list.size() / elapsedSeconds);
+			stats.put("errors", errors);
+			stats.put("status", list.stream().collect(Collectors.groupingBy(Sample::status, TreeMap::new, Collectors.counting())));
+			stats.put("p50_ms", percentile(latencies, 0.50));
+			stats.put("p90_ms", percentile(latencies, 0.90));
+			stats.put("p99_ms", percentile(latencies, 0.99));
+			stats.put("max_ms", percentile(latencies, 1.0));
+			endpoints.put(endpoint, stats);
+			System.out.printf("%-26s %8d %9.1f %7d %8.1f %8.1f %8.1f %8.1f%n", endpoint, list.size(), list.size() / elapsedSeconds,
+				errors, stats.get("p50_ms"), stats.get("p90_ms"), stats.get("p99_ms"), stats.get("max_ms"));
+		});
+		Map<String, Long> simulator = new TreeMap<>(SIMULATOR.counters());
+		System.out.println("Simulador: " + simulator);
+
+		Map<String, Object> report = new LinkedHashMap<>();
+		report.put("concurrency", concurrency);
+		report.put("duration_seconds", elapsedSeconds);
+		report.put("simulator_settings", SETTINGS);
+		report.put("endpoints", endpoints);
+		report.put("simulator_counters", simulator);
+		return report;
+	}
+
+	private double pinned() {
+		return meterRegistry.find("jvm.threads.virtual.pinned").counters().stream().mapToDouble(Counter::count).sum();
+	}
+
+	private static double percentile(long[] sorted, double percentile) {
+		if (sorted.length == 0) {
+			return 0;
+		}
+		int index = Math.min(sorted.length - 1, Math.max(0, (int) Math.ceil(percentile * sorted.length) - 1));
+		return sorted[index] / 1e6;
+	}
+
+	private static MercadoLivreSimulator startSimulator() {
+		try {
+			MercadoLivreSimulator simulator = new MercadoLivreSimulator(SETTINGS);
+			simulator.start();
+			return simulator;
+		} catch (IOException e) {
+			throw new IllegalStateException("Não foi possível iniciar o simulador do Mercado Livre", e);
+		}
+	}
+
+	private record Sample(String endpoint, int status, long nanos) {
+	}
+}
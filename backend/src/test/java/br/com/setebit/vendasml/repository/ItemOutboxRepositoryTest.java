@@ -0,0 +1,118 @@
+package br.com.setebit.vendasml.repository;
+
+import br.com.setebit.vendasml.entity.ItemOutboxEntity;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@DataJpaTest
+@ActiveProfiles("test")
+class ItemOutboxRepositoryTest {
+
+	private static final Set<ItemOutboxEntity.Status> UNFINISHED =
+		EnumSet.of(ItemOutboxEntity.Status.PENDING, ItemOutboxEntity.Status.IN_PROGRESS);
+
+	@Autowired
+	private ItemOutboxRepository repository;
+
+	@Autowired
+	private TestEntityManager entityManager;
+
+	@Test
+	void itemWaitingForRetryDoesNotHoldBackOtherItems() {
+		LocalDateTime now = LocalDateTime.now();
+		save("MLB1", ItemOutboxEntity.Status.PENDING, now.plusMinutes(5));
+		for (int i = 0; i < 100; i++) {
+			save("MLB1", ItemOutboxEntity.Status.PENDING, now.minusSeconds(1));
+		}
+		ItemOutboxEntity other = save("MLB2", ItemOutboxEntity.Status.PENDING, now.minusSeconds(1));
+
+		List<ItemOutboxEntity> due = repository.findDue(UNFINISHED, 1, 0, now, PageRequest.of(0, 10));
+
+		assertEquals(List.of(other.getId()), due.stream().map(ItemOutboxEntity::getId).toList());
+	}
+
+	@Test
+	void returnsOnlyTheOldestUnfinishedOperationOfEachItem() {
+		LocalDateTime now = LocalDateTime.now();
+		save("MLB1", ItemOutboxEntity.Status.SUCCEEDED, now.minusSeconds(1));
+		ItemOutboxEntity first = save("MLB1", ItemOutboxEntity.Status.PENDING, now.minusSeconds(1));
+		save("MLB1", ItemOutboxEntity.Status.PENDING, now.minusSeconds(1));
+		save("MLB2", ItemOutboxEntity.Status.IN_PROGRESS, now.minusSeconds(1));
+		save("MLB2", ItemOutboxEntity.Status.PENDING, now.minusSeconds(1));
+		ItemOutboxEntity third = save("MLB3", ItemOutboxEntity.Status.PENDING, now.minusSeconds(1));
+
+		List<ItemOutboxEntity> due = repository.findDue(UNFINISHED, 1, 0, now, PageRequest.of(0, 10));
+
+		assertEquals(List.of(first.getId(), third.getId()), due.stream().map(ItemOutboxEntity::getId).toList());
+	}
+
+	@Test
+	void filtersByPartition() {
+		LocalDateTime now = LocalDateTime.now();
+		ItemOutboxEntity even = save("MLB1", 2, ItemOutboxEntity.Status.PENDING, now.minusSeconds(1));
+		ItemOutboxEntity odd = save("MLB2", 3, ItemOutboxEntity.Status.PENDING, now.minusSeconds(1));
+
+		assertEquals(List.of(even.getId()), repository.findDue(UNFINISHED, 2, 0, now, PageRequest.of(0, 10))
+			.stream().map(ItemOutboxEntity::getId).toList());
+		assertEquals(List.of(odd.getId()), repository.findDue(UNFINISHED, 2, 1, now, PageRequest.of(0, 10))
+			.stream().map(ItemOutboxEntity::getId).toList());
+	}
+
+	@Test
+	void expiredCreateFailsWithUnknownOutcomeInsteadOfReturningToTheQueue() {
+		LocalDateTime now = LocalDateTime.now();
+		ItemOutboxEntity update = save("MLB1", ItemOutboxEntity.Status.IN_PROGRESS, now);
+		ItemOutboxEntity create = repository.save(ItemOutboxEntity.builder()
+			.operationId(UUID.randomUUID().toString())
+			.userId("123")
+			.operation(ItemOutboxEntity.Operation.CREATE)
+			.orderingKey("op-1")
+			.orderingHash(0)
+			.payload("{}")
+			.status(ItemOutboxEntity.Status.IN_PROGRESS)
+			.attempts(1)
+			.build());
+		LocalDateTime limit = now.plusMinutes(1);
+
+		assertEquals(1, repository.failExpiredCreates(limit, now, "resultado desconhecido"));
+		assertEquals(1, repository.releaseExpired(limit, now));
+		entityManager.clear();
+
+		ItemOutboxEntity failed = repository.findById(create.getId()).orElseThrow();
+		assertEquals(ItemOutboxEntity.Status.FAILED, failed.getStatus());
+		assertEquals("resultado desconhecido", failed.getError());
+		assertEquals(ItemOutboxEntity.Status.PENDING, repository.findById(update.getId()).orElseThrow().getStatus());
+	}
+
+	private ItemOutboxEntity save(String itemId, ItemOutboxEntity.Status status, LocalDateTime nextAttemptAt) {
+		return save(itemId, 0, status, nextAttemptAt);
+	}
+
+	private ItemOutboxEntity save(String itemId, int orderingHash, ItemOutboxEntity.Status status,
+								  LocalDateTime nextAttemptAt) {
+		return repository.save(ItemOutboxEntity.builder()
+			.operationId(UUID.randomUUID().toString())
+			.userId("123")
+			.operation(ItemOutboxEntity.Operation.UPDATE)
+			.itemId(itemId)
+			.orderingKey(itemId)
+			.orderingHash(orderingHash)
+			.payload("{}")
+			.status(status)
+			.attempts(0)
+			.nextAttemptAt(nextAttemptAt)
+			.build());
+	}
+}
@@ -0,0 +1,115 @@
+package br.com.setebit.vendasml.service;
+
+import br.com.setebit.vendasml.client.MercadoLivreCategoryClient;
+import br.com.setebit.vendasml.dto.CategoryResponse;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class CategoryCacheTest {
+
+	private static final String ID = "MLB5672";
+
+	private MercadoLivreCategoryClient categoryClient;
+	private CategoryCache cache;
+
+	@BeforeEach
+	void setUp() {
+		categoryClient = mock(MercadoLivreCategoryClient.class);
+		// TTL de 1 s (menor valor configurável) e max-stale longo: após 1 s a entrada só é revalidada
+		cache = new CategoryCache(categoryClient, new SimpleMeterRegistry(), 1, 3600, 100);
+		when(categoryClient.getCategory(eq(ID), isNull())).thenReturn(version("Acessórios", "\"v1\""));
+	}
+
+	@Test
+	void notModifiedRenewsTheEntryWithoutReplacingTheBody() throws Exception {
+		CategoryResponse first = cache.getCategory(ID);
+		when(categoryClient.getCategory(ID, "\"v1\"")).thenReturn(ResponseEntity.status(HttpStatus.NOT_MODIFIED).build());
+
+		expireTtl();
+		assertSame(first, cache.getCategory(ID));
+
+		verify(categoryClient, timeout(1000)).getCategory(ID, "\"v1\"");
+		awaitRefresh();
+		assertSame(first, cache.getCategory(ID));
+		// A entrada renovada volta a valer um TTL inteiro: nenhuma nova revalidação
+		verify(categoryClient, times(1)).getCategory(ID, "\"v1\"");
+		verify(categoryClient, times(1)).getCategory(eq(ID), isNull());
+	}
+
+	@Test
+	void notModifiedRaisedAsAnErrorAlsoRenewsTheEntry() throws Exception {
+		CategoryResponse first = cache.getCategory(ID);
+		when(categoryClient.getCategory(ID, "\"v1\"")).thenThrow(new ResponseStatusException(HttpStatus.NOT_MODIFIED));
+
+		expireTtl();
+		cache.getCategory(ID);
+
+		verify(categoryClient, timeout(1000)).getCategory(ID, "\"v1\"");
+		awaitRefresh();
+		assertSame(first, cache.getCategory(ID));
+	}
+
+	@Test
+	void staleEntryIsServedWhileRevalidating() throws Exception {
+		cache.getCategory(ID);
+		CountDownLatch revalidating = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		when(categoryClient.getCategory(ID, "\"v1\"")).thenAnswer(invocation -> {
+			revalidating.countDown();
+			release.await();
+			return version("Acessórios para Veículos", "\"v2\"");
+		});
+
+		expireTtl();
+		CategoryResponse stale = assertTimeoutPreemptively(Duration.ofMillis(500), () -> cache.getCategory(ID));
+
+		assertEquals("Acessórios", stale.getName());
+		assertTrue(revalidating.await(1, TimeUnit.SECONDS));
+		assertEquals("Acessórios", cache.getCategory(ID).getName());
+
+		release.countDown();
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(2);
+		while (!"Acessórios para Veículos".equals(cache.getCategory(ID).getName()) && System.nanoTime() < deadline) {
+			Thread.sleep(10);
+		}
+		assertEquals("Acessórios para Veículos", cache.getCategory(ID).getName());
+	}
+
+	private static void expireTtl() throws InterruptedException {
+		Thread.sleep(1100);
+	}
+
+	/**
+	 * A recarga roda fora da thread do teste; a entrada renovada aparece logo após a chamada ao cliente
+	 */
+	private static void awaitRefresh() throws InterruptedException {
+		Thread.sleep(100);
+	}
+
+	private static ResponseEntity<CategoryResponse> version(String name, String etag) {
+		CategoryResponse category = new CategoryResponse();
+		category.setId(ID);
+		category.setName(name);
+		return ResponseEntity.ok().eTag(etag).body(category);
+	}
+}
@@ -0,0 +1,75 @@
+package br.com.setebit.vendasml.service;
+
+import br.com.setebit.vendasml.dto.CategoryResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CategorySearchIndexTest {
+
+	@TempDir
+	Path tempDir;
+
+	private CategoryTreeSnapshot snapshot;
+	private CategorySearchIndex index;
+
+	@BeforeEach
+	void setUp() throws IOException {
+		CategoryResponse corrida = category("MLB23333", "Tênis de Corrida");
+		CategoryResponse tenis = category("MLB23332", "Tênis", corrida);
+		CategoryResponse calcados = category("MLB1276", "Calçados, Roupas e Bolsas", tenis);
+		CategoryResponse celulares = category("MLB1055", "Celulares e Smartphones");
+		CategoryResponse telefonia = category("MLB1051", "Celulares e Telefones", celulares);
+
+		Path file = tempDir.resolve("categorias-MLB.snapshot");
+		try (OutputStream output = Files.newOutputStream(file)) {
+			CategoryTreeSnapshot.write(output, "MLB", List.of(telefonia, calcados), Instant.now());
+		}
+		snapshot = CategoryTreeSnapshot.open(file);
+		index = CategorySearchIndex.build(snapshot);
+	}
+
+	@Test
+	void matchesPrefixesIgnoringAccents() {
+		List<String> ids = ids(index.search("tenis corr", 10));
+
+		assertEquals(List.of("MLB23333"), ids);
+	}
+
+	@Test
+	void ranksNameMatchesAboveInheritedPath() {
+		List<String> ids = ids(index.search("CELULAR", 10));
+
+		assertEquals(List.of("MLB1051", "MLB1055"), ids);
+		assertTrue(ids(index.search("calcados tenis", 10)).contains("MLB23333"));
+	}
+
+	@Test
+	void returnsNothingWhenAnyTermMisses() {
+		assertTrue(index.search("celular geladeira", 10).isEmpty());
+		assertTrue(index.search("  ", 10).isEmpty());
+	}
+
+	private List<String> ids(List<CategorySearchIndex.Hit> hits) {
+		return hits.stream().map(hit -> snapshot.id(hit.node())).toList();
+	}
+
+	private static CategoryResponse category(String id, String name, CategoryResponse... children) {
+		CategoryResponse category = new CategoryResponse();
+		category.setId(id);
+		category.setName(name);
+		category.setChildrenCategories(new ArrayList<>(List.of(children)));
+		return category;
+	}
+}
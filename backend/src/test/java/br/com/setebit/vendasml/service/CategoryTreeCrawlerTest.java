@@ -0,0 +1,90 @@
+package br.com.setebit.vendasml.service;
+
+import br.com.setebit.vendasml.client.MercadoLivreCategoryClient;
+import br.com.setebit.vendasml.config.MercadoLivreRateLimiter;
+import br.com.setebit.vendasml.dto.CategoryResponse;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class CategoryTreeCrawlerTest {
+
+	private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+	private final MercadoLivreCategoryClient categoryClient = mock(MercadoLivreCategoryClient.class);
+
+	@Test
+	void crawlFinishesWhenTheCategoriesBucketIsSmallerThanTheConcurrency() {
+		// 100/s com burst 5 e espera máxima de 50 ms: a maior parte das 16 chamadas simultâneas é rejeitada localmente
+		MercadoLivreRateLimiter rateLimiter = new MercadoLivreRateLimiter(meterRegistry, true, 50, 1000,
+			1000, 1000, 10, 20, 40, 80, 100, 5, 5, 10);
+		when(categoryClient.getCategories("MLB")).thenReturn(List.of(node("R1"), node("R2"), node("R3")));
+		when(categoryClient.getCategory(anyString())).thenAnswer(invocation -> {
+			rateLimiter.acquire(MercadoLivreRateLimiter.Family.CATEGORIES, null);
+			Thread.sleep(20);
+			return withChildren(invocation.getArgument(0));
+		});
+
+		List<CategoryResponse> roots = new CategoryTreeCrawler(categoryClient, 16, 1).crawl("MLB");
+
+		assertEquals(3 + 30 + 300, count(roots));
+		assertTrue(meterRegistry.counter("ml.ratelimit.decisions", "family", "categories", "outcome", "rejected").count() > 0);
+	}
+
+	@Test
+	void failingNodeAbortsTheCrawlAfterMaxAttempts() {
+		AtomicInteger calls = new AtomicInteger();
+		when(categoryClient.getCategories("MLB")).thenReturn(List.of(node("R1")));
+		when(categoryClient.getCategory("R1")).thenAnswer(invocation -> {
+			calls.incrementAndGet();
+			throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR);
+		});
+
+		ResponseStatusException error = assertThrows(ResponseStatusException.class,
+			() -> new CategoryTreeCrawler(categoryClient, 16, 1).crawl("MLB"));
+
+		assertEquals(HttpStatus.BAD_GATEWAY, error.getStatusCode());
+		assertEquals(3, calls.get());
+	}
+
+	/**
+	 * Árvore de três níveis: cada raiz e cada filho têm 10 filhos
+	 */
+	private static CategoryResponse withChildren(String id) {
+		CategoryResponse category = node(id);
+		List<CategoryResponse> children = new ArrayList<>();
+		if (id.chars().filter(c -> c == '.').count() < 2) {
+			for (int i = 0; i < 10; i++) {
+				children.add(node(id + "." + i));
+			}
+		}
+		category.setChildrenCategories(children);
+		return category;
+	}
+
+	private static CategoryResponse node(String id) {
+		CategoryResponse category = new CategoryResponse();
+		category.setId(id);
+		category.setName("Categoria " + id);
+		return category;
+	}
+
+	private static int count(List<CategoryResponse> categories) {
+		int total = 0;
+		for (CategoryResponse category : categories) {
+			total += 1 + (category.getChildrenCategories() == null ? 0 : count(category.getChildrenCategories()));
+		}
+		return total;
+	}
+}
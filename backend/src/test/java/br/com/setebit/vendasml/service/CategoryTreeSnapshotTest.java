@@ -0,0 +1,71 @@
+package br.com.setebit.vendasml.service;
+
+import br.com.setebit.vendasml.dto.CategoryResponse;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class CategoryTreeSnapshotTest {
+
+	@TempDir
+	Path tempDir;
+
+	@Test
+	void writesAndMapsTree() throws IOException {
+		CategoryResponse celulares = category("MLB1055", "Celulares e Smartphones");
+		CategoryResponse telefonia = category("MLB1051", "Celulares e Telefones", celulares);
+		CategoryResponse tenis = category("MLB23332", "Tênis");
+		CategoryResponse calcados = category("MLB1276", "Calçados, Roupas e Bolsas", tenis);
+		Instant crawledAt = Instant.parse("2026-01-10T12:00:00Z");
+
+		Path file = tempDir.resolve("categorias-MLB.snapshot");
+		try (OutputStream output = Files.newOutputStream(file)) {
+			CategoryTreeSnapshot.write(output, "MLB", List.of(telefonia, calcados), crawledAt);
+		}
+		CategoryTreeSnapshot snapshot = CategoryTreeSnapshot.open(file);
+
+		assertEquals("MLB", snapshot.siteId());
+		assertEquals(crawledAt, snapshot.crawledAt());
+		assertEquals(5, snapshot.size());
+		assertEquals(-1, snapshot.indexOf("MLB999"));
+
+		int tenisIndex = snapshot.indexOf("MLB23332");
+		assertEquals("Tênis", snapshot.name(tenisIndex));
+		assertEquals(List.of("MLB1276", "MLB23332"),
+			snapshot.path(tenisIndex).stream().map(snapshot::id).toList());
+
+		List<CategoryResponse> roots = snapshot.children(0, 1);
+		assertEquals(List.of("MLB1051", "MLB1276"), roots.stream().map(CategoryResponse::getId).toList());
+		assertNull(roots.get(0).getChildrenCategories());
+
+		CategoryResponse subtree = snapshot.toCategoryResponse(snapshot.indexOf("MLB1051"), 1);
+		assertEquals("MLB1055", subtree.getChildrenCategories().get(0).getId());
+	}
+
+	@Test
+	void rejectsInvalidFile() throws IOException {
+		Path file = tempDir.resolve("invalido.snapshot");
+		Files.write(file, new byte[64]);
+
+		assertThrows(IOException.class, () -> CategoryTreeSnapshot.open(file));
+	}
+
+	private static CategoryResponse category(String id, String name, CategoryResponse... children) {
+		CategoryResponse category = new CategoryResponse();
+		category.setId(id);
+		category.setName(name);
+		category.setChildrenCategories(new ArrayList<>(List.of(children)));
+		return category;
+	}
+}
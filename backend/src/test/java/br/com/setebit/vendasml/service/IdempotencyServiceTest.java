@@ -0,0 +1,176 @@
+package br.com.setebit.vendasml.service;
+
+import br.com.setebit.vendasml.dto.ItemRequest;
+import br.com.setebit.vendasml.dto.ItemResponse;
+import br.com.setebit.vendasml.repository.IdempotencyKeyRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class IdempotencyServiceTest {
+
+	@Autowired
+	private IdempotencyKeyRepository repository;
+
+	private IdempotencyService service;
+	private final AtomicInteger created = new AtomicInteger();
+
+	@BeforeEach
+	void setUp() {
+		service = new IdempotencyService(repository, new ObjectMapper(), new SimpleMeterRegistry(), 24, 5000, 120);
+	}
+
+	/**
+	 * Metade das duplicatas em outra instância do serviço (outro processo): espera pelo banco, não pela memória
+	 */
+	@Test
+	void concurrentDuplicatesCreateTheItemOnce() throws Exception {
+		String key = UUID.randomUUID().toString();
+		IdempotencyService otherProcess = new IdempotencyService(repository, new ObjectMapper(), new SimpleMeterRegistry(),
+			24, 5000, 120);
+		ExecutorService executor = Executors.newFixedThreadPool(8);
+		CountDownLatch start = new CountDownLatch(1);
+		try {
+			List<Future<IdempotencyService.Result>> futures = new ArrayList<>();
+			for (int i = 0; i < 8; i++) {
+				IdempotencyService instance = i % 2 == 0 ? service : otherProcess;
+				futures.add(executor.submit(() -> {
+					start.await();
+					return instance.createOnce("1", key, item("Camiseta"), () -> "Bearer token", authorization -> {
+						sleep(200);
+						return create();
+					});
+				}));
+			}
+			start.countDown();
+
+			int executed = 0;
+			for (Future<IdempotencyService.Result> future : futures) {
+				IdempotencyService.Result result = future.get();
+				assertEquals("MLB1", result.item().getId());
+				if (!result.replayed()) {
+					executed++;
+				}
+			}
+			assertEquals(1, executed);
+			assertEquals(1, created.get());
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	@Test
+	void completedKeyIsReplayedWithoutCallingMercadoLivre() {
+		String key = UUID.randomUUID().toString();
+		service.createOnce("1", key, item("Camiseta"), () -> "Bearer token", authorization -> create());
+
+		IdempotencyService.Result replay = service.createOnce("1", key, item("Camiseta"), () -> "Bearer token",
+			authorization -> create());
+
+		assertTrue(replay.replayed());
+		assertEquals("MLB1", replay.item().getId());
+		assertEquals(1, created.get());
+	}
+
+	@Test
+	void sameKeyWithAnotherBodyIsRejected() {
+		String key = UUID.randomUUID().toString();
+		service.createOnce("1", key, item("Camiseta"), () -> "Bearer token", authorization -> create());
+
+		ResponseStatusException error = assertThrows(ResponseStatusException.class, () ->
+			service.createOnce("1", key, item("Calça"), () -> "Bearer token", authorization -> create()));
+
+		assertEquals(HttpStatus.UNPROCESSABLE_ENTITY, error.getStatusCode());
+	}
+
+	@Test
+	void failureBeforeSendingReleasesTheKey() {
+		String key = UUID.randomUUID().toString();
+		assertThrows(ResponseStatusException.class, () -> service.createOnce("1", key, item("Camiseta"), () -> {
+			throw new ResponseStatusException(HttpStatus.GATEWAY_TIMEOUT, "Refresh do token em andamento");
+		}, authorization -> create()));
+
+		IdempotencyService.Result retry = service.createOnce("1", key, item("Camiseta"), () -> "Bearer token",
+			authorization -> create());
+
+		assertFalse(retry.replayed());
+		assertEquals(1, created.get());
+	}
+
+	@Test
+	void unavailableResponseReleasesTheKey() {
+		String key = UUID.randomUUID().toString();
+		assertThrows(ResponseStatusException.class, () -> service.createOnce("1", key, item("Camiseta"),
+			() -> "Bearer token", authorization -> {
+				throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE);
+			}));
+
+		assertFalse(service.createOnce("1", key, item("Camiseta"), () -> "Bearer token", authorization -> create())
+			.replayed());
+	}
+
+	@Test
+	void ambiguousFailureIsReplayed() {
+		String key = UUID.randomUUID().toString();
+		assertThrows(ResponseStatusException.class, () -> service.createOnce("1", key, item("Camiseta"),
+			() -> "Bearer token", authorization -> {
+				throw new ResponseStatusException(HttpStatus.BAD_GATEWAY, "Conexão encerrada");
+			}));
+
+		ResponseStatusException replayed = assertThrows(ResponseStatusException.class, () ->
+			service.createOnce("1", key, item("Camiseta"), () -> "Bearer token", authorization -> create()));
+
+		assertEquals(HttpStatus.BAD_GATEWAY, replayed.getStatusCode());
+		assertEquals(0, created.get());
+	}
+
+	private ItemResponse create() {
+		created.incrementAndGet();
+		ItemResponse item = new ItemResponse();
+		item.setId("MLB1");
+		return item;
+	}
+
+	private static ItemRequest item(String title) {
+		return ItemRequest.builder()
+			.title(title)
+			.category_id("MLB1055")
+			.price(10.0)
+			.currency_id("BRL")
+			.available_quantity(1)
+			.build();
+	}
+
+	private static void sleep(long millis) {
+		try {
+			Thread.sleep(millis);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+}
@@ -0,0 +1,109 @@
+package br.com.setebit.vendasml.service;
+
+import br.com.setebit.vendasml.dto.ItemResponse;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class ItemCacheTest {
+
+	private ItemCache cache;
+	private final AtomicInteger loads = new AtomicInteger();
+
+	@BeforeEach
+	void setUp() {
+		cache = new ItemCache(new SimpleMeterRegistry(), 30, 100);
+	}
+
+	@Test
+	void writeReplacesTheCachedItem() {
+		cache.get("42", "MLB1", null, loader("v1"));
+		ItemResponse written = item("v2");
+
+		cache.put("42", written);
+
+		assertSame(written, cache.get("42", "MLB1", null, loader("v3")));
+		assertEquals(1, loads.get());
+	}
+
+	@Test
+	void deleteMakesTheNextReadLoadAgain() {
+		cache.get("42", "MLB1", null, loader("v1"));
+
+		cache.evict("42", "MLB1");
+
+		assertEquals("v2", cache.get("42", "MLB1", null, loader("v2")).getTitle());
+		assertEquals(2, loads.get());
+	}
+
+	@Test
+	void readStartedBeforeAWriteDoesNotOverwriteIt() {
+		ItemResponse written = item("escrito");
+
+		// A escrita termina enquanto a leitura (iniciada antes) ainda está em andamento
+		cache.get("42", "MLB1", null, () -> {
+			cache.put("42", written);
+			return item("lido antes");
+		});
+
+		assertSame(written, cache.get("42", "MLB1", null, loader("v3")));
+	}
+
+	@Test
+	void readStartedBeforeADeleteDoesNotRepopulateTheEntry() {
+		cache.get("42", "MLB1", null, () -> {
+			cache.evict("42", "MLB1");
+			return item("lido antes");
+		});
+
+		assertEquals("v2", cache.get("42", "MLB1", null, loader("v2")).getTitle());
+	}
+
+	@Test
+	void maxStaleLimitsTheAgeOfACachedItem() throws InterruptedException {
+		cache.get("42", "MLB1", null, loader("v1"));
+		Thread.sleep(50);
+
+		assertEquals("v1", cache.get("42", "MLB1", Duration.ofSeconds(10), loader("v2")).getTitle());
+		assertEquals("v3", cache.get("42", "MLB1", Duration.ofMillis(20), loader("v3")).getTitle());
+		assertEquals("v4", cache.get("42", "MLB1", Duration.ZERO, loader("v4")).getTitle());
+		assertEquals(3, loads.get());
+	}
+
+	@Test
+	void maxStaleAboveTheTtlIsCappedByIt() throws InterruptedException {
+		ItemCache shortTtl = new ItemCache(new SimpleMeterRegistry(), 1, 100);
+		shortTtl.get("42", "MLB1", null, loader("v1"));
+		Thread.sleep(1100);
+
+		assertEquals("v2", shortTtl.get("42", "MLB1", Duration.ofHours(1), loader("v2")).getTitle());
+	}
+
+	@Test
+	void itemsAreNotSharedBetweenUsers() {
+		cache.get("42", "MLB1", null, loader("do vendedor 42"));
+
+		assertEquals("do vendedor 43", cache.get("43", "MLB1", null, loader("do vendedor 43")).getTitle());
+	}
+
+	private Supplier<ItemResponse> loader(String title) {
+		return () -> {
+			loads.incrementAndGet();
+			return item(title);
+		};
+	}
+
+	private static ItemResponse item(String title) {
+		ItemResponse item = new ItemResponse();
+		item.setId("MLB1");
+		item.setTitle(title);
+		return item;
+	}
+}
@@ -0,0 +1,238 @@
+package br.com.setebit.vendasml.service;
+
+import br.com.setebit.vendasml.client.MercadoLivreItemClient;
+import br.com.setebit.vendasml.dto.ItemMirrorSyncStatus;
+import br.com.setebit.vendasml.dto.ItemMultiGetResponse;
+import br.com.setebit.vendasml.dto.ItemResponse;
+import br.com.setebit.vendasml.dto.ItemSearchResponse;
+import br.com.setebit.vendasml.entity.ItemMirrorEntity;
+import br.com.setebit.vendasml.repository.ItemMirrorRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.security.MessageDigest;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ItemMirrorServiceTest {
+
+	private static final String USER = "42";
+	private static final String SEEN = "2024-05-01T10:00:00.000Z";
+	private static final String CHANGED = "2024-05-02T08:30:00.000Z";
+
+	@Autowired
+	private ItemMirrorRepository repository;
+
+	private final ObjectMapper objectMapper = new ObjectMapper();
+	private MercadoLivreItemClient itemClient;
+	private ExecutorService executor;
+	private ItemMirrorService service;
+	private LocalDateTime previousSync;
+
+	@BeforeEach
+	void setUp() {
+		repository.deleteAll();
+		MercadoLivreService mercadoLivreService = mock(MercadoLivreService.class);
+		when(mercadoLivreService.getValidAccessToken(USER)).thenReturn("token");
+		itemClient = mock(MercadoLivreItemClient.class);
+		executor = Executors.newCachedThreadPool();
+		service = new ItemMirrorService(repository, itemClient, mercadoLivreService, executor, objectMapper,
+			new SimpleMeterRegistry(), 2, 100);
+		previousSync = LocalDateTime.now().minusDays(1).withNano(0);
+	}
+
+	@AfterEach
+	void tearDown() {
+		executor.shutdownNow();
+		repository.deleteAll();
+	}
+
+	@Test
+	void unchangedLastUpdatedIsOnlyMarkedSynced() {
+		save("MLB1", "Caneca", SEEN, "hash-local");
+		scan(1L, "MLB1");
+		attributes(item("MLB1", "Caneca", SEEN));
+
+		ItemMirrorSyncStatus status = service.syncNow(USER);
+
+		assertEquals(ItemMirrorSyncStatus.Status.COMPLETED, status.getStatus());
+		assertEquals(1, status.getUnchanged());
+		assertEquals(0, status.getFetched());
+		verify(itemClient, never()).getItems(anyString(), anyString());
+		ItemMirrorEntity entity = find("MLB1");
+		assertEquals("hash-local", entity.getContentHash());
+		assertTrue(entity.getSyncedAt().isAfter(previousSync));
+	}
+
+	@Test
+	void changedLastUpdatedIsFetchedAgain() {
+		save("MLB1", "Caneca", SEEN, "hash-local");
+		scan(1L, "MLB1");
+		attributes(item("MLB1", null, CHANGED));
+		when(itemClient.getItems(anyString(), eq("MLB1"))).thenReturn(List.of(ok(item("MLB1", "Caneca azul", CHANGED))));
+
+		ItemMirrorSyncStatus status = service.syncNow(USER);
+
+		assertEquals(1, status.getFetched());
+		assertEquals(1, status.getUpdated());
+		ItemMirrorEntity entity = find("MLB1");
+		assertEquals("Caneca azul", entity.getTitle());
+		assertEquals(ItemMirrorService.parseLastUpdated(CHANGED), entity.getLastUpdated());
+	}
+
+	@Test
+	void fetchedItemWithTheSameContentHashIsNotRewritten() throws Exception {
+		ItemResponse current = item("MLB1", "Caneca", CHANGED);
+		// last_updated local diferente força a releitura; o conteúdo lido é igual ao gravado
+		ItemMirrorEntity saved = save("MLB1", "Caneca", SEEN, hash(current));
+		scan(1L, "MLB1");
+		attributes(item("MLB1", null, CHANGED));
+		when(itemClient.getItems(anyString(), eq("MLB1"))).thenReturn(List.of(ok(current)));
+
+		ItemMirrorSyncStatus status = service.syncNow(USER);
+
+		assertEquals(1, status.getFetched());
+		assertEquals(0, status.getUpdated());
+		assertEquals(1, status.getUnchanged());
+		ItemMirrorEntity entity = find("MLB1");
+		assertEquals(saved.getUpdatedAt(), entity.getUpdatedAt());
+		assertEquals(ItemMirrorService.parseLastUpdated(SEEN), entity.getLastUpdated());
+		assertTrue(entity.getSyncedAt().isAfter(previousSync));
+	}
+
+	@Test
+	void completeScanWithoutFailuresRemovesItemsNoLongerListed() {
+		save("MLB1", "Caneca", SEEN, "hash-local");
+		save("MLB9", "Removido", SEEN, "hash-local");
+		scan(1L, "MLB1");
+		attributes(item("MLB1", null, SEEN));
+
+		ItemMirrorSyncStatus status = service.syncNow(USER);
+
+		assertEquals(ItemMirrorSyncStatus.Status.COMPLETED, status.getStatus());
+		assertEquals(1, status.getRemoved());
+		assertTrue(repository.findByUserIdAndItemId(USER, "MLB1").isPresent());
+		assertFalse(repository.findByUserIdAndItemId(USER, "MLB9").isPresent());
+	}
+
+	@Test
+	void scanWithFailuresKeepsItemsNoLongerListed() {
+		save("MLB9", "Removido", SEEN, "hash-local");
+		scan(1L, "MLB1");
+		when(itemClient.getItems(anyString(), eq("MLB1")))
+			.thenReturn(List.of(new ItemMultiGetResponse(500, null)));
+
+		ItemMirrorSyncStatus status = service.syncNow(USER);
+
+		assertEquals(ItemMirrorSyncStatus.Status.PARTIAL, status.getStatus());
+		assertEquals(1, status.getFailed());
+		assertTrue(repository.findByUserIdAndItemId(USER, "MLB9").isPresent());
+	}
+
+	@Test
+	void incompleteScanKeepsItemsNoLongerListed() {
+		save("MLB9", "Removido", SEEN, "hash-local");
+		// O Mercado Livre informa 2 produtos, mas a varredura termina com 1
+		scan(2L, "MLB1");
+		when(itemClient.getItems(anyString(), eq("MLB1"))).thenReturn(List.of(ok(item("MLB1", "Caneca", SEEN))));
+
+		ItemMirrorSyncStatus status = service.syncNow(USER);
+
+		assertEquals(ItemMirrorSyncStatus.Status.PARTIAL, status.getStatus());
+		assertEquals(0, status.getRemoved());
+		assertTrue(repository.findByUserIdAndItemId(USER, "MLB9").isPresent());
+	}
+
+	@Test
+	void itemDeletedBetweenScanAndReadIsRemoved() {
+		save("MLB2", "Excluído", SEEN, "hash-local");
+		scan(2L, "MLB1", "MLB2");
+		attributes(new ItemMultiGetResponse(404, null));
+		when(itemClient.getItems(anyString(), eq("MLB1,MLB2")))
+			.thenReturn(List.of(ok(item("MLB1", "Caneca", SEEN)), new ItemMultiGetResponse(404, null)));
+
+		ItemMirrorSyncStatus status = service.syncNow(USER);
+
+		assertEquals(ItemMirrorSyncStatus.Status.COMPLETED, status.getStatus());
+		assertEquals(0, status.getFailed());
+		assertEquals(1, status.getRemoved());
+		assertTrue(repository.findByUserIdAndItemId(USER, "MLB1").isPresent());
+		assertFalse(repository.findByUserIdAndItemId(USER, "MLB2").isPresent());
+	}
+
+	private void scan(Long total, String... ids) {
+		ItemSearchResponse page = new ItemSearchResponse();
+		page.setResults(List.of(ids));
+		ItemSearchResponse.Paging paging = new ItemSearchResponse.Paging();
+		paging.setTotal(total);
+		page.setPaging(paging);
+		when(itemClient.scanItems(anyString(), eq(USER), isNull(), anyInt())).thenReturn(page);
+	}
+
+	private void attributes(ItemMultiGetResponse... responses) {
+		when(itemClient.getItemsAttributes(anyString(), anyString(), any())).thenReturn(List.of(responses));
+	}
+
+	private void attributes(ItemResponse item) {
+		attributes(ok(item));
+	}
+
+	private ItemMirrorEntity save(String itemId, String title, String lastUpdated, String contentHash) {
+		repository.saveAndFlush(ItemMirrorEntity.builder()
+			.userId(USER)
+			.itemId(itemId)
+			.title(title)
+			.lastUpdated(ItemMirrorService.parseLastUpdated(lastUpdated))
+			.contentHash(contentHash)
+			.syncedAt(previousSync)
+			.build());
+		return find(itemId);
+	}
+
+	private ItemMirrorEntity find(String itemId) {
+		return repository.findByUserIdAndItemId(USER, itemId).orElseThrow();
+	}
+
+	private String hash(ItemResponse item) throws Exception {
+		return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(objectMapper.writeValueAsBytes(item)));
+	}
+
+	private static ItemResponse item(String id, String title, String lastUpdated) {
+		ItemResponse item = new ItemResponse();
+		item.setId(id);
+		item.setTitle(title);
+		item.setLastUpdated(lastUpdated);
+		return item;
+	}
+
+	private static ItemMultiGetResponse ok(ItemResponse item) {
+		return new ItemMultiGetResponse(200, item);
+	}
+}
@@ -0,0 +1,57 @@
+package br.com.setebit.vendasml.service;
+
+import br.com.setebit.vendasml.dto.ItemMultiGetResponse;
+import br.com.setebit.vendasml.dto.ItemResponse;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class ItemMultiGetBatcherTest {
+
+	@Test
+	void keepsTheStatusOfErrorEntriesMatchedByPosition() {
+		List<ItemMultiGetResponse> matched = ItemMultiGetBatcher.match(List.of("MLB1", "MLB2", "MLB3"), List.of(
+			new ItemMultiGetResponse(200, item("MLB1")),
+			new ItemMultiGetResponse(403, null),
+			new ItemMultiGetResponse(500, new ItemResponse())));
+
+		assertEquals(List.of(200, 403, 500), codes(matched));
+		assertEquals("MLB1", matched.get(0).getBody().getId());
+	}
+
+	@Test
+	void matchesEntriesWithBodyIdOutOfOrder() {
+		List<ItemMultiGetResponse> matched = ItemMultiGetBatcher.match(List.of("MLB1", "MLB2"), List.of(
+			new ItemMultiGetResponse(200, item("MLB2")),
+			new ItemMultiGetResponse(200, item("MLB1"))));
+
+		assertEquals("MLB1", matched.get(0).getBody().getId());
+		assertEquals("MLB2", matched.get(1).getBody().getId());
+	}
+
+	@Test
+	void missingEntryIsNotFoundOnlyWhenEveryEntryWasMatched() {
+		List<ItemMultiGetResponse> notFound = ItemMultiGetBatcher.match(List.of("MLB1", "MLB2"), List.of(
+			new ItemMultiGetResponse(200, item("MLB1"))));
+		List<ItemMultiGetResponse> unknown = ItemMultiGetBatcher.match(List.of("MLB1", "MLB2", "MLB3"), List.of(
+			new ItemMultiGetResponse(200, item("MLB1")),
+			new ItemMultiGetResponse(403, null)));
+
+		assertEquals(List.of(200, 404), codes(notFound));
+		assertEquals(List.of(200, 502, 502), codes(unknown));
+		assertNull(unknown.get(1).getBody());
+	}
+
+	private static List<Integer> codes(List<ItemMultiGetResponse> responses) {
+		return responses.stream().map(ItemMultiGetResponse::getCode).toList();
+	}
+
+	private static ItemResponse item(String id) {
+		ItemResponse item = new ItemResponse();
+		item.setId(id);
+		return item;
+	}
+}
@@ -0,0 +1,130 @@
+package br.com.setebit.vendasml.service;
+
+import br.com.setebit.vendasml.dto.ItemRequest;
+import br.com.setebit.vendasml.dto.ItemResponse;
+import br.com.setebit.vendasml.entity.ItemOutboxEntity;
+import br.com.setebit.vendasml.repository.ItemOutboxRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ItemOutboxDispatcherTest {
+
+	@Autowired
+	private ItemOutboxRepository repository;
+
+	private MercadoLivreService mercadoLivreService;
+	private ExecutorService executor;
+	private ItemOutboxDispatcher dispatcher;
+
+	@BeforeEach
+	void setUp() {
+		repository.deleteAll();
+		mercadoLivreService = mock(MercadoLivreService.class);
+		when(mercadoLivreService.updateProduct(any(), any(), any())).thenReturn(new ItemResponse());
+		executor = Executors.newFixedThreadPool(2);
+		dispatcher = new ItemOutboxDispatcher(repository, mercadoLivreService, new ObjectMapper(), executor,
+			new SimpleMeterRegistry(), true, 1, 100, 50, 3, 300, 300, 300, 72);
+	}
+
+	@AfterEach
+	void tearDown() {
+		dispatcher.stop();
+		executor.shutdownNow();
+		repository.deleteAll();
+	}
+
+	@Test
+	void operationsOfAnItemRunInOrderAndWaitForTheRetry() throws Exception {
+		when(mercadoLivreService.updateProduct(any(), eq("MLB1"), title("v1")))
+			.thenThrow(new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE))
+			.thenReturn(new ItemResponse());
+		ItemOutboxEntity first = save("MLB1", "v1");
+		ItemOutboxEntity second = save("MLB1", "v2");
+		ItemOutboxEntity other = save("MLB2", "outro");
+
+		dispatcher.start();
+
+		awaitStatus(second, ItemOutboxEntity.Status.SUCCEEDED);
+		assertEquals(ItemOutboxEntity.Status.SUCCEEDED, status(other));
+		InOrder order = inOrder(mercadoLivreService);
+		order.verify(mercadoLivreService).updateProduct(any(), eq("MLB1"), title("v1"));
+		order.verify(mercadoLivreService).updateProduct(any(), eq("MLB2"), any());
+		order.verify(mercadoLivreService).updateProduct(any(), eq("MLB1"), title("v1"));
+		order.verify(mercadoLivreService).updateProduct(any(), eq("MLB1"), title("v2"));
+		assertEquals(2, repository.findById(first.getId()).orElseThrow().getAttempts());
+	}
+
+	@Test
+	void nonRetryableFailureFinishesTheOperationAndReleasesTheNextOne() throws Exception {
+		when(mercadoLivreService.updateProduct(any(), eq("MLB1"), title("v1")))
+			.thenThrow(new ResponseStatusException(HttpStatus.BAD_REQUEST, "Título inválido"));
+		ItemOutboxEntity first = save("MLB1", "v1");
+		ItemOutboxEntity second = save("MLB1", "v2");
+
+		dispatcher.start();
+
+		awaitStatus(second, ItemOutboxEntity.Status.SUCCEEDED);
+		ItemOutboxEntity failed = repository.findById(first.getId()).orElseThrow();
+		assertEquals(ItemOutboxEntity.Status.FAILED, failed.getStatus());
+		assertEquals(HttpStatus.BAD_REQUEST.value(), failed.getHttpStatus());
+		assertEquals(1, failed.getAttempts());
+	}
+
+	private ItemRequest title(String title) {
+		return argThat(request -> request != null && title.equals(request.getTitle()));
+	}
+
+	private void awaitStatus(ItemOutboxEntity entry, ItemOutboxEntity.Status expected) throws InterruptedException {
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+		while (status(entry) != expected) {
+			assertTrue(System.nanoTime() < deadline, "operação " + entry.getId() + " não chegou a " + expected);
+			Thread.sleep(20);
+		}
+	}
+
+	private ItemOutboxEntity.Status status(ItemOutboxEntity entry) {
+		return repository.findById(entry.getId()).orElseThrow().getStatus();
+	}
+
+	private ItemOutboxEntity save(String itemId, String title) {
+		return repository.save(ItemOutboxEntity.builder()
+			.operationId(UUID.randomUUID().toString())
+			.userId("123")
+			.operation(ItemOutboxEntity.Operation.UPDATE)
+			.itemId(itemId)
+			.orderingKey(itemId)
+			.orderingHash(itemId.hashCode())
+			.payload("{\"title\":\"" + title + "\"}")
+			.status(ItemOutboxEntity.Status.PENDING)
+			.attempts(0)
+			.build());
+	}
+}
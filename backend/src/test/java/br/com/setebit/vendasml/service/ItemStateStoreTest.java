@@ -0,0 +1,161 @@
+package br.com.setebit.vendasml.service;
+
+import br.com.setebit.vendasml.dto.ItemRequest;
+import br.com.setebit.vendasml.dto.ItemResponse;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ItemStateStoreTest {
+
+	private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+	private final ItemStateStore store = new ItemStateStore(new ObjectMapper(), meterRegistry, true, 1000, 60, 16);
+
+	@Test
+	void sendsFullItemWithoutKnownState() {
+		ItemStateStore.Diff diff = store.diff("1", "MLB1", item("Camiseta", 10.0, 5), ItemStateStoreTest::noRead);
+
+		assertTrue(diff.isFull());
+		assertFalse(diff.isEmpty());
+		assertEquals(1.0, meterRegistry.counter("ml.items.update.diff", "result", "full").count());
+	}
+
+	@Test
+	void skipsUpdateWithoutChanges() {
+		store.remember("1", accepted("2024-05-01T10:00:00.000Z"), item("Camiseta", 10.0, 5));
+		ItemResponse current = accepted("2024-05-01T10:00:00.000Z");
+
+		ItemStateStore.Diff diff = store.diff("1", "MLB1", item("Camiseta", 10.0, 5), () -> current);
+
+		assertTrue(diff.isEmpty());
+		assertSame(current, diff.current());
+		assertEquals(1.0, meterRegistry.counter("ml.items.update.diff", "result", "skipped").count());
+	}
+
+	@Test
+	void sendsOnlyChangedFields() {
+		store.remember("1", accepted("2024-05-01T10:00:00.000Z"), item("Camiseta", 10.0, 5));
+
+		ItemStateStore.Diff diff = store.diff("1", "MLB1", item("Camiseta", 12.5, 3),
+			() -> accepted("2024-05-01T10:00:00.000Z"));
+
+		assertFalse(diff.isFull());
+		assertEquals(Set.of("price", "available_quantity"), diff.changes().keySet());
+		assertEquals(12.5, ((JsonNode) diff.changes().get("price")).doubleValue());
+		assertEquals(3, ((JsonNode) diff.changes().get("available_quantity")).intValue());
+	}
+
+	@Test
+	void revertingToPreviousValueIsSentAfterRemember() {
+		store.remember("1", accepted("2024-05-01T10:00:00.000Z"), item("Camiseta", 10.0, 5));
+		ItemStateStore.Diff toB = store.diff("1", "MLB1", item("Camiseta", 12.0, 5),
+			() -> accepted("2024-05-01T10:00:00.000Z"));
+		store.remember(toB, accepted("2024-05-01T10:05:00.000Z"));
+
+		ItemStateStore.Diff backToA = store.diff("1", "MLB1", item("Camiseta", 10.0, 5),
+			() -> accepted("2024-05-01T10:05:00.000Z"));
+
+		assertEquals(List.of("price"), List.copyOf(backToA.changes().keySet()));
+	}
+
+	@Test
+	void writeOutsideThisProcessFallsBackToFullItem() {
+		// Outra instância mudou o preço para 12 depois da última escrita conhecida; voltar para 10 não pode ser ignorado
+		store.remember("1", accepted("2024-05-01T10:00:00.000Z"), item("Camiseta", 10.0, 5));
+
+		ItemStateStore.Diff diff = store.diff("1", "MLB1", item("Camiseta", 10.0, 5),
+			() -> accepted("2024-05-01T10:07:00.000Z"));
+
+		assertTrue(diff.isFull());
+		assertEquals(1.0, meterRegistry.counter("ml.items.update.diff", "result", "stale").count());
+		assertTrue(store.diff("1", "MLB1", item("Camiseta", 10.0, 5), ItemStateStoreTest::noRead).isFull());
+	}
+
+	@Test
+	void itemWithoutLastUpdatedIsNotTrusted() {
+		store.remember("1", accepted(null), item("Camiseta", 10.0, 5));
+
+		assertTrue(store.diff("1", "MLB1", item("Camiseta", 10.0, 5), () -> accepted(null)).isFull());
+	}
+
+	@Test
+	void forgetFallsBackToFullItem() {
+		store.remember("1", accepted("2024-05-01T10:00:00.000Z"), item("Camiseta", 10.0, 5));
+		store.forget("1", "MLB1");
+
+		assertTrue(store.diff("1", "MLB1", item("Camiseta", 10.0, 5), ItemStateStoreTest::noRead).isFull());
+	}
+
+	@Test
+	void serializesWritesOfTheSameItem() throws Exception {
+		ExecutorService executor = Executors.newFixedThreadPool(8);
+		AtomicInteger inside = new AtomicInteger();
+		AtomicInteger maxInside = new AtomicInteger();
+		CountDownLatch start = new CountDownLatch(1);
+		try {
+			List<Future<?>> futures = new ArrayList<>();
+			for (int i = 0; i < 8; i++) {
+				futures.add(executor.submit(() -> {
+					start.await();
+					return store.locked("1", "MLB1", () -> {
+						maxInside.accumulateAndGet(inside.incrementAndGet(), Math::max);
+						try {
+							Thread.sleep(5);
+						} catch (InterruptedException e) {
+							Thread.currentThread().interrupt();
+						}
+						inside.decrementAndGet();
+						return null;
+					});
+				}));
+			}
+			start.countDown();
+			for (Future<?> future : futures) {
+				future.get();
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+
+		assertEquals(1, maxInside.get());
+	}
+
+	private static ItemResponse accepted(String lastUpdated) {
+		ItemResponse item = new ItemResponse();
+		item.setId("MLB1");
+		item.setLastUpdated(lastUpdated);
+		return item;
+	}
+
+	private static ItemResponse noRead() {
+		throw new AssertionError("sem estado conhecido o produto não deve ser lido");
+	}
+
+	private static ItemRequest item(String title, double price, int quantity) {
+		return ItemRequest.builder()
+			.title(title)
+			.category_id("MLB1055")
+			.price(price)
+			.currency_id("BRL")
+			.available_quantity(quantity)
+			.buying_mode("buy_it_now")
+			.condition("new")
+			.listing_type_id("gold_special")
+			.build();
+	}
+}
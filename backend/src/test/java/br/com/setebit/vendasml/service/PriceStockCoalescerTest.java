@@ -0,0 +1,171 @@
+package br.com.setebit.vendasml.service;
+
+import br.com.setebit.vendasml.client.MercadoLivreItemClient;
+import br.com.setebit.vendasml.config.RateLimitExceededException;
+import br.com.setebit.vendasml.dto.ItemResponse;
+import br.com.setebit.vendasml.dto.PriceStockAccepted;
+import br.com.setebit.vendasml.dto.PriceStockUpdate;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.after;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class PriceStockCoalescerTest {
+
+	private static final long WINDOW_MS = 100;
+
+	private MercadoLivreItemClient itemClient;
+	private ExecutorService executor;
+	private PriceStockCoalescer coalescer;
+
+	@BeforeEach
+	void setUp() {
+		SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+		MercadoLivreService mercadoLivreService = mock(MercadoLivreService.class);
+		when(mercadoLivreService.getValidAccessToken("42")).thenReturn("token");
+		itemClient = mock(MercadoLivreItemClient.class);
+		when(itemClient.updateItemFields(anyString(), anyString(), anyMap())).thenReturn(new ItemResponse());
+		executor = Executors.newFixedThreadPool(4);
+		coalescer = new PriceStockCoalescer(mercadoLivreService, itemClient, new ItemCache(meterRegistry, 30, 100),
+			new ItemStateStore(new ObjectMapper(), meterRegistry, true, 1000, 60, 16), executor, meterRegistry,
+			WINDOW_MS, 100, 3, 200, 2);
+	}
+
+	@AfterEach
+	void tearDown() {
+		coalescer.shutdown();
+		executor.shutdownNow();
+	}
+
+	@Test
+	void changesInTheSameWindowBecomeOnePutWithTheLatestValues() {
+		PriceStockAccepted accepted = coalescer.submit("42", List.of(
+			change("MLB1", 10.0, 5),
+			change("MLB1", 11.0, null),
+			change("MLB1", 12.0, null)));
+
+		verify(itemClient, timeout(2000)).updateItemFields(
+			"Bearer token", "MLB1", Map.of("price", 12.0, "available_quantity", 5));
+		verify(itemClient, after(3 * WINDOW_MS).times(1)).updateItemFields(any(), any(), any());
+		assertEquals(3, accepted.getAccepted());
+		assertEquals(2, accepted.getCoalesced());
+	}
+
+	@Test
+	void changesOfDifferentItemsAreSentSeparately() {
+		coalescer.submit("42", List.of(change("MLB1", 10.0, null), change("MLB2", null, 7)));
+
+		verify(itemClient, timeout(2000)).updateItemFields("Bearer token", "MLB1", Map.of("price", 10.0));
+		verify(itemClient, timeout(2000)).updateItemFields("Bearer token", "MLB2", Map.of("available_quantity", 7));
+	}
+
+	@Test
+	void changeArrivingDuringTheSendGoesInTheNextPut() throws Exception {
+		CountDownLatch sending = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		when(itemClient.updateItemFields(anyString(), anyString(), eq(Map.of("price", 10.0)))).thenAnswer(invocation -> {
+			sending.countDown();
+			assertTrue(release.await(5, TimeUnit.SECONDS));
+			return new ItemResponse();
+		});
+
+		coalescer.submit("42", List.of(change("MLB1", 10.0, null)));
+		assertTrue(sending.await(2, TimeUnit.SECONDS));
+		coalescer.submit("42", List.of(change("MLB1", 20.0, null)));
+		verify(itemClient, after(3 * WINDOW_MS).never()).updateItemFields(any(), any(), eq(Map.of("price", 20.0)));
+		release.countDown();
+
+		verify(itemClient, timeout(2000)).updateItemFields("Bearer token", "MLB1", Map.of("price", 20.0));
+	}
+
+	@Test
+	void transientFailureIsRetriedWithoutOverwritingNewerValues() {
+		@SuppressWarnings("unchecked")
+		ArgumentCaptor<Map<String, Object>> fields = ArgumentCaptor.forClass(Map.class);
+		when(itemClient.updateItemFields(anyString(), anyString(), anyMap()))
+			.thenAnswer(invocation -> {
+				coalescer.submit("42", List.of(change("MLB1", 30.0, null)));
+				throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE);
+			})
+			.thenReturn(new ItemResponse());
+
+		coalescer.submit("42", List.of(change("MLB1", 10.0, 5)));
+
+		verify(itemClient, timeout(2000).times(2)).updateItemFields(any(), any(), fields.capture());
+		assertEquals(Map.of("price", 10.0, "available_quantity", 5), fields.getAllValues().get(0));
+		assertEquals(Map.of("price", 30.0, "available_quantity", 5), fields.getAllValues().get(1));
+	}
+
+	@Test
+	void concurrentSendsAreBounded() {
+		AtomicInteger running = new AtomicInteger();
+		AtomicInteger maxRunning = new AtomicInteger();
+		when(itemClient.updateItemFields(anyString(), anyString(), anyMap())).thenAnswer(invocation -> {
+			maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+			Thread.sleep(20);
+			running.decrementAndGet();
+			return new ItemResponse();
+		});
+		List<PriceStockUpdate> changes = new ArrayList<>();
+		for (int i = 0; i < 20; i++) {
+			changes.add(change("MLB" + i, 10.0 + i, null));
+		}
+
+		coalescer.submit("42", changes);
+
+		verify(itemClient, timeout(5000).times(20)).updateItemFields(any(), any(), any());
+		assertTrue(maxRunning.get() <= 2, "envios simultâneos: " + maxRunning.get());
+	}
+
+	@Test
+	void localRateLimitRejectionDoesNotUseAnAttempt() {
+		RateLimitExceededException rejected = new RateLimitExceededException("limite", Duration.ofMillis(20));
+		when(itemClient.updateItemFields(anyString(), anyString(), anyMap()))
+			.thenThrow(rejected, rejected, rejected, rejected, rejected)
+			.thenReturn(new ItemResponse());
+
+		coalescer.submit("42", List.of(change("MLB1", 10.0, null)));
+
+		verify(itemClient, timeout(5000).times(6)).updateItemFields("Bearer token", "MLB1", Map.of("price", 10.0));
+	}
+
+	@Test
+	void changeWithoutPriceOrQuantityIsRejected() {
+		ResponseStatusException error = assertThrows(ResponseStatusException.class,
+			() -> coalescer.submit("42", List.of(change("MLB1", null, null))));
+
+		assertEquals(HttpStatus.BAD_REQUEST, error.getStatusCode());
+		verify(itemClient, after(2 * WINDOW_MS).never()).updateItemFields(any(), any(), any());
+	}
+
+	private static PriceStockUpdate change(String itemId, Double price, Integer quantity) {
+		return new PriceStockUpdate(itemId, price, quantity);
+	}
+}
@@ -0,0 +1,89 @@
+package br.com.setebit.vendasml.service;
+
+import br.com.setebit.vendasml.client.MercadoLivreItemClient;
+import br.com.setebit.vendasml.dto.BatchItemOperation;
+import br.com.setebit.vendasml.dto.BatchItemResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ProdutoBatchServiceTest {
+
+	private MercadoLivreItemClient itemClient;
+	private ThreadPoolExecutor executor;
+	private ProdutoBatchService service;
+
+	@BeforeEach
+	void setUp() {
+		SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+		MercadoLivreService mercadoLivreService = mock(MercadoLivreService.class);
+		when(mercadoLivreService.getValidAccessToken("42")).thenReturn("token");
+		itemClient = mock(MercadoLivreItemClient.class);
+		executor = (ThreadPoolExecutor) Executors.newCachedThreadPool();
+		service = new ProdutoBatchService(mercadoLivreService, itemClient, new ItemCache(meterRegistry, 30, 100),
+			new ItemStateStore(new ObjectMapper(), meterRegistry, true, 1000, 60, 16),
+			Validation.buildDefaultValidatorFactory().getValidator(), executor, 4);
+	}
+
+	@AfterEach
+	void tearDown() {
+		executor.shutdownNow();
+	}
+
+	@Test
+	void largeBatchNeverHoldsMoreThreadsThanThePerUserConcurrency() {
+		AtomicInteger running = new AtomicInteger();
+		AtomicInteger maxRunning = new AtomicInteger();
+		doAnswer(invocation -> {
+			maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+			Thread.sleep(5);
+			running.decrementAndGet();
+			return null;
+		}).when(itemClient).deleteItem(anyString(), anyString());
+		List<BatchItemOperation> operations = new ArrayList<>();
+		for (int i = 0; i < 200; i++) {
+			operations.add(delete("MLB" + i));
+		}
+
+		BatchItemResponse response = service.execute("42", operations);
+
+		assertEquals(200, response.getSucceeded());
+		assertTrue(maxRunning.get() <= 4);
+		// A permissão é liberada antes da thread voltar ao pool, então o pool pode criar algumas threads a
+		// mais; sem a permissão antes do submit seriam 200 (uma por operação)
+		assertTrue(executor.getLargestPoolSize() <= 16, "threads criadas: " + executor.getLargestPoolSize());
+	}
+
+	@Test
+	void invalidOperationsFailWithoutReachingTheExecutor() {
+		BatchItemResponse response = service.execute("42", List.of(delete(null), delete("MLB1")));
+
+		assertEquals(400, response.getResults().get(0).getStatus());
+		assertEquals(204, response.getResults().get(1).getStatus());
+		assertEquals(1, executor.getTaskCount());
+	}
+
+	private static BatchItemOperation delete(String itemId) {
+		BatchItemOperation operation = new BatchItemOperation();
+		operation.setOperation(BatchItemOperation.Type.DELETE);
+		operation.setItemId(itemId);
+		return operation;
+	}
+}
@@ -0,0 +1,52 @@
+package br.com.setebit.vendasml.service;
+
+import br.com.setebit.vendasml.repository.SchedulerLockRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DataJpaTest
+@ActiveProfiles("test")
+class SchedulerLockServiceTest {
+
+	@Autowired
+	private SchedulerLockRepository repository;
+
+	@Test
+	void onlyOneInstanceHoldsTheLease() {
+		SchedulerLockService first = new SchedulerLockService(repository);
+		SchedulerLockService second = new SchedulerLockService(repository);
+
+		assertTrue(first.tryAcquire("token-refresher", Duration.ofMinutes(5)));
+		assertFalse(second.tryAcquire("token-refresher", Duration.ofMinutes(5)));
+		assertTrue(first.tryAcquire("token-refresher", Duration.ofMinutes(5)));
+	}
+
+	@Test
+	void anotherInstanceTakesOverAfterRelease() {
+		SchedulerLockService first = new SchedulerLockService(repository);
+		SchedulerLockService second = new SchedulerLockService(repository);
+
+		assertTrue(first.tryAcquire("token-refresher", Duration.ofMinutes(5)));
+		first.release("token-refresher");
+
+		assertTrue(second.tryAcquire("token-refresher", Duration.ofMinutes(5)));
+		assertFalse(first.tryAcquire("token-refresher", Duration.ofMinutes(5)));
+	}
+
+	@Test
+	void expiredLeaseCanBeTaken() {
+		SchedulerLockService first = new SchedulerLockService(repository);
+		SchedulerLockService second = new SchedulerLockService(repository);
+
+		assertTrue(first.tryAcquire("token-refresher", Duration.ZERO));
+
+		assertTrue(second.tryAcquire("token-refresher", Duration.ofMinutes(5)));
+	}
+}
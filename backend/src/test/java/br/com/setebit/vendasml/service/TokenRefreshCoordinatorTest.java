@@ -0,0 +1,166 @@
+package br.com.setebit.vendasml.service;
+
+import br.com.setebit.vendasml.dto.TokenResponse;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TokenRefreshCoordinatorTest {
+
+	private SimpleMeterRegistry meterRegistry;
+	private TokenRefreshCoordinator coordinator;
+	private ExecutorService executor;
+
+	@BeforeEach
+	void setUp() {
+		meterRegistry = new SimpleMeterRegistry();
+		coordinator = new TokenRefreshCoordinator(meterRegistry, 5000);
+		executor = Executors.newFixedThreadPool(8);
+	}
+
+	@AfterEach
+	void tearDown() {
+		executor.shutdownNow();
+	}
+
+	@Test
+	void concurrentRefreshesOfTheSameUserRunTheRefresherOnce() throws Exception {
+		AtomicInteger calls = new AtomicInteger();
+		CountDownLatch release = new CountDownLatch(1);
+		TokenResponse token = token("novo");
+
+		Future<TokenResponse> leader = executor.submit(() -> coordinator.refresh("42", () -> {
+			calls.incrementAndGet();
+			await(release);
+			return token;
+		}));
+		awaitRole("leader", 1);
+		List<Future<TokenResponse>> followers = new ArrayList<>();
+		for (int i = 0; i < 5; i++) {
+			followers.add(executor.submit(() -> coordinator.refresh("42", () -> {
+				calls.incrementAndGet();
+				return token("duplicado");
+			})));
+		}
+		awaitRole("follower", 5);
+		release.countDown();
+
+		assertSame(token, leader.get(5, TimeUnit.SECONDS));
+		for (Future<TokenResponse> follower : followers) {
+			assertSame(token, follower.get(5, TimeUnit.SECONDS));
+		}
+		assertEquals(1, calls.get());
+		assertEquals(5.0, meterRegistry.get("ml.token.refresh.coalesced.waiters").summary().totalAmount());
+	}
+
+	@Test
+	void followersReceiveTheLeaderFailure() throws Exception {
+		CountDownLatch release = new CountDownLatch(1);
+		ResponseStatusException failure = new ResponseStatusException(HttpStatus.BAD_REQUEST, "invalid_grant");
+
+		Future<TokenResponse> leader = executor.submit(() -> coordinator.refresh("42", () -> {
+			await(release);
+			throw failure;
+		}));
+		awaitRole("leader", 1);
+		Future<TokenResponse> follower = executor.submit(() -> coordinator.refresh("42", () -> token("duplicado")));
+		awaitRole("follower", 1);
+		release.countDown();
+
+		assertSame(failure, assertThrows(ExecutionException.class, () -> leader.get(5, TimeUnit.SECONDS)).getCause());
+		assertSame(failure, assertThrows(ExecutionException.class, () -> follower.get(5, TimeUnit.SECONDS)).getCause());
+	}
+
+	@Test
+	void differentUsersAreNotCoalesced() throws Exception {
+		CountDownLatch bothRunning = new CountDownLatch(2);
+
+		Future<TokenResponse> first = executor.submit(() -> coordinator.refresh("1", () -> {
+			bothRunning.countDown();
+			await(bothRunning);
+			return token("a");
+		}));
+		Future<TokenResponse> second = executor.submit(() -> coordinator.refresh("2", () -> {
+			bothRunning.countDown();
+			await(bothRunning);
+			return token("b");
+		}));
+
+		assertEquals("a", first.get(5, TimeUnit.SECONDS).getAccessToken());
+		assertEquals("b", second.get(5, TimeUnit.SECONDS).getAccessToken());
+		assertEquals(2.0, meterRegistry.get("ml.token.refresh.coalescing").tag("role", "leader").counter().count());
+	}
+
+	@Test
+	void refreshAfterTheFlightEndsRunsAgain() {
+		AtomicInteger calls = new AtomicInteger();
+
+		coordinator.refresh("42", () -> token("a" + calls.incrementAndGet()));
+		TokenResponse second = coordinator.refresh("42", () -> token("a" + calls.incrementAndGet()));
+
+		assertEquals("a2", second.getAccessToken());
+		assertEquals(2, calls.get());
+	}
+
+	@Test
+	void followerGivesUpAfterTheWaitTimeout() throws Exception {
+		coordinator = new TokenRefreshCoordinator(meterRegistry, 50);
+		CountDownLatch release = new CountDownLatch(1);
+
+		Future<TokenResponse> leader = executor.submit(() -> coordinator.refresh("42", () -> {
+			await(release);
+			return token("lento");
+		}));
+		awaitRole("leader", 1);
+		try {
+			ResponseStatusException error = assertThrows(ResponseStatusException.class,
+				() -> coordinator.refresh("42", () -> token("duplicado")));
+
+			assertEquals(HttpStatus.GATEWAY_TIMEOUT, error.getStatusCode());
+		} finally {
+			release.countDown();
+		}
+		assertEquals("lento", leader.get(5, TimeUnit.SECONDS).getAccessToken());
+	}
+
+	private void awaitRole(String role, int count) throws InterruptedException {
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+		while (meterRegistry.get("ml.token.refresh.coalescing").tag("role", role).counter().count() < count) {
+			assertTrue(System.nanoTime() < deadline, "refresh não chegou ao coordenador");
+			Thread.sleep(5);
+		}
+	}
+
+	private static void await(CountDownLatch latch) {
+		try {
+			assertTrue(latch.await(5, TimeUnit.SECONDS));
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException(e);
+		}
+	}
+
+	private static TokenResponse token(String accessToken) {
+		TokenResponse token = new TokenResponse();
+		token.setAccessToken(accessToken);
+		return token;
+	}
+}
@@ -0,0 +1,505 @@
+package br.com.setebit.vendasml.simulator;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Simulador local da API do Mercado Livre usada pelos clientes Feign: /oauth/token, /items,
+ * /items/{id}, /users/{id}/items/search (varredura por scroll_id), /sites/{site}/categories e /categories/{id}.
+ *
+ * <p>Cada família (items, categories, oauth) tem latência log-normal configurável (mediana e p99);
+ * items e categories também respondem 429 (com Retry-After) e 5xx nas taxas configuradas. O OAuth
+ * rotaciona o refresh token a cada uso: reutilizar um refresh token antigo retorna 400 invalid_grant,
+ * como no Mercado Livre. Categorias respondem com ETag e 304 para If-None-Match.
+ *
+ * <p>Para usar com a aplicação rodando: iniciar {@link #main} (classpath de teste) e apontar
+ * mercadolivre.base-url para a URL impressa.
+ */
+public class MercadoLivreSimulator implements AutoCloseable {
+
+	private static final ObjectMapper JSON = new ObjectMapper();
+
+	private final Settings settings;
+	private final HttpServer server;
+	private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+	private final Map<String, ObjectNode> items = new ConcurrentHashMap<>();
+	private final Map<String, Instant> accessTokens = new ConcurrentHashMap<>();
+	private final Map<String, String> refreshTokens = new ConcurrentHashMap<>();
+	private final ReentrantLock oauthLock = new ReentrantLock();
+	private final AtomicLong sequence = new AtomicLong();
+	private final Map<String, LongAdder> counters = new ConcurrentHashMap<>();
+
+	public MercadoLivreSimulator(Settings settings) throws IOException {
+		this.settings = settings;
+		Random random = new Random(settings.seed());
+		for (int i = 0; i < settings.itemCount(); i++) {
+			String id = itemId(i);
+			items.put(id, item(id, "Produto simulado " + i, 10 + random.nextInt(990), 1 + random.nextInt(100)));
+		}
+		this.server = HttpServer.create(new InetSocketAddress("127.0.0.1", settings.port()), 1024);
+		server.setExecutor(executor);
+		server.createContext("/", this::handle);
+	}
+
+	public static void main(String[] args) throws Exception {
+		MercadoLivreSimulator simulator = new MercadoLivreSimulator(Settings.fromSystemProperties());
+		simulator.start();
+		System.out.println("Simulador do Mercado Livre em " + simulator.baseUrl()
+			+ " (código de autorização: qualquer valor; vendedor " + simulator.settings.sellerId() + ")");
+		Thread.currentThread().join();
+	}
+
+	public void start() {
+		server.start();
+	}
+
+	@Override
+	public void close() {
+		server.stop(0);
+		executor.shutdownNow();
+	}
+
+	public String baseUrl() {
+		return "http://127.0.0.1:" + server.getAddress().getPort();
+	}
+
+	/**
+	 * ID do i-ésimo item pré-cadastrado (0 até itemCount - 1)
+	 */
+	public static String itemId(int index) {
+		return "MLB" + (4_000_000_000L + index);
+	}
+
+	/**
+	 * Contadores por evento (ex: "GET /items/{id} 200", "injected 429", "oauth refresh_token")
+	 */
+	public Map<String, Long> counters() {
+		Map<String, Long> snapshot = new HashMap<>();
+		counters.forEach((key, value) -> snapshot.put(key, value.sum()));
+		return snapshot;
+	}
+
+	private void handle(HttpExchange exchange) throws IOException {
+		try (exchange) {
+			String method = exchange.getRequestMethod();
+			String path = exchange.getRequestURI().getPath();
+			Family family = Family.of(path);
+			sleep(family.latency(settings));
+
+			Response response;
+			if (family != Family.OAUTH && chance(settings.throttleRate())) {
+				count("injected 429");
+				exchange.getResponseHeaders().set("Retry-After", String.valueOf(settings.retryAfterSeconds()));
+				response = error(429, "too_many_requests", "Simulated rate limit");
+			} else if (family != Family.OAUTH && chance(settings.errorRate())) {
+				int status = new int[]{500, 502, 503}[ThreadLocalRandom.current().nextInt(3)];
+				count("injected " + status);
+				response = error(status, "internal_error", "Simulated failure");
+			} else {
+				response = route(exchange, method, path, family);
+			}
+			count(method + " " + template(path) + " " + response.status());
+			send(exchange, response);
+		}
+	}
+
+	private Response route(HttpExchange exchange, String method, String path, Family family) throws IOException {
+		if (family == Family.OAUTH && method.equals("POST")) {
+			return token(form(exchange.getRequestBody()));
+		}
+		if (family == Family.CATEGORIES && method.equals("GET")) {
+			return categories(exchange, path);
+		}
+		if (family != Family.ITEMS) {
+			return error(404, "not_found", "Resource not found");
+		}
+		if (!authorized(exchange.getRequestHeaders().getFirst("Authorization"))) {
+			return error(401, "unauthorized", "invalid access token");
+		}
+
+		String[] segments = path.split("/");
+		if (segments[1].equals("users")) {
+			return method.equals("GET") && path.endsWith("/items/search")
+				? scan(query(exchange.getRequestURI()))
+				: error(404, "not_found", "Resource not found");
+		}
+		if (segments.length == 2) {
+			return switch (method) {
+				case "GET" -> multiGet(query(exchange.getRequestURI()));
+				case "POST" -> create(JSON.readTree(exchange.getRequestBody()));
+				default -> error(405, "method_not_allowed", method);
+			};
+		}
+		String id = segments[2];
+		ObjectNode item = items.get(id);
+		if (item == null) {
+			return error(404, "not_found", "Item with id " + id + " not found");
+		}
+		return switch (method) {
+			case "GET" -> new Response(200, item);
+			case "PUT" -> {
+				JsonNode changes = JSON.readTree(exchange.getRequestBody());
+				ObjectNode updated = item.deepCopy();
+				changes.fields().forEachRemaining(field -> {
+					if (updated.has(field.getKey())) {
+						updated.set(field.getKey(), field.getValue());
+					}
+				});
+				updated.put("last_updated", now());
+				items.put(id, updated);
+				yield new Response(200, updated);
+			}
+			case "DELETE" -> {
+				items.remove(id);
+				yield new Response(204, null);
+			}
+			default -> error(405, "method_not_allowed", method);
+		};
+	}
+
+	private Response token(Map<String, String> form) {
+		String grantType = form.getOrDefault("grant_type", "");
+		count("oauth " + grantType);
+		oauthLock.lock();
+		try {
+			if (grantType.equals("refresh_token")) {
+				String presented = form.get("refresh_token");
+				if (presented == null || !presented.equals(refreshTokens.get(settings.sellerId()))) {
+					count("oauth invalid_grant");
+					return error(400, "invalid_grant", "Error validating grant. Your authorization code or refresh token may be expired or it was already used");
+				}
+			} else if (!grantType.equals("authorization_code")) {
+				return error(400, "invalid_request", "unsupported grant_type");
+			}
+
+			long generation = sequence.incrementAndGet();
+			String accessToken = "APP_USR-SIM-" + settings.sellerId() + "-" + generation;
+			String refreshToken = "TG-SIM-" + settings.sellerId() + "-" + generation;
+			accessTokens.put(accessToken, Instant.now().plusSeconds(settings.accessTokenTtlSeconds()));
+			refreshTokens.put(settings.sellerId(), refreshToken);
+
+			ObjectNode body = JSON.createObjectNode();
+			body.put("access_token", accessToken);
+			body.put("token_type", "Bearer");
+			body.put("expires_in", settings.accessTokenTtlSeconds());
+			body.put("scope", "offline_access read write");
+			body.put("user_id", Long.parseLong(settings.sellerId()));
+			body.put("refresh_token", refreshToken);
+			return new Response(200, body);
+		} finally {
+			oauthLock.unlock();
+		}
+	}
+
+	private boolean authorized(String authorization) {
+		if (authorization == null || !authorization.startsWith("Bearer ")) {
+			return false;
+		}
+		Instant expiresAt = accessTokens.get(authorization.substring("Bearer ".length()));
+		return expiresAt != null && expiresAt.isAfter(Instant.now());
+	}
+
+	/**
+	 * Multi-get; com attributes, cada corpo traz só os atributos pedidos
+	 */
+	private Response multiGet(Map<String, String> query) {
+		String attributes = query.get("attributes");
+		ArrayNode body = JSON.createArrayNode();
+		for (String id : query.getOrDefault("ids", "").split(",")) {
+			ObjectNode entry = body.addObject();
+			ObjectNode item = items.get(id);
+			entry.put("code", item != null ? 200 : 404);
+			if (item != null && attributes != null) {
+				item = item.deepCopy().retain(attributes.split(","));
+			}
+			entry.set("body", item != null ? item : errorBody(404, "not_found", "Item with id " + id + " not found"));
+		}
+		return new Response(200, body);
+	}
+
+	/**
+	 * Varredura dos IDs em ordem; o scroll_id carrega a posição da próxima página
+	 */
+	private Response scan(Map<String, String> query) {
+		int limit = Math.min(Integer.parseInt(query.getOrDefault("limit", "50")), 100);
+		String scrollId = query.get("scroll_id");
+		int offset = scrollId == null ? 0 : Integer.parseInt(scrollId.substring("scroll-".length()));
+		List<String> ids = items.keySet().stream().sorted().toList();
+		List<String> page = ids.subList(Math.min(offset, ids.size()), Math.min(offset + limit, ids.size()));
+		ObjectNode body = JSON.createObjectNode().put("seller_id", settings.sellerId());
+		page.forEach(body.putArray("results")::add);
+		body.put("scroll_id", "scroll-" + (offset + page.size()));
+		body.putObject("paging").put("total", ids.size()).put("limit", limit);
+		return new Response(200, body);
+	}
+
+	/**
+	 * Remove um item (como se tivesse sido excluído fora da aplicação)
+	 */
+	public void removeItem(String id) {
+		items.remove(id);
+	}
+
+	/**
+	 * Altera o preço de um item fora da aplicação, atualizando last_updated
+	 */
+	public void changePrice(String id, double price) {
+		items.computeIfPresent(id, (key, item) -> item.deepCopy().put("price", price).put("last_updated", now()));
+	}
+
+	private Response create(JsonNode request) {
+		String id = itemId(settings.itemCount() + (int) sequence.incrementAndGet());
+		ObjectNode item = item(id, request.path("title").asText(), request.path("price").asDouble(),
+			request.path("available_quantity").asInt());
+		items.put(id, item);
+		return new Response(201, item);
+	}
+
+	/**
+	 * Árvore sintética: cada site tem 10 raízes (ID do site + 1 dígito) e cada categoria tem
+	 * 5 filhas até o terceiro nível, com ETag estável por categoria
+	 */
+	private Response categories(HttpExchange exchange, String path) {
+		String[] segments = path.split("/");
+		String etag = "\"" + path.hashCode() + "\"";
+		if (etag.equals(exchange.getRequestHeaders().getFirst("If-None-Match"))) {
+			return new Response(304, null);
+		}
+		exchange.getResponseHeaders().set("ETag", etag);
+
+		if (segments.length == 4 && segments[1].equals("sites")) {
+			ArrayNode roots = JSON.createArrayNode();
+			for (int i = 0; i < 10; i++) {
+				roots.addObject().put("id", segments[2] + i).put("name", "Categoria " + segments[2] + i);
+			}
+			return new Response(200, roots);
+		}
+		if (segments.length == 3) {
+			String id = segments[2];
+			ObjectNode category = JSON.createObjectNode().put("id", id).put("name", "Categoria " + id);
+			ArrayNode children = category.putArray("children_categories");
+			if (id.length() < 7) {
+				for (int i = 0; i < 5; i++) {
+					children.addObject().put("id", id + i).put("name", "Categoria " + id + i);
+				}
+			}
+			category.putObject("settings")
+				.put("listing_allowed", children.isEmpty())
+				.put("max_pictures_per_item", 12)
+				.put("max_title_length", 60)
+				.putArray("currencies").add("BRL");
+			return new Response(200, category);
+		}
+		return error(404, "not_found", "Category not found");
+	}
+
+	private static ObjectNode item(String id, String title, double price, int quantity) {
+		return JSON.createObjectNode()
+			.put("id", id)
+			.put("title", title)
+			.put("category_id", "MLB1055")
+			.put("price", price)
+			.put("currency_id", "BRL")
+			.put("available_quantity", quantity)
+			.put("sold_quantity", 0)
+			.put("status", "active")
+			.put("permalink", "https://produto.mercadolivre.com.br/" + id)
+			.put("last_updated", now());
+	}
+
+	private static String now() {
+		return Instant.now().truncatedTo(ChronoUnit.MILLIS).toString();
+	}
+
+	private static Response error(int status, String error, String message) {
+		return new Response(status, errorBody(status, error, message));
+	}
+
+	private static ObjectNode errorBody(int status, String error, String message) {
+		return JSON.createObjectNode().put("message", message).put("error", error).put("status", status);
+	}
+
+	private static void send(HttpExchange exchange, Response response) throws IOException {
+		if (response.body() == null) {
+			exchange.sendResponseHeaders(response.status(), -1);
+			return;
+		}
+		byte[] body = JSON.writeValueAsBytes(response.body());
+		exchange.getResponseHeaders().set("Content-Type", "application/json;charset=UTF-8");
+		exchange.sendResponseHeaders(response.status(), body.length);
+		try (OutputStream output = exchange.getResponseBody()) {
+			output.write(body);
+		}
+	}
+
+	private static Map<String, String> form(InputStream body) throws IOException {
+		return parameters(new String(body.readAllBytes(), StandardCharsets.UTF_8));
+	}
+
+	private static Map<String, String> query(URI uri) {
+		return uri.getRawQuery() == null ? Map.of() : parameters(uri.getRawQuery());
+	}
+
+	private static Map<String, String> parameters(String encoded) {
+		Map<String, String> parameters = new HashMap<>();
+		for (String pair : encoded.split("&")) {
+			int separator = pair.indexOf('=');
+			if (separator > 0) {
+				parameters.put(URLDecoder.decode(pair.substring(0, separator), StandardCharsets.UTF_8),
+					URLDecoder.decode(pair.substring(separator + 1), StandardCharsets.UTF_8));
+			}
+		}
+		return parameters;
+	}
+
+	private static String template(String path) {
+		if (path.startsWith("/items/")) {
+			return "/items/{id}";
+		}
+		if (path.startsWith("/categories/")) {
+			return "/categories/{id}";
+		}
+		if (path.startsWith("/sites/")) {
+			return "/sites/{site}/categories";
+		}
+		if (path.startsWith("/users/")) {
+			return "/users/{id}/items/search";
+		}
+		return path;
+	}
+
+	private void count(String event) {
+		counters.computeIfAbsent(event, key -> new LongAdder()).increment();
+	}
+
+	private static boolean chance(double rate) {
+		return rate > 0 && ThreadLocalRandom.current().nextDouble() < rate;
+	}
+
+	private static void sleep(long millis) {
+		if (millis <= 0) {
+			return;
+		}
+		try {
+			TimeUnit.MILLISECONDS.sleep(millis);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	private record Response(int status, JsonNode body) {
+	}
+
+	private enum Family {
+		ITEMS, CATEGORIES, OAUTH;
+
+		static Family of(String path) {
+			if (path.startsWith("/oauth")) {
+				return OAUTH;
+			}
+			if (path.startsWith("/categories") || path.startsWith("/sites")) {
+				return CATEGORIES;
+			}
+			return ITEMS;
+		}
+
+		long latency(Settings settings) {
+			return switch (this) {
+				case ITEMS -> settings.itemsLatency().sample();
+				case CATEGORIES -> settings.categoriesLatency().sample();
+				case OAUTH -> settings.oauthLatency().sample();
+			};
+		}
+	}
+
+	/**
+	 * Latência log-normal definida pela mediana e pelo p99, em milissegundos
+	 */
+	public record Latency(double medianMs, double p99Ms) {
+
+		private static final double Z_99 = 2.326;
+
+		long sample() {
+			if (medianMs <= 0) {
+				return 0;
+			}
+			double sigma = Math.log(Math.max(p99Ms, medianMs) / medianMs) / Z_99;
+			return Math.round(medianMs * Math.exp(sigma * ThreadLocalRandom.current().nextGaussian()));
+		}
+	}
+
+	/**
+	 * @param port porta local (0 = qualquer porta livre)
+	 * @param errorRate fração de respostas 500/502/503 em items e categories
+	 * @param throttleRate fração de respostas 429 em items e categories
+	 * @param accessTokenTtlSeconds expires_in dos tokens emitidos
+	 * @param itemCount itens pré-cadastrados (IDs em {@link #itemId})
+	 */
+	public record Settings(
+			int port,
+			Latency itemsLatency,
+			Latency categoriesLatency,
+			Latency oauthLatency,
+			double errorRate,
+			double throttleRate,
+			int retryAfterSeconds,
+			long accessTokenTtlSeconds,
+			String sellerId,
+			int itemCount,
+			long seed) {
+
+		/**
+		 * Lê simulator.* das propriedades do sistema, com padrões próximos da produção
+		 */
+		public static Settings fromSystemProperties() {
+			return new Settings(
+				Integer.getInteger("simulator.port", 0),
+				new Latency(doubleProperty("simulator.items.median-ms", 40), doubleProperty("simulator.items.p99-ms", 250)),
+				new Latency(doubleProperty("simulator.categories.median-ms", 25), doubleProperty("simulator.categories.p99-ms", 150)),
+				new Latency(doubleProperty("simulator.oauth.median-ms", 80), doubleProperty("simulator.oauth.p99-ms", 400)),
+				doubleProperty("simulator.error-rate", 0.01),
+				doubleProperty("simulator.throttle-rate", 0.01),
+				Integer.getInteger("simulator.retry-after-seconds", 1),
+				Long.getLong("simulator.access-token-ttl-seconds", 21600),
+				System.getProperty("simulator.seller-id", "123456789"),
+				Integer.getInteger("simulator.item-count", 1000),
+				Long.getLong("simulator.seed", 42));
+		}
+
+		public Settings withAccessTokenTtlSeconds(long ttlSeconds) {
+			return new Settings(port, itemsLatency, categoriesLatency, oauthLatency, errorRate, throttleRate,
+				retryAfterSeconds, ttlSeconds, sellerId, itemCount, seed);
+		}
+
+		private static double doubleProperty(String name, double defaultValue) {
+			String value = System.getProperty(name);
+			return value == null ? defaultValue : Double.parseDouble(value);
+		}
+	}
+}